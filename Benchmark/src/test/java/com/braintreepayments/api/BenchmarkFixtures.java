@@ -0,0 +1,110 @@
+package com.braintreepayments.api;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * Builds the configuration and vault responses the benchmarks run against. Vaults cycle through
+ * a card of each brand Drop-in displays, a PayPal account, a Google Pay card (which the vault
+ * manager does not support) and a Venmo account.
+ */
+class BenchmarkFixtures {
+
+    private static final String[] CARD_TYPES = {
+            "American Express", "Discover", "JCB", "MasterCard", "Visa", "UnionPay", "Maestro"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static Configuration createConfiguration() throws JSONException {
+        JSONArray supportedCardTypes = new JSONArray();
+        for (String cardType : CARD_TYPES) {
+            supportedCardTypes.put(cardType);
+        }
+
+        JSONObject configuration = new JSONObject()
+                .put("clientApiUrl", "client_api_url")
+                .put("environment", "test")
+                .put("merchantId", "integration_merchant_id")
+                .put("paypalEnabled", true)
+                .put("creditCards", new JSONObject()
+                        .put("supportedCardTypes", supportedCardTypes))
+                .put("unionPay", new JSONObject()
+                        .put("enabled", true))
+                .put("payWithVenmo", new JSONObject()
+                        .put("accessToken", "access-token")
+                        .put("environment", "sandbox")
+                        .put("merchantId", "venmo-merchant-id"))
+                .put("androidPay", new JSONObject()
+                        .put("enabled", true)
+                        .put("displayName", "Google Pay Merchant")
+                        .put("environment", "sandbox")
+                        .put("supportedNetworks", new JSONArray().put("visa").put("mastercard")));
+        return Configuration.fromJson(configuration.toString());
+    }
+
+    static String createPaymentMethodsResponse(int vaultSize) throws JSONException {
+        JSONArray paymentMethods = new JSONArray();
+        for (int i = 0; i < vaultSize; i++) {
+            paymentMethods.put(createPaymentMethod(i));
+        }
+        return new JSONObject().put("paymentMethods", paymentMethods).toString();
+    }
+
+    /**
+     * @return the vault manager supported payment methods in a vault of the given size, parsed
+     * the same way {@link PaymentMethodClient} parses them
+     */
+    static List<PaymentMethodNonce> createPaymentMethodNonces(int vaultSize) throws JSONException {
+        return PaymentMethodNonceStreamParser.parsePaymentMethodNonces(
+                createPaymentMethodsResponse(vaultSize));
+    }
+
+    private static JSONObject createPaymentMethod(int index) throws JSONException {
+        String nonce = "nonce-" + index;
+        String lastFour = String.format("%04d", index % 10000);
+
+        switch (index % (CARD_TYPES.length + 3)) {
+            case 0:
+                return new JSONObject()
+                        .put("type", "PayPalAccount")
+                        .put("nonce", nonce)
+                        .put("description", "with email paypal-" + index + "@example.com")
+                        .put("default", false)
+                        .put("details", new JSONObject()
+                                .put("email", "paypal-" + index + "@example.com"));
+            case 1:
+                return new JSONObject()
+                        .put("type", "VenmoAccount")
+                        .put("nonce", nonce)
+                        .put("description", "VenmoAccount")
+                        .put("details", new JSONObject()
+                                .put("username", "venmo-" + index));
+            case 2:
+                return new JSONObject()
+                        .put("type", "AndroidPayCard")
+                        .put("nonce", nonce)
+                        .put("description", "Google Pay")
+                        .put("details", new JSONObject()
+                                .put("cardType", "Visa")
+                                .put("lastTwo", lastFour.substring(2))
+                                .put("lastFour", lastFour));
+            default:
+                return new JSONObject()
+                        .put("type", "CreditCard")
+                        .put("nonce", nonce)
+                        .put("description", "ending in " + lastFour.substring(2))
+                        .put("default", index == 3)
+                        .put("isLocked", false)
+                        .put("securityQuestions", new JSONArray())
+                        .put("details", new JSONObject()
+                                .put("cardType", CARD_TYPES[index % (CARD_TYPES.length + 3) - 3])
+                                .put("lastTwo", lastFour.substring(2))
+                                .put("lastFour", lastFour));
+        }
+    }
+}
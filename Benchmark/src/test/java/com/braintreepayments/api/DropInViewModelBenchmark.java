@@ -0,0 +1,83 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.ArchTaskExecutor;
+import androidx.arch.core.executor.TaskExecutor;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes a payment method from the middle of the vault, as the vault manager does once the
+ * gateway confirms the deletion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DropInViewModelBenchmark {
+
+    @Param({"1", "10", "100", "1000", "5000"})
+    public int vaultSize;
+
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private PaymentMethodNonce paymentMethodNonceToDelete;
+    private DropInViewModel viewModel;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws JSONException {
+        // LiveData may only be set on the main thread, which the benchmark thread stands in for
+        ArchTaskExecutor.getInstance().setDelegate(new TaskExecutor() {
+            @Override
+            public void executeOnDiskIO(@NonNull Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public void postToMainThread(@NonNull Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public boolean isMainThread() {
+                return true;
+            }
+        });
+
+        paymentMethodNonces = BenchmarkFixtures.createPaymentMethodNonces(vaultSize);
+        paymentMethodNonceToDelete = paymentMethodNonces.get(paymentMethodNonces.size() / 2);
+        viewModel = new DropInViewModel();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        viewModel.setVaultedPaymentMethods(paymentMethodNonces);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        ArchTaskExecutor.getInstance().setDelegate(null);
+    }
+
+    @Benchmark
+    public void removeVaultedPaymentMethodNonce() {
+        viewModel.removeVaultedPaymentMethodNonce(paymentMethodNonceToDelete);
+    }
+}
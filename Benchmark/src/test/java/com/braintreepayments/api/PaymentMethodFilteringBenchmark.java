@@ -0,0 +1,58 @@
+package com.braintreepayments.api;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters the vault and the supported payment methods against the merchant's configuration and
+ * the {@link DropInRequest}, as {@link DropInClient} does before Drop-in shows them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentMethodFilteringBenchmark {
+
+    @Param({"1", "10", "100", "1000", "5000"})
+    public int vaultSize;
+
+    private Configuration configuration;
+    private DropInRequest dropInRequest;
+    private DropInClient dropInClient;
+    private List<PaymentMethodNonce> paymentMethodNonces;
+
+    @Setup
+    public void setup() throws JSONException {
+        configuration = BenchmarkFixtures.createConfiguration();
+        paymentMethodNonces = BenchmarkFixtures.createPaymentMethodNonces(vaultSize);
+
+        dropInRequest = new DropInRequest();
+        dropInRequest.setVenmoDisabled(true);
+        dropInClient = new DropInClient(new DropInClientParams().dropInRequest(dropInRequest));
+    }
+
+    @Benchmark
+    public AvailablePaymentMethodNonceList filterVaultedPaymentMethods() {
+        return new AvailablePaymentMethodNonceList(configuration, paymentMethodNonces, dropInRequest, true);
+    }
+
+    @Benchmark
+    public List<DropInPaymentMethod> filterSupportedPaymentMethods() {
+        return dropInClient.filterSupportedPaymentMethods(configuration, new DeviceAvailability(true, false));
+    }
+}
@@ -0,0 +1,69 @@
+package com.braintreepayments.api;
+
+import com.braintreepayments.cardform.utils.CardType;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inspects every payment method in a vault, as the vault manager and the supported payment
+ * methods carousel do when they bind their rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentMethodInspectorBenchmark {
+
+    @Param({"1", "10", "100", "1000", "5000"})
+    public int vaultSize;
+
+    private final PaymentMethodInspector paymentMethodInspector = new PaymentMethodInspector();
+
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private List<String> supportedCardTypes;
+
+    @Setup
+    public void setup() throws JSONException {
+        paymentMethodNonces = BenchmarkFixtures.createPaymentMethodNonces(vaultSize);
+        supportedCardTypes = BenchmarkFixtures.createConfiguration().getSupportedCardTypes();
+    }
+
+    @Benchmark
+    public void getPaymentMethod(Blackhole blackhole) {
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            blackhole.consume(paymentMethodInspector.getPaymentMethod(paymentMethodNonce));
+        }
+    }
+
+    @Benchmark
+    public void getPaymentMethodDescription(Blackhole blackhole) {
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            blackhole.consume(paymentMethodInspector.getPaymentMethodDescription(paymentMethodNonce));
+        }
+    }
+
+    @Benchmark
+    public void getCardTypeFromString(Blackhole blackhole) {
+        for (String supportedCardType : supportedCardTypes) {
+            CardType cardType = paymentMethodInspector.getCardTypeFromString(supportedCardType);
+            blackhole.consume(cardType);
+        }
+    }
+}
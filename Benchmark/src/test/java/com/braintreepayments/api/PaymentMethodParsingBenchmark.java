@@ -0,0 +1,45 @@
+package com.braintreepayments.api;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the payment methods endpoint response the way
+ * {@link PaymentMethodClient#getPaymentMethodNonces} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentMethodParsingBenchmark {
+
+    @Param({"1", "10", "100", "1000", "5000"})
+    public int vaultSize;
+
+    private String response;
+
+    @Setup
+    public void setup() throws JSONException {
+        response = BenchmarkFixtures.createPaymentMethodsResponse(vaultSize);
+    }
+
+    @Benchmark
+    public List<PaymentMethodNonce> parsePaymentMethodNonces() throws JSONException {
+        return PaymentMethodNonceStreamParser.parsePaymentMethodNonces(response);
+    }
+}
@@ -11,6 +11,7 @@ import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner
 import com.braintreepayments.api.dropin.R
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
 import org.junit.Test
 import org.junit.runner.RunWith
 
@@ -23,10 +24,10 @@ class BottomSheetFragmentUITest {
                 FragmentScenario.launchInContainer(BottomSheetFragment::class.java)
 
         scenario.onFragment { fragment ->
-            val viewPagerAdapter =
-                fragment.viewPager.adapter as BottomSheetViewAdapter
-            assertEquals(1, viewPagerAdapter.itemCount)
-            assertEquals(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS.id, viewPagerAdapter.getItemId(0))
+            val childFragmentManager = fragment.childFragmentManager
+            assertEquals(1, fragment.pageContainer.childCount)
+            assertNotNull(childFragmentManager.findFragmentByTag(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS.name))
+            assertNull(childFragmentManager.findFragmentByTag(BottomSheetViewType.VAULT_MANAGER.name))
         }
     }
 
@@ -43,15 +44,13 @@ class BottomSheetFragmentUITest {
 
         onView(isRoot()).perform(waitFor(500))
         scenario.onFragment { fragment ->
-            val currentItemPos = fragment.viewPager.currentItem
-            assertEquals(1, currentItemPos)
-
-            val viewPagerAdapter =
-                    fragment.viewPager.adapter as BottomSheetViewAdapter
-            assertEquals(2, viewPagerAdapter.itemCount)
+            assertEquals(2, fragment.pageContainer.childCount)
 
-            val currentItemId = viewPagerAdapter.getItemId(currentItemPos)
-            assertEquals(BottomSheetViewType.VAULT_MANAGER.id, currentItemId)
+            val vaultManagerFragment =
+                    fragment.childFragmentManager.findFragmentByTag(BottomSheetViewType.VAULT_MANAGER.name)
+            assertNotNull(vaultManagerFragment)
+            assertEquals(fragment.pageContainer.getChildAt(1), vaultManagerFragment!!.view)
+            assertEquals(0f, vaultManagerFragment.requireView().translationX)
         }
     }
 
@@ -97,10 +96,10 @@ class BottomSheetFragmentUITest {
         onView(isRoot()).perform(waitFor(1000))
 
         scenario.onFragment { fragment ->
-            val viewPagerAdapter =
-                    fragment.viewPager.adapter as BottomSheetViewAdapter
-            assertEquals(1, viewPagerAdapter.itemCount)
-            assertEquals(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS.id, viewPagerAdapter.getItemId(0))
+            val childFragmentManager = fragment.childFragmentManager
+            assertEquals(1, fragment.pageContainer.childCount)
+            assertNotNull(childFragmentManager.findFragmentByTag(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS.name))
+            assertNull(childFragmentManager.findFragmentByTag(BottomSheetViewType.VAULT_MANAGER.name))
         }
     }
 
@@ -4,6 +4,7 @@ import android.view.View
 import androidx.core.os.bundleOf
 import androidx.fragment.app.testing.FragmentScenario
 import androidx.lifecycle.Lifecycle
+import androidx.recyclerview.widget.RecyclerView
 import androidx.test.espresso.Espresso.onView
 import androidx.test.espresso.action.ViewActions.click
 import androidx.test.espresso.assertion.ViewAssertions.matches
@@ -98,6 +99,50 @@ class SupportedPaymentMethodsFragmentUITest {
         onView(withText("1111")).check(matches(isDisplayed()))
     }
 
+    @Test
+    fun whenStateIsRESUMED_whenVaultManagerIsDisabled_displaysEveryVaultedPaymentMethod() {
+        dropInRequest.isVaultManagerEnabled = false
+        val pageSize = DropInViewModel.VAULTED_PAYMENT_METHODS_PAGE_SIZE
+        val bundle = bundleOf("EXTRA_DROP_IN_REQUEST" to dropInRequest)
+
+        val scenario = FragmentScenario.launchInContainer(SupportedPaymentMethodsFragment::class.java, bundle)
+        scenario.moveToState(Lifecycle.State.RESUMED)
+
+        scenario.onFragment { fragment ->
+            fragment.dropInViewModel.setSupportedPaymentMethods(supportedPaymentMethods)
+            fragment.dropInViewModel.setVaultedPaymentMethods(createCardNonces(pageSize + 5))
+        }
+
+        onView(isRoot()).perform(waitFor(500))
+        scenario.onFragment { fragment ->
+            val recyclerView = fragment.requireView()
+                .findViewById<RecyclerView>(R.id.bt_vaulted_payment_methods)
+            assertEquals(pageSize + 5, recyclerView.adapter!!.itemCount)
+        }
+    }
+
+    @Test
+    fun whenStateIsRESUMED_whenVaultManagerIsEnabled_displaysFirstPageOfVaultedPaymentMethods() {
+        dropInRequest.isVaultManagerEnabled = true
+        val pageSize = DropInViewModel.VAULTED_PAYMENT_METHODS_PAGE_SIZE
+        val bundle = bundleOf("EXTRA_DROP_IN_REQUEST" to dropInRequest)
+
+        val scenario = FragmentScenario.launchInContainer(SupportedPaymentMethodsFragment::class.java, bundle)
+        scenario.moveToState(Lifecycle.State.RESUMED)
+
+        scenario.onFragment { fragment ->
+            fragment.dropInViewModel.setSupportedPaymentMethods(supportedPaymentMethods)
+            fragment.dropInViewModel.setVaultedPaymentMethods(createCardNonces(pageSize + 5))
+        }
+
+        onView(isRoot()).perform(waitFor(500))
+        scenario.onFragment { fragment ->
+            val recyclerView = fragment.requireView()
+                .findViewById<RecyclerView>(R.id.bt_vaulted_payment_methods)
+            assertEquals(pageSize, recyclerView.adapter!!.itemCount)
+        }
+    }
+
     @Test
     fun whenStateIsRESUMED_whenVaultedPaymentMethodShown_sendsAnalyticsEvent() {
         dropInRequest.isVaultManagerEnabled = true
@@ -366,4 +411,9 @@ class SupportedPaymentMethodsFragmentUITest {
         onView(withId(R.id.bt_select_payment_method_loader_wrapper)).check(matches(not(isDisplayed())))
         onView(withId(R.id.bt_supported_payment_methods)).check(matches(withEffectiveVisibility(Visibility.VISIBLE)))
     }
-}
\ No newline at end of file
+
+    private fun createCardNonces(count: Int): List<PaymentMethodNonce> =
+        (0 until count).map { i ->
+            CardNonce.fromJSON(JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD).put("nonce", "card-nonce-$i"))
+        }
+}
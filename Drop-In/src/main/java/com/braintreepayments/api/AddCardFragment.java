@@ -9,6 +9,7 @@ import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.widget.Toolbar;
+import androidx.fragment.app.FragmentActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.braintreepayments.api.dropin.R;
@@ -45,7 +46,10 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        View view = inflater.inflate(R.layout.bt_fragment_add_card, container, false);
+        View view = takePreloadedView();
+        if (view == null) {
+            view = inflater.inflate(R.layout.bt_fragment_add_card, container, false);
+        }
 
         cardForm = view.findViewById(R.id.bt_card_form);
         supportedCardTypesView = view.findViewById(R.id.bt_supported_card_types);
@@ -53,6 +57,8 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
 
         animatedButtonView.setClickListener(v -> onCardFormSubmit());
 
+        // set up only once card is chosen, even for a preloaded view, since setup changes the
+        // activity too, e.g. it secures its window
         cardForm.getCardEditText().displayCardTypeIcon(false);
 
         cardForm.cardRequired(true).setup(requireActivity());
@@ -90,6 +96,19 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
         return view;
     }
 
+    /**
+     * @return the view prepared by the hosting {@link DropInActivity} while the supported payment
+     * methods were shown, or {@code null} if there is none
+     */
+    @Nullable
+    private View takePreloadedView() {
+        FragmentActivity activity = requireActivity();
+        if (activity instanceof DropInActivity) {
+            return ((DropInActivity) activity).getAddCardViewPreloader().takePreloadedView();
+        }
+        return null;
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -0,0 +1,92 @@
+package com.braintreepayments.api;
+
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.FragmentActivity;
+
+import com.braintreepayments.api.dropin.R;
+import com.braintreepayments.cardform.view.CardForm;
+
+/**
+ * Prepares the view of an {@link AddCardFragment} while the supported payment methods are shown.
+ * The layout, including its {@link CardForm}, is inflated on a background thread with the
+ * activity's view factory, so tapping the card row does not have to inflate it. The card form is
+ * only set up by the fragment, since setting it up also changes the activity. Once a prepared
+ * view is left, the next one is prepared, so coming back to the card form is just as fast.
+ */
+class AddCardViewPreloader {
+
+    private final BackgroundViewInflater backgroundViewInflater;
+
+    private FragmentActivity activity;
+    private View preloadedView;
+    private boolean preloading;
+
+    AddCardViewPreloader() {
+        this(BackgroundViewInflater.getInstance());
+    }
+
+    @VisibleForTesting
+    AddCardViewPreloader(BackgroundViewInflater backgroundViewInflater) {
+        this.backgroundViewInflater = backgroundViewInflater;
+    }
+
+    /**
+     * Starts preparing a view unless one is already prepared or being prepared. Must be called
+     * on the main thread.
+     */
+    void preload(FragmentActivity activity) {
+        this.activity = activity;
+        if (preloading || preloadedView != null || !isActive(activity)) {
+            return;
+        }
+
+        preloading = true;
+        backgroundViewInflater.inflate(activity,
+                inflater -> inflater.inflate(R.layout.bt_fragment_add_card, null, false), view -> {
+                    preloading = false;
+                    if (view == null || !isActive(activity)) {
+                        return;
+                    }
+                    preloadedView = view;
+                });
+    }
+
+    /**
+     * @return the prepared view, or {@code null} if none is ready. A view is only handed out once;
+     * the next one is prepared when it is detached, e.g. when the user goes back.
+     */
+    @Nullable
+    View takePreloadedView() {
+        View view = preloadedView;
+        preloadedView = null;
+        if (view != null) {
+            // preparing the next view while this one is shown would compete with its animation
+            view.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+                @Override
+                public void onViewAttachedToWindow(View v) {
+                    // nothing to do until the view is left
+                }
+
+                @Override
+                public void onViewDetachedFromWindow(View v) {
+                    v.removeOnAttachStateChangeListener(this);
+                    preload(activity);
+                }
+            });
+        }
+        return view;
+    }
+
+    private static boolean isActive(FragmentActivity activity) {
+        // views for an activity that is going away would never be used
+        return !activity.isFinishing() && !activity.isChangingConfigurations();
+    }
+
+    @VisibleForTesting
+    boolean hasPreloadedView() {
+        return preloadedView != null;
+    }
+}
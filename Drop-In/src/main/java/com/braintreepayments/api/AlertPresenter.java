@@ -8,11 +8,19 @@ import androidx.appcompat.app.AlertDialog;
 import com.braintreepayments.api.dropin.R;
 import com.google.android.material.snackbar.Snackbar;
 
+import java.util.List;
+
 class AlertPresenter {
 
-    void showConfirmNonceDeletionDialog(Context context, PaymentMethodNonce paymentMethodNonceToDelete, final DialogInteractionCallback callback) {
-        PaymentMethodItemView dialogView = new PaymentMethodItemView(context);
-        dialogView.setPaymentMethod(paymentMethodNonceToDelete, false);
+    private final PaymentMethodViewPool viewPool;
+
+    AlertPresenter(PaymentMethodViewPool viewPool) {
+        this.viewPool = viewPool;
+    }
+
+    void showConfirmNonceDeletionDialog(Context context, VaultedPaymentMethodDisplay paymentMethodToDelete, final DialogInteractionCallback callback) {
+        PaymentMethodItemView dialogView = viewPool.createVaultManagerRow(context);
+        dialogView.setPaymentMethod(paymentMethodToDelete, false);
 
         new AlertDialog.Builder(context,
                 R.style.Theme_AppCompat_Light_Dialog_Alert)
@@ -26,6 +34,22 @@ class AlertPresenter {
                 .show();
     }
 
+    void showConfirmNoncesDeletionDialog(Context context, List<PaymentMethodNonce> paymentMethodNoncesToDelete, final DialogInteractionCallback callback) {
+        int count = paymentMethodNoncesToDelete.size();
+        String title = context.getResources().getQuantityString(
+                R.plurals.bt_delete_multiple_confirmation_title, count, count);
+
+        new AlertDialog.Builder(context,
+                R.style.Theme_AppCompat_Light_Dialog_Alert)
+                .setTitle(title)
+                .setMessage(R.string.bt_delete_multiple_confirmation_description)
+                .setPositiveButton(R.string.bt_delete, (dialog, which) -> callback.onDialogInteraction(DialogInteraction.POSITIVE))
+                .setOnDismissListener(dialog -> callback.onDialogInteraction(DialogInteraction.NEGATIVE))
+                .setNegativeButton(R.string.bt_cancel, null)
+                .create()
+                .show();
+    }
+
     void showSnackbarText(View targetView, int textResId, int duration) {
         Snackbar.make(targetView, textResId, duration).show();
     }
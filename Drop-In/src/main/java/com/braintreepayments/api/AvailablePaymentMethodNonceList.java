@@ -8,23 +8,29 @@ class AvailablePaymentMethodNonceList {
     final private List<PaymentMethodNonce> items;
 
     AvailablePaymentMethodNonceList(Configuration configuration, List<PaymentMethodNonce> paymentMethodNonces, DropInRequest dropInRequest, boolean googlePayEnabled) {
+        // vaulted payment methods do not depend on the Venmo app
+        this(configuration, paymentMethodNonces, dropInRequest, new DeviceAvailability(googlePayEnabled, false),
+                DropInPaymentMethodProvider.createDefaultProviders());
+    }
+
+    AvailablePaymentMethodNonceList(Configuration configuration, List<PaymentMethodNonce> paymentMethodNonces, DropInRequest dropInRequest, DeviceAvailability deviceAvailability, List<DropInPaymentMethodProvider> paymentMethodProviders) {
         items = new ArrayList<>();
 
-        for (PaymentMethodNonce paymentMethodNonce: paymentMethodNonces) {
-            boolean shouldAddPaymentMethod = false;
-
-            if (paymentMethodNonce instanceof PayPalAccountNonce) {
-                shouldAddPaymentMethod = !dropInRequest.isPayPalDisabled() && configuration.isPayPalEnabled();
-            } else if (paymentMethodNonce instanceof VenmoAccountNonce) {
-                shouldAddPaymentMethod = !dropInRequest.isVenmoDisabled() && configuration.isVenmoEnabled();
-            } else if (paymentMethodNonce instanceof CardNonce) {
-                shouldAddPaymentMethod = !dropInRequest.isCardDisabled() && !configuration.getSupportedCardTypes().isEmpty();
-            } else if (paymentMethodNonce instanceof GooglePayCardNonce) {
-                shouldAddPaymentMethod = googlePayEnabled && !dropInRequest.isGooglePayDisabled();
+        // each provider is asked once, not once per vaulted payment method
+        List<DropInPaymentMethodProvider> enabledProviders = new ArrayList<>();
+        for (DropInPaymentMethodProvider provider : paymentMethodProviders) {
+            if (provider.isVaultedPaymentMethodAvailableOnDevice(deviceAvailability)
+                    && provider.isVaultedPaymentMethodEnabled(configuration, dropInRequest)) {
+                enabledProviders.add(provider);
             }
+        }
 
-            if (shouldAddPaymentMethod) {
-                items.add(paymentMethodNonce);
+        for (PaymentMethodNonce paymentMethodNonce: paymentMethodNonces) {
+            for (DropInPaymentMethodProvider provider : enabledProviders) {
+                if (provider.isProviderOf(paymentMethodNonce)) {
+                    items.add(paymentMethodNonce);
+                    break;
+                }
             }
         }
     }
@@ -0,0 +1,115 @@
+package com.braintreepayments.api;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Inflates views on a background thread for use on the main thread. {@code AsyncLayoutInflater}
+ * inflates with a plain {@link LayoutInflater}, which skips the {@code Factory2} that AppCompat
+ * and Material install on the activity's inflater, so its views lose AppCompat tinting and
+ * Material styling. Here every inflation uses its own clone of the activity's inflater, which
+ * keeps that factory. Views that inflate their own content with
+ * {@code LayoutInflater.from(getContext())}, such as {@code CardForm}, get the same clone
+ * instead of the activity's inflater, which the main thread may be using at the same time.
+ */
+class BackgroundViewInflater {
+
+    interface Inflation<V extends View> {
+
+        /**
+         * Called on a background thread.
+         */
+        V inflate(LayoutInflater inflater);
+    }
+
+    interface Callback<V extends View> {
+
+        /**
+         * Called on the main thread.
+         *
+         * @param view the inflated view, or {@code null} if it could not be inflated off the main
+         * thread, in which case it should be inflated on the main thread when it is needed
+         */
+        void onInflated(@Nullable V view);
+    }
+
+    private static volatile BackgroundViewInflater INSTANCE;
+
+    static BackgroundViewInflater getInstance() {
+        if (INSTANCE == null) {
+            synchronized (BackgroundViewInflater.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+                    INSTANCE = new BackgroundViewInflater(
+                            Executors.newSingleThreadExecutor(), mainThreadHandler::post);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final Executor backgroundExecutor;
+    private final Executor callbackExecutor;
+
+    @VisibleForTesting
+    BackgroundViewInflater(Executor backgroundExecutor, Executor callbackExecutor) {
+        this.backgroundExecutor = backgroundExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Must be called on the main thread.
+     */
+    <V extends View> void inflate(Activity activity, final Inflation<V> inflation, final Callback<V> callback) {
+        // a LayoutInflater is not safe to share between threads, so each inflation gets a clone
+        final LayoutInflater inflater = LayoutInflater.from(new InflaterContext(activity));
+        backgroundExecutor.execute(() -> {
+            V view;
+            try {
+                view = inflation.inflate(inflater);
+            } catch (RuntimeException e) {
+                // e.g. a view that requires a looper; the caller inflates it on the main thread
+                view = null;
+            }
+
+            final V inflatedView = view;
+            callbackExecutor.execute(() -> callback.onInflated(inflatedView));
+        });
+    }
+
+    /**
+     * Hands out one clone of the activity's inflater, to the inflation and to every view it
+     * creates.
+     */
+    private static class InflaterContext extends ContextWrapper {
+
+        private LayoutInflater inflater;
+
+        InflaterContext(Activity activity) {
+            super(activity);
+        }
+
+        @Override
+        public Object getSystemService(String name) {
+            if (Context.LAYOUT_INFLATER_SERVICE.equals(name)) {
+                if (inflater == null) {
+                    inflater = LayoutInflater.from(getBaseContext()).cloneInContext(this);
+                }
+                return inflater;
+            }
+            return super.getSystemService(name);
+        }
+    }
+}
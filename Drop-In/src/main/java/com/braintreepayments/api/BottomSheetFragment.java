@@ -13,14 +13,13 @@ import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.viewpager2.widget.ViewPager2;
 
 import com.braintreepayments.api.dropin.R;
 
 public class BottomSheetFragment extends Fragment implements BottomSheetPresenter.ViewHolder {
 
     @VisibleForTesting
-    ViewPager2 viewPager;
+    ViewGroup pageContainer;
 
     @VisibleForTesting
     DropInViewModel dropInViewModel;
@@ -52,9 +51,7 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
         View view = inflater.inflate(R.layout.bt_fragment_bottom_sheet, container, false);
         backgroundView = view.findViewById(R.id.background);
 
-        viewPager = view.findViewById(R.id.view_pager);
-        // TODO: investigate view pager saveInstanceState restoration
-        viewPager.setSaveEnabled(false);
+        pageContainer = view.findViewById(R.id.page_container);
 
         // it's best to call bind here before any live data / fragment result observers are registered
         bottomSheetPresenter = new BottomSheetPresenter();
@@ -108,6 +105,12 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        bottomSheetPresenter.showFirstPage();
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -190,12 +193,22 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
     }
 
     @Override
-    public ViewPager2 getViewPager() {
-        return viewPager;
+    public ViewGroup getPageContainer() {
+        return pageContainer;
     }
 
     @Override
     public View getBackgroundView() {
         return backgroundView;
     }
+
+    @Override
+    public boolean isFrameMetricsEnabled() {
+        return dropInViewModel.isFrameMetricsEnabled();
+    }
+
+    @Override
+    public void onTransitionCompleted(DropInTransition transition, FrameTracker frameTracker) {
+        sendDropInEvent(DropInEvent.createTransitionCompletedEvent(transition, frameTracker));
+    }
 }
\ No newline at end of file
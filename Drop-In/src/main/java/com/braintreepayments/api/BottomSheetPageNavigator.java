@@ -0,0 +1,216 @@
+package com.braintreepayments.api;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.os.Bundle;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+
+/**
+ * Navigates the page stack of a {@link BottomSheetFragment}. Every page is a child fragment
+ * stacked in the same container. A transition adds the incoming page before its first frame and
+ * then only animates the translation of both pages on hardware layers, so no frame of the
+ * transition measures or lays out the container. Pages that are covered stay attached but
+ * invisible, and a popped page is removed once its transition ends.
+ */
+class BottomSheetPageNavigator {
+
+    private final FragmentManager fragmentManager;
+    private final ViewGroup container;
+    private final BottomSheetViewModel pages;
+    private final DropInRequest dropInRequest;
+    private final int animationDuration;
+
+    private Animator runningTransition;
+
+    BottomSheetPageNavigator(FragmentManager fragmentManager, ViewGroup container, BottomSheetViewModel pages, DropInRequest dropInRequest, int animationDuration) {
+        this.fragmentManager = fragmentManager;
+        this.container = container;
+        this.pages = pages;
+        this.dropInRequest = dropInRequest;
+        this.animationDuration = animationDuration;
+    }
+
+    /**
+     * Adds the page at the bottom of the stack unless it was restored with the fragment
+     * manager. Restored pages above it are removed, since the stack always starts at its bottom
+     * page. Must be called once the container is part of the fragment's view.
+     */
+    void showFirstPage() {
+        BottomSheetViewType firstPage = pages.getItem(0);
+        for (BottomSheetViewType viewType : BottomSheetViewType.values()) {
+            Fragment restored = fragmentManager.findFragmentByTag(viewType.name());
+            if (restored != null && viewType != firstPage) {
+                fragmentManager.beginTransaction().remove(restored).commitNow();
+            }
+        }
+
+        if (fragmentManager.findFragmentByTag(firstPage.name()) == null) {
+            fragmentManager.beginTransaction()
+                    .add(container.getId(), createFragment(firstPage), firstPage.name())
+                    .commitNow();
+        }
+    }
+
+    /**
+     * @return the page at the top of the stack
+     */
+    BottomSheetViewType getVisiblePage() {
+        return pages.getItem(pages.size() - 1);
+    }
+
+    /**
+     * Slides {@code viewType} in from the end over the visible page.
+     */
+    void push(BottomSheetViewType viewType, @Nullable final AnimationCompleteCallback callback) {
+        endTransition();
+
+        final View outgoing = getPageView(getVisiblePage());
+        Fragment page = createFragment(viewType);
+        fragmentManager.beginTransaction()
+                .add(container.getId(), page, viewType.name())
+                .commitNow();
+        pages.add(viewType);
+
+        View incoming = page.requireView();
+        int width = container.getWidth();
+        incoming.setTranslationX(width);
+        startTransition(outgoing, -width, incoming, 0, () -> {
+            // covered pages are not drawn; INVISIBLE, unlike GONE, does not request a layout
+            if (outgoing != null) {
+                outgoing.setVisibility(View.INVISIBLE);
+            }
+            if (callback != null) {
+                callback.onAnimationComplete();
+            }
+        });
+    }
+
+    /**
+     * Slides the visible page out to the end and reveals the page below it. Does nothing when
+     * the visible page is the first page.
+     */
+    void pop(@Nullable final AnimationCompleteCallback callback) {
+        endTransition();
+        if (!canGoBack()) {
+            return;
+        }
+
+        final BottomSheetViewType outgoingType = getVisiblePage();
+        View outgoing = getPageView(outgoingType);
+        View incoming = getPageView(pages.getItem(pages.size() - 2));
+
+        int width = container.getWidth();
+        if (incoming != null) {
+            incoming.setTranslationX(-width);
+            incoming.setVisibility(View.VISIBLE);
+        }
+        startTransition(outgoing, width, incoming, 0, () -> {
+            pages.remove(pages.size() - 1);
+            Fragment page = fragmentManager.findFragmentByTag(outgoingType.name());
+            if (page != null && !fragmentManager.isDestroyed()) {
+                // removing a page that is already off screen loses no state worth keeping
+                fragmentManager.beginTransaction().remove(page).commitNowAllowingStateLoss();
+            }
+            if (callback != null) {
+                callback.onAnimationComplete();
+            }
+        });
+    }
+
+    /**
+     * @return true if there is a page below the visible page
+     */
+    boolean canGoBack() {
+        return pages.size() > 1;
+    }
+
+    @VisibleForTesting
+    boolean isTransitionRunning() {
+        return runningTransition != null;
+    }
+
+    /**
+     * Jumps a running transition to its end, so a new transition starts from a settled stack.
+     */
+    void endTransition() {
+        if (runningTransition != null) {
+            runningTransition.end();
+        }
+    }
+
+    private void startTransition(@Nullable final View outgoing, float outgoingEndX, @Nullable final View incoming, float incomingEndX, final Runnable endAction) {
+        AnimatorSet transition = new AnimatorSet();
+        AnimatorSet.Builder builder = null;
+        if (outgoing != null) {
+            builder = transition.play(ObjectAnimator.ofFloat(outgoing, View.TRANSLATION_X, outgoingEndX));
+        }
+        if (incoming != null) {
+            ObjectAnimator incomingAnimator = ObjectAnimator.ofFloat(incoming, View.TRANSLATION_X, incomingEndX);
+            if (builder != null) {
+                builder.with(incomingAnimator);
+            } else {
+                transition.play(incomingAnimator);
+            }
+        }
+        transition.setInterpolator(new AccelerateDecelerateInterpolator());
+        transition.setDuration(animationDuration);
+
+        transition.addListener(new SimpleAnimatorListener() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                // changing the layer type only invalidates; translating a layer redraws nothing
+                setLayerType(outgoing, View.LAYER_TYPE_HARDWARE);
+                setLayerType(incoming, View.LAYER_TYPE_HARDWARE);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                runningTransition = null;
+                setLayerType(outgoing, View.LAYER_TYPE_NONE);
+                setLayerType(incoming, View.LAYER_TYPE_NONE);
+                endAction.run();
+            }
+        });
+
+        runningTransition = transition;
+        transition.start();
+    }
+
+    private static void setLayerType(@Nullable View view, int layerType) {
+        if (view != null) {
+            view.setLayerType(layerType, null);
+        }
+    }
+
+    @Nullable
+    private View getPageView(BottomSheetViewType viewType) {
+        Fragment page = fragmentManager.findFragmentByTag(viewType.name());
+        return (page != null) ? page.getView() : null;
+    }
+
+    private Fragment createFragment(BottomSheetViewType viewType) {
+        Bundle args = new Bundle();
+        args.putParcelable("EXTRA_DROP_IN_REQUEST", dropInRequest);
+
+        Fragment fragment;
+        switch (viewType) {
+            case VAULT_MANAGER:
+                fragment = new VaultManagerFragment();
+                break;
+            default:
+            case SUPPORTED_PAYMENT_METHODS:
+                fragment = new SupportedPaymentMethodsFragment();
+                break;
+        }
+        fragment.setArguments(args);
+        return fragment;
+    }
+}
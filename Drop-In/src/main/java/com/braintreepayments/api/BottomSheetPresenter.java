@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.animation.Animator;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AccelerateInterpolator;
@@ -10,8 +11,6 @@ import android.view.animation.DecelerateInterpolator;
 
 import androidx.annotation.Nullable;
 import androidx.fragment.app.FragmentManager;
-import androidx.lifecycle.Lifecycle;
-import androidx.viewpager2.widget.ViewPager2;
 
 import static com.braintreepayments.api.BottomSheetViewType.VAULT_MANAGER;
 
@@ -21,51 +20,54 @@ class BottomSheetPresenter {
     private static final int BOTTOM_SHEET_SLIDE_ANIM_DURATION = 150;
 
     private static final int BACKGROUND_FADE_ANIM_DURATION = 300;
-    private static final int VIEW_PAGER_TRANSITION_ANIM_DURATION = 300;
+    private static final int PAGE_TRANSITION_ANIM_DURATION = 300;
 
     interface ViewHolder {
-        ViewPager2 getViewPager();
+        ViewGroup getPageContainer();
         View getBackgroundView();
         void requestLayout();
         FragmentManager getChildFragmentManager();
-        Lifecycle getLifecycle();
         DropInRequest getDropInRequest();
+        boolean isFrameMetricsEnabled();
+        void onTransitionCompleted(DropInTransition transition, FrameTracker frameTracker);
     }
 
     private ViewHolder viewHolder;
-    private ViewPager2Animator viewPagerAnimator;
-    private BottomSheetViewModel childFragmentList;
+    private BottomSheetPageNavigator pageNavigator;
 
     private Animator bottomSheetSlideUpAnimator;
     private Animator bottomSheetSlideDownAnimator;
 
-    private BottomSheetViewAdapter viewPagerAdapter;
-
     void bind(ViewHolder viewHolder) {
         this.viewHolder = viewHolder;
-        this.childFragmentList = new BottomSheetViewModel(
-                BottomSheetViewType.SUPPORTED_PAYMENT_METHODS);
-        this.viewPagerAnimator = new ViewPager2Animator(VIEW_PAGER_TRANSITION_ANIM_DURATION);
-
-        FragmentManager childFragmentManager = viewHolder.getChildFragmentManager();
-        Lifecycle lifecycle = viewHolder.getLifecycle();
-        DropInRequest dropInRequest = viewHolder.getDropInRequest();
-        this.viewPagerAdapter =
-            new BottomSheetViewAdapter(childFragmentManager, lifecycle, childFragmentList, dropInRequest);
-
-        ViewPager2 viewPager = viewHolder.getViewPager();
-        viewPager.setUserInputEnabled(false);
-        viewPager.setAdapter(viewPagerAdapter);
-
-        // disable animation when smooth scrolling between supported payment methods
-        // and vault manager fragments
-        viewPager.setPageTransformer(new NoAnimationPageTransformer());
+
+        BottomSheetViewModel childFragmentList =
+                new BottomSheetViewModel(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS);
+        this.pageNavigator = new BottomSheetPageNavigator(viewHolder.getChildFragmentManager(),
+                viewHolder.getPageContainer(), childFragmentList, viewHolder.getDropInRequest(),
+                PAGE_TRANSITION_ANIM_DURATION);
     }
 
     void unbind() {
+        BottomSheetPageNavigator pageNavigator = this.pageNavigator;
         this.viewHolder = null;
-        this.viewPagerAdapter = null;
-        this.childFragmentList = null;
+        this.pageNavigator = null;
+
+        // settle a pending transition without reporting it
+        if (pageNavigator != null) {
+            pageNavigator.endTransition();
+        }
+    }
+
+    /**
+     * Adds the supported payment methods page. Must be called once the page container is part of
+     * the view hierarchy, e.g. from {@link androidx.fragment.app.Fragment#onViewCreated}.
+     */
+    void showFirstPage() {
+        if (isUnbound()) {
+            return;
+        }
+        pageNavigator.showFirstPage();
     }
 
     boolean isUnbound() {
@@ -78,9 +80,7 @@ class BottomSheetPresenter {
             return null;
         }
 
-        ViewPager2 viewPager = viewHolder.getViewPager();
-        int position = viewPager.getCurrentItem();
-        return childFragmentList.getItem(position);
+        return pageNavigator.getVisiblePage();
     }
 
     void slideUpBottomSheet(final AnimationCompleteCallback callback) {
@@ -88,29 +88,31 @@ class BottomSheetPresenter {
             return;
         }
 
-        ViewPager2 viewPager = viewHolder.getViewPager();
+        ViewGroup pageContainer = viewHolder.getPageContainer();
         View backgroundView = viewHolder.getBackgroundView();
 
         ObjectAnimator backgroundFadeInAnimator =
                 ObjectAnimator.ofFloat(backgroundView, View.ALPHA, 0.0f, 1.0f);
         backgroundFadeInAnimator.setDuration(BACKGROUND_FADE_ANIM_DURATION);
 
-        int viewPagerHeight = getViewGroupMeasuredHeight(viewPager);
+        int pageContainerHeight = getViewGroupMeasuredHeight(pageContainer);
 
-        viewPager.setTranslationY(viewPagerHeight);
+        pageContainer.setTranslationY(pageContainerHeight);
         ObjectAnimator slideUpAnimator =
-                ObjectAnimator.ofFloat(viewPager, View.TRANSLATION_Y, viewPagerHeight, 0);
+                ObjectAnimator.ofFloat(pageContainer, View.TRANSLATION_Y, pageContainerHeight, 0);
         slideUpAnimator.setInterpolator(new DecelerateInterpolator());
         slideUpAnimator.setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION);
         slideUpAnimator.setStartDelay(BOTTOM_SHEET_SLIDE_UP_DELAY);
 
         AnimatorSet animatorSet = new AnimatorSet();
         animatorSet.play(slideUpAnimator).with(backgroundFadeInAnimator);
+        final FrameTracker frameTracker = startFrameTracking(pageContainer);
         animatorSet.start();
 
         animatorSet.addListener(new SimpleAnimatorListener() {
             @Override
             public void onAnimationEnd(Animator animation) {
+                finishFrameTracking(frameTracker, DropInTransition.BOTTOM_SHEET_SLIDE_UP);
                 callback.onAnimationComplete();
             }
         });
@@ -123,27 +125,29 @@ class BottomSheetPresenter {
             return;
         }
 
-        ViewPager2 viewPager = viewHolder.getViewPager();
+        ViewGroup pageContainer = viewHolder.getPageContainer();
         View backgroundView = viewHolder.getBackgroundView();
 
         ObjectAnimator backgroundFadeInAnimator =
                 ObjectAnimator.ofFloat(backgroundView, View.ALPHA, 1.0f, 0.0f);
         backgroundFadeInAnimator.setDuration(BACKGROUND_FADE_ANIM_DURATION);
 
-        int viewPagerHeight = getViewGroupMeasuredHeight(viewPager);
+        int pageContainerHeight = getViewGroupMeasuredHeight(pageContainer);
 
-        viewPager.setTranslationY(viewPagerHeight);
+        pageContainer.setTranslationY(pageContainerHeight);
         ObjectAnimator slideUpAnimator =
-                ObjectAnimator.ofFloat(viewPager, View.TRANSLATION_Y, 0, viewPagerHeight);
+                ObjectAnimator.ofFloat(pageContainer, View.TRANSLATION_Y, 0, pageContainerHeight);
         slideUpAnimator.setInterpolator(new AccelerateInterpolator());
         slideUpAnimator.setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION);
 
         AnimatorSet animatorSet = new AnimatorSet();
         animatorSet.play(slideUpAnimator).with(backgroundFadeInAnimator);
 
+        final FrameTracker frameTracker = startFrameTracking(pageContainer);
         animatorSet.addListener(new SimpleAnimatorListener() {
             @Override
             public void onAnimationEnd(Animator animation) {
+                finishFrameTracking(frameTracker, DropInTransition.BOTTOM_SHEET_SLIDE_DOWN);
                 callback.onAnimationComplete();
             }
         });
@@ -158,16 +162,23 @@ class BottomSheetPresenter {
             return;
         }
 
-        ViewPager2 viewPager = viewHolder.getViewPager();
+        // settle a pending transition so the visible page is final
+        pageNavigator.endTransition();
+        if (pageNavigator.getVisiblePage() == VAULT_MANAGER) {
+            return;
+        }
+
+        ViewGroup pageContainer = viewHolder.getPageContainer();
 
-        // keep the same height when transitioning to vault manager
-        int currentHeight = getViewGroupMeasuredHeight(viewPager);
-        setViewGroupHeight(viewPager, currentHeight);
+        // keep the same height when transitioning to vault manager; the only layout of the
+        // transition happens on its first frame, together with adding the vault manager page
+        int currentHeight = getViewGroupMeasuredHeight(pageContainer);
+        setViewGroupHeight(pageContainer, currentHeight);
         viewHolder.requestLayout();
 
-        childFragmentList.add(VAULT_MANAGER);
-        viewPagerAdapter.notifyDataSetChanged();
-        viewPagerAnimator.animateToPosition(viewPager, 1);
+        final FrameTracker frameTracker = startFrameTracking(pageContainer);
+        pageNavigator.push(VAULT_MANAGER,
+                () -> finishFrameTracking(frameTracker, DropInTransition.VAULT_MANAGER_OPEN));
     }
 
     void dismissVaultManager() {
@@ -175,15 +186,23 @@ class BottomSheetPresenter {
             return;
         }
 
-        final ViewPager2 viewPager = viewHolder.getViewPager();
-        viewPagerAnimator.animateToPosition(viewPager, 0, () -> {
+        // a back press during a transition completes it before going back
+        pageNavigator.endTransition();
+        if (!pageNavigator.canGoBack()) {
+            return;
+        }
+
+        final ViewGroup pageContainer = viewHolder.getPageContainer();
+        final FrameTracker frameTracker = startFrameTracking(pageContainer);
+        pageNavigator.pop(() -> {
+            finishFrameTracking(frameTracker, DropInTransition.VAULT_MANAGER_CLOSE);
+            if (isUnbound()) {
+                return;
+            }
+
             // revert layout height to wrap content
-            setViewGroupHeight(viewPager, ViewGroup.LayoutParams.WRAP_CONTENT);
+            setViewGroupHeight(pageContainer, ViewGroup.LayoutParams.WRAP_CONTENT);
             viewHolder.requestLayout();
-
-            // remove vault manager fragment
-            childFragmentList.remove(1);
-            viewPagerAdapter.notifyDataSetChanged();
         });
     }
 
@@ -195,9 +214,36 @@ class BottomSheetPresenter {
         return (isSlidingUpBottomSheet || isSlidingDownBottomSheet);
     }
 
+    /**
+     * @return a started {@link FrameTracker}, or {@code null} if frame metrics are not enabled
+     */
+    @Nullable
+    private FrameTracker startFrameTracking(View view) {
+        if (!viewHolder.isFrameMetricsEnabled()) {
+            return null;
+        }
+
+        FrameTracker frameTracker = new FrameTracker(Choreographer.getInstance(), new DropInClock(),
+                FrameTracker.getFrameIntervalNanos(view));
+        frameTracker.start();
+        return frameTracker;
+    }
+
+    private void finishFrameTracking(@Nullable FrameTracker frameTracker, DropInTransition transition) {
+        if (frameTracker == null) {
+            return;
+        }
+
+        frameTracker.stop();
+        // transitions that end after the bottom sheet is gone are not reported
+        if (!isUnbound()) {
+            viewHolder.onTransitionCompleted(transition, frameTracker);
+        }
+    }
+
     private int getViewGroupMeasuredHeight(ViewGroup viewGroup) {
-        ViewGroup.LayoutParams viewPagerLayoutParams = viewGroup.getLayoutParams();
-        viewGroup.measure(viewPagerLayoutParams.width, viewPagerLayoutParams.height);
+        ViewGroup.LayoutParams layoutParams = viewGroup.getLayoutParams();
+        viewGroup.measure(layoutParams.width, layoutParams.height);
         return viewGroup.getMeasuredHeight();
     }
 
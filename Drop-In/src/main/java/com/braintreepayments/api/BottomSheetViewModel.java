@@ -25,19 +25,6 @@ class BottomSheetViewModel {
         fragments.remove(position);
     }
 
-    long getItemId(int position) {
-        return getItem(position).getId();
-    }
-
-    boolean containsItem(long itemId) {
-        for (BottomSheetViewType fragment : fragments) {
-            if (fragment.hasId(itemId)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     int size() {
         return fragments.size();
     }
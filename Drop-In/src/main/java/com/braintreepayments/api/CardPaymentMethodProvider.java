@@ -0,0 +1,41 @@
+package com.braintreepayments.api;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cards are listed as {@link DropInPaymentMethod#UNKNOWN} until a card number is entered.
+ */
+class CardPaymentMethodProvider extends DropInPaymentMethodProvider {
+
+    private static final String CARD_TYPE_UNION_PAY = "UnionPay";
+
+    @Override
+    DropInPaymentMethod getPaymentMethod() {
+        return DropInPaymentMethod.UNKNOWN;
+    }
+
+    @Override
+    boolean isEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        if (dropInRequest.isCardDisabled()) {
+            return false;
+        }
+
+        Set<String> supportedCardTypes = new HashSet<>(configuration.getSupportedCardTypes());
+        if (!configuration.isUnionPayEnabled()) {
+            supportedCardTypes.remove(CARD_TYPE_UNION_PAY);
+        }
+        return supportedCardTypes.size() > 0;
+    }
+
+    @Override
+    boolean isProviderOf(PaymentMethodNonce paymentMethodNonce) {
+        return paymentMethodNonce instanceof CardNonce;
+    }
+
+    @Override
+    boolean isVaultedPaymentMethodEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        // vaulted cards do not depend on UnionPay being enabled, only on card types being configured
+        return !dropInRequest.isCardDisabled() && !configuration.getSupportedCardTypes().isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Callback for receiving result of {@link PaymentMethodClient#deletePaymentMethods(Context, List, DeletePaymentMethodNoncesCallback)}.
+ */
+interface DeletePaymentMethodNoncesCallback {
+
+    /**
+     * @param result {@link DeletePaymentMethodNoncesResult} reporting the outcome for each payment method
+     * @param error an exception that prevented the payment methods from being deleted at all
+     */
+    void onResult(@Nullable DeletePaymentMethodNoncesResult result, @Nullable Exception error);
+}
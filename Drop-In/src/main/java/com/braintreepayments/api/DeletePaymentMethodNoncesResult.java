@@ -0,0 +1,34 @@
+package com.braintreepayments.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of deleting several payment methods in one request. Every payment method that was
+ * requested to be deleted is either in {@link #getDeletedNonces()} or has a matching
+ * {@link PaymentMethodDeleteException} in {@link #getFailures()}.
+ */
+class DeletePaymentMethodNoncesResult {
+
+    private final List<PaymentMethodNonce> deletedNonces;
+    private final List<PaymentMethodDeleteException> failures;
+
+    DeletePaymentMethodNoncesResult(List<PaymentMethodNonce> deletedNonces, List<PaymentMethodDeleteException> failures) {
+        this.deletedNonces = Collections.unmodifiableList(deletedNonces);
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * @return the payment methods that were deleted
+     */
+    List<PaymentMethodNonce> getDeletedNonces() {
+        return deletedNonces;
+    }
+
+    /**
+     * @return one {@link PaymentMethodDeleteException} for each payment method that could not be deleted
+     */
+    List<PaymentMethodDeleteException> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,31 @@
+package com.braintreepayments.api;
+
+/**
+ * What the device can do for payment methods that depend on it, resolved by {@link DropInClient}
+ * before the supported or vaulted payment methods are filtered. Each
+ * {@link DropInPaymentMethodProvider} decides which of these its payment method needs.
+ */
+class DeviceAvailability {
+
+    private final boolean readyToPay;
+    private final boolean venmoAppSwitchAvailable;
+
+    DeviceAvailability(boolean readyToPay, boolean venmoAppSwitchAvailable) {
+        this.readyToPay = readyToPay;
+        this.venmoAppSwitchAvailable = venmoAppSwitchAvailable;
+    }
+
+    /**
+     * @return {@code true} if Google Play Services reports the device ready to pay with Google Pay
+     */
+    boolean isReadyToPay() {
+        return readyToPay;
+    }
+
+    /**
+     * @return {@code true} if the Venmo app is installed and can be switched to
+     */
+    boolean isVenmoAppSwitchAvailable() {
+        return venmoAppSwitchAvailable;
+    }
+}
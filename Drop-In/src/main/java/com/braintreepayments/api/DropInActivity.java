@@ -1,10 +1,13 @@
 package com.braintreepayments.api;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.ViewTreeObserver;
 
 import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
@@ -15,6 +18,10 @@ import androidx.lifecycle.ViewModelProvider;
 import com.braintreepayments.api.dropin.R;
 import com.google.android.material.snackbar.Snackbar;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class DropInActivity extends AppCompatActivity {
 
     private static final String ADD_CARD_TAG = "ADD_CARD";
@@ -40,6 +47,12 @@ public class DropInActivity extends AppCompatActivity {
     @VisibleForTesting
     AlertPresenter alertPresenter;
 
+    private final PaymentMethodViewPool paymentMethodViewPool = new PaymentMethodViewPool();
+    private final AddCardViewPreloader addCardViewPreloader = new AddCardViewPreloader();
+
+    private long sessionStartTime = DropInMetrics.NOT_STARTED;
+    private long bottomSheetAnimationStartTime = DropInMetrics.NOT_STARTED;
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -53,6 +66,14 @@ public class DropInActivity extends AppCompatActivity {
         dropInClient.deliverBrowserSwitchResult(this, this::onDropInResult);
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        // Drop-in either finished or went to the background, so checkout is no longer waiting
+        dropInClient.flushAnalyticsEvents();
+    }
+
     @Override
     protected void onNewIntent(Intent newIntent) {
         super.onNewIntent(newIntent);
@@ -62,29 +83,43 @@ public class DropInActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.bt_drop_in_activity);
 
         if (dropInClient == null) {
             Intent intent = getIntent();
             String authorization = intent.getStringExtra(DropInClient.EXTRA_AUTHORIZATION);
             String sessionId = intent.getStringExtra(DropInClient.EXTRA_SESSION_ID);
-            DropInRequest dropInRequest = getDropInRequest(intent);
-            dropInClient = new DropInClient(this, authorization, sessionId, dropInRequest);
+            dropInClient = DropInSessionRegistry.getInstance().get(sessionId, authorization);
+            if (dropInClient == null) {
+                // the launching client is gone, e.g. the process was recreated
+                DropInRequest dropInRequest = getDropInRequest(intent);
+                dropInClient = new DropInClient(this, authorization, sessionId, dropInRequest);
+            }
         }
 
+        sessionStartTime = dropInClient.startStage();
+        setContentView(R.layout.bt_drop_in_activity);
+
         if (dropInClient.getAuthorization() instanceof InvalidAuthorization) {
             finishDropInWithError(
                     new InvalidArgumentException("Tokenization Key or Client Token was invalid."));
             return;
         }
 
-        alertPresenter = new AlertPresenter();
+        alertPresenter = new AlertPresenter(paymentMethodViewPool);
         dropInRequest = getDropInRequest(getIntent());
         clientTokenPresent = dropInClient.getAuthorization() instanceof ClientToken;
 
+        // every result carries device data; collecting it now keeps it off the tap-to-result path
+        dropInClient.prefetchDeviceData(this);
+
         dropInViewModel = new ViewModelProvider(this).get(DropInViewModel.class);
+        dropInViewModel.setFrameMetricsEnabled(dropInClient.isFrameMetricsEnabled());
         fragmentContainerView = findViewById(R.id.fragment_container_view);
 
+        if (savedInstanceState == null) {
+            applyPrewarmedResults(getIntent());
+        }
+
         getSupportFragmentManager().setFragmentResultListener(DropInEvent.REQUEST_KEY, this,
                 (requestKey, result) -> onDropInEvent(DropInEvent.fromBundle(result)));
 
@@ -98,27 +133,114 @@ public class DropInActivity extends AppCompatActivity {
         dropInViewModel.getBottomSheetState().observe(this, bottomSheetState -> {
             switch (bottomSheetState) {
                 case SHOWN:
+                    endBottomSheetAnimation();
                     onDidShowBottomSheet();
                     break;
                 case HIDDEN:
+                    endBottomSheetAnimation();
                     onDidHideBottomSheet();
                     break;
-                case HIDE_REQUESTED:
                 case SHOW_REQUESTED:
+                    bottomSheetAnimationStartTime = dropInClient.startStage();
+                    preinflateVaultManagerRows();
+                    break;
+                case HIDE_REQUESTED:
+                    bottomSheetAnimationStartTime = dropInClient.startStage();
+                    break;
                 default:
                     // do nothing
             }
         });
 
+        // delete requests outlive a configuration change; their outcome is shown by whichever
+        // activity is current when it arrives
+        dropInViewModel.getVaultDeletionResults().observe(this, results -> {
+            if (!results.isEmpty()) {
+                onVaultedPaymentMethodsDeleted(dropInViewModel.takeVaultDeletionResults());
+            }
+        });
+
+        dropInViewModel.getSupportedPaymentMethods().observe(this, supportedPaymentMethods -> {
+            // cards are listed as UNKNOWN; the card form is prepared while the user picks a
+            // payment method so tapping the card row does not inflate it
+            if (supportedPaymentMethods.contains(DropInPaymentMethod.UNKNOWN)) {
+                addCardViewPreloader.preload(this);
+            }
+        });
+
+        if (dropInClient.isMetricsEnabled()) {
+            reportSupportedPaymentMethodsRender();
+        }
+
         showBottomSheet();
+        dropInClient.endStage(DropInStage.ACTIVITY_CREATE, sessionStartTime, DropInStageOutcome.SUCCESS);
+    }
+
+    private void preinflateVaultManagerRows() {
+        // the vault manager is only reachable with a client token; inflating its rows while the
+        // bottom sheet animates means opening it needs no inflation on the main thread
+        if (clientTokenPresent && dropInRequest.isVaultManagerEnabled()) {
+            paymentMethodViewPool.preinflateVaultManagerRows(this);
+        }
+    }
+
+    PaymentMethodViewPool getPaymentMethodViewPool() {
+        return paymentMethodViewPool;
+    }
+
+    AddCardViewPreloader getAddCardViewPreloader() {
+        return addCardViewPreloader;
+    }
+
+    private void endBottomSheetAnimation() {
+        dropInClient.endStage(DropInStage.BOTTOM_SHEET_ANIMATION, bottomSheetAnimationStartTime,
+                DropInStageOutcome.SUCCESS);
+        bottomSheetAnimationStartTime = DropInMetrics.NOT_STARTED;
+    }
+
+    private void reportSupportedPaymentMethodsRender() {
+        final long startTime = sessionStartTime;
+        fragmentContainerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (dropInViewModel.getSupportedPaymentMethods().getValue() != null) {
+                    fragmentContainerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    dropInClient.endStage(DropInStage.SUPPORTED_PAYMENT_METHODS_RENDER, startTime,
+                            DropInStageOutcome.SUCCESS);
+                }
+                return true;
+            }
+        });
     }
 
     @VisibleForTesting
     void finishDropInWithError(Exception e) {
         setResult(RESULT_FIRST_USER, new Intent().putExtra(DropInResult.EXTRA_ERROR, e));
+        dropInClient.endStage(DropInStage.ACTIVITY_FINISH, sessionStartTime, DropInMetrics.getOutcome(e));
         finish();
     }
 
+    private void applyPrewarmedResults(Intent intent) {
+        List<String> supportedPaymentMethodNames =
+                intent.getStringArrayListExtra(DropInClient.EXTRA_SUPPORTED_PAYMENT_METHODS);
+        if (supportedPaymentMethodNames == null) {
+            return;
+        }
+
+        List<DropInPaymentMethod> supportedPaymentMethods = new ArrayList<>();
+        for (String paymentMethodName : supportedPaymentMethodNames) {
+            supportedPaymentMethods.add(DropInPaymentMethod.valueOf(paymentMethodName));
+        }
+        dropInViewModel.setSupportedPaymentMethods(supportedPaymentMethods);
+
+        // only the launching client has them; a client built here has none
+        List<PaymentMethodNonce> vaultedPaymentMethods =
+                dropInClient.takePrewarmedVaultedPaymentMethods();
+        if (vaultedPaymentMethods != null) {
+            dropInViewModel.setVaultedPaymentMethods(vaultedPaymentMethods);
+        }
+    }
+
     private DropInRequest getDropInRequest(Intent intent) {
         Bundle bundle = intent.getParcelableExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE);
         bundle.setClassLoader(DropInRequest.class.getClassLoader());
@@ -137,6 +259,9 @@ public class DropInActivity extends AppCompatActivity {
             case DELETE_VAULTED_PAYMENT_METHOD:
                 onDeleteVaultedPaymentMethod(event);
                 break;
+            case DELETE_VAULTED_PAYMENT_METHODS:
+                onDeleteVaultedPaymentMethods(event);
+                break;
             case EDIT_CARD_NUMBER:
                 onEditCardNumber(event);
                 break;
@@ -149,6 +274,9 @@ public class DropInActivity extends AppCompatActivity {
             case SUPPORTED_PAYMENT_METHOD_SELECTED:
                 onSupportedPaymentMethodSelected(event);
                 break;
+            case TRANSITION_COMPLETED:
+                onTransitionCompleted(event);
+                break;
             case VAULTED_PAYMENT_METHOD_SELECTED:
                 onVaultedPaymentMethodSelected(event);
                 break;
@@ -186,7 +314,9 @@ public class DropInActivity extends AppCompatActivity {
     }
 
     private void deleteVaultedPaymentMethod(final PaymentMethodNonce paymentMethodNonceToDelete) {
-        alertPresenter.showConfirmNonceDeletionDialog(this, paymentMethodNonceToDelete, interaction -> {
+        VaultedPaymentMethodDisplay paymentMethodToDelete =
+                dropInViewModel.getVaultedPaymentMethodDisplay(paymentMethodNonceToDelete);
+        alertPresenter.showConfirmNonceDeletionDialog(this, paymentMethodToDelete, interaction -> {
             switch (interaction) {
                 case POSITIVE:
                     sendAnalyticsEvent("manager.delete.confirmation.positive");
@@ -201,24 +331,96 @@ public class DropInActivity extends AppCompatActivity {
 
     @VisibleForTesting
     void removePaymentMethodNonce(PaymentMethodNonce paymentMethodNonceToDelete) {
-        // proactively remove from view model
-        dropInViewModel.removeVaultedPaymentMethodNonce(paymentMethodNonceToDelete);
-
-        dropInClient.deletePaymentMethod(DropInActivity.this, paymentMethodNonceToDelete, (deletedNonce, error) -> {
-            if (deletedNonce != null) {
-                sendAnalyticsEvent("manager.delete.succeeded");
-            } else if (error instanceof PaymentMethodDeleteException) {
-                sendAnalyticsEvent("manager.delete.failed");
-
-                int snackBarTextResId = R.string.bt_vault_manager_delete_failure;
-                alertPresenter.showSnackbarText(
-                        fragmentContainerView, snackBarTextResId, Snackbar.LENGTH_LONG);
+        // hidden right away and shown again if the delete fails; the user can keep choosing a
+        // payment method while it is deleted
+        dropInViewModel.deleteVaultedPaymentMethodNonces(
+                Collections.singletonList(paymentMethodNonceToDelete),
+                createSingleDeleter(dropInClient, getApplicationContext()));
+    }
+
+    /**
+     * Deletes the payment method of each request with its own call. The view model keeps the
+     * deleter past a configuration change, so it only holds the client and application context.
+     */
+    private static VaultDeletionQueue.Deleter createSingleDeleter(final DropInClient dropInClient, final Context applicationContext) {
+        return (paymentMethodNonces, callback) -> dropInClient.deletePaymentMethod(applicationContext,
+                paymentMethodNonces.get(0), (deletedNonce, error) -> {
+                    if (deletedNonce != null) {
+                        callback.onResult(new DeletePaymentMethodNoncesResult(
+                                Collections.singletonList(deletedNonce),
+                                Collections.<PaymentMethodDeleteException>emptyList()), null);
+                    } else if (error instanceof PaymentMethodDeleteException) {
+                        callback.onResult(new DeletePaymentMethodNoncesResult(
+                                Collections.<PaymentMethodNonce>emptyList(),
+                                Collections.singletonList((PaymentMethodDeleteException) error)), null);
+                    } else {
+                        callback.onResult(null, error);
+                    }
+                });
+    }
+
+    private void onDeleteVaultedPaymentMethods(DropInEvent event) {
+        final List<PaymentMethodNonce> paymentMethodNoncesToDelete =
+                event.getPaymentMethodNonces(DropInEventProperty.VAULTED_PAYMENT_METHODS);
+        alertPresenter.showConfirmNoncesDeletionDialog(this, paymentMethodNoncesToDelete, interaction -> {
+            switch (interaction) {
+                case POSITIVE:
+                    sendAnalyticsEvent("manager.delete.confirmation.positive");
+                    removePaymentMethodNonces(paymentMethodNoncesToDelete);
+                    break;
+                case NEGATIVE:
+                    sendAnalyticsEvent("manager.delete.confirmation.negative");
+                    break;
+            }
+        });
+    }
+
+    @VisibleForTesting
+    void removePaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNoncesToDelete) {
+        // hidden right away and shown again if their delete fails
+        dropInViewModel.deleteVaultedPaymentMethodNonces(paymentMethodNoncesToDelete,
+                createBatchDeleter(dropInClient, getApplicationContext()));
+    }
+
+    /**
+     * Deletes the payment methods of each request with one call; see
+     * {@link #createSingleDeleter(DropInClient, Context)}.
+     */
+    private static VaultDeletionQueue.Deleter createBatchDeleter(final DropInClient dropInClient, final Context applicationContext) {
+        return (paymentMethodNonces, callback) ->
+                dropInClient.deletePaymentMethods(applicationContext, paymentMethodNonces, callback);
+    }
+
+    private void onVaultedPaymentMethodsDeleted(List<VaultDeletionResult> results) {
+        for (VaultDeletionResult vaultDeletionResult : results) {
+            DeletePaymentMethodNoncesResult result = vaultDeletionResult.getResult();
+            if (result != null) {
+                if (result.getFailures().isEmpty()) {
+                    sendAnalyticsEvent("manager.delete.succeeded");
+                } else {
+                    sendAnalyticsEvent("manager.delete.failed");
+                    @StringRes int failureTextResId = (vaultDeletionResult.getPaymentMethodNonces().size() > 1)
+                            ? R.string.bt_vault_manager_delete_multiple_failure
+                            : R.string.bt_vault_manager_delete_failure;
+                    alertPresenter.showSnackbarText(
+                            fragmentContainerView, failureTextResId, Snackbar.LENGTH_LONG);
+                }
             } else {
                 sendAnalyticsEvent("manager.unknown.failed");
                 // TODO: determine how to handle unexpected error when deleting payment method (previously finished drop in)
-                onError(error);
+                onError(vaultDeletionResult.getError());
+                return;
             }
-        });
+        }
+    }
+
+    private void onTransitionCompleted(DropInEvent event) {
+        dropInClient.reportTransitionFrames(
+                event.getTransition(DropInEventProperty.TRANSITION),
+                event.getInt(DropInEventProperty.FRAME_COUNT),
+                event.getInt(DropInEventProperty.DROPPED_FRAME_COUNT),
+                event.getLong(DropInEventProperty.WORST_FRAME_DURATION),
+                event.getLong(DropInEventProperty.TRANSITION_DURATION));
     }
 
     private void onSendAnalytics(DropInEvent event) {
@@ -231,7 +433,6 @@ public class DropInActivity extends AppCompatActivity {
     }
 
     private void refreshVaultedPaymentMethods() {
-        // TODO: consider caching nonces or use a ViewModel for handling nonces
         // TODO: show loading indicator while fetching vaulted payment methods
         dropInClient.getVaultedPaymentMethods(this, (paymentMethodNonceList, error) -> {
             if (paymentMethodNonceList != null) {
@@ -243,18 +444,30 @@ public class DropInActivity extends AppCompatActivity {
     }
 
     private void onDidShowBottomSheet() {
+        if (dropInViewModel.getSupportedPaymentMethods().getValue() != null) {
+            // payment methods were prewarmed by the host application
+            if (dropInViewModel.getVaultedPaymentMethods().getValue() == null) {
+                updateVaultedPaymentMethodNonces(false);
+            }
+            return;
+        }
+
         dropInClient.getSupportedPaymentMethods(this, (paymentMethods, error) -> {
             if (paymentMethods != null) {
                 dropInViewModel.setSupportedPaymentMethods(paymentMethods);
-
-                // TODO: consider pull to refresh to allow user to request an updated
-                // instead of having this event respond to the visual presentation of supported
-                // payment methods
-                updateVaultedPaymentMethodNonces(false);
-            } else {
+            } else if (!isFinishing()) {
+                // the concurrent vaulted payment method request may have already failed
                 onError(error);
             }
         });
+
+        // TODO: consider pull to refresh to allow user to request an updated
+        // instead of having this event respond to the visual presentation of supported
+        // payment methods
+
+        // started alongside supported payment methods so the configuration and Google Pay
+        // requests in flight are shared
+        updateVaultedPaymentMethodNonces(false);
     }
 
     private void onDidHideBottomSheet() {
@@ -269,10 +482,12 @@ public class DropInActivity extends AppCompatActivity {
             Intent intent = new Intent()
                     .putExtra(DropInResult.EXTRA_DROP_IN_RESULT, pendingDropInResult);
             setResult(RESULT_OK, intent);
+            dropInClient.endStage(DropInStage.ACTIVITY_FINISH, sessionStartTime, DropInStageOutcome.SUCCESS);
         } else {
             // assume drop in cancelled
             sendAnalyticsEvent("sdk.exit.canceled");
             setResult(RESULT_CANCELED);
+            dropInClient.endStage(DropInStage.ACTIVITY_FINISH, sessionStartTime, DropInStageOutcome.CANCELED);
         }
 
         finish();
@@ -288,10 +503,10 @@ public class DropInActivity extends AppCompatActivity {
 
     private void updateVaultedPaymentMethodNonces(boolean refetch) {
         if (clientTokenPresent) {
-            dropInClient.getVaultedPaymentMethods(this, (vaultedPaymentMethods, error) -> {
+            dropInClient.getVaultedPaymentMethods(this, refetch, (vaultedPaymentMethods, error) -> {
                 if (vaultedPaymentMethods != null) {
                     dropInViewModel.setVaultedPaymentMethods(vaultedPaymentMethods);
-                } else if (error != null) {
+                } else if (error != null && !isFinishing()) {
                     onError(error);
                 }
             });
@@ -445,6 +660,8 @@ public class DropInActivity extends AppCompatActivity {
         }
 
         dropInViewModel.setDropInState(DropInState.WILL_FINISH);
+        // the nonce is single use once it is verified or returned in a DropInResult
+        dropInClient.onVaultedPaymentMethodConsumed(paymentMethodNonce);
         dropInClient.shouldRequestThreeDSecureVerification(paymentMethodNonce, shouldRequestThreeDSecureVerification -> {
             if (shouldRequestThreeDSecureVerification) {
                 dropInClient.performThreeDSecureVerification(DropInActivity.this, paymentMethodNonce, (dropInResult, error) -> {
@@ -457,7 +674,8 @@ public class DropInActivity extends AppCompatActivity {
                 });
             } else {
                 final DropInResult dropInResult = new DropInResult();
-                dropInResult.setPaymentMethodNonce(paymentMethodNonce);
+                dropInResult.setPaymentMethod(
+                        dropInViewModel.getVaultedPaymentMethodDisplay(paymentMethodNonce));
                 dropInClient.collectDeviceData(DropInActivity.this, (deviceData, error) -> {
                     if (deviceData != null) {
                         dropInResult.setDeviceData(deviceData);
@@ -0,0 +1,65 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds Drop-in UI analytics events in memory so they are not sent while the requests that
+ * checkout waits on are in flight. Events are flushed together when Drop-in stops, either
+ * because checkout finished or because the app went to the background.
+ * <p>
+ * The buffer holds at most {@link #MAX_BUFFERED_EVENTS}; when it is full the oldest event is
+ * dropped to make room for the newest, and the drop is counted so it can be reported.
+ * <p>
+ * {@link BraintreeClient#sendAnalyticsEvent(String)} timestamps an event when it is called and
+ * cannot be given an earlier time, so flushed events keep their order but carry the time of the
+ * flush rather than the time they happened.
+ */
+class DropInAnalyticsBuffer {
+
+    static final int MAX_BUFFERED_EVENTS = 100;
+
+    private final int capacity;
+    private final ArrayDeque<String> eventNames = new ArrayDeque<>();
+
+    private int droppedEventCount;
+
+    DropInAnalyticsBuffer() {
+        this(MAX_BUFFERED_EVENTS);
+    }
+
+    DropInAnalyticsBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void add(String eventName) {
+        if (eventNames.size() == capacity) {
+            eventNames.removeFirst();
+            droppedEventCount++;
+        }
+        eventNames.addLast(eventName);
+    }
+
+    /**
+     * @return the buffered events in the order they were added, leaving the buffer empty.
+     */
+    synchronized List<String> drain() {
+        List<String> result = new ArrayList<>(eventNames);
+        eventNames.clear();
+        return result;
+    }
+
+    synchronized int size() {
+        return eventNames.size();
+    }
+
+    /**
+     * @return how many events were dropped since the last call, resetting the count.
+     */
+    synchronized int takeDroppedEventCount() {
+        int count = droppedEventCount;
+        droppedEventCount = 0;
+        return count;
+    }
+}
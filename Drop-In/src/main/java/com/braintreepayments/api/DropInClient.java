@@ -12,9 +12,7 @@ import androidx.fragment.app.FragmentActivity;
 import com.braintreepayments.cardform.utils.CardType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Used to launch Drop-in and handle results
@@ -25,40 +23,78 @@ public class DropInClient {
     static final String EXTRA_CHECKOUT_REQUEST_BUNDLE = "com.braintreepayments.api.EXTRA_CHECKOUT_REQUEST_BUNDLE";
     static final String EXTRA_SESSION_ID = "com.braintreepayments.api.EXTRA_SESSION_ID";
     static final String EXTRA_AUTHORIZATION = "com.braintreepayments.api.EXTRA_AUTHORIZATION";
+    static final String EXTRA_SUPPORTED_PAYMENT_METHODS = "com.braintreepayments.api.EXTRA_SUPPORTED_PAYMENT_METHODS";
 
-    private static final String CARD_TYPE_UNION_PAY = "UnionPay";
+    static final String ANALYTICS_EVENTS_DROPPED_EVENT = "analytics.events-dropped";
+
+    // Android vitals counts a frame that takes longer than this as frozen
+    private static final long FROZEN_FRAME_DURATION_NANOS = 700_000_000L;
 
     @VisibleForTesting
     final BraintreeClient braintreeClient;
-    private final PaymentMethodClient paymentMethodClient;
-    private final GooglePayClient googlePayClient;
-    private final PayPalClient payPalClient;
-    private final VenmoClient venmoClient;
-    private final CardClient cardClient;
-    private final UnionPayClient unionPayClient;
+    private final LazyClient<PaymentMethodClient> paymentMethodClient;
+    private final LazyClient<GooglePayClient> googlePayClient;
+    private final LazyClient<PayPalClient> payPalClient;
+    private final LazyClient<VenmoClient> venmoClient;
+    private final LazyClient<CardClient> cardClient;
+    private final LazyClient<UnionPayClient> unionPayClient;
 
     private final DropInRequest dropInRequest;
-    private final ThreeDSecureClient threeDSecureClient;
-    private final DataCollector dataCollector;
+    private final LazyClient<ThreeDSecureClient> threeDSecureClient;
+    private final LazyClient<DataCollector> dataCollector;
+    private final List<DropInPaymentMethodProvider> paymentMethodProviders;
 
     private final DropInSharedPreferences dropInSharedPreferences;
+    private final VaultedPaymentMethodCache vaultedPaymentMethodCache;
+    private final PaymentMethodCapabilityCache paymentMethodCapabilityCache;
+    private final UnionPayCapabilitiesCache unionPayCapabilitiesCache;
+    private final DropInSessionRegistry dropInSessionRegistry;
+    private final DropInMetrics metrics;
+    private final DropInAnalyticsBuffer analyticsBuffer;
+    private final FetchRetrier fetchRetrier;
 
     private final PaymentMethodInspector paymentMethodInspector = new PaymentMethodInspector();
 
+    // identical requests that overlap share a single network or Play Services round trip
+    private final SingleFlight<Configuration> configurationRequests = new SingleFlight<>();
+    private final SingleFlight<Boolean> isReadyToPayRequests = new SingleFlight<>();
+    private final SingleFlight<List<PaymentMethodNonce>> paymentMethodNoncesRequests = new SingleFlight<>();
+    // replaced for each Drop-in session, so a collection still in flight from an earlier
+    // session is not shared with the next one
+    private volatile SingleFlight<String> deviceDataRequests = new SingleFlight<>();
+
+    // collected once per session and shared by every result; a failed collection is not kept so
+    // the next result retries it
+    private volatile String deviceData;
+
+    // prewarmed results belong to the launch they were fetched before
+    private volatile int launchCount;
+
+    private volatile DropInFrameMetricsListener frameMetricsListener;
+
+    // a 3DS challenge started in performThreeDSecureVerification completes in an activity result
+    private long threeDSecureChallengeStartTime = DropInMetrics.NOT_STARTED;
+
+    @VisibleForTesting
+    List<DropInPaymentMethod> prewarmedSupportedPaymentMethods;
+
+    @VisibleForTesting
+    List<PaymentMethodNonce> prewarmedVaultedPaymentMethods;
+
+    // prewarmed vaulted payment methods of the launched session, waiting for its DropInActivity
+    private volatile List<PaymentMethodNonce> launchedVaultedPaymentMethods;
+
     private static DropInClientParams createDefaultParams(Context context, String authorization, DropInRequest dropInRequest, String sessionId) {
         BraintreeClient braintreeClient = new BraintreeClient(context, authorization, sessionId, IntegrationType.DROP_IN);
         return new DropInClientParams()
                 .dropInRequest(dropInRequest)
                 .braintreeClient(braintreeClient)
-                .threeDSecureClient(new ThreeDSecureClient(braintreeClient))
-                .paymentMethodClient(new PaymentMethodClient(braintreeClient))
-                .payPalClient(new PayPalClient(braintreeClient))
-                .venmoClient(new VenmoClient(braintreeClient))
-                .cardClient(new CardClient(braintreeClient))
-                .unionPayClient(new UnionPayClient(braintreeClient))
-                .dataCollector(new DataCollector(braintreeClient))
-                .googlePayClient(new GooglePayClient(braintreeClient))
-                .dropInSharedPreferences(DropInSharedPreferences.getInstance());
+                .dropInSharedPreferences(DropInSharedPreferences.getInstance())
+                .vaultedPaymentMethodCache(VaultedPaymentMethodCache.getInstance())
+                .paymentMethodCapabilityCache(PaymentMethodCapabilityCache.getInstance())
+                .unionPayCapabilitiesCache(UnionPayCapabilitiesCache.getInstance())
+                .dropInSessionRegistry(DropInSessionRegistry.getInstance())
+                .fetchRetrier(FetchRetrier.getInstance());
     }
 
     public DropInClient(Context context, String authorization, DropInRequest dropInRequest) {
@@ -73,15 +109,26 @@ public class DropInClient {
     DropInClient(DropInClientParams params) {
         this.dropInRequest = params.getDropInRequest();
         this.braintreeClient = params.getBraintreeClient();
-        this.googlePayClient = params.getGooglePayClient();
-        this.paymentMethodClient = params.getPaymentMethodClient();
-        this.threeDSecureClient = params.getThreeDSecureClient();
-        this.payPalClient = params.getPayPalClient();
-        this.venmoClient = params.getVenmoClient();
-        this.cardClient = params.getCardClient();
-        this.unionPayClient = params.getUnionPayClient();
-        this.dataCollector = params.getDataCollector();
+
+        // payment method clients are created on first use, so a session only builds
+        // the clients of the payment methods its configuration and request reach
+        this.googlePayClient = new LazyClient<>(params.getGooglePayClient(), () -> new GooglePayClient(braintreeClient));
+        this.paymentMethodClient = new LazyClient<>(params.getPaymentMethodClient(), () -> new PaymentMethodClient(braintreeClient));
+        this.threeDSecureClient = new LazyClient<>(params.getThreeDSecureClient(), () -> new ThreeDSecureClient(braintreeClient));
+        this.payPalClient = new LazyClient<>(params.getPayPalClient(), () -> new PayPalClient(braintreeClient));
+        this.venmoClient = new LazyClient<>(params.getVenmoClient(), () -> new VenmoClient(braintreeClient));
+        this.cardClient = new LazyClient<>(params.getCardClient(), () -> new CardClient(braintreeClient));
+        this.unionPayClient = new LazyClient<>(params.getUnionPayClient(), () -> new UnionPayClient(braintreeClient));
+        this.dataCollector = new LazyClient<>(params.getDataCollector(), () -> new DataCollector(braintreeClient));
+        this.paymentMethodProviders = params.getPaymentMethodProviders();
         this.dropInSharedPreferences = params.getDropInSharedPreferences();
+        this.vaultedPaymentMethodCache = params.getVaultedPaymentMethodCache();
+        this.paymentMethodCapabilityCache = params.getPaymentMethodCapabilityCache();
+        this.unionPayCapabilitiesCache = params.getUnionPayCapabilitiesCache();
+        this.dropInSessionRegistry = params.getDropInSessionRegistry();
+        this.metrics = new DropInMetrics(params.getDropInClock());
+        this.analyticsBuffer = params.getAnalyticsBuffer();
+        this.fetchRetrier = params.getFetchRetrier();
     }
 
     Authorization getAuthorization() {
@@ -89,30 +136,142 @@ public class DropInClient {
     }
 
     void getConfiguration(ConfigurationCallback callback) {
-        braintreeClient.getConfiguration(callback);
+        fetchConfiguration(callback);
     }
 
+    /**
+     * Buffers a Drop-in UI analytics event until {@link #flushAnalyticsEvents()} is called, so it
+     * does not compete with the requests checkout is waiting on.
+     */
     void sendAnalyticsEvent(String eventName) {
-        braintreeClient.sendAnalyticsEvent(eventName);
+        analyticsBuffer.add(eventName);
+    }
+
+    /**
+     * Sends every buffered analytics event, in the order they were recorded, followed by
+     * {@link #ANALYTICS_EVENTS_DROPPED_EVENT} if the buffer had to drop any.
+     */
+    void flushAnalyticsEvents() {
+        for (String eventName : analyticsBuffer.drain()) {
+            braintreeClient.sendAnalyticsEvent(eventName);
+        }
+        if (analyticsBuffer.takeDroppedEventCount() > 0) {
+            braintreeClient.sendAnalyticsEvent(ANALYTICS_EVENTS_DROPPED_EVENT);
+        }
+    }
+
+    /**
+     * Sets a listener that is told how long each {@link DropInStage} of the Drop-in session
+     * launched by this client took. {@link DropInActivity} continues with the launching client
+     * unless the process has been recreated, in which case stages of the restored session are
+     * not reported.
+     *
+     * @param listener {@link DropInMetricsListener}, or {@code null} to stop reporting
+     */
+    public void setMetricsListener(@Nullable DropInMetricsListener listener) {
+        String sessionId = (listener == null) ? null : braintreeClient.getSessionId();
+        metrics.setListener(listener, sessionId);
+    }
+
+    boolean isMetricsEnabled() {
+        return metrics.isEnabled();
+    }
+
+    /**
+     * Sets a listener that is told how smoothly each {@link DropInTransition} of the Drop-in
+     * session launched by this client was drawn. Frames are only tracked while a listener is set,
+     * and each reported transition is also recorded in Drop-in analytics.
+     *
+     * @param listener {@link DropInFrameMetricsListener}, or {@code null} to stop tracking frames
+     */
+    public void setFrameMetricsListener(@Nullable DropInFrameMetricsListener listener) {
+        frameMetricsListener = listener;
+    }
+
+    boolean isFrameMetricsEnabled() {
+        return frameMetricsListener != null;
     }
 
-    void collectDeviceData(FragmentActivity activity, DataCollectorCallback callback) {
-        dataCollector.collectDeviceData(activity, callback);
+    void reportTransitionFrames(DropInTransition transition, int frameCount, int droppedFrameCount, long worstFrameDurationNanos, long durationNanos) {
+        DropInFrameMetricsListener listener = frameMetricsListener;
+        if (listener == null) {
+            return;
+        }
+
+        String smoothness;
+        if (worstFrameDurationNanos > FROZEN_FRAME_DURATION_NANOS) {
+            smoothness = "frozen";
+        } else if (droppedFrameCount > 0) {
+            smoothness = "janky";
+        } else {
+            smoothness = "smooth";
+        }
+        analyticsBuffer.add(String.format("frames.%s.%s", transition.getAnalyticsName(), smoothness));
+
+        listener.onTransitionCompleted(new DropInFrameMetric(transition, braintreeClient.getSessionId(),
+                frameCount, droppedFrameCount, worstFrameDurationNanos, durationNanos));
+    }
+
+    /**
+     * @return the start time to pass to {@link #endStage(DropInStage, long, DropInStageOutcome)}
+     */
+    long startStage() {
+        return metrics.start();
+    }
+
+    void endStage(DropInStage stage, long startTime, DropInStageOutcome outcome) {
+        metrics.end(stage, startTime, outcome);
+    }
+
+    /**
+     * Starts collecting device data ahead of the first result so that result paths do not wait
+     * for it. Failures are ignored here and retried by the next call to
+     * {@link #collectDeviceData(FragmentActivity, DataCollectorCallback)}.
+     */
+    void prefetchDeviceData(FragmentActivity activity) {
+        collectDeviceData(activity, (deviceData, error) -> {
+            // result is memoized by collectDeviceData
+        });
+    }
+
+    void collectDeviceData(final FragmentActivity activity, final DataCollectorCallback callback) {
+        String collectedDeviceData = deviceData;
+        if (collectedDeviceData != null) {
+            callback.onResult(collectedDeviceData, null);
+            return;
+        }
+
+        final SingleFlight<String> requests = deviceDataRequests;
+        requests.execute(request -> {
+            final long startTime = metrics.start();
+            dataCollector.get().collectDeviceData(activity, (result, error) -> {
+                metrics.end(DropInStage.DEVICE_DATA_COLLECTION, startTime, error);
+                if (result != null && requests == deviceDataRequests) {
+                    deviceData = result;
+                }
+                request.onResult(result, error);
+            });
+        }, callback::onResult);
     }
 
     void performThreeDSecureVerification(final FragmentActivity activity, PaymentMethodNonce paymentMethodNonce, final DropInResultCallback callback) {
         final ThreeDSecureRequest threeDSecureRequest = dropInRequest.getThreeDSecureRequest();
         threeDSecureRequest.setNonce(paymentMethodNonce.getString());
 
-        threeDSecureClient.performVerification(activity, threeDSecureRequest, (lookupResult, error) -> {
+        final long lookupStartTime = metrics.start();
+        threeDSecureClient.get().performVerification(activity, threeDSecureRequest, (lookupResult, error) -> {
+            metrics.end(DropInStage.THREE_D_SECURE_LOOKUP, lookupStartTime, error);
             if (lookupResult != null) {
-                threeDSecureClient.continuePerformVerification(activity, threeDSecureRequest, lookupResult, (threeDSecureResult, continueError) -> {
+                // a challenge completes in handleThreeDSecureActivityResult instead of below
+                threeDSecureChallengeStartTime = metrics.start();
+                threeDSecureClient.get().continuePerformVerification(activity, threeDSecureRequest, lookupResult, (threeDSecureResult, continueError) -> {
+                    endThreeDSecureChallenge(continueError);
                     if (continueError != null) {
                         callback.onResult(null, continueError);
                     } else if (threeDSecureResult != null) {
                         final DropInResult dropInResult = new DropInResult();
                         dropInResult.setPaymentMethodNonce(threeDSecureResult.getTokenizedCard());
-                        dataCollector.collectDeviceData(activity, (deviceData, dataCollectionError) -> {
+                        collectDeviceData(activity, (deviceData, dataCollectionError) -> {
                             if (deviceData != null) {
                                 dropInResult.setDeviceData(deviceData);
                                 callback.onResult(dropInResult, null);
@@ -128,9 +287,14 @@ public class DropInClient {
         });
     }
 
+    private void endThreeDSecureChallenge(Exception error) {
+        metrics.end(DropInStage.THREE_D_SECURE_CHALLENGE, threeDSecureChallengeStartTime, error);
+        threeDSecureChallengeStartTime = DropInMetrics.NOT_STARTED;
+    }
+
     void shouldRequestThreeDSecureVerification(PaymentMethodNonce paymentMethodNonce, final ShouldRequestThreeDSecureVerification callback) {
         if (paymentMethodCanPerformThreeDSecureVerification(paymentMethodNonce)) {
-            braintreeClient.getConfiguration((configuration, error) -> {
+            fetchConfiguration((configuration, error) -> {
                 if (configuration == null) {
                     callback.onResult(false);
                     return;
@@ -151,11 +315,11 @@ public class DropInClient {
         if (paypalRequest == null) {
             paypalRequest = new PayPalVaultRequest();
         }
-        payPalClient.tokenizePayPalAccount(activity, paypalRequest, callback);
+        payPalClient.get().tokenizePayPalAccount(activity, paypalRequest, callback);
     }
 
     void requestGooglePayPayment(FragmentActivity activity, GooglePayRequestPaymentCallback callback) {
-        googlePayClient.requestPayment(activity, dropInRequest.getGooglePayRequest(), callback);
+        googlePayClient.get().requestPayment(activity, dropInRequest.getGooglePayRequest(), callback);
     }
 
     void tokenizeVenmoAccount(FragmentActivity activity, VenmoTokenizeAccountCallback callback) {
@@ -163,27 +327,59 @@ public class DropInClient {
         if (venmoRequest == null) {
             venmoRequest = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
         }
-        venmoClient.tokenizeVenmoAccount(activity, venmoRequest, callback);
+        venmoClient.get().tokenizeVenmoAccount(activity, venmoRequest, callback);
     }
 
-    void deletePaymentMethod(FragmentActivity activity, PaymentMethodNonce paymentMethodNonce, DeletePaymentMethodNonceCallback callback) {
-        paymentMethodClient.deletePaymentMethod(activity, paymentMethodNonce, callback);
+    void deletePaymentMethod(final Context context, PaymentMethodNonce paymentMethodNonce, final DeletePaymentMethodNonceCallback callback) {
+        paymentMethodClient.get().deletePaymentMethod(context, paymentMethodNonce, (deletedNonce, error) -> {
+            if (deletedNonce != null) {
+                invalidateVaultedPaymentMethodCache();
+                dropInSharedPreferences.clearPaymentMethodSnapshot(context);
+            }
+            callback.onResult(deletedNonce, error);
+        });
     }
 
-    void tokenizeCard(Card card, CardTokenizeCallback callback) {
-        cardClient.tokenize(card, callback);
+    void deletePaymentMethods(final Context context, List<PaymentMethodNonce> paymentMethodNonces, final DeletePaymentMethodNoncesCallback callback) {
+        paymentMethodClient.get().deletePaymentMethods(context, paymentMethodNonces, (result, error) -> {
+            if (result != null && !result.getDeletedNonces().isEmpty()) {
+                invalidateVaultedPaymentMethodCache();
+                dropInSharedPreferences.clearPaymentMethodSnapshot(context);
+            }
+            callback.onResult(result, error);
+        });
+    }
+
+    void tokenizeCard(Card card, final CardTokenizeCallback callback) {
+        final long startTime = metrics.start();
+        cardClient.get().tokenize(card, (cardNonce, error) -> {
+            metrics.end(DropInStage.CARD_TOKENIZATION, startTime, error);
+            if (cardNonce != null) {
+                // the card may have been vaulted for the customer
+                invalidateVaultedPaymentMethodCache();
+            }
+            callback.onResult(cardNonce, error);
+        });
     }
 
     void fetchUnionPayCapabilities(String cardNumber, UnionPayFetchCapabilitiesCallback callback) {
-        unionPayClient.fetchCapabilities(cardNumber, callback);
+        Authorization authorization = braintreeClient.getAuthorization();
+        String merchantKey = (authorization != null) ? authorization.getConfigUrl() : null;
+        unionPayCapabilitiesCache.fetchCapabilities(merchantKey, cardNumber, unionPayClient, callback);
     }
 
     void enrollUnionPay(UnionPayCard unionPayCard, UnionPayEnrollCallback callback) {
-        unionPayClient.enroll(unionPayCard, callback);
+        unionPayClient.get().enroll(unionPayCard, callback);
     }
 
-    void tokenizeUnionPay(UnionPayCard unionPayCard, UnionPayTokenizeCallback callback) {
-        unionPayClient.tokenize(unionPayCard, callback);
+    void tokenizeUnionPay(UnionPayCard unionPayCard, final UnionPayTokenizeCallback callback) {
+        unionPayClient.get().tokenize(unionPayCard, (cardNonce, error) -> {
+            if (cardNonce != null) {
+                // the card may have been vaulted for the customer
+                invalidateVaultedPaymentMethodCache();
+            }
+            callback.onResult(cardNonce, error);
+        });
     }
 
     BrowserSwitchResult getBrowserSwitchResult(FragmentActivity activity) {
@@ -197,11 +393,11 @@ public class DropInClient {
 
             switch (requestCode) {
                 case BraintreeRequestCodes.PAYPAL:
-                    payPalClient.onBrowserSwitchResult(browserSwitchResult, (payPalAccountNonce, error) ->
+                    payPalClient.get().onBrowserSwitchResult(browserSwitchResult, (payPalAccountNonce, error) ->
                             notifyDropInResult(activity, payPalAccountNonce, error, callback));
                     break;
                 case BraintreeRequestCodes.THREE_D_SECURE:
-                    threeDSecureClient.onBrowserSwitchResult(browserSwitchResult, (threeDSecureResult, error) -> {
+                    threeDSecureClient.get().onBrowserSwitchResult(browserSwitchResult, (threeDSecureResult, error) -> {
                         PaymentMethodNonce paymentMethodNonce = null;
                         if (threeDSecureResult != null) {
                             paymentMethodNonce = threeDSecureResult.getTokenizedCard();
@@ -227,7 +423,8 @@ public class DropInClient {
     }
 
     void handleThreeDSecureActivityResult(final FragmentActivity activity, int resultCode, Intent data, final DropInResultCallback callback) {
-        threeDSecureClient.onActivityResult(resultCode, data, (threeDSecureResult, error) -> {
+        threeDSecureClient.get().onActivityResult(resultCode, data, (threeDSecureResult, error) -> {
+            endThreeDSecureChallenge(error);
             PaymentMethodNonce paymentMethodNonce = null;
             if (threeDSecureResult != null) {
                 paymentMethodNonce = threeDSecureResult.getTokenizedCard();
@@ -237,12 +434,12 @@ public class DropInClient {
     }
 
     void handleGooglePayActivityResult(final FragmentActivity activity, int resultCode, Intent data, final DropInResultCallback callback) {
-        googlePayClient.onActivityResult(resultCode, data, (paymentMethodNonce, error) ->
+        googlePayClient.get().onActivityResult(resultCode, data, (paymentMethodNonce, error) ->
                 notifyDropInResult(activity, paymentMethodNonce, error, callback));
     }
 
     void handleVenmoActivityResult(final FragmentActivity activity, int resultCode, Intent data, final DropInResultCallback callback) {
-        venmoClient.onActivityResult(activity, resultCode, data, (venmoAccountNonce, error) ->
+        venmoClient.get().onActivityResult(activity, resultCode, data, (venmoAccountNonce, error) ->
                 notifyDropInResult(activity, venmoAccountNonce, error, callback));
     }
 
@@ -254,7 +451,7 @@ public class DropInClient {
 
         final DropInResult dropInResult = new DropInResult();
         dropInResult.setPaymentMethodNonce(paymentMethodNonce);
-        dataCollector.collectDeviceData(activity, (deviceData, dataCollectionError) -> {
+        collectDeviceData(activity, (deviceData, dataCollectionError) -> {
             if (dataCollectionError != null) {
                 callback.onResult(null, dataCollectionError);
                 return;
@@ -280,58 +477,61 @@ public class DropInClient {
     }
 
     void getSupportedPaymentMethods(final FragmentActivity activity, final GetSupportedPaymentMethodsCallback callback) {
-        braintreeClient.getConfiguration((configuration, error) -> {
-            if (error != null) {
-                callback.onResult(null, error);
+        final boolean checkGooglePay = !dropInRequest.isGooglePayDisabled();
+
+        final StageJoiner.Result<Configuration> configurationResult = new StageJoiner.Result<>();
+        final StageJoiner.Result<Boolean> isReadyToPayResult = new StageJoiner.Result<>();
+        final StageJoiner.Result<Boolean> isVenmoAvailableResult = new StageJoiner.Result<>();
+
+        final StageJoiner joiner = new StageJoiner(checkGooglePay ? 2 : 1, () -> {
+            Exception configurationError = configurationResult.getError();
+            if (configurationError != null) {
+                callback.onResult(null, configurationError);
                 return;
             }
 
-            if (!dropInRequest.isGooglePayDisabled()) {
-                googlePayClient.isReadyToPay(activity, (isReadyToGooglePay, isReadyToPayError) -> {
-                    List<DropInPaymentMethod> availablePaymentMethods =
-                            filterSupportedPaymentMethods(activity, configuration, isReadyToGooglePay);
-                    callback.onResult(availablePaymentMethods, null);
+            // a Google Pay readiness error is treated the same as not ready to pay
+            boolean showGooglePay = Boolean.TRUE.equals(isReadyToPayResult.getValue());
+            boolean isVenmoAvailable = Boolean.TRUE.equals(isVenmoAvailableResult.getValue());
+            List<DropInPaymentMethod> availablePaymentMethods = filterSupportedPaymentMethods(
+                    configurationResult.getValue(), new DeviceAvailability(showGooglePay, isVenmoAvailable));
+            callback.onResult(availablePaymentMethods, null);
+        });
+
+        fetchConfiguration((configuration, error) -> {
+            boolean checkVenmo = configuration != null
+                    && configuration.isVenmoEnabled() && !dropInRequest.isVenmoDisabled();
+            if (checkVenmo) {
+                // resolved off the main thread and cached until packages change on the device
+                paymentMethodCapabilityCache.isVenmoAppSwitchAvailable(activity, venmoClient, isAvailable -> {
+                    isVenmoAvailableResult.set(isAvailable);
+                    joiner.complete(configurationResult, configuration, null);
                 });
             } else {
-                List<DropInPaymentMethod> availablePaymentMethods =
-                        filterSupportedPaymentMethods(activity, configuration, false);
-                callback.onResult(availablePaymentMethods, null);
+                joiner.complete(configurationResult, configuration, error);
             }
         });
-    }
 
-    private List<DropInPaymentMethod> filterSupportedPaymentMethods(Context context, Configuration configuration, boolean showGooglePay) {
-        List<DropInPaymentMethod> availablePaymentMethods = new ArrayList<>();
-
-        if (!dropInRequest.isPayPalDisabled() && configuration.isPayPalEnabled()) {
-            availablePaymentMethods.add(DropInPaymentMethod.PAYPAL);
-        }
-
-        if (!dropInRequest.isVenmoDisabled() && configuration.isVenmoEnabled() && venmoClient.isVenmoAppSwitchAvailable(context)) {
-            availablePaymentMethods.add(DropInPaymentMethod.VENMO);
-        }
-
-        if (!dropInRequest.isCardDisabled()) {
-            Set<String> supportedCardTypes =
-                    new HashSet<>(configuration.getSupportedCardTypes());
-            if (!configuration.isUnionPayEnabled()) {
-                supportedCardTypes.remove(CARD_TYPE_UNION_PAY);
-            }
-            if (supportedCardTypes.size() > 0) { 
-                availablePaymentMethods.add(DropInPaymentMethod.UNKNOWN);
-            }
+        if (checkGooglePay) {
+            isReadyToPay(activity, (isReadyToPay, error) ->
+                    joiner.complete(isReadyToPayResult, isReadyToPay, error));
         }
+    }
 
-        if (showGooglePay) {
-            if (!dropInRequest.isGooglePayDisabled()) {
-                availablePaymentMethods.add(DropInPaymentMethod.GOOGLE_PAY);
+    @VisibleForTesting
+    List<DropInPaymentMethod> filterSupportedPaymentMethods(Configuration configuration, DeviceAvailability deviceAvailability) {
+        List<DropInPaymentMethod> availablePaymentMethods = new ArrayList<>();
+        for (DropInPaymentMethodProvider provider : paymentMethodProviders) {
+            if (provider.isAvailableOnDevice(deviceAvailability)
+                    && provider.isEnabled(configuration, dropInRequest)) {
+                availablePaymentMethods.add(provider.getPaymentMethod());
             }
         }
         return availablePaymentMethods;
     }
 
     void getSupportedCardTypes(final GetSupportedCardTypesCallback callback) {
-        braintreeClient.getConfiguration((configuration, error) -> {
+        fetchConfiguration((configuration, error) -> {
             if (configuration != null) {
                 List<CardType> supportedCardTypes = new ArrayList<>();
                 for (String cardTypeAsString : configuration.getSupportedCardTypes()) {
@@ -351,6 +551,34 @@ public class DropInClient {
         });
     }
 
+    /**
+     * Called to fetch the configuration, Google Pay and Venmo availability and, when a client
+     * token is used, the customer's vaulted payment methods before Drop-in is launched.
+     * <p>
+     * Results that are ready when {@link #launchDropInForResult(FragmentActivity, int)} is called
+     * are handed to {@link DropInActivity} so the payment method list can be shown without
+     * waiting on the network. Prewarmed results are used for a single launch only.
+     *
+     * @param activity the current {@link FragmentActivity}
+     */
+    public void prewarm(FragmentActivity activity) {
+        // results that arrive after Drop-in has been launched are not kept for the next launch
+        final int launch = launchCount;
+        getSupportedPaymentMethods(activity, (supportedPaymentMethods, error) -> {
+            if (supportedPaymentMethods != null && launch == launchCount) {
+                prewarmedSupportedPaymentMethods = supportedPaymentMethods;
+            }
+        });
+
+        if (braintreeClient.getAuthorization() instanceof ClientToken) {
+            getVaultedPaymentMethods(activity, (vaultedPaymentMethods, error) -> {
+                if (vaultedPaymentMethods != null && launch == launchCount) {
+                    prewarmedVaultedPaymentMethods = vaultedPaymentMethods;
+                }
+            });
+        }
+    }
+
     /**
      * Called to launch a {@link DropInActivity}
      *
@@ -358,15 +586,61 @@ public class DropInClient {
      * @param requestCode the request code for the activity that will be launched
      */
     public void launchDropInForResult(FragmentActivity activity, int requestCode) {
+        String sessionId = braintreeClient.getSessionId();
         Bundle dropInRequestBundle = new Bundle();
         dropInRequestBundle.putParcelable(EXTRA_CHECKOUT_REQUEST, dropInRequest);
         Intent intent = new Intent(activity, DropInActivity.class)
                 .putExtra(EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle)
-                .putExtra(EXTRA_SESSION_ID, braintreeClient.getSessionId())
+                .putExtra(EXTRA_SESSION_ID, sessionId)
                 .putExtra(EXTRA_AUTHORIZATION, braintreeClient.getAuthorization().toString());
+        putPrewarmedResults(intent);
+        // a vault can be too large for an intent, and its card and email details should not be
+        // kept with one, so the activity takes the vaulted payment methods from this client
+        List<PaymentMethodNonce> vaultedPaymentMethods =
+                (prewarmedSupportedPaymentMethods == null) ? null : prewarmedVaultedPaymentMethods;
+        startSession();
+        launchedVaultedPaymentMethods = vaultedPaymentMethods;
+        // lets DropInActivity continue with this client instead of building a new one
+        dropInSessionRegistry.register(sessionId, this);
         activity.startActivityForResult(intent, requestCode);
     }
 
+    /**
+     * Drops what was memoized for an earlier Drop-in session, so the session being launched
+     * collects its own device data and needs a new prewarm before the next launch.
+     */
+    private void startSession() {
+        launchCount++;
+        // vaulted nonces are single use
+        prewarmedSupportedPaymentMethods = null;
+        prewarmedVaultedPaymentMethods = null;
+        deviceData = null;
+        deviceDataRequests = new SingleFlight<>();
+    }
+
+    private void putPrewarmedResults(Intent intent) {
+        if (prewarmedSupportedPaymentMethods == null) {
+            return;
+        }
+
+        ArrayList<String> supportedPaymentMethods = new ArrayList<>();
+        for (DropInPaymentMethod paymentMethod : prewarmedSupportedPaymentMethods) {
+            supportedPaymentMethods.add(paymentMethod.name());
+        }
+        intent.putStringArrayListExtra(EXTRA_SUPPORTED_PAYMENT_METHODS, supportedPaymentMethods);
+    }
+
+    /**
+     * @return the vaulted payment methods prewarmed for the session that was launched last, or
+     * {@code null} if there are none. They are handed out once.
+     */
+    @Nullable
+    List<PaymentMethodNonce> takePrewarmedVaultedPaymentMethods() {
+        List<PaymentMethodNonce> vaultedPaymentMethods = launchedVaultedPaymentMethods;
+        launchedVaultedPaymentMethods = null;
+        return vaultedPaymentMethods;
+    }
+
     /**
      * Called to get a user's existing payment method, if any. 
      * The payment method returned is not guaranteed to be the most recently added payment method.
@@ -380,35 +654,75 @@ public class DropInClient {
      */
      // NEXT_MAJOR_VERSION: - update this function name to more accurately represent the behavior of the function
     public void fetchMostRecentPaymentMethod(FragmentActivity activity, final FetchMostRecentPaymentMethodCallback callback) {
-        boolean isClientToken = braintreeClient.getAuthorization() instanceof ClientToken;
-        if (!isClientToken) {
-            InvalidArgumentException error = new InvalidArgumentException("DropInClient#fetchMostRecentPaymentMethods() must " +
-                    "be called with a client token");
-            callback.onResult(null, error);
+        if (!isClientToken()) {
+            callback.onResult(null, createFetchMostRecentPaymentMethodError());
+            return;
+        }
+        revalidateMostRecentPaymentMethod(activity, callback);
+    }
+
+    /**
+     * Called to get a user's existing payment method, if any, without waiting for the network.
+     * The {@link PaymentMethodSnapshot} stored when the user last completed Drop-in is returned
+     * to {@code snapshotCallback} immediately, before the user's vault is fetched as in
+     * {@link #fetchMostRecentPaymentMethod(FragmentActivity, FetchMostRecentPaymentMethodCallback)}
+     * and the result is returned to {@code callback}.
+     * <p>
+     * The snapshot is only returned for the customer it was stored for, and is removed when a
+     * vaulted payment method is deleted. When the fetched vault no longer contains the snapshot's
+     * payment method, the snapshot is replaced by the payment method returned to
+     * {@code callback}, or removed if the vault is empty. If a client token is not used, only
+     * {@code callback} is called.
+     *
+     * @param activity the current {@link FragmentActivity}
+     * @param snapshotCallback callback for handling the stored snapshot
+     * @param callback callback for handling result
+     */
+    public void fetchMostRecentPaymentMethod(FragmentActivity activity, final FetchMostRecentPaymentMethodSnapshotCallback snapshotCallback, final FetchMostRecentPaymentMethodCallback callback) {
+        if (!isClientToken()) {
+            callback.onResult(null, createFetchMostRecentPaymentMethodError());
             return;
         }
 
+        String customerKey = VaultedPaymentMethodCache.getCustomerKey(braintreeClient.getAuthorization());
+        snapshotCallback.onResult(dropInSharedPreferences.getPaymentMethodSnapshot(activity, customerKey));
+        revalidateMostRecentPaymentMethod(activity, callback);
+    }
+
+    private boolean isClientToken() {
+        return braintreeClient.getAuthorization() instanceof ClientToken;
+    }
+
+    private InvalidArgumentException createFetchMostRecentPaymentMethodError() {
+        return new InvalidArgumentException("DropInClient#fetchMostRecentPaymentMethods() must " +
+                "be called with a client token");
+    }
+
+    private void revalidateMostRecentPaymentMethod(final FragmentActivity activity, final FetchMostRecentPaymentMethodCallback callback) {
         DropInPaymentMethod lastUsedPaymentMethod =
             dropInSharedPreferences.getLastUsedPaymentMethod(activity);
 
         if (lastUsedPaymentMethod == DropInPaymentMethod.GOOGLE_PAY) {
-            googlePayClient.isReadyToPay(activity, (isReadyToPay, error) -> {
+            isReadyToPay(activity, (isReadyToPay, error) -> {
                 if (isReadyToPay) {
                     DropInResult result = new DropInResult();
                     result.setPaymentMethodType(DropInPaymentMethod.GOOGLE_PAY);
                     callback.onResult(result, null);
                 } else {
-                    getPaymentMethodNonces(callback);
+                    getPaymentMethodNonces(activity, callback);
                 }
             });
         } else {
-            getPaymentMethodNonces(callback);
+            getPaymentMethodNonces(activity, callback);
         }
     }
 
-    private void getPaymentMethodNonces(final FetchMostRecentPaymentMethodCallback callback) {
-        paymentMethodClient.getPaymentMethodNonces((paymentMethodNonceList, error) -> {
+    private void getPaymentMethodNonces(final Context context, final FetchMostRecentPaymentMethodCallback callback) {
+        fetchPaymentMethodNonces((paymentMethodNonceList, error) -> {
             if (paymentMethodNonceList != null) {
+                String customerKey = VaultedPaymentMethodCache.getCustomerKey(braintreeClient.getAuthorization());
+                dropInSharedPreferences.revalidatePaymentMethodSnapshot(context, customerKey, paymentMethodNonceList);
+
                 DropInResult result = new DropInResult();
                 if (paymentMethodNonceList.size() > 0) {
                     PaymentMethodNonce paymentMethod = paymentMethodNonceList.get(0);
@@ -422,36 +736,155 @@ public class DropInClient {
     }
 
     void getVaultedPaymentMethods(final FragmentActivity activity, final GetPaymentMethodNoncesCallback callback) {
-        // TODO: cache nonces in ViewModel and allow refresh of vaulted payment methods instead of having a refetch parameter
+        getVaultedPaymentMethods(activity, false, callback);
+    }
 
-        braintreeClient.getConfiguration((configuration, error) -> {
-            if (error != null) {
-                callback.onResult(null, error);
+    /**
+     * @param refetch {@code true} to bypass the vaulted payment method cache, e.g. after a vaulted
+     *                nonce has been consumed by a failed 3D Secure verification.
+     */
+    void getVaultedPaymentMethods(final FragmentActivity activity, boolean refetch, final GetPaymentMethodNoncesCallback callback) {
+        final boolean checkGooglePay = !dropInRequest.isGooglePayDisabled();
+
+        final StageJoiner.Result<Configuration> configurationResult = new StageJoiner.Result<>();
+        final StageJoiner.Result<List<PaymentMethodNonce>> paymentMethodNoncesResult = new StageJoiner.Result<>();
+        final StageJoiner.Result<Boolean> isReadyToPayResult = new StageJoiner.Result<>();
+
+        // configuration is only needed when filtering, so all stages start together
+        final StageJoiner joiner = new StageJoiner(checkGooglePay ? 3 : 2, () -> {
+            Exception configurationError = configurationResult.getError();
+            if (configurationError != null) {
+                callback.onResult(null, configurationError);
                 return;
             }
 
-            paymentMethodClient.getPaymentMethodNonces((paymentMethodNonces, getPaymentMethodNoncesError) -> {
-                if (getPaymentMethodNoncesError != null) {
-                    callback.onResult(null, getPaymentMethodNoncesError);
-                } else if (paymentMethodNonces != null) {
-                    if (!dropInRequest.isGooglePayDisabled()) {
-                        googlePayClient.isReadyToPay(activity, (isReadyToPay, isReadyToPayError) -> {
-                            AvailablePaymentMethodNonceList availablePaymentMethodNonceList =
-                                    new AvailablePaymentMethodNonceList(configuration, paymentMethodNonces, dropInRequest, isReadyToPay);
-                            callback.onResult(availablePaymentMethodNonceList.getItems(), null);
-                        });
-                    } else {
-                        AvailablePaymentMethodNonceList availablePaymentMethodNonceList =
-                                new AvailablePaymentMethodNonceList(configuration, paymentMethodNonces, dropInRequest, false);
-                        callback.onResult(availablePaymentMethodNonceList.getItems(), null);
-                    }
+            Exception getPaymentMethodNoncesError = paymentMethodNoncesResult.getError();
+            List<PaymentMethodNonce> paymentMethodNonces = paymentMethodNoncesResult.getValue();
+            if (getPaymentMethodNoncesError != null) {
+                callback.onResult(null, getPaymentMethodNoncesError);
+            } else if (paymentMethodNonces != null) {
+                boolean isReadyToPay = Boolean.TRUE.equals(isReadyToPayResult.getValue());
+                // vaulted payment methods do not depend on the Venmo app, so it is not looked up
+                DeviceAvailability deviceAvailability = new DeviceAvailability(isReadyToPay, false);
+                AvailablePaymentMethodNonceList availablePaymentMethodNonceList =
+                        new AvailablePaymentMethodNonceList(configurationResult.getValue(), paymentMethodNonces, dropInRequest, deviceAvailability, paymentMethodProviders);
+                callback.onResult(availablePaymentMethodNonceList.getItems(), null);
+            }
+        });
+
+        fetchConfiguration((configuration, error) ->
+                joiner.complete(configurationResult, configuration, error));
+
+        fetchVaultedPaymentMethodNonces(refetch, (paymentMethodNonces, error) ->
+                joiner.complete(paymentMethodNoncesResult, paymentMethodNonces, error));
+
+        if (checkGooglePay) {
+            isReadyToPay(activity, (isReadyToPay, error) ->
+                    joiner.complete(isReadyToPayResult, isReadyToPay, error));
+        }
+    }
+
+    private void fetchVaultedPaymentMethodNonces(boolean refetch, final GetPaymentMethodNoncesCallback callback) {
+        final String customerKey = VaultedPaymentMethodCache.getCustomerKey(braintreeClient.getAuthorization());
+        long timeToLive = dropInRequest.getVaultedPaymentMethodCacheTtl();
+        if (customerKey == null || timeToLive <= 0) {
+            fetchPaymentMethodNonces(callback);
+            return;
+        }
+
+        if (!refetch) {
+            long startTime = metrics.start();
+            List<PaymentMethodNonce> cachedNonces = vaultedPaymentMethodCache.get(customerKey);
+            if (cachedNonces != null) {
+                boolean isStale = vaultedPaymentMethodCache.isStale(customerKey, timeToLive);
+                // misses are reported by the network fetch below
+                metrics.end(DropInStage.VAULTED_PAYMENT_METHODS_FETCH, startTime, DropInStageOutcome.SUCCESS, true);
+                callback.onResult(cachedNonces, null);
+                if (isStale) {
+                    // serve the stale entry now and revalidate it for the next read
+                    fetchAndCacheVaultedPaymentMethodNonces(customerKey, null);
                 }
-            });
+                return;
+            }
+        }
+        fetchAndCacheVaultedPaymentMethodNonces(customerKey, callback);
+    }
+
+    private void fetchAndCacheVaultedPaymentMethodNonces(final String customerKey, @Nullable final GetPaymentMethodNoncesCallback callback) {
+        final int generation = vaultedPaymentMethodCache.getGeneration();
+        fetchPaymentMethodNonces((paymentMethodNonces, error) -> {
+            if (paymentMethodNonces != null) {
+                vaultedPaymentMethodCache.put(customerKey, paymentMethodNonces, generation);
+            }
+            if (callback != null) {
+                callback.onResult(paymentMethodNonces, error);
+            }
         });
     }
 
+    private void invalidateVaultedPaymentMethodCache() {
+        String customerKey = VaultedPaymentMethodCache.getCustomerKey(braintreeClient.getAuthorization());
+        if (customerKey != null) {
+            vaultedPaymentMethodCache.invalidate(customerKey);
+        }
+    }
+
+    /**
+     * Called when a vaulted payment method nonce is handed out in a {@link DropInResult}. Vaulted
+     * nonces are single use, so the nonce is dropped from the vaulted payment method cache.
+     */
+    void onVaultedPaymentMethodConsumed(PaymentMethodNonce paymentMethodNonce) {
+        vaultedPaymentMethodCache.markConsumed(paymentMethodNonce);
+    }
+
+    private void fetchConfiguration(final ConfigurationCallback callback) {
+        configurationRequests.execute(request -> {
+            final long startTime = metrics.start();
+            fetchRetrier.<Configuration>fetch(getRetryPolicy(), "configuration",
+                    attempt -> braintreeClient.getConfiguration(attempt::onResult),
+                    (configuration, error) -> {
+                        metrics.end(DropInStage.CONFIGURATION_FETCH, startTime, error);
+                        request.onResult(configuration, error);
+                    });
+        }, callback::onResult);
+    }
+
+    private void isReadyToPay(final FragmentActivity activity, final GooglePayIsReadyToPayCallback callback) {
+        Authorization authorization = braintreeClient.getAuthorization();
+        final String merchantKey = (authorization != null) ? authorization.getConfigUrl() : null;
+        isReadyToPayRequests.execute(request -> {
+            final long startTime = metrics.start();
+            paymentMethodCapabilityCache.isReadyToPay(activity, merchantKey, googlePayClient, (isReadyToPay, error) -> {
+                metrics.end(DropInStage.IS_READY_TO_PAY, startTime, error);
+                request.onResult(isReadyToPay, error);
+            });
+        }, callback::onResult);
+    }
+
+    private void fetchPaymentMethodNonces(final GetPaymentMethodNoncesCallback callback) {
+        paymentMethodNoncesRequests.execute(request -> {
+            final long startTime = metrics.start();
+            fetchRetrier.<List<PaymentMethodNonce>>fetch(getRetryPolicy(), "payment_methods",
+                    attempt -> paymentMethodClient.get().getPaymentMethodNonces(attempt::onResult),
+                    (paymentMethodNonces, error) -> {
+                        metrics.end(DropInStage.VAULTED_PAYMENT_METHODS_FETCH, startTime, error);
+                        request.onResult(paymentMethodNonces, error);
+                    });
+        }, callback::onResult);
+    }
+
+    private DropInRetryPolicy getRetryPolicy() {
+        DropInRetryPolicy retryPolicy = (dropInRequest != null) ? dropInRequest.getRetryPolicy() : null;
+        return (retryPolicy != null) ? retryPolicy : new DropInRetryPolicy();
+    }
+
     void setLastUsedPaymentMethodType(Context context, PaymentMethodNonce paymentMethodNonce) {
         Context appContext = context.getApplicationContext();
         dropInSharedPreferences.setLastUsedPaymentMethod(appContext, paymentMethodNonce);
+
+        String customerKey = VaultedPaymentMethodCache.getCustomerKey(braintreeClient.getAuthorization());
+        if (customerKey != null) {
+            dropInSharedPreferences.setPaymentMethodSnapshot(appContext, customerKey, paymentMethodNonce);
+        }
     }
 }
@@ -1,5 +1,12 @@
 package com.braintreepayments.api;
 
+import java.util.List;
+
+/**
+ * Dependencies of a {@link DropInClient}. Payment method clients that are not set here are
+ * created the first time Drop-in uses them; other dependencies that are not set are created when
+ * they are read.
+ */
 class DropInClientParams {
 
     private DropInRequest dropInRequest;
@@ -14,6 +21,14 @@ class DropInClientParams {
     private DataCollector dataCollector;
     private ThreeDSecureClient threeDSecureClient;
     private DropInSharedPreferences dropInSharedPreferences;
+    private VaultedPaymentMethodCache vaultedPaymentMethodCache;
+    private PaymentMethodCapabilityCache paymentMethodCapabilityCache;
+    private UnionPayCapabilitiesCache unionPayCapabilitiesCache;
+    private DropInSessionRegistry dropInSessionRegistry;
+    private DropInClock dropInClock;
+    private DropInAnalyticsBuffer analyticsBuffer;
+    private FetchRetrier fetchRetrier;
+    private List<DropInPaymentMethodProvider> paymentMethodProviders;
 
     ThreeDSecureClient getThreeDSecureClient() {
         return threeDSecureClient;
@@ -113,4 +128,100 @@ class DropInClientParams {
     DropInSharedPreferences getDropInSharedPreferences() {
         return dropInSharedPreferences;
     }
+
+    DropInClientParams vaultedPaymentMethodCache(VaultedPaymentMethodCache vaultedPaymentMethodCache) {
+        this.vaultedPaymentMethodCache = vaultedPaymentMethodCache;
+        return this;
+    }
+
+    VaultedPaymentMethodCache getVaultedPaymentMethodCache() {
+        if (vaultedPaymentMethodCache == null) {
+            vaultedPaymentMethodCache = new VaultedPaymentMethodCache();
+        }
+        return vaultedPaymentMethodCache;
+    }
+
+    DropInClientParams paymentMethodCapabilityCache(PaymentMethodCapabilityCache paymentMethodCapabilityCache) {
+        this.paymentMethodCapabilityCache = paymentMethodCapabilityCache;
+        return this;
+    }
+
+    PaymentMethodCapabilityCache getPaymentMethodCapabilityCache() {
+        if (paymentMethodCapabilityCache == null) {
+            paymentMethodCapabilityCache = new PaymentMethodCapabilityCache();
+        }
+        return paymentMethodCapabilityCache;
+    }
+
+    DropInClientParams unionPayCapabilitiesCache(UnionPayCapabilitiesCache unionPayCapabilitiesCache) {
+        this.unionPayCapabilitiesCache = unionPayCapabilitiesCache;
+        return this;
+    }
+
+    UnionPayCapabilitiesCache getUnionPayCapabilitiesCache() {
+        if (unionPayCapabilitiesCache == null) {
+            unionPayCapabilitiesCache = new UnionPayCapabilitiesCache();
+        }
+        return unionPayCapabilitiesCache;
+    }
+
+    DropInClientParams dropInSessionRegistry(DropInSessionRegistry dropInSessionRegistry) {
+        this.dropInSessionRegistry = dropInSessionRegistry;
+        return this;
+    }
+
+    DropInSessionRegistry getDropInSessionRegistry() {
+        if (dropInSessionRegistry == null) {
+            dropInSessionRegistry = new DropInSessionRegistry();
+        }
+        return dropInSessionRegistry;
+    }
+
+    DropInClientParams dropInClock(DropInClock dropInClock) {
+        this.dropInClock = dropInClock;
+        return this;
+    }
+
+    DropInClock getDropInClock() {
+        if (dropInClock == null) {
+            dropInClock = new DropInClock();
+        }
+        return dropInClock;
+    }
+
+    DropInClientParams analyticsBuffer(DropInAnalyticsBuffer analyticsBuffer) {
+        this.analyticsBuffer = analyticsBuffer;
+        return this;
+    }
+
+    DropInAnalyticsBuffer getAnalyticsBuffer() {
+        if (analyticsBuffer == null) {
+            analyticsBuffer = new DropInAnalyticsBuffer();
+        }
+        return analyticsBuffer;
+    }
+
+    DropInClientParams paymentMethodProviders(List<DropInPaymentMethodProvider> paymentMethodProviders) {
+        this.paymentMethodProviders = paymentMethodProviders;
+        return this;
+    }
+
+    List<DropInPaymentMethodProvider> getPaymentMethodProviders() {
+        if (paymentMethodProviders == null) {
+            paymentMethodProviders = DropInPaymentMethodProvider.createDefaultProviders();
+        }
+        return paymentMethodProviders;
+    }
+
+    DropInClientParams fetchRetrier(FetchRetrier fetchRetrier) {
+        this.fetchRetrier = fetchRetrier;
+        return this;
+    }
+
+    FetchRetrier getFetchRetrier() {
+        if (fetchRetrier == null) {
+            fetchRetrier = new FetchRetrier();
+        }
+        return fetchRetrier;
+    }
 }
@@ -0,0 +1,28 @@
+package com.braintreepayments.api;
+
+import android.os.SystemClock;
+
+/**
+ * Source of monotonic time for Drop-in caches and timers. Injected so tests can control time.
+ */
+class DropInClock {
+
+    long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * @return wall clock time, for timestamps that are persisted across processes.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return monotonic time in nanoseconds, in the time base of
+     * {@link android.view.Choreographer} frame times.
+     */
+    long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -4,6 +4,9 @@ import android.os.Bundle;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class DropInEvent {
 
     static final String REQUEST_KEY = "DROP_IN_EVENT_REQUEST_KEY";
@@ -40,6 +43,12 @@ class DropInEvent {
         return event;
     }
 
+    static DropInEvent createDeleteVaultedPaymentMethodNoncesEvent(List<PaymentMethodNonce> paymentMethodNoncesToDelete) {
+        DropInEvent event = new DropInEvent(DropInEventType.DELETE_VAULTED_PAYMENT_METHODS);
+        event.putParcelableArrayList(DropInEventProperty.VAULTED_PAYMENT_METHODS, new ArrayList<>(paymentMethodNoncesToDelete));
+        return event;
+    }
+
     static DropInEvent createVaultedPaymentMethodSelectedEvent(PaymentMethodNonce paymentMethodNonce) {
         DropInEvent event = new DropInEvent(DropInEventType.VAULTED_PAYMENT_METHOD_SELECTED);
         event.putParcelable(DropInEventProperty.VAULTED_PAYMENT_METHOD, paymentMethodNonce);
@@ -52,6 +61,16 @@ class DropInEvent {
         return event;
     }
 
+    static DropInEvent createTransitionCompletedEvent(DropInTransition transition, FrameTracker frameTracker) {
+        DropInEvent event = new DropInEvent(DropInEventType.TRANSITION_COMPLETED);
+        event.putString(DropInEventProperty.TRANSITION, transition.name());
+        event.putInt(DropInEventProperty.FRAME_COUNT, frameTracker.getFrameCount());
+        event.putInt(DropInEventProperty.DROPPED_FRAME_COUNT, frameTracker.getDroppedFrameCount());
+        event.putLong(DropInEventProperty.WORST_FRAME_DURATION, frameTracker.getWorstFrameDurationNanos());
+        event.putLong(DropInEventProperty.TRANSITION_DURATION, frameTracker.getDurationNanos());
+        return event;
+    }
+
     static DropInEvent fromBundle(Bundle bundle) {
         return new DropInEvent(bundle);
     }
@@ -76,10 +95,22 @@ class DropInEvent {
         bundle.putParcelable(property.getBundleKey(), parcelable);
     }
 
+    private void putParcelableArrayList(DropInEventProperty property, ArrayList<? extends Parcelable> parcelables) {
+        bundle.putParcelableArrayList(property.getBundleKey(), parcelables);
+    }
+
     private void putString(DropInEventProperty property, String value) {
         bundle.putString(property.getBundleKey(), value);
     }
 
+    private void putInt(DropInEventProperty property, int value) {
+        bundle.putInt(property.getBundleKey(), value);
+    }
+
+    private void putLong(DropInEventProperty property, long value) {
+        bundle.putLong(property.getBundleKey(), value);
+    }
+
     String getString(DropInEventProperty property) {
         return bundle.getString(property.getBundleKey());
     }
@@ -93,6 +124,22 @@ class DropInEvent {
         return bundle.getParcelable(property.getBundleKey());
     }
 
+    List<PaymentMethodNonce> getPaymentMethodNonces(DropInEventProperty property) {
+        return bundle.getParcelableArrayList(property.getBundleKey());
+    }
+
+    int getInt(DropInEventProperty property) {
+        return bundle.getInt(property.getBundleKey());
+    }
+
+    long getLong(DropInEventProperty property) {
+        return bundle.getLong(property.getBundleKey());
+    }
+
+    DropInTransition getTransition(DropInEventProperty property) {
+        return DropInTransition.valueOf(bundle.getString(property.getBundleKey()));
+    }
+
     Card getCard(DropInEventProperty property) {
         return bundle.getParcelable(property.getBundleKey());
     }
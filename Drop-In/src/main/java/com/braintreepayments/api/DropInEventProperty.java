@@ -5,7 +5,13 @@ enum DropInEventProperty {
     CARD_NUMBER("com.braintreepayments.api.DropInEventProperty.CARD_NUMBER"),
     SUPPORTED_PAYMENT_METHOD("com.braintreepayments.api.DropInEventProperty.SUPPORTED_PAYMENT_METHOD"),
     VAULTED_PAYMENT_METHOD("com.braintreepayments.api.DropInEventProperty.VAULTED_PAYMENT_METHOD"),
-    CARD("com.braintreepayments.api.DropInEventProperty.CARD");
+    VAULTED_PAYMENT_METHODS("com.braintreepayments.api.DropInEventProperty.VAULTED_PAYMENT_METHODS"),
+    CARD("com.braintreepayments.api.DropInEventProperty.CARD"),
+    TRANSITION("com.braintreepayments.api.DropInEventProperty.TRANSITION"),
+    FRAME_COUNT("com.braintreepayments.api.DropInEventProperty.FRAME_COUNT"),
+    DROPPED_FRAME_COUNT("com.braintreepayments.api.DropInEventProperty.DROPPED_FRAME_COUNT"),
+    WORST_FRAME_DURATION("com.braintreepayments.api.DropInEventProperty.WORST_FRAME_DURATION"),
+    TRANSITION_DURATION("com.braintreepayments.api.DropInEventProperty.TRANSITION_DURATION");
 
     private final String bundleKey;
 
@@ -4,10 +4,12 @@ enum DropInEventType {
     ADD_CARD_SUBMIT,
     CARD_DETAILS_SUBMIT,
     DELETE_VAULTED_PAYMENT_METHOD,
+    DELETE_VAULTED_PAYMENT_METHODS,
     DISMISS_VAULT_MANAGER,
     EDIT_CARD_NUMBER,
     SEND_ANALYTICS,
     SHOW_VAULT_MANAGER,
     SUPPORTED_PAYMENT_METHOD_SELECTED,
+    TRANSITION_COMPLETED,
     VAULTED_PAYMENT_METHOD_SELECTED
 }
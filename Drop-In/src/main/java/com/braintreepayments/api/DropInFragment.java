@@ -1,9 +1,12 @@
 package com.braintreepayments.api;
 
 import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
 
 abstract class DropInFragment extends Fragment {
 
+    private PaymentMethodViewPool paymentMethodViewPool;
+
     protected void sendDropInEvent(DropInEvent event) {
         if (isAdded()) {
             getParentFragmentManager().setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle());
@@ -13,4 +16,20 @@ abstract class DropInFragment extends Fragment {
     protected void sendAnalyticsEvent(String eventName) {
         sendDropInEvent(DropInEvent.createSendAnalyticsEvent(eventName));
     }
+
+    /**
+     * @return the view pool of the hosting {@link DropInActivity}, or one of this fragment's own
+     * when it is hosted elsewhere
+     */
+    protected PaymentMethodViewPool getPaymentMethodViewPool() {
+        FragmentActivity activity = requireActivity();
+        if (activity instanceof DropInActivity) {
+            return ((DropInActivity) activity).getPaymentMethodViewPool();
+        }
+
+        if (paymentMethodViewPool == null) {
+            paymentMethodViewPool = new PaymentMethodViewPool();
+        }
+        return paymentMethodViewPool;
+    }
 }
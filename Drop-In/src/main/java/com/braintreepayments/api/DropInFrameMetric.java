@@ -0,0 +1,72 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Frame timing of a completed {@link DropInTransition}, measured with
+ * {@link android.view.Choreographer} frame callbacks while the transition animated.
+ */
+public class DropInFrameMetric {
+
+    private final DropInTransition transition;
+    private final String sessionId;
+    private final int frameCount;
+    private final int droppedFrameCount;
+    private final long worstFrameDurationNanos;
+    private final long durationNanos;
+
+    DropInFrameMetric(DropInTransition transition, String sessionId, int frameCount, int droppedFrameCount, long worstFrameDurationNanos, long durationNanos) {
+        this.transition = transition;
+        this.sessionId = sessionId;
+        this.frameCount = frameCount;
+        this.droppedFrameCount = droppedFrameCount;
+        this.worstFrameDurationNanos = worstFrameDurationNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return The {@link DropInTransition} that completed.
+     */
+    @NonNull
+    public DropInTransition getTransition() {
+        return transition;
+    }
+
+    /**
+     * @return The id of the Drop-in session the transition belongs to.
+     */
+    @Nullable
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return How many frames were drawn during the transition.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return How many frames the display could have shown during the transition but were not
+     * drawn in time, based on the display's refresh rate.
+     */
+    public int getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * @return The longest time, in nanoseconds, between two consecutive frames of the transition.
+     */
+    public long getWorstFrameDurationNanos() {
+        return worstFrameDurationNanos;
+    }
+
+    /**
+     * @return How long the transition took, in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener for receiving how smoothly each {@link DropInTransition} of a Drop-in session was
+ * drawn. Register it with {@link DropInClient#setFrameMetricsListener(DropInFrameMetricsListener)}.
+ * <p>
+ * Transitions are reported on the main thread once their animation ends.
+ */
+public interface DropInFrameMetricsListener {
+
+    /**
+     * @param metric {@link DropInFrameMetric} of the transition that completed
+     */
+    void onTransitionCompleted(@NonNull DropInFrameMetric metric);
+}
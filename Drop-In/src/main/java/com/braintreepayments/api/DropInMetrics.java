@@ -0,0 +1,63 @@
+package com.braintreepayments.api;
+
+/**
+ * Times {@link DropInStage}s for a {@link DropInMetricsListener}. Call sites pair
+ * {@link #start()} with {@link #end(DropInStage, long, Exception)}; while no listener is set
+ * neither reads the clock nor allocates.
+ */
+class DropInMetrics {
+
+    static final long NOT_STARTED = -1;
+
+    private final DropInClock clock;
+
+    private volatile DropInMetricsListener listener;
+    private volatile String sessionId;
+
+    DropInMetrics(DropInClock clock) {
+        this.clock = clock;
+    }
+
+    void setListener(DropInMetricsListener listener, String sessionId) {
+        this.sessionId = sessionId;
+        this.listener = listener;
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * @return the start time to pass to {@link #end(DropInStage, long, Exception)}, or
+     * {@link #NOT_STARTED} if no listener is set.
+     */
+    long start() {
+        return (listener == null) ? NOT_STARTED : clock.elapsedRealtime();
+    }
+
+    void end(DropInStage stage, long startTime, Exception error) {
+        end(stage, startTime, getOutcome(error));
+    }
+
+    void end(DropInStage stage, long startTime, DropInStageOutcome outcome) {
+        end(stage, startTime, outcome, false);
+    }
+
+    void end(DropInStage stage, long startTime, DropInStageOutcome outcome, boolean servedFromCache) {
+        DropInMetricsListener currentListener = listener;
+        // stages started before a listener was set are not reported
+        if (currentListener == null || startTime == NOT_STARTED) {
+            return;
+        }
+        currentListener.onStageCompleted(new DropInStageMetric(
+                stage, sessionId, outcome, startTime, clock.elapsedRealtime(), servedFromCache));
+    }
+
+    static DropInStageOutcome getOutcome(Exception error) {
+        if (error == null) {
+            return DropInStageOutcome.SUCCESS;
+        }
+        return (error instanceof UserCanceledException)
+                ? DropInStageOutcome.CANCELED : DropInStageOutcome.FAILURE;
+    }
+}
@@ -0,0 +1,19 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener for receiving how long each stage of a Drop-in session took. Register it with
+ * {@link DropInClient#setMetricsListener(DropInMetricsListener)}.
+ * <p>
+ * Stages are reported on the thread that completes them, which is the main thread for every
+ * stage except {@link DropInStage#DEVICE_DATA_COLLECTION} and
+ * {@link DropInStage#IS_READY_TO_PAY}, which may complete on a background thread.
+ */
+public interface DropInMetricsListener {
+
+    /**
+     * @param metric {@link DropInStageMetric} of the stage that completed
+     */
+    void onStageCompleted(@NonNull DropInStageMetric metric);
+}
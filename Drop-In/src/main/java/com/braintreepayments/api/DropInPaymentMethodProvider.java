@@ -0,0 +1,63 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a payment method Drop-in can offer. Drop-in asks its registered providers, in order,
+ * which payment methods the configuration and {@link DropInRequest} enable and which vaulted
+ * payment methods can be shown. Providers hold no clients; the client that handles a payment
+ * method is only created once that payment method is used.
+ */
+abstract class DropInPaymentMethodProvider {
+
+    /**
+     * @return the providers of every payment method Drop-in supports, in the order they are shown
+     */
+    static List<DropInPaymentMethodProvider> createDefaultProviders() {
+        List<DropInPaymentMethodProvider> providers = new ArrayList<>();
+        providers.add(new PayPalPaymentMethodProvider());
+        providers.add(new VenmoPaymentMethodProvider());
+        providers.add(new CardPaymentMethodProvider());
+        providers.add(new GooglePayPaymentMethodProvider());
+        return providers;
+    }
+
+    /**
+     * @return the payment method shown in the list of supported payment methods
+     */
+    abstract DropInPaymentMethod getPaymentMethod();
+
+    /**
+     * @return {@code true} if the payment method can be offered. Availability on the device, such
+     * as Google Pay readiness, is checked by {@link #isAvailableOnDevice(DeviceAvailability)}.
+     */
+    abstract boolean isEnabled(Configuration configuration, DropInRequest dropInRequest);
+
+    /**
+     * @return {@code true} if the payment method can be used on this device
+     */
+    boolean isAvailableOnDevice(DeviceAvailability deviceAvailability) {
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the vaulted payment method was created with this payment method
+     */
+    abstract boolean isProviderOf(PaymentMethodNonce paymentMethodNonce);
+
+    /**
+     * @return {@code true} if vaulted payment methods created with this payment method can be shown
+     */
+    boolean isVaultedPaymentMethodEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        return isEnabled(configuration, dropInRequest);
+    }
+
+    /**
+     * @return {@code true} if vaulted payment methods created with this payment method can be used
+     * on this device
+     */
+    boolean isVaultedPaymentMethodAvailableOnDevice(DeviceAvailability deviceAvailability) {
+        return isAvailableOnDevice(deviceAvailability);
+    }
+}
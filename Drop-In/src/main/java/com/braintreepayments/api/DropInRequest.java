@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.braintreepayments.cardform.view.CardForm;
@@ -15,6 +16,11 @@ import java.io.Serializable;
  */
 public class DropInRequest implements Parcelable {
 
+    /**
+     * Default time to live, in milliseconds, of a customer's cached vaulted payment methods.
+     */
+    public static final long DEFAULT_VAULTED_PAYMENT_METHOD_CACHE_TTL = 60 * 1000;
+
     private ThreeDSecureRequest threeDSecureRequest;
     private GooglePayRequest googlePayRequest;
     private PayPalRequest payPalRequest;
@@ -32,6 +38,10 @@ public class DropInRequest implements Parcelable {
 
     private int cardholderNameStatus = CardForm.FIELD_DISABLED;
 
+    private long vaultedPaymentMethodCacheTtl = DEFAULT_VAULTED_PAYMENT_METHOD_CACHE_TTL;
+
+    private DropInRetryPolicy retryPolicy = new DropInRetryPolicy();
+
     public DropInRequest() {}
 
     /**
@@ -180,6 +190,30 @@ public class DropInRequest implements Parcelable {
         cardholderNameStatus = fieldStatus;
     }
 
+    /**
+     * This method is optional.
+     *
+     * Sets how long, in milliseconds, a customer's vaulted payment methods are reused before they
+     * are fetched again. Once the time to live has passed, cached payment methods are still shown
+     * immediately while Drop-in refreshes them in the background. Set to {@code 0} to fetch
+     * vaulted payment methods every time they are shown. Defaults to
+     * {@link #DEFAULT_VAULTED_PAYMENT_METHOD_CACHE_TTL}.
+     */
+    public void setVaultedPaymentMethodCacheTtl(long ttlMillis) {
+        vaultedPaymentMethodCacheTtl = ttlMillis;
+    }
+
+    /**
+     * This method is optional.
+     *
+     * @param retryPolicy How Drop-in retries loading the configuration and the customer's vaulted
+     *                    payment methods when the gateway is temporarily unavailable. Defaults to a
+     *                    {@link DropInRetryPolicy} with its default values.
+     */
+    public void setRetryPolicy(@NonNull DropInRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
     /**
      * @return If PayPal is disabled in Drop-in
      */
@@ -276,6 +310,21 @@ public class DropInRequest implements Parcelable {
         return allowVaultCardOverride;
     }
 
+    /**
+     * @return How long, in milliseconds, a customer's vaulted payment methods are reused before they are fetched again.
+     */
+    public long getVaultedPaymentMethodCacheTtl() {
+        return vaultedPaymentMethodCacheTtl;
+    }
+
+    /**
+     * @return How Drop-in retries loading the configuration and vaulted payment methods.
+     */
+    @NonNull
+    public DropInRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -297,6 +346,8 @@ public class DropInRequest implements Parcelable {
         dest.writeInt(cardholderNameStatus);
         dest.writeByte(vaultCardDefaultValue ? (byte) 1 : (byte) 0);
         dest.writeByte(allowVaultCardOverride ? (byte) 1 : (byte) 0);
+        dest.writeLong(vaultedPaymentMethodCacheTtl);
+        dest.writeParcelable(retryPolicy, 0);
     }
 
     protected DropInRequest(Parcel in) {
@@ -314,6 +365,8 @@ public class DropInRequest implements Parcelable {
         cardholderNameStatus = in.readInt();
         vaultCardDefaultValue = in.readByte() != 0;
         allowVaultCardOverride = in.readByte() != 0;
+        vaultedPaymentMethodCacheTtl = in.readLong();
+        retryPolicy = in.readParcelable(DropInRetryPolicy.class.getClassLoader());
     }
 
     public static final Creator<DropInRequest> CREATOR = new Creator<DropInRequest>() {
@@ -47,6 +47,12 @@ public class DropInResult implements Parcelable {
         this.paymentMethodNonce = paymentMethodNonce;
     }
 
+    void setPaymentMethod(VaultedPaymentMethodDisplay paymentMethod) {
+        paymentMethodType = paymentMethod.getPaymentMethodType();
+        paymentDescription = paymentMethod.getDescription();
+        paymentMethodNonce = paymentMethod.getPaymentMethodNonce();
+    }
+
     void setDeviceData(@Nullable String deviceData) {
         this.deviceData = deviceData;
     }
@@ -0,0 +1,137 @@
+package com.braintreepayments.api;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * Controls how Drop-in retries the requests it makes to load the configuration and the
+ * customer's vaulted payment methods when the gateway is temporarily unavailable. Set on a
+ * {@link DropInRequest} with {@link DropInRequest#setRetryPolicy(DropInRetryPolicy)}.
+ */
+public class DropInRetryPolicy implements Parcelable {
+
+    /**
+     * Default number of times a failed request is retried. Requests are not retried unless
+     * {@link #setMaxRetries(int)} is called.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 0;
+
+    /**
+     * Default delay, in milliseconds, before the first retry.
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF = 250;
+
+    /**
+     * Default upper bound, in milliseconds, of the delay before a retry.
+     */
+    public static final long DEFAULT_MAX_BACKOFF = 2000;
+
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private long maxBackoff = DEFAULT_MAX_BACKOFF;
+    private boolean hedgingEnabled = false;
+
+    public DropInRetryPolicy() {}
+
+    /**
+     * This method is optional.
+     *
+     * @param maxRetries How many times a request that failed because the gateway was unavailable
+     *                   is retried before Drop-in finishes with the error, e.g. {@code 2}.
+     *                   Defaults to {@link #DEFAULT_MAX_RETRIES}, which disables retries.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * This method is optional.
+     *
+     * @param initialBackoffMillis The delay, in milliseconds, before the first retry. The delay
+     *                             doubles with every retry and a random part of it is skipped so
+     *                             clients do not retry in lockstep. Defaults to
+     *                             {@link #DEFAULT_INITIAL_BACKOFF}.
+     */
+    public void setInitialBackoff(long initialBackoffMillis) {
+        this.initialBackoff = initialBackoffMillis;
+    }
+
+    /**
+     * This method is optional.
+     *
+     * @param maxBackoffMillis The longest delay, in milliseconds, before a retry. Defaults to
+     *                         {@link #DEFAULT_MAX_BACKOFF}.
+     */
+    public void setMaxBackoff(long maxBackoffMillis) {
+        this.maxBackoff = maxBackoffMillis;
+    }
+
+    /**
+     * This method is optional.
+     *
+     * @param hedgingEnabled If set to true, a request that has not been answered within the time
+     *                       that 95% of recent identical requests took is sent a second time, and
+     *                       whichever copy answers first is used. Default value is false.
+     */
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    /**
+     * @return How many times a request is retried.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @return The delay, in milliseconds, before the first retry.
+     */
+    public long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * @return The longest delay, in milliseconds, before a retry.
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * @return If slow requests are sent a second time.
+     */
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeInt(maxRetries);
+        dest.writeLong(initialBackoff);
+        dest.writeLong(maxBackoff);
+        dest.writeByte(hedgingEnabled ? (byte) 1 : (byte) 0);
+    }
+
+    protected DropInRetryPolicy(Parcel in) {
+        maxRetries = in.readInt();
+        initialBackoff = in.readLong();
+        maxBackoff = in.readLong();
+        hedgingEnabled = in.readByte() != 0;
+    }
+
+    public static final Creator<DropInRetryPolicy> CREATOR = new Creator<DropInRetryPolicy>() {
+        public DropInRetryPolicy createFromParcel(Parcel source) {
+            return new DropInRetryPolicy(source);
+        }
+
+        public DropInRetryPolicy[] newArray(int size) {
+            return new DropInRetryPolicy[size];
+        }
+    };
+}
@@ -0,0 +1,76 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Process-wide registry of the {@link DropInClient} that launched each Drop-in session, keyed by
+ * session id. {@link DropInActivity} uses it to continue with the caller's client, along with its
+ * configuration and any results it has already loaded, instead of building a new one.
+ * <p>
+ * Clients are held weakly so a registered session never keeps the caller's client alive. When
+ * the process has been recreated the registry is empty and {@link DropInActivity} builds its own
+ * client from the launch intent.
+ */
+class DropInSessionRegistry {
+
+    private static volatile DropInSessionRegistry INSTANCE;
+
+    static DropInSessionRegistry getInstance() {
+        if (INSTANCE == null) {
+            synchronized (DropInSessionRegistry.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new DropInSessionRegistry();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final Map<String, WeakReference<DropInClient>> clients = new HashMap<>();
+
+    synchronized void register(String sessionId, DropInClient dropInClient) {
+        if (sessionId == null) {
+            return;
+        }
+
+        Iterator<WeakReference<DropInClient>> iterator = clients.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+        clients.put(sessionId, new WeakReference<>(dropInClient));
+    }
+
+    /**
+     * @param sessionId the session id Drop-in was launched with
+     * @param authorization the authorization Drop-in was launched with
+     * @return the client that launched the session, or {@code null} if it is no longer available
+     * or does not use the same authorization.
+     */
+    @Nullable
+    synchronized DropInClient get(String sessionId, String authorization) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        WeakReference<DropInClient> reference = clients.get(sessionId);
+        DropInClient dropInClient = (reference == null) ? null : reference.get();
+        if (dropInClient == null) {
+            clients.remove(sessionId);
+            return null;
+        }
+
+        Authorization clientAuthorization = dropInClient.getAuthorization();
+        if (clientAuthorization == null || !clientAuthorization.toString().equals(authorization)) {
+            return null;
+        }
+        return dropInClient;
+    }
+}
@@ -2,12 +2,22 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import org.json.JSONException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
 class DropInSharedPreferences {
 
     private static final String LAST_USED_PAYMENT_METHOD =
             "com.braintreepayments.api.dropin.LAST_USED_PAYMENT_METHOD";
+    private static final String PAYMENT_METHOD_SNAPSHOT =
+            "com.braintreepayments.api.dropin.PAYMENT_METHOD_SNAPSHOT";
 
     private static volatile DropInSharedPreferences INSTANCE;
 
@@ -25,6 +35,7 @@ class DropInSharedPreferences {
 
     private final PaymentMethodInspector paymentMethodInspector;
     private final BraintreeSharedPreferences braintreeSharedPreferences;
+    private final DropInClock clock;
 
     private DropInSharedPreferences() {
         this(BraintreeSharedPreferences.getInstance(), new PaymentMethodInspector());
@@ -34,9 +45,19 @@ class DropInSharedPreferences {
     DropInSharedPreferences(
             BraintreeSharedPreferences braintreeSharedPreferences,
             PaymentMethodInspector paymentMethodInspector
+    ) {
+        this(braintreeSharedPreferences, paymentMethodInspector, new DropInClock());
+    }
+
+    @VisibleForTesting
+    DropInSharedPreferences(
+            BraintreeSharedPreferences braintreeSharedPreferences,
+            PaymentMethodInspector paymentMethodInspector,
+            DropInClock clock
     ) {
         this.braintreeSharedPreferences = braintreeSharedPreferences;
         this.paymentMethodInspector = paymentMethodInspector;
+        this.clock = clock;
     }
 
     DropInPaymentMethod getLastUsedPaymentMethod(Context context) {
@@ -61,4 +82,108 @@ class DropInSharedPreferences {
             braintreeSharedPreferences.putString(context, LAST_USED_PAYMENT_METHOD, value);
         }
     }
+
+    /**
+     * @param customerKey the customer key from {@link VaultedPaymentMethodCache#getCustomerKey(Authorization)}
+     * @return the stored snapshot if it belongs to the customer, otherwise {@code null}. A snapshot
+     * that belongs to another customer is removed.
+     */
+    @Nullable
+    PaymentMethodSnapshot getPaymentMethodSnapshot(Context context, String customerKey) {
+        String json = braintreeSharedPreferences.getString(context, PAYMENT_METHOD_SNAPSHOT, null);
+        if (json == null || customerKey == null) {
+            return null;
+        }
+
+        try {
+            PaymentMethodSnapshot snapshot = PaymentMethodSnapshot.fromJson(json);
+            if (snapshot.getCustomer().equals(hashCustomerKey(customerKey))) {
+                return snapshot;
+            }
+        } catch (JSONException | IllegalArgumentException e) {
+            // snapshot is unreadable and is removed below
+        }
+        clearPaymentMethodSnapshot(context);
+        return null;
+    }
+
+    /**
+     * Stores the display details of a payment method for the customer, replacing any snapshot
+     * that is already stored. Only the type and description of the payment method are kept.
+     */
+    void setPaymentMethodSnapshot(Context context, String customerKey, PaymentMethodNonce paymentMethodNonce) {
+        DropInPaymentMethod paymentMethod =
+            paymentMethodInspector.getPaymentMethod(paymentMethodNonce);
+        String customer = hashCustomerKey(customerKey);
+
+        if (paymentMethod != null && customer != null) {
+            PaymentMethodSnapshot snapshot = new PaymentMethodSnapshot(customer, paymentMethod,
+                    paymentMethodInspector.getPaymentMethodDescription(paymentMethodNonce),
+                    clock.currentTimeMillis());
+            try {
+                braintreeSharedPreferences.putString(context, PAYMENT_METHOD_SNAPSHOT, snapshot.toJson());
+            } catch (JSONException e) {
+                clearPaymentMethodSnapshot(context);
+            }
+        }
+    }
+
+    /**
+     * Keeps the customer's snapshot only while its payment method is still vaulted. Otherwise the
+     * snapshot is replaced by the first vaulted payment method, which Drop-in returns as the most
+     * recent one, or removed when the vault is empty.
+     */
+    void revalidatePaymentMethodSnapshot(Context context, String customerKey, List<PaymentMethodNonce> vaultedPaymentMethods) {
+        PaymentMethodSnapshot snapshot = getPaymentMethodSnapshot(context, customerKey);
+        if (snapshot == null) {
+            return;
+        }
+
+        for (PaymentMethodNonce paymentMethodNonce : vaultedPaymentMethods) {
+            if (isSnapshotOf(snapshot, paymentMethodNonce)) {
+                return;
+            }
+        }
+
+        if (vaultedPaymentMethods.isEmpty()) {
+            clearPaymentMethodSnapshot(context);
+        } else {
+            setPaymentMethodSnapshot(context, customerKey, vaultedPaymentMethods.get(0));
+        }
+    }
+
+    private boolean isSnapshotOf(PaymentMethodSnapshot snapshot, PaymentMethodNonce paymentMethodNonce) {
+        if (snapshot.getPaymentMethodType() != paymentMethodInspector.getPaymentMethod(paymentMethodNonce)) {
+            return false;
+        }
+        // a snapshot stores a missing description as an empty string
+        String description = paymentMethodInspector.getPaymentMethodDescription(paymentMethodNonce);
+        String snapshotDescription = snapshot.getPaymentDescription();
+        return ((description == null) ? "" : description)
+                .equals((snapshotDescription == null) ? "" : snapshotDescription);
+    }
+
+    void clearPaymentMethodSnapshot(Context context) {
+        braintreeSharedPreferences.putString(context, PAYMENT_METHOD_SNAPSHOT, null);
+    }
+
+    // the customer key can be a client token's authorization fingerprint, which is not stored
+    @VisibleForTesting
+    static String hashCustomerKey(String customerKey) {
+        if (customerKey == null) {
+            return null;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(customerKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package com.braintreepayments.api;
+
+/**
+ * Stages of a Drop-in session reported to a {@link DropInMetricsListener}.
+ */
+public enum DropInStage {
+
+    /**
+     * {@link DropInActivity#onCreate(android.os.Bundle)}, from content view inflation until the
+     * bottom sheet is requested.
+     */
+    ACTIVITY_CREATE,
+
+    /**
+     * Fetching the merchant configuration.
+     */
+    CONFIGURATION_FETCH,
+
+    /**
+     * Checking whether the customer is ready to pay with Google Pay.
+     */
+    IS_READY_TO_PAY,
+
+    /**
+     * Fetching and parsing the customer's vaulted payment methods, or reading them from Drop-in's
+     * cache; see {@link DropInStageMetric#isServedFromCache()}.
+     */
+    VAULTED_PAYMENT_METHODS_FETCH,
+
+    /**
+     * From the start of {@link #ACTIVITY_CREATE} until the first frame that shows the supported
+     * payment methods.
+     */
+    SUPPORTED_PAYMENT_METHODS_RENDER,
+
+    /**
+     * The bottom sheet sliding in or out.
+     */
+    BOTTOM_SHEET_ANIMATION,
+
+    /**
+     * Tokenizing a card entered by the customer.
+     */
+    CARD_TOKENIZATION,
+
+    /**
+     * The 3D Secure lookup.
+     */
+    THREE_D_SECURE_LOOKUP,
+
+    /**
+     * Continuing 3D Secure verification after the lookup, including any challenge the customer
+     * is shown.
+     */
+    THREE_D_SECURE_CHALLENGE,
+
+    /**
+     * Collecting device data for the result.
+     */
+    DEVICE_DATA_COLLECTION,
+
+    /**
+     * The whole Drop-in session, from the start of {@link #ACTIVITY_CREATE} until the activity
+     * finishes with a result, a cancellation or an error.
+     */
+    ACTIVITY_FINISH
+}
@@ -0,0 +1,85 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Timing of a completed {@link DropInStage}. Times are monotonic, in milliseconds of
+ * {@link android.os.SystemClock#elapsedRealtime()}, so they can be compared across stages but
+ * not with wall clock time.
+ */
+public class DropInStageMetric {
+
+    private final DropInStage stage;
+    private final String sessionId;
+    private final DropInStageOutcome outcome;
+    private final long startTime;
+    private final long endTime;
+    private final boolean servedFromCache;
+
+    DropInStageMetric(DropInStage stage, String sessionId, DropInStageOutcome outcome, long startTime, long endTime) {
+        this(stage, sessionId, outcome, startTime, endTime, false);
+    }
+
+    DropInStageMetric(DropInStage stage, String sessionId, DropInStageOutcome outcome, long startTime, long endTime, boolean servedFromCache) {
+        this.stage = stage;
+        this.sessionId = sessionId;
+        this.outcome = outcome;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.servedFromCache = servedFromCache;
+    }
+
+    /**
+     * @return The {@link DropInStage} that completed.
+     */
+    @NonNull
+    public DropInStage getStage() {
+        return stage;
+    }
+
+    /**
+     * @return The id of the Drop-in session the stage belongs to.
+     */
+    @Nullable
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return The {@link DropInStageOutcome} of the stage.
+     */
+    @NonNull
+    public DropInStageOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return The time the stage started.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return The time the stage completed.
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return How long the stage took, in milliseconds.
+     */
+    public long getDurationMillis() {
+        return endTime - startTime;
+    }
+
+    /**
+     * @return {@code true} if the stage was answered from Drop-in's in-memory cache instead of
+     * the network. Only {@link DropInStage#VAULTED_PAYMENT_METHODS_FETCH} is served from a cache.
+     */
+    public boolean isServedFromCache() {
+        return servedFromCache;
+    }
+}
@@ -0,0 +1,10 @@
+package com.braintreepayments.api;
+
+/**
+ * How a {@link DropInStage} ended.
+ */
+public enum DropInStageOutcome {
+    SUCCESS,
+    FAILURE,
+    CANCELED
+}
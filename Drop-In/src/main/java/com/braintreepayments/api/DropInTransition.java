@@ -0,0 +1,38 @@
+package com.braintreepayments.api;
+
+/**
+ * Animated transitions of the Drop-in bottom sheet reported to a
+ * {@link DropInFrameMetricsListener}.
+ */
+public enum DropInTransition {
+
+    /**
+     * The bottom sheet sliding in, including its start delay.
+     */
+    BOTTOM_SHEET_SLIDE_UP("bottom-sheet.slide-up"),
+
+    /**
+     * The bottom sheet sliding out.
+     */
+    BOTTOM_SHEET_SLIDE_DOWN("bottom-sheet.slide-down"),
+
+    /**
+     * Paging from the supported payment methods to the vault manager.
+     */
+    VAULT_MANAGER_OPEN("manager.open"),
+
+    /**
+     * Paging from the vault manager back to the supported payment methods.
+     */
+    VAULT_MANAGER_CLOSE("manager.close");
+
+    private final String analyticsName;
+
+    DropInTransition(String analyticsName) {
+        this.analyticsName = analyticsName;
+    }
+
+    String getAnalyticsName() {
+        return analyticsName;
+    }
+}
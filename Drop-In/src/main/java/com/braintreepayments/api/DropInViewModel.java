@@ -7,19 +7,53 @@ import androidx.lifecycle.ViewModel;
 import com.braintreepayments.cardform.utils.CardType;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class DropInViewModel extends ViewModel {
 
+    /**
+     * Number of vaulted payment methods rendered at a time. The carousel in
+     * {@link SupportedPaymentMethodsFragment} only ever shows the first page; the vault manager
+     * loads further pages as it is scrolled.
+     */
+    static final int VAULTED_PAYMENT_METHODS_PAGE_SIZE = 20;
+
+    /**
+     * Number of delete requests for vaulted payment methods that may be in flight at a time.
+     */
+    static final int MAX_CONCURRENT_VAULT_DELETIONS = 2;
+
     private final MutableLiveData<BottomSheetState> bottomSheetState = new MutableLiveData<>(BottomSheetState.HIDDEN);
     private final MutableLiveData<DropInState> dropInState = new MutableLiveData<>(DropInState.IDLE);
 
     private final MutableLiveData<List<DropInPaymentMethod>> supportedPaymentMethods = new MutableLiveData<>();
     private final MutableLiveData<List<PaymentMethodNonce>> vaultedPaymentMethods = new MutableLiveData<>();
+    private final MutableLiveData<List<PaymentMethodNonce>> loadedVaultedPaymentMethods = new MutableLiveData<>();
     private final MutableLiveData<List<CardType>> supportedCardTypes = new MutableLiveData<>();
     private final MutableLiveData<Exception> cardTokenizationError = new MutableLiveData<>();
     private final MutableLiveData<Exception> userCanceledError = new MutableLiveData<>();
+    private final MutableLiveData<List<VaultDeletionResult>> vaultDeletionResults =
+            new MutableLiveData<>(Collections.<VaultDeletionResult>emptyList());
+
+    private final PaymentMethodInspector nonceInspector = new PaymentMethodInspector();
+
+    // keyed by nonce string; computed once per vault so rows never inspect a nonce while binding
+    private final Map<String, VaultedPaymentMethodDisplay> vaultedPaymentMethodDisplays = new HashMap<>();
+
+    // the vault in its original order, including payment methods that are being deleted, so a
+    // payment method whose delete fails is shown again where it was
+    private List<PaymentMethodNonce> vault;
+    private final VaultDeletionQueue vaultDeletionQueue =
+            new VaultDeletionQueue(MAX_CONCURRENT_VAULT_DELETIONS, this::onVaultDeletionFinished);
+
+    // set by DropInActivity before the bottom sheet is shown; read around each transition
+    private boolean frameMetricsEnabled;
 
     LiveData<BottomSheetState> getBottomSheetState() {
         return bottomSheetState;
@@ -29,14 +63,137 @@ public class DropInViewModel extends ViewModel {
         bottomSheetState.setValue(value);
     }
 
+    private int loadedVaultedPaymentMethodsPageCount = 1;
+
     void setVaultedPaymentMethods(List<PaymentMethodNonce> value) {
-        vaultedPaymentMethods.setValue(value);
+        loadedVaultedPaymentMethodsPageCount = 1;
+        vaultedPaymentMethodDisplays.clear();
+        if (value != null) {
+            for (PaymentMethodNonce paymentMethodNonce : value) {
+                vaultedPaymentMethodDisplays.put(paymentMethodNonce.getString(),
+                        VaultedPaymentMethodDisplay.from(paymentMethodNonce, nonceInspector));
+            }
+        }
+        vault = value;
+        updateVaultedPaymentMethods();
+    }
+
+    /**
+     * Publishes the vault without the payment methods that are being deleted.
+     */
+    private void updateVaultedPaymentMethods() {
+        List<PaymentMethodNonce> visiblePaymentMethods = vault;
+        if (vault != null && vaultDeletionQueue.hasPendingDeletions()) {
+            boolean[] hidden = getPendingDeletions(vault);
+            visiblePaymentMethods = new ArrayList<>(vault.size());
+            for (int i = 0; i < vault.size(); i++) {
+                if (!hidden[i]) {
+                    visiblePaymentMethods.add(vault.get(i));
+                }
+            }
+        }
+        vaultedPaymentMethods.setValue(visiblePaymentMethods);
+        updateLoadedVaultedPaymentMethods();
+    }
+
+    /**
+     * Matches the payment methods being deleted to {@code paymentMethodNonces}. A refetched vault
+     * has new nonces, so after the nonces that are being deleted themselves, as many payment
+     * methods with the same key as are being deleted are matched.
+     *
+     * @return whether each of {@code paymentMethodNonces} is being deleted
+     */
+    private boolean[] getPendingDeletions(List<PaymentMethodNonce> paymentMethodNonces) {
+        boolean[] pending = new boolean[paymentMethodNonces.size()];
+        Map<String, Integer> unmatchedCounts = new HashMap<>();
+        for (int i = 0; i < paymentMethodNonces.size(); i++) {
+            PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(i);
+            String key = VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonce);
+            Integer unmatchedCount = unmatchedCounts.get(key);
+            if (unmatchedCount == null) {
+                unmatchedCount = vaultDeletionQueue.getPendingCount(key);
+            }
+            if (vaultDeletionQueue.isPending(paymentMethodNonce)) {
+                pending[i] = true;
+                unmatchedCount--;
+            }
+            unmatchedCounts.put(key, unmatchedCount);
+        }
+
+        for (int i = 0; i < paymentMethodNonces.size(); i++) {
+            String key = VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonces.get(i));
+            int unmatchedCount = unmatchedCounts.get(key);
+            if (!pending[i] && unmatchedCount > 0) {
+                pending[i] = true;
+                unmatchedCounts.put(key, unmatchedCount - 1);
+            }
+        }
+        return pending;
     }
 
     LiveData<List<PaymentMethodNonce>> getVaultedPaymentMethods() {
         return vaultedPaymentMethods;
     }
 
+    /**
+     * @return the pages of vaulted payment methods loaded so far, a prefix of
+     * {@link #getVaultedPaymentMethods()}
+     */
+    LiveData<List<PaymentMethodNonce>> getLoadedVaultedPaymentMethods() {
+        return loadedVaultedPaymentMethods;
+    }
+
+    /**
+     * @return how the given vaulted payment method is displayed, computed when the vault was set
+     */
+    VaultedPaymentMethodDisplay getVaultedPaymentMethodDisplay(PaymentMethodNonce paymentMethodNonce) {
+        VaultedPaymentMethodDisplay display = vaultedPaymentMethodDisplays.get(paymentMethodNonce.getString());
+        if (display == null || display.getPaymentMethodNonce() != paymentMethodNonce) {
+            // not part of the current vault, e.g. a payment method that was just deleted
+            display = VaultedPaymentMethodDisplay.from(paymentMethodNonce, nonceInspector);
+        }
+        return display;
+    }
+
+    List<VaultedPaymentMethodDisplay> getVaultedPaymentMethodDisplays(List<PaymentMethodNonce> paymentMethodNonces) {
+        List<VaultedPaymentMethodDisplay> displays = new ArrayList<>(paymentMethodNonces.size());
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            displays.add(getVaultedPaymentMethodDisplay(paymentMethodNonce));
+        }
+        return displays;
+    }
+
+    boolean hasMoreVaultedPaymentMethods() {
+        List<PaymentMethodNonce> all = vaultedPaymentMethods.getValue();
+        List<PaymentMethodNonce> loaded = loadedVaultedPaymentMethods.getValue();
+        return all != null && loaded != null && loaded.size() < all.size();
+    }
+
+    void loadNextVaultedPaymentMethodsPage() {
+        if (hasMoreVaultedPaymentMethods()) {
+            loadedVaultedPaymentMethodsPageCount++;
+            updateLoadedVaultedPaymentMethods();
+        }
+    }
+
+    private void updateLoadedVaultedPaymentMethods() {
+        List<PaymentMethodNonce> all = vaultedPaymentMethods.getValue();
+        if (all == null) {
+            loadedVaultedPaymentMethods.setValue(null);
+        } else {
+            int loadedCount = loadedVaultedPaymentMethodsPageCount * VAULTED_PAYMENT_METHODS_PAGE_SIZE;
+            loadedVaultedPaymentMethods.setValue(
+                    new ArrayList<>(all.subList(0, Math.min(loadedCount, all.size()))));
+        }
+    }
+
+    static List<PaymentMethodNonce> getFirstPage(List<PaymentMethodNonce> paymentMethodNonces) {
+        if (paymentMethodNonces.size() <= VAULTED_PAYMENT_METHODS_PAGE_SIZE) {
+            return paymentMethodNonces;
+        }
+        return paymentMethodNonces.subList(0, VAULTED_PAYMENT_METHODS_PAGE_SIZE);
+    }
+
     void setSupportedPaymentMethods(List<DropInPaymentMethod> value) {
         this.supportedPaymentMethods.setValue(value);
     }
@@ -70,20 +227,129 @@ public class DropInViewModel extends ViewModel {
     }
 
     void removeVaultedPaymentMethodNonce(PaymentMethodNonce paymentMethodNonceToDelete) {
-        List<PaymentMethodNonce> currentPaymentMethods = vaultedPaymentMethods.getValue();
-        if (currentPaymentMethods != null) {
-            List<PaymentMethodNonce> updatedPaymentMethods = new ArrayList<>(currentPaymentMethods);
+        removeVaultedPaymentMethodNonces(Collections.singletonList(paymentMethodNonceToDelete));
+    }
 
-            // find nonce by string and remove it
+    void removeVaultedPaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNoncesToDelete) {
+        if (vault != null) {
+            Set<String> noncesToDelete = new HashSet<>();
+            for (PaymentMethodNonce nonce : paymentMethodNoncesToDelete) {
+                noncesToDelete.add(nonce.getString());
+                vaultedPaymentMethodDisplays.remove(nonce.getString());
+            }
+
+            // find nonces by string and remove them
+            List<PaymentMethodNonce> updatedPaymentMethods = new ArrayList<>(vault);
             Iterator<PaymentMethodNonce> iterator = updatedPaymentMethods.iterator();
             while (iterator.hasNext()) {
-                PaymentMethodNonce nonce = iterator.next();
-                if (nonce.getString().equals(paymentMethodNonceToDelete.getString())) {
+                if (noncesToDelete.remove(iterator.next().getString())) {
                     iterator.remove();
-                    break;
                 }
             }
-            vaultedPaymentMethods.setValue(updatedPaymentMethods);
+
+            if (!noncesToDelete.isEmpty()) {
+                // the vault was refetched since; remove a payment method with the same key for
+                // each nonce that was not found
+                for (PaymentMethodNonce nonce : paymentMethodNoncesToDelete) {
+                    if (noncesToDelete.contains(nonce.getString())) {
+                        removePaymentMethodWithKey(updatedPaymentMethods,
+                                VaultDeletionQueue.getPaymentMethodKey(nonce));
+                    }
+                }
+            }
+
+            // keep the pages the user has already scrolled through
+            vault = updatedPaymentMethods;
+            updateVaultedPaymentMethods();
+        }
+    }
+
+    private void removePaymentMethodWithKey(List<PaymentMethodNonce> paymentMethodNonces, String key) {
+        // the deleted payment method no longer counts as pending, so it is the first one with
+        // its key that is not matched to another pending delete, as it was while it was hidden
+        boolean[] pending = getPendingDeletions(paymentMethodNonces);
+        for (int i = 0; i < paymentMethodNonces.size(); i++) {
+            PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(i);
+            if (!pending[i] && key.equals(VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonce))) {
+                paymentMethodNonces.remove(i);
+                vaultedPaymentMethodDisplays.remove(paymentMethodNonce.getString());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hides {@code paymentMethodNonces} and deletes them in the background with {@code deleter}.
+     * Payment methods that are deleted are removed from the vault; those that fail to delete are
+     * shown again in their original position. Payment methods already being deleted, including
+     * those hidden in a refetched vault, are not deleted again.
+     * <p>
+     * The queue, and with it {@code deleter}, outlives the activity, so {@code deleter} must not
+     * hold on to it. The outcome of each request is added to {@link #getVaultDeletionResults()}.
+     */
+    void deleteVaultedPaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNonces, VaultDeletionQueue.Deleter deleter) {
+        List<PaymentMethodNonce> noncesToDelete = paymentMethodNonces;
+        if (vault != null && vaultDeletionQueue.hasPendingDeletions()) {
+            // includes refetched nonces of payment methods whose delete is pending under the
+            // nonce they were fetched with before
+            boolean[] pending = getPendingDeletions(vault);
+            Set<String> hiddenNonces = new HashSet<>();
+            for (int i = 0; i < vault.size(); i++) {
+                if (pending[i]) {
+                    hiddenNonces.add(vault.get(i).getString());
+                }
+            }
+
+            noncesToDelete = new ArrayList<>(paymentMethodNonces.size());
+            for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+                if (!hiddenNonces.contains(paymentMethodNonce.getString())) {
+                    noncesToDelete.add(paymentMethodNonce);
+                }
+            }
+        }
+
+        final List<PaymentMethodNonce> requestedNonces = noncesToDelete;
+        vaultDeletionQueue.enqueue(requestedNonces, deleter, (result, error) ->
+                addVaultDeletionResult(new VaultDeletionResult(requestedNonces, result, error)));
+        updateVaultedPaymentMethods();
+    }
+
+    boolean hasPendingVaultDeletions() {
+        return vaultDeletionQueue.hasPendingDeletions();
+    }
+
+    /**
+     * @return the outcomes of delete requests that have not been taken with
+     * {@link #takeVaultDeletionResults()}. They are kept while no activity observes them, e.g.
+     * during a configuration change.
+     */
+    LiveData<List<VaultDeletionResult>> getVaultDeletionResults() {
+        return vaultDeletionResults;
+    }
+
+    /**
+     * @return the outcomes of delete requests that have not been taken yet, oldest first
+     */
+    List<VaultDeletionResult> takeVaultDeletionResults() {
+        List<VaultDeletionResult> results = vaultDeletionResults.getValue();
+        if (!results.isEmpty()) {
+            vaultDeletionResults.setValue(Collections.<VaultDeletionResult>emptyList());
+        }
+        return results;
+    }
+
+    private void addVaultDeletionResult(VaultDeletionResult result) {
+        List<VaultDeletionResult> results = new ArrayList<>(vaultDeletionResults.getValue());
+        results.add(result);
+        vaultDeletionResults.setValue(Collections.unmodifiableList(results));
+    }
+
+    private void onVaultDeletionFinished(List<PaymentMethodNonce> deletedNonces) {
+        if (deletedNonces.isEmpty()) {
+            // every payment method of the request failed to delete and is no longer hidden
+            updateVaultedPaymentMethods();
+        } else {
+            removeVaultedPaymentMethodNonces(deletedNonces);
         }
     }
 
@@ -94,4 +360,20 @@ public class DropInViewModel extends ViewModel {
     void setDropInState(DropInState state) {
         dropInState.setValue(state);
     }
+
+    boolean isFrameMetricsEnabled() {
+        return frameMetricsEnabled;
+    }
+
+    void setFrameMetricsEnabled(boolean frameMetricsEnabled) {
+        this.frameMetricsEnabled = frameMetricsEnabled;
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        // deletions the user confirmed are still sent when Drop-in finishes before they start;
+        // deleters do not hold the activity and nothing observes their results anymore
+        vaultDeletionQueue.flush();
+    }
 }
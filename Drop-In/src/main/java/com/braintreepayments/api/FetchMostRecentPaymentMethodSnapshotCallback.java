@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.fragment.app.FragmentActivity;
+
+/**
+ * Callback for receiving the stored snapshot from
+ * {@link DropInClient#fetchMostRecentPaymentMethod(FragmentActivity, FetchMostRecentPaymentMethodSnapshotCallback, FetchMostRecentPaymentMethodCallback)}
+ */
+public interface FetchMostRecentPaymentMethodSnapshotCallback {
+
+    /**
+     * @param snapshot {@link PaymentMethodSnapshot} of the payment method the customer last
+     *                 completed Drop-in with, or {@code null} if none is stored for the customer
+     */
+    void onResult(@Nullable PaymentMethodSnapshot snapshot);
+}
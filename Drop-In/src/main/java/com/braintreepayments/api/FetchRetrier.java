@@ -0,0 +1,240 @@
+package com.braintreepayments.api;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs idempotent reads under a {@link DropInRetryPolicy}. A read that fails because the gateway
+ * is temporarily unavailable is retried after an exponentially growing, jittered and capped
+ * backoff. With hedging enabled, a read that has not been answered by the p95 latency of recent
+ * successful reads with the same key, but no sooner than {@link #MIN_HEDGE_DELAY_MS}, is started a
+ * second time, and the first answer wins.
+ * <p>
+ * Reads such as the configuration are often answered from a cache without saying so. Answers
+ * faster than {@link #MIN_NETWORK_LATENCY_MS} cannot have made a network round trip, so they are
+ * left out of the latencies that hedging is based on.
+ */
+class FetchRetrier {
+
+    interface Scheduler {
+        void schedule(Runnable task, long delayMillis);
+    }
+
+    // p95 is not meaningful until a handful of reads have completed
+    static final int MIN_HEDGE_SAMPLES = 10;
+    static final int MAX_LATENCY_SAMPLES = 50;
+
+    static final long MIN_NETWORK_LATENCY_MS = 20;
+    // a duplicate is never sent sooner than this, whatever recent reads took
+    static final long MIN_HEDGE_DELAY_MS = 100;
+
+    private static volatile FetchRetrier INSTANCE;
+
+    static FetchRetrier getInstance() {
+        if (INSTANCE == null) {
+            synchronized (FetchRetrier.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new FetchRetrier();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final DropInClock clock;
+    private final Scheduler scheduler;
+    private final Random random;
+
+    private final Map<String, LatencyWindow> latencies = new HashMap<>();
+
+    FetchRetrier() {
+        this(new DropInClock(), createMainThreadScheduler(), new Random());
+    }
+
+    @VisibleForTesting
+    FetchRetrier(DropInClock clock, Scheduler scheduler, Random random) {
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.random = random;
+    }
+
+    private static Scheduler createMainThreadScheduler() {
+        // retries and hedges are rare, so a handler is only created when one is scheduled
+        return (task, delayMillis) -> new Handler(Looper.getMainLooper()).postDelayed(task, delayMillis);
+    }
+
+    /**
+     * Starts {@code request} and delivers exactly one result to {@code callback}: the first
+     * success, or the last error once the policy gives up.
+     *
+     * @param key identifies reads whose latencies are comparable, e.g. one per endpoint
+     */
+    <T> void fetch(DropInRetryPolicy policy, String key, SingleFlight.Request<T> request, SingleFlight.Callback<T> callback) {
+        new Fetch<>(policy, key, request, callback).startAttempt();
+    }
+
+    static boolean isTransient(Exception error) {
+        // every BraintreeException is an IOException, but only these two are worth retrying;
+        // the others (e.g. authorization or validation errors) would fail the same way again
+        return error instanceof ServiceUnavailableException
+                || error instanceof ServerException
+                || (error instanceof IOException && !(error instanceof BraintreeException));
+    }
+
+    /**
+     * @return the delay before retry number {@code retry} (starting at 1): half of the capped
+     * exponential backoff, plus a random amount up to the other half
+     */
+    @VisibleForTesting
+    long getBackoff(DropInRetryPolicy policy, int retry) {
+        long backoff = policy.getInitialBackoff();
+        for (int i = 1; i < retry && backoff < policy.getMaxBackoff(); i++) {
+            backoff *= 2;
+        }
+        backoff = Math.min(backoff, policy.getMaxBackoff());
+        long half = backoff / 2;
+        return half + (long) (random.nextDouble() * (backoff - half));
+    }
+
+    /**
+     * @return the p95 latency of recent successful network reads with {@code key}, at least
+     * {@link #MIN_HEDGE_DELAY_MS}, or {@code -1} if too few have completed to tell
+     */
+    @VisibleForTesting
+    long getHedgeDelay(String key) {
+        long p95;
+        synchronized (latencies) {
+            LatencyWindow window = latencies.get(key);
+            p95 = (window == null) ? -1 : window.getP95();
+        }
+        return (p95 < 0) ? -1 : Math.max(p95, MIN_HEDGE_DELAY_MS);
+    }
+
+    private void recordLatency(String key, long latency) {
+        if (latency < MIN_NETWORK_LATENCY_MS) {
+            // answered from a cache
+            return;
+        }
+        synchronized (latencies) {
+            LatencyWindow window = latencies.get(key);
+            if (window == null) {
+                window = new LatencyWindow();
+                latencies.put(key, window);
+            }
+            window.add(latency);
+        }
+    }
+
+    private class Fetch<T> {
+
+        private final DropInRetryPolicy policy;
+        private final String key;
+        private final SingleFlight.Request<T> request;
+        private final SingleFlight.Callback<T> callback;
+
+        private int retries;
+        private int attempt;
+        private int pendingCopies;
+        private boolean done;
+
+        Fetch(DropInRetryPolicy policy, String key, SingleFlight.Request<T> request, SingleFlight.Callback<T> callback) {
+            this.policy = policy;
+            this.key = key;
+            this.request = request;
+            this.callback = callback;
+        }
+
+        void startAttempt() {
+            final int currentAttempt;
+            synchronized (this) {
+                currentAttempt = ++attempt;
+                pendingCopies = 1;
+            }
+            startCopy(currentAttempt);
+
+            long hedgeDelay = policy.isHedgingEnabled() ? getHedgeDelay(key) : -1;
+            if (hedgeDelay >= 0) {
+                scheduler.schedule(() -> {
+                    synchronized (this) {
+                        if (done || attempt != currentAttempt || pendingCopies == 0) {
+                            return;
+                        }
+                        pendingCopies++;
+                    }
+                    startCopy(currentAttempt);
+                }, hedgeDelay);
+            }
+        }
+
+        private void startCopy(final int copyAttempt) {
+            final long startTime = clock.elapsedRealtime();
+            request.start((result, error) -> onCopyResult(copyAttempt, startTime, result, error));
+        }
+
+        private void onCopyResult(int copyAttempt, long startTime, T result, Exception error) {
+            boolean retry = false;
+            synchronized (this) {
+                if (done || copyAttempt != attempt) {
+                    return;
+                }
+                pendingCopies--;
+                if (error != null) {
+                    if (pendingCopies > 0) {
+                        // the other copy may still succeed
+                        return;
+                    }
+                    if (isTransient(error) && retries < policy.getMaxRetries()) {
+                        retries++;
+                        retry = true;
+                    } else {
+                        done = true;
+                    }
+                } else {
+                    done = true;
+                }
+            }
+
+            if (retry) {
+                scheduler.schedule(this::startAttempt, getBackoff(policy, retries));
+                return;
+            }
+
+            if (error == null) {
+                recordLatency(key, clock.elapsedRealtime() - startTime);
+            }
+            callback.onResult(result, error);
+        }
+    }
+
+    private static class LatencyWindow {
+
+        private final long[] samples = new long[MAX_LATENCY_SAMPLES];
+        private int count;
+        private int next;
+
+        void add(long latency) {
+            samples[next] = latency;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        long getP95() {
+            if (count < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(count * 0.95) - 1;
+            return sorted[index];
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.braintreepayments.api;
+
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Counts frames with {@link Choreographer} callbacks between {@link #start()} and
+ * {@link #stop()}. A gap of more than one frame interval between consecutive frames is counted
+ * as dropped frames. Must be used on the main thread.
+ */
+class FrameTracker implements Choreographer.FrameCallback {
+
+    private static final float DEFAULT_REFRESH_RATE = 60.0f;
+
+    private final Choreographer choreographer;
+    private final DropInClock clock;
+    private final long frameIntervalNanos;
+
+    private boolean tracking;
+    private long startNanos;
+    private long endNanos;
+    private long lastFrameTimeNanos;
+    private int frameCount;
+    private int droppedFrameCount;
+    private long worstFrameDurationNanos;
+
+    FrameTracker(Choreographer choreographer, DropInClock clock, long frameIntervalNanos) {
+        this.choreographer = choreographer;
+        this.clock = clock;
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    /**
+     * @return the frame interval of the display {@code view} is attached to, or of a 60Hz display
+     * if it is not attached
+     */
+    static long getFrameIntervalNanos(View view) {
+        Display display = view.getDisplay();
+        float refreshRate = (display != null) ? display.getRefreshRate() : 0;
+        if (refreshRate <= 0) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        return (long) (1_000_000_000.0 / refreshRate);
+    }
+
+    void start() {
+        frameCount = 0;
+        droppedFrameCount = 0;
+        worstFrameDurationNanos = 0;
+        lastFrameTimeNanos = 0;
+        startNanos = clock.nanoTime();
+        endNanos = startNanos;
+        tracking = true;
+        choreographer.postFrameCallback(this);
+    }
+
+    void stop() {
+        if (!tracking) {
+            return;
+        }
+        tracking = false;
+        endNanos = clock.nanoTime();
+        choreographer.removeFrameCallback(this);
+    }
+
+    @VisibleForTesting
+    boolean isTracking() {
+        return tracking;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!tracking) {
+            return;
+        }
+
+        if (lastFrameTimeNanos > 0) {
+            long frameDurationNanos = frameTimeNanos - lastFrameTimeNanos;
+            worstFrameDurationNanos = Math.max(worstFrameDurationNanos, frameDurationNanos);
+            // a frame that took n intervals to arrive displaced n - 1 frames
+            long missedIntervals = Math.round((double) frameDurationNanos / frameIntervalNanos) - 1;
+            droppedFrameCount += (int) Math.max(0, missedIntervals);
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        frameCount++;
+        choreographer.postFrameCallback(this);
+    }
+
+    int getFrameCount() {
+        return frameCount;
+    }
+
+    int getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    long getWorstFrameDurationNanos() {
+        return worstFrameDurationNanos;
+    }
+
+    long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+}
@@ -0,0 +1,28 @@
+package com.braintreepayments.api;
+
+/**
+ * Google Pay is only offered once Google Play Services reports the device ready to pay; the
+ * configuration is checked as part of that request.
+ */
+class GooglePayPaymentMethodProvider extends DropInPaymentMethodProvider {
+
+    @Override
+    DropInPaymentMethod getPaymentMethod() {
+        return DropInPaymentMethod.GOOGLE_PAY;
+    }
+
+    @Override
+    boolean isEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        return !dropInRequest.isGooglePayDisabled();
+    }
+
+    @Override
+    boolean isAvailableOnDevice(DeviceAvailability deviceAvailability) {
+        return deviceAvailability.isReadyToPay();
+    }
+
+    @Override
+    boolean isProviderOf(PaymentMethodNonce paymentMethodNonce) {
+        return paymentMethodNonce instanceof GooglePayCardNonce;
+    }
+}
@@ -0,0 +1,39 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Holds a client that is created the first time it is used, so a Drop-in session only builds the
+ * clients of the payment methods it actually reaches.
+ */
+class LazyClient<T> {
+
+    interface Factory<T> {
+        T create();
+    }
+
+    private final Factory<T> factory;
+    private T client;
+
+    /**
+     * @param client a client to use instead of creating one, or {@code null}
+     * @param factory creates the client the first time {@link #get()} is called
+     */
+    LazyClient(@Nullable T client, Factory<T> factory) {
+        this.client = client;
+        this.factory = factory;
+    }
+
+    synchronized T get() {
+        if (client == null) {
+            client = factory.create();
+        }
+        return client;
+    }
+
+    @VisibleForTesting
+    synchronized boolean isCreated() {
+        return client != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.braintreepayments.api;
+
+class PayPalPaymentMethodProvider extends DropInPaymentMethodProvider {
+
+    @Override
+    DropInPaymentMethod getPaymentMethod() {
+        return DropInPaymentMethod.PAYPAL;
+    }
+
+    @Override
+    boolean isEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        return !dropInRequest.isPayPalDisabled() && configuration.isPayPalEnabled();
+    }
+
+    @Override
+    boolean isProviderOf(PaymentMethodNonce paymentMethodNonce) {
+        return paymentMethodNonce instanceof PayPalAccountNonce;
+    }
+}
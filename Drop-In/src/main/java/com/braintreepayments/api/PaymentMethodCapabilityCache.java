@@ -0,0 +1,158 @@
+package com.braintreepayments.api;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.FragmentActivity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of device capabilities that do not change within a Drop-in session.
+ * <p>
+ * Google Pay readiness requires a Play Services round trip and is cached per merchant until
+ * {@link #GOOGLE_PAY_READINESS_TTL_MS} expires. Venmo app availability requires a
+ * PackageManager query, which is run on a background thread and cached until a package is added,
+ * removed or replaced on the device.
+ */
+class PaymentMethodCapabilityCache {
+
+    interface VenmoAvailabilityCallback {
+        void onResult(boolean isVenmoAppSwitchAvailable);
+    }
+
+    static final long GOOGLE_PAY_READINESS_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static volatile PaymentMethodCapabilityCache INSTANCE;
+
+    static PaymentMethodCapabilityCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (PaymentMethodCapabilityCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+                    INSTANCE = new PaymentMethodCapabilityCache(new DropInClock(),
+                            Executors.newSingleThreadExecutor(), mainThreadHandler::post);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private static class GooglePayReadiness {
+
+        private final boolean isReadyToPay;
+        private final long fetchedAt;
+
+        GooglePayReadiness(boolean isReadyToPay, long fetchedAt) {
+            this.isReadyToPay = isReadyToPay;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final DropInClock clock;
+    private final Executor backgroundExecutor;
+    private final Executor callbackExecutor;
+
+    private final Map<String, GooglePayReadiness> googlePayReadiness = new HashMap<>();
+    private Boolean isVenmoAppSwitchAvailable;
+    private int venmoGeneration;
+    private boolean packageReceiverRegistered;
+
+    private final BroadcastReceiver packageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidateVenmoAvailability();
+        }
+    };
+
+    /**
+     * Creates a cache that resolves capabilities on the calling thread. {@link DropInClient}
+     * uses {@link #getInstance()}, which resolves them on a background thread.
+     */
+    PaymentMethodCapabilityCache() {
+        this(new DropInClock(), Runnable::run, Runnable::run);
+    }
+
+    @VisibleForTesting
+    PaymentMethodCapabilityCache(DropInClock clock, Executor backgroundExecutor, Executor callbackExecutor) {
+        this.clock = clock;
+        this.backgroundExecutor = backgroundExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * @param merchantKey identifies the merchant whose Google Pay configuration is checked, e.g.
+     *                    the configuration URL of the {@link Authorization}
+     * @param googlePayClient only created when readiness is not cached
+     */
+    void isReadyToPay(FragmentActivity activity, String merchantKey, LazyClient<GooglePayClient> googlePayClient, final GooglePayIsReadyToPayCallback callback) {
+        final String key = (merchantKey == null) ? "" : merchantKey;
+        synchronized (this) {
+            GooglePayReadiness cached = googlePayReadiness.get(key);
+            if (cached != null && clock.elapsedRealtime() - cached.fetchedAt < GOOGLE_PAY_READINESS_TTL_MS) {
+                callback.onResult(cached.isReadyToPay, null);
+                return;
+            }
+        }
+
+        googlePayClient.get().isReadyToPay(activity, (isReadyToPay, error) -> {
+            if (error == null) {
+                synchronized (PaymentMethodCapabilityCache.this) {
+                    googlePayReadiness.put(key, new GooglePayReadiness(isReadyToPay, clock.elapsedRealtime()));
+                }
+            }
+            callback.onResult(isReadyToPay, error);
+        });
+    }
+
+    void isVenmoAppSwitchAvailable(Context context, final LazyClient<VenmoClient> venmoClient, final VenmoAvailabilityCallback callback) {
+        final Context appContext = context.getApplicationContext();
+        final int generation;
+        synchronized (this) {
+            registerPackageReceiver(appContext);
+            if (isVenmoAppSwitchAvailable != null) {
+                callback.onResult(isVenmoAppSwitchAvailable);
+                return;
+            }
+            generation = venmoGeneration;
+        }
+
+        // the PackageManager query is kept off the main thread
+        backgroundExecutor.execute(() -> {
+            final boolean isAvailable = venmoClient.get().isVenmoAppSwitchAvailable(appContext);
+            synchronized (PaymentMethodCapabilityCache.this) {
+                if (generation == venmoGeneration) {
+                    isVenmoAppSwitchAvailable = isAvailable;
+                }
+            }
+            callbackExecutor.execute(() -> callback.onResult(isAvailable));
+        });
+    }
+
+    synchronized void invalidateVenmoAvailability() {
+        venmoGeneration++;
+        isVenmoAppSwitchAvailable = null;
+    }
+
+    private void registerPackageReceiver(Context appContext) {
+        if (!packageReceiverRegistered && appContext != null) {
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+            filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+            filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+            filter.addDataScheme("package");
+            appContext.registerReceiver(packageChangedReceiver, filter);
+            packageReceiverRegistered = true;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.net.Uri;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -17,17 +16,17 @@ import java.util.List;
  */
 class PaymentMethodClient {
 
-    private static final String PAYMENT_METHOD_NONCE_COLLECTION_KEY = "paymentMethods";
-    private static final String PAYMENT_METHOD_TYPE_KEY = "type";
-
-    private static final String PAYMENT_METHOD_TYPE_CARD = "CreditCard";
-    private static final String PAYMENT_METHOD_TYPE_PAYPAL = "PayPalAccount";
-    private static final String PAYMENT_METHOD_TYPE_VENMO = "VenmoAccount";
-
     private static final String SINGLE_USE_TOKEN_ID = "singleUseTokenId";
     private static final String VARIABLES = "variables";
     private static final String INPUT = "input";
     private static final String CLIENT_SDK_META_DATA = "clientSdkMetadata";
+    private static final String DATA = "data";
+
+    private static final String DELETE_PAYMENT_METHODS_OPERATION_NAME = "DeletePaymentMethodsFromSingleUseTokens";
+    private static final String DELETE_PAYMENT_METHOD_ALIAS_PREFIX = "delete";
+
+    // read once per process; the raw resource is the same for every request
+    private static String deletePaymentMethodMutation;
 
     private final BraintreeClient braintreeClient;
 
@@ -35,37 +34,6 @@ class PaymentMethodClient {
         this.braintreeClient = braintreeClient;
     }
 
-    private static List<PaymentMethodNonce> parsePaymentMethodNonces(String jsonBody) throws JSONException {
-        JSONArray paymentMethods =
-                new JSONObject(jsonBody).getJSONArray(PAYMENT_METHOD_NONCE_COLLECTION_KEY);
-
-        List<PaymentMethodNonce> result = new ArrayList<>();
-        for (int i = 0; i < paymentMethods.length(); i++) {
-            JSONObject json = paymentMethods.getJSONObject(i);
-            PaymentMethodNonce paymentMethodNonce = parseVaultSupportedPaymentMethodNonce(json);
-            if (paymentMethodNonce != null) {
-                result.add(paymentMethodNonce);
-            }
-        }
-
-        return result;
-    }
-
-    private static PaymentMethodNonce parseVaultSupportedPaymentMethodNonce(JSONObject json) throws JSONException {
-        // NOTE: Since 3.x, Card, PayPal, Venmo, and Visa Checkout were the only payment methods supported by the vault manager
-        String type = json.getString(PAYMENT_METHOD_TYPE_KEY);
-        switch (type) {
-            case PAYMENT_METHOD_TYPE_CARD:
-                return CardNonce.fromJSON(json);
-            case PAYMENT_METHOD_TYPE_PAYPAL:
-                return PayPalAccountNonce.fromJSON(json);
-            case PAYMENT_METHOD_TYPE_VENMO:
-                return VenmoAccountNonce.fromJSON(json);
-            default:
-                return null;
-        }
-    }
-
     void getPaymentMethodNonces(boolean defaultFirst, final GetPaymentMethodNoncesCallback callback) {
         final Uri uri = Uri.parse(ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT))
                 .buildUpon()
@@ -76,7 +44,9 @@ class PaymentMethodClient {
         braintreeClient.sendGET(uri.toString(), (responseBody, httpError) -> {
             if (responseBody != null) {
                 try {
-                    callback.onResult(parsePaymentMethodNonces(responseBody), null);
+                    List<PaymentMethodNonce> paymentMethodNonces =
+                            PaymentMethodNonceStreamParser.parsePaymentMethodNonces(responseBody);
+                    callback.onResult(paymentMethodNonces, null);
                     braintreeClient.sendAnalyticsEvent("get-payment-methods.succeeded");
                 } catch (JSONException e) {
                     callback.onResult(null, e);
@@ -108,14 +78,8 @@ class PaymentMethodClient {
         JSONObject input = new JSONObject();
 
         try {
-            base.put(CLIENT_SDK_META_DATA, new MetadataBuilder()
-                    .sessionId(braintreeClient.getSessionId())
-                    .source("client")
-                    .integration(braintreeClient.getIntegrationType())
-                    .build());
-
-            base.put(GraphQLConstants.Keys.QUERY, GraphQLQueryHelper.getQuery(
-                    context, R.raw.delete_payment_method_mutation));
+            base.put(CLIENT_SDK_META_DATA, buildClientSdkMetadata());
+            base.put(GraphQLConstants.Keys.QUERY, getDeletePaymentMethodMutation(context));
             input.put(SINGLE_USE_TOKEN_ID, paymentMethodNonce.getString());
             variables.put(INPUT, input);
             base.put(VARIABLES, variables);
@@ -124,6 +88,7 @@ class PaymentMethodClient {
         } catch (Resources.NotFoundException | IOException | JSONException e) {
             Exception error = new BraintreeException("Unable to read GraphQL query");
             callback.onResult(null, error);
+            return;
         }
 
         braintreeClient.sendGraphQLPOST(base.toString(), (responseBody, httpError) -> {
@@ -137,4 +102,134 @@ class PaymentMethodClient {
             }
         });
     }
+
+    /**
+     * Deletes several payment methods with a single GraphQL request. Each payment method is
+     * deleted by its own aliased mutation, so one payment method failing to delete does not
+     * prevent the others from being deleted.
+     */
+    void deletePaymentMethods(final Context context, final List<PaymentMethodNonce> paymentMethodNonces, final DeletePaymentMethodNoncesCallback callback) {
+        boolean usesClientToken = braintreeClient.getAuthorization() instanceof ClientToken;
+
+        if (!usesClientToken) {
+            Exception error =
+                    new BraintreeException("A client token with a customer id must be used to delete a payment method nonce.");
+            callback.onResult(null, error);
+            return;
+        }
+
+        if (paymentMethodNonces.isEmpty()) {
+            callback.onResult(new DeletePaymentMethodNoncesResult(
+                    new ArrayList<>(), new ArrayList<>()), null);
+            return;
+        }
+
+        final JSONObject base = new JSONObject();
+        JSONObject variables = new JSONObject();
+
+        try {
+            base.put(CLIENT_SDK_META_DATA, buildClientSdkMetadata());
+            base.put(GraphQLConstants.Keys.QUERY, buildDeletePaymentMethodsMutation(paymentMethodNonces.size()));
+            for (int i = 0; i < paymentMethodNonces.size(); i++) {
+                JSONObject input = new JSONObject();
+                input.put(SINGLE_USE_TOKEN_ID, paymentMethodNonces.get(i).getString());
+                variables.put(INPUT + i, input);
+            }
+            base.put(VARIABLES, variables);
+            base.put(GraphQLConstants.Keys.OPERATION_NAME, DELETE_PAYMENT_METHODS_OPERATION_NAME);
+        } catch (JSONException e) {
+            callback.onResult(null, new BraintreeException("Unable to build GraphQL query"));
+            return;
+        }
+
+        braintreeClient.sendGraphQLPOST(base.toString(), (responseBody, httpError) -> {
+            DeletePaymentMethodNoncesResult result =
+                    parseDeletePaymentMethodsResponse(paymentMethodNonces, responseBody, httpError);
+            callback.onResult(result, null);
+
+            if (result.getFailures().isEmpty()) {
+                braintreeClient.sendAnalyticsEvent("delete-payment-methods.succeeded");
+            } else {
+                braintreeClient.sendAnalyticsEvent("delete-payment-methods.failed");
+            }
+        });
+    }
+
+    private JSONObject buildClientSdkMetadata() {
+        return new MetadataBuilder()
+                .sessionId(braintreeClient.getSessionId())
+                .source("client")
+                .integration(braintreeClient.getIntegrationType())
+                .build();
+    }
+
+    private static synchronized String getDeletePaymentMethodMutation(Context context) throws IOException {
+        if (deletePaymentMethodMutation == null) {
+            deletePaymentMethodMutation = GraphQLQueryHelper.getQuery(
+                    context.getApplicationContext(), R.raw.delete_payment_method_mutation);
+        }
+        return deletePaymentMethodMutation;
+    }
+
+    static String buildDeletePaymentMethodsMutation(int count) {
+        StringBuilder variables = new StringBuilder();
+        StringBuilder mutations = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                variables.append(", ");
+            }
+            variables.append("$input").append(i).append(": DeletePaymentMethodFromSingleUseTokenInput!");
+            mutations.append("  ")
+                    .append(DELETE_PAYMENT_METHOD_ALIAS_PREFIX).append(i)
+                    .append(": deletePaymentMethodFromSingleUseToken(input: $input").append(i).append(") {")
+                    .append(" clientMutationId }\n");
+        }
+        return "mutation " + DELETE_PAYMENT_METHODS_OPERATION_NAME + "(" + variables + ") {\n"
+                + mutations
+                + "}";
+    }
+
+    /**
+     * A deleted payment method has a non-null result under its alias. When any mutation fails the
+     * gateway reports the errors and the request fails as a whole, but the original response still
+     * carries the results of the mutations that succeeded.
+     */
+    private static DeletePaymentMethodNoncesResult parseDeletePaymentMethodsResponse(
+            List<PaymentMethodNonce> paymentMethodNonces, String responseBody, Exception httpError) {
+        String response = responseBody;
+        if (response == null && httpError instanceof ErrorWithResponse) {
+            response = ((ErrorWithResponse) httpError).getErrorResponse();
+        }
+
+        JSONObject data = null;
+        if (response != null) {
+            try {
+                data = new JSONObject(response).optJSONObject(DATA);
+            } catch (JSONException ignored) {
+                // treated the same as a response without data
+            }
+        }
+
+        List<PaymentMethodNonce> deletedNonces = new ArrayList<>();
+        List<PaymentMethodDeleteException> failures = new ArrayList<>();
+        for (int i = 0; i < paymentMethodNonces.size(); i++) {
+            PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(i);
+            String alias = DELETE_PAYMENT_METHOD_ALIAS_PREFIX + i;
+
+            boolean isDeleted;
+            if (responseBody != null) {
+                // a successful request only reports a payment method as not deleted explicitly
+                isDeleted = data == null || !data.has(alias) || !data.isNull(alias);
+            } else {
+                isDeleted = data != null && data.has(alias) && !data.isNull(alias);
+            }
+
+            if (isDeleted) {
+                deletedNonces.add(paymentMethodNonce);
+            } else {
+                failures.add(new PaymentMethodDeleteException(paymentMethodNonce, httpError));
+            }
+        }
+        return new DeletePaymentMethodNoncesResult(deletedNonces, failures);
+    }
 }
@@ -16,16 +16,24 @@ class PaymentMethodItemView extends LinearLayout {
     private TextView title;
     private TextView description;
     private View deleteIcon;
-    private PaymentMethodNonce paymentMethodNonce;
+    private VaultedPaymentMethodDisplay paymentMethod;
     private View divider;
-
-    private final PaymentMethodInspector nonceInspector = new PaymentMethodInspector();
+    private String deleteLabel;
 
     public PaymentMethodItemView(Context context) {
         super(context);
         init();
     }
 
+    /**
+     * @param inflater inflates the row's content, e.g. a clone of the activity's inflater used
+     * off the main thread by {@link PaymentMethodViewPool}
+     */
+    PaymentMethodItemView(Context context, LayoutInflater inflater) {
+        super(context);
+        init(inflater);
+    }
+
     public PaymentMethodItemView(Context context, AttributeSet attrs) {
         super(context, attrs);
         init();
@@ -41,47 +49,44 @@ class PaymentMethodItemView extends LinearLayout {
             return;
         }
 
-        setOrientation(VERTICAL);
+        init(LayoutInflater.from(getContext()));
+    }
 
-        LayoutInflater.from(getContext()).inflate(R.layout.bt_vault_manager_list_item, this);
+    private void init(LayoutInflater inflater) {
+        setOrientation(VERTICAL);
+        inflater.inflate(R.layout.bt_vault_manager_list_item, this);
 
         icon = findViewById(R.id.bt_payment_method_icon);
         title = findViewById(R.id.bt_payment_method_title);
         description = findViewById(R.id.bt_payment_method_description);
         deleteIcon = findViewById(R.id.bt_payment_method_delete_icon);
         divider = findViewById(R.id.bt_payment_method_divider);
+        deleteLabel = getContext().getString(R.string.bt_delete);
     }
 
-    public void setPaymentMethod(PaymentMethodNonce paymentMethodNonce, boolean usedInList) {
-        this.paymentMethodNonce = paymentMethodNonce;
-
-        DropInPaymentMethod paymentMethodType =
-            nonceInspector.getPaymentMethod(paymentMethodNonce);
+    public void setPaymentMethod(VaultedPaymentMethodDisplay paymentMethod, boolean usedInList) {
+        this.paymentMethod = paymentMethod;
 
         if (usedInList) {
-            icon.setImageResource(paymentMethodType.getDrawable());
+            icon.setImageResource(paymentMethod.getDrawable());
+            deleteIcon.setContentDescription(paymentMethod.getDeleteContentDescription(deleteLabel));
             deleteIcon.setVisibility(View.VISIBLE);
             divider.setVisibility(View.VISIBLE);
         } else {
-            icon.setImageResource(paymentMethodType.getVaultedDrawable());
+            icon.setImageResource(paymentMethod.getVaultedDrawable());
             deleteIcon.setVisibility(View.GONE);
             divider.setVisibility(View.GONE);
         }
 
-        title.setText(paymentMethodType.getLocalizedName());
-        description.setText(nonceInspector.getPaymentMethodDescription(paymentMethodNonce));
+        title.setText(paymentMethod.getTitle());
+        description.setText(paymentMethod.getDescription());
     }
 
     public void setOnDeleteIconClick(OnClickListener clickListener) {
         deleteIcon.setOnClickListener(clickListener);
-        String deleteString = getContext().getString(R.string.bt_delete);
-        String paymentType = nonceInspector.getPaymentMethod(paymentMethodNonce).name();
-        String paymentDescription = nonceInspector.getPaymentMethodDescription(paymentMethodNonce);
-        String contentDescription = String.format("%s %s %s", deleteString, paymentType, paymentDescription);
-        deleteIcon.setContentDescription(contentDescription);
     }
 
     public PaymentMethodNonce getPaymentMethodNonce() {
-        return paymentMethodNonce;
+        return paymentMethod.getPaymentMethodNonce();
     }
 }
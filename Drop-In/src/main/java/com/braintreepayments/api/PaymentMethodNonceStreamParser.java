@@ -0,0 +1,218 @@
+package com.braintreepayments.api;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the response of the payment methods endpoint one entry at a time, in two passes over
+ * the body. The first pass only reads each entry's type and skips everything else, wherever the
+ * type appears in the entry. The second pass materializes only the entries the vault manager
+ * supports, each as a {@link JSONObject} handed to the nonce's fromJSON method, and skips the
+ * rest without allocating them.
+ */
+class PaymentMethodNonceStreamParser {
+
+    private static final String PAYMENT_METHOD_NONCE_COLLECTION_KEY = "paymentMethods";
+    private static final String PAYMENT_METHOD_TYPE_KEY = "type";
+
+    private static final String PAYMENT_METHOD_TYPE_CARD = "CreditCard";
+    private static final String PAYMENT_METHOD_TYPE_PAYPAL = "PayPalAccount";
+    private static final String PAYMENT_METHOD_TYPE_VENMO = "VenmoAccount";
+
+    private PaymentMethodNonceStreamParser() {
+    }
+
+    private interface CollectionReader {
+
+        /**
+         * Reads the payment method collection that is the {@code index}-th value of the body
+         * with the collection key.
+         */
+        void read(JsonReader reader, int index) throws IOException, JSONException;
+    }
+
+    static List<PaymentMethodNonce> parsePaymentMethodNonces(String jsonBody) throws JSONException {
+        // like org.json, the last collection wins if the key is repeated
+        final List<List<String>> collectionTypes = new ArrayList<>();
+        readBody(jsonBody, (reader, index) -> collectionTypes.add(readPaymentMethodTypes(reader)));
+        if (collectionTypes.isEmpty()) {
+            throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_COLLECTION_KEY);
+        }
+
+        final int lastIndex = collectionTypes.size() - 1;
+        final List<String> types = collectionTypes.get(lastIndex);
+        final List<PaymentMethodNonce> result = new ArrayList<>();
+        readBody(jsonBody, (reader, index) -> {
+            if (index == lastIndex) {
+                readPaymentMethodNonces(reader, types, result);
+            } else {
+                reader.skipValue();
+            }
+        });
+        return result;
+    }
+
+    private static void readBody(String jsonBody, CollectionReader collectionReader) throws JSONException {
+        JsonReader reader = new JsonReader(new StringReader(jsonBody));
+        // org.json, which this parser replaces, is lenient as well
+        reader.setLenient(true);
+
+        try {
+            int index = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (PAYMENT_METHOD_NONCE_COLLECTION_KEY.equals(reader.nextName())) {
+                    collectionReader.read(reader, index++);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            JSONException jsonException = new JSONException(e.getMessage());
+            jsonException.initCause(e);
+            throw jsonException;
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // reading from a string never fails to close
+            }
+        }
+    }
+
+    private static List<String> readPaymentMethodTypes(JsonReader reader) throws IOException, JSONException {
+        List<String> types = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String type = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (PAYMENT_METHOD_TYPE_KEY.equals(reader.nextName()) && reader.peek() != JsonToken.NULL) {
+                    type = String.valueOf(readValue(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (type == null) {
+                throw new JSONException("No value for " + PAYMENT_METHOD_TYPE_KEY);
+            }
+            types.add(type);
+        }
+        reader.endArray();
+
+        return types;
+    }
+
+    private static void readPaymentMethodNonces(JsonReader reader, List<String> types, List<PaymentMethodNonce> result)
+            throws IOException, JSONException {
+        int index = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String type = types.get(index++);
+            if (isVaultSupported(type)) {
+                JSONObject json = (JSONObject) readValue(reader);
+                result.add(parseVaultSupportedPaymentMethodNonce(json, type));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+    }
+
+    private static boolean isVaultSupported(String type) {
+        // NOTE: Since 3.x, Card, PayPal, Venmo, and Visa Checkout were the only payment methods supported by the vault manager
+        switch (type) {
+            case PAYMENT_METHOD_TYPE_CARD:
+            case PAYMENT_METHOD_TYPE_PAYPAL:
+            case PAYMENT_METHOD_TYPE_VENMO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static PaymentMethodNonce parseVaultSupportedPaymentMethodNonce(JSONObject json, String type)
+            throws JSONException {
+        switch (type) {
+            case PAYMENT_METHOD_TYPE_CARD:
+                return CardNonce.fromJSON(json);
+            case PAYMENT_METHOD_TYPE_PAYPAL:
+                return PayPalAccountNonce.fromJSON(json);
+            case PAYMENT_METHOD_TYPE_VENMO:
+                return VenmoAccountNonce.fromJSON(json);
+            default:
+                return null;
+        }
+    }
+
+    private static Object readValue(JsonReader reader) throws IOException, JSONException {
+        JsonToken token = reader.peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    object.put(reader.nextName(), readValue(reader));
+                }
+                reader.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(readValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return readNumber(reader.nextString());
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            default:
+                throw new JSONException("Unexpected " + token);
+        }
+    }
+
+    /**
+     * Mirrors how org.json types number literals so nonces see the same values they would have
+     * seen when parsed from a {@link JSONObject} tree.
+     */
+    private static Object readNumber(String literal) {
+        if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+            try {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            } catch (NumberFormatException ignored) {
+                // fall through to double
+            }
+        }
+
+        try {
+            return Double.valueOf(literal);
+        } catch (NumberFormatException ignored) {
+            return literal;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.FragmentActivity;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Display details of the payment method a customer last completed Drop-in with, as stored on the
+ * device. Returned by
+ * {@link DropInClient#fetchMostRecentPaymentMethod(FragmentActivity, FetchMostRecentPaymentMethodSnapshotCallback, FetchMostRecentPaymentMethodCallback)}
+ * before the customer's vault is fetched. A snapshot does not contain a
+ * {@link PaymentMethodNonce} and cannot be used to transact.
+ */
+public class PaymentMethodSnapshot {
+
+    private static final String CUSTOMER_KEY = "customer";
+    private static final String PAYMENT_METHOD_TYPE_KEY = "paymentMethodType";
+    private static final String PAYMENT_DESCRIPTION_KEY = "paymentDescription";
+    private static final String TIMESTAMP_KEY = "timestamp";
+
+    private final String customer;
+    private final DropInPaymentMethod paymentMethodType;
+    private final String paymentDescription;
+    private final long timestamp;
+
+    PaymentMethodSnapshot(String customer, DropInPaymentMethod paymentMethodType, String paymentDescription, long timestamp) {
+        this.customer = customer;
+        this.paymentMethodType = paymentMethodType;
+        this.paymentDescription = paymentDescription;
+        this.timestamp = timestamp;
+    }
+
+    static PaymentMethodSnapshot fromJson(String json) throws JSONException {
+        JSONObject jsonObject = new JSONObject(json);
+        return new PaymentMethodSnapshot(
+                jsonObject.getString(CUSTOMER_KEY),
+                DropInPaymentMethod.valueOf(jsonObject.getString(PAYMENT_METHOD_TYPE_KEY)),
+                jsonObject.optString(PAYMENT_DESCRIPTION_KEY, ""),
+                jsonObject.getLong(TIMESTAMP_KEY));
+    }
+
+    String toJson() throws JSONException {
+        return new JSONObject()
+                .put(CUSTOMER_KEY, customer)
+                .put(PAYMENT_METHOD_TYPE_KEY, paymentMethodType.name())
+                .put(PAYMENT_DESCRIPTION_KEY, paymentDescription)
+                .put(TIMESTAMP_KEY, timestamp)
+                .toString();
+    }
+
+    /**
+     * @return a hash of the customer the snapshot belongs to.
+     */
+    String getCustomer() {
+        return customer;
+    }
+
+    /**
+     * @return The {@link DropInPaymentMethod} the customer last completed Drop-in with.
+     */
+    @NonNull
+    public DropInPaymentMethod getPaymentMethodType() {
+        return paymentMethodType;
+    }
+
+    /**
+     * @return A {@link String} description of the payment method, e.g. the last four digits of a
+     * card or the email of a PayPal account.
+     */
+    @Nullable
+    public String getPaymentDescription() {
+        return paymentDescription;
+    }
+
+    /**
+     * @return The time the snapshot was taken, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
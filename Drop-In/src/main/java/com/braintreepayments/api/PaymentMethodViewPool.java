@@ -0,0 +1,105 @@
+package com.braintreepayments.api;
+
+import android.app.Activity;
+import android.content.Context;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.braintreepayments.api.dropin.R;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Vault manager rows for a Drop-in session. The vault manager recycles its rows into a
+ * {@link RecyclerView.RecycledViewPool} that outlives its view, so opening it again reuses them,
+ * and rows can be inflated off the main thread before it is first opened.
+ */
+class PaymentMethodViewPool {
+
+    static final int VIEW_TYPE_VAULT_MANAGER_ROW = R.layout.bt_vault_manager_list_item;
+
+    /**
+     * Number of vault manager rows inflated ahead of time, enough to fill the bottom sheet.
+     */
+    static final int PREINFLATED_VAULT_MANAGER_ROW_COUNT = 10;
+
+    private final BackgroundViewInflater backgroundViewInflater;
+    private final RecyclerView.RecycledViewPool recycledViewPool = new RecyclerView.RecycledViewPool();
+    private final Deque<PaymentMethodItemView> preinflatedVaultManagerRows = new ArrayDeque<>();
+
+    private int pendingInflationCount;
+    private int mainThreadInflationCount;
+    private int backgroundInflationCount;
+
+    PaymentMethodViewPool() {
+        this(BackgroundViewInflater.getInstance());
+    }
+
+    @VisibleForTesting
+    PaymentMethodViewPool(BackgroundViewInflater backgroundViewInflater) {
+        this.backgroundViewInflater = backgroundViewInflater;
+        // a closed vault manager keeps a page of rows for when it is opened again
+        recycledViewPool.setMaxRecycledViews(VIEW_TYPE_VAULT_MANAGER_ROW, DropInViewModel.VAULTED_PAYMENT_METHODS_PAGE_SIZE);
+    }
+
+    RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return recycledViewPool;
+    }
+
+    /**
+     * Inflates vault manager rows on a background thread until
+     * {@link #PREINFLATED_VAULT_MANAGER_ROW_COUNT} are waiting to be used. Must be called on the
+     * main thread.
+     */
+    void preinflateVaultManagerRows(Activity activity) {
+        int count = PREINFLATED_VAULT_MANAGER_ROW_COUNT
+                - preinflatedVaultManagerRows.size() - pendingInflationCount;
+        for (int i = 0; i < count; i++) {
+            pendingInflationCount++;
+            backgroundViewInflater.inflate(activity,
+                    inflater -> new PaymentMethodItemView(activity, inflater), row -> {
+                        pendingInflationCount--;
+                        if (row != null) {
+                            backgroundInflationCount++;
+                            preinflatedVaultManagerRows.add(row);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * @return a vault manager row, inflated ahead of time if one is available
+     */
+    PaymentMethodItemView createVaultManagerRow(Context context) {
+        PaymentMethodItemView row = preinflatedVaultManagerRows.poll();
+        if (row != null) {
+            return row;
+        }
+
+        mainThreadInflationCount++;
+        return new PaymentMethodItemView(context);
+    }
+
+    /**
+     * @return the number of vault manager rows that had to be inflated on the main thread
+     */
+    @VisibleForTesting
+    int getMainThreadInflationCount() {
+        return mainThreadInflationCount;
+    }
+
+    /**
+     * @return the number of vault manager rows inflated ahead of time on a background thread
+     */
+    @VisibleForTesting
+    int getBackgroundInflationCount() {
+        return backgroundInflationCount;
+    }
+
+    @VisibleForTesting
+    int getPreinflatedVaultManagerRowCount() {
+        return preinflatedVaultManagerRows.size();
+    }
+}
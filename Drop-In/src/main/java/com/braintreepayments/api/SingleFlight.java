@@ -0,0 +1,54 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces identical requests that are in flight at the same time. The first caller starts the
+ * request; callers that arrive before it completes are attached to it, and every caller receives
+ * the same result. Once the request completes the next caller starts a new one.
+ *
+ * @param <T> the result type of the request
+ */
+class SingleFlight<T> {
+
+    interface Callback<T> {
+        void onResult(T result, Exception error);
+    }
+
+    interface Request<T> {
+        void start(Callback<T> callback);
+    }
+
+    private final Object lock = new Object();
+    private List<Callback<T>> pendingCallbacks;
+
+    void execute(Request<T> request, Callback<T> callback) {
+        boolean shouldStart = false;
+        synchronized (lock) {
+            if (pendingCallbacks == null) {
+                pendingCallbacks = new ArrayList<>();
+                shouldStart = true;
+            }
+            pendingCallbacks.add(callback);
+        }
+
+        if (shouldStart) {
+            request.start(this::notifyCallbacks);
+        }
+    }
+
+    private void notifyCallbacks(T result, Exception error) {
+        List<Callback<T>> callbacks;
+        synchronized (lock) {
+            callbacks = pendingCallbacks;
+            pendingCallbacks = null;
+        }
+
+        if (callbacks != null) {
+            for (Callback<T> callback : callbacks) {
+                callback.onResult(result, error);
+            }
+        }
+    }
+}
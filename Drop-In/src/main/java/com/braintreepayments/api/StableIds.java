@@ -0,0 +1,23 @@
+package com.braintreepayments.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out RecyclerView stable ids for items identified by a string, e.g. a nonce. Each key
+ * keeps its id for the lifetime of the adapter that owns this, so an item that is removed and
+ * comes back in a refetched list is still recognized.
+ */
+class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    long getId(String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
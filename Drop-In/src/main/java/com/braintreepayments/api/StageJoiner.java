@@ -0,0 +1,50 @@
+package com.braintreepayments.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Joins independent asynchronous stages that are started at the same time. The completion
+ * callback runs exactly once, on the thread that reports the last outstanding stage.
+ */
+class StageJoiner {
+
+    static class Result<T> {
+
+        private T value;
+        private Exception error;
+
+        /**
+         * Sets the value of a result that is produced alongside another stage rather than
+         * reported as a stage of its own.
+         */
+        void set(T value) {
+            this.value = value;
+        }
+
+        T getValue() {
+            return value;
+        }
+
+        Exception getError() {
+            return error;
+        }
+    }
+
+    private final AtomicInteger remainingStages;
+    private final Runnable onComplete;
+
+    StageJoiner(int stageCount, Runnable onComplete) {
+        this.remainingStages = new AtomicInteger(stageCount);
+        this.onComplete = onComplete;
+    }
+
+    <T> void complete(Result<T> result, T value, Exception error) {
+        result.value = value;
+        result.error = error;
+
+        // the atomic decrement publishes the result to the thread that runs onComplete
+        if (remainingStages.decrementAndGet() == 0) {
+            onComplete.run();
+        }
+    }
+}
@@ -5,20 +5,34 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.braintreepayments.api.dropin.R;
 
-import java.util.List;
+class SupportedPaymentMethodsAdapter extends ListAdapter<DropInPaymentMethod, SupportedPaymentMethodViewHolder> {
 
-class SupportedPaymentMethodsAdapter extends RecyclerView.Adapter<SupportedPaymentMethodViewHolder> {
+    // a row only ever shows its payment method type
+    private static final DiffUtil.ItemCallback<DropInPaymentMethod> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<DropInPaymentMethod>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull DropInPaymentMethod oldItem, @NonNull DropInPaymentMethod newItem) {
+                    return oldItem == newItem;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull DropInPaymentMethod oldItem, @NonNull DropInPaymentMethod newItem) {
+                    return true;
+                }
+            };
 
-    private final List<DropInPaymentMethod> supportedPaymentMethods;
     private final SupportedPaymentMethodSelectedListener listener;
 
-    SupportedPaymentMethodsAdapter(List<DropInPaymentMethod> supportedPaymentMethods, SupportedPaymentMethodSelectedListener listener) {
+    SupportedPaymentMethodsAdapter(SupportedPaymentMethodSelectedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
-        this.supportedPaymentMethods = supportedPaymentMethods;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -27,18 +41,23 @@ class SupportedPaymentMethodsAdapter extends RecyclerView.Adapter<SupportedPayme
         LayoutInflater inflater = LayoutInflater.from(parent.getContext());
         View view =
                 inflater.inflate(R.layout.bt_payment_method_list_item, parent, false);
-        return new SupportedPaymentMethodViewHolder(view);
+        SupportedPaymentMethodViewHolder holder = new SupportedPaymentMethodViewHolder(view);
+        holder.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onPaymentMethodSelected(getItem(position));
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull SupportedPaymentMethodViewHolder holder, int position) {
-        final DropInPaymentMethod paymentMethodType = supportedPaymentMethods.get(position);
-        holder.bind(paymentMethodType);
-        holder.setOnClickListener(v -> listener.onPaymentMethodSelected(paymentMethodType));
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return supportedPaymentMethods.size();
+    public long getItemId(int position) {
+        return getItem(position).ordinal();
     }
 }
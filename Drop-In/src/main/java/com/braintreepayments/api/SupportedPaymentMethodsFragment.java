@@ -39,6 +39,9 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
     @VisibleForTesting
     RecyclerView vaultedPaymentMethodsView;
 
+    private SupportedPaymentMethodsAdapter supportedPaymentMethodsAdapter;
+    private VaultedPaymentMethodsAdapter vaultedPaymentMethodsAdapter;
+
     private View vaultedPaymentMethodsContainer;
     private Button vaultManagerButton;
 
@@ -82,9 +85,15 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
                 requireActivity(), supportedPaymentMethodsLayoutManager.getOrientation());
         supportedPaymentMethodsView.addItemDecoration(dividerItemDecoration);
 
+        // both lists are updated in place as the view model changes
+        supportedPaymentMethodsAdapter = new SupportedPaymentMethodsAdapter(this);
+        supportedPaymentMethodsView.setAdapter(supportedPaymentMethodsAdapter);
+
         vaultedPaymentMethodsView.setLayoutManager(new LinearLayoutManager(requireActivity(),
                 LinearLayoutManager.HORIZONTAL, false));
         new LinearSnapHelper().attachToRecyclerView(vaultedPaymentMethodsView);
+        vaultedPaymentMethodsAdapter = new VaultedPaymentMethodsAdapter(this);
+        vaultedPaymentMethodsView.setAdapter(vaultedPaymentMethodsAdapter);
 
         dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
         if (hasSupportedPaymentMethods()) {
@@ -175,9 +184,7 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
     private void showSupportedPaymentMethods() {
         List<DropInPaymentMethod> availablePaymentMethods =
                 dropInViewModel.getSupportedPaymentMethods().getValue();
-        SupportedPaymentMethodsAdapter adapter =
-                new SupportedPaymentMethodsAdapter(availablePaymentMethods, this);
-        supportedPaymentMethodsView.setAdapter(adapter);
+        supportedPaymentMethodsAdapter.submitList(availablePaymentMethods);
     }
 
     @Override
@@ -210,13 +217,15 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
             supportedPaymentMethodsHeader.setText(R.string.bt_other);
             vaultedPaymentMethodsContainer.setVisibility(View.VISIBLE);
 
-            VaultedPaymentMethodsAdapter vaultedPaymentMethodsAdapter =
-                    new VaultedPaymentMethodsAdapter(paymentMethodNonces, this);
-
-            vaultedPaymentMethodsView.setAdapter(vaultedPaymentMethodsAdapter);
-
             if (dropInRequest.isVaultManagerEnabled()) {
+                // the carousel never pages; the rest are reachable through the vault manager
+                vaultedPaymentMethodsAdapter.submitList(dropInViewModel.getVaultedPaymentMethodDisplays(
+                        DropInViewModel.getFirstPage(paymentMethodNonces)));
                 vaultManagerButton.setVisibility(View.VISIBLE);
+            } else {
+                // the carousel is the only way to reach them
+                vaultedPaymentMethodsAdapter.submitList(
+                        dropInViewModel.getVaultedPaymentMethodDisplays(paymentMethodNonces));
             }
 
         } else {
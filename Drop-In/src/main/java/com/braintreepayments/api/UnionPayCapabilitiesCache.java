@@ -0,0 +1,173 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of UnionPay capabilities, keyed by the merchant they were fetched for and
+ * the BIN of the card number.
+ * <p>
+ * Capabilities depend on the issuer and on the merchant account, so re-entering or editing a card
+ * with the same BIN for the same merchant is answered without a network round trip. Only the
+ * first {@link #BIN_LENGTH} digits of a card number are kept; the full number is passed to
+ * {@link UnionPayClient} and never stored. Entries expire after {@link #CAPABILITIES_TTL_MS} and
+ * the least recently used entry is evicted once {@link #MAX_ENTRIES} are cached. Lookups for a
+ * merchant and BIN that are already being fetched wait for that fetch.
+ */
+class UnionPayCapabilitiesCache {
+
+    static final int BIN_LENGTH = 6;
+    static final int MAX_ENTRIES = 32;
+    static final long CAPABILITIES_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private static volatile UnionPayCapabilitiesCache INSTANCE;
+
+    static UnionPayCapabilitiesCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (UnionPayCapabilitiesCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new UnionPayCapabilitiesCache();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private static class Entry {
+
+        private final UnionPayCapabilities capabilities;
+        private final long fetchedAt;
+
+        Entry(UnionPayCapabilities capabilities, long fetchedAt) {
+            this.capabilities = capabilities;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final DropInClock clock;
+
+    // access ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private final Map<String, List<UnionPayFetchCapabilitiesCallback>> pendingCallbacks = new HashMap<>();
+
+    UnionPayCapabilitiesCache() {
+        this(new DropInClock());
+    }
+
+    @VisibleForTesting
+    UnionPayCapabilitiesCache(DropInClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return the first {@link #BIN_LENGTH} digits of {@code cardNumber}, ignoring separators, or
+     * {@code null} if it has fewer digits than that
+     */
+    static String getBin(String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+
+        StringBuilder bin = new StringBuilder(BIN_LENGTH);
+        for (int i = 0; i < cardNumber.length() && bin.length() < BIN_LENGTH; i++) {
+            char c = cardNumber.charAt(i);
+            if (Character.isDigit(c)) {
+                bin.append(c);
+            }
+        }
+        return (bin.length() == BIN_LENGTH) ? bin.toString() : null;
+    }
+
+    /**
+     * Answers with the cached capabilities for the merchant and the BIN of {@code cardNumber}, or
+     * fetches them. Card numbers too short to have a BIN are fetched without caching. Failed
+     * fetches are not cached.
+     *
+     * @param merchantKey identifies the merchant the capabilities are fetched for, e.g. the
+     *                    configuration URL of the {@link Authorization}
+     * @param unionPayClient only created when the capabilities are not cached
+     */
+    void fetchCapabilities(String merchantKey, String cardNumber, LazyClient<UnionPayClient> unionPayClient, UnionPayFetchCapabilitiesCallback callback) {
+        String bin = getBin(cardNumber);
+        if (bin == null) {
+            unionPayClient.get().fetchCapabilities(cardNumber, callback);
+            return;
+        }
+        final String key = ((merchantKey == null) ? "" : merchantKey) + "|" + bin;
+
+        UnionPayCapabilities cached = null;
+        boolean shouldFetch = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && clock.elapsedRealtime() - entry.fetchedAt < CAPABILITIES_TTL_MS) {
+                cached = entry.capabilities;
+            } else {
+                entries.remove(key);
+
+                List<UnionPayFetchCapabilitiesCallback> callbacks = pendingCallbacks.get(key);
+                if (callbacks == null) {
+                    callbacks = new ArrayList<>();
+                    pendingCallbacks.put(key, callbacks);
+                    shouldFetch = true;
+                }
+                callbacks.add(callback);
+            }
+        }
+
+        if (cached != null) {
+            callback.onResult(cached, null);
+            return;
+        }
+
+        if (shouldFetch) {
+            unionPayClient.get().fetchCapabilities(cardNumber,
+                    (capabilities, error) -> onFetchCompleted(key, capabilities, error));
+        }
+    }
+
+    private void onFetchCompleted(String key, UnionPayCapabilities capabilities, Exception error) {
+        List<UnionPayFetchCapabilitiesCallback> callbacks;
+        synchronized (this) {
+            if (capabilities != null) {
+                entries.put(key, new Entry(capabilities, clock.elapsedRealtime()));
+            }
+            callbacks = pendingCallbacks.remove(key);
+        }
+
+        if (callbacks != null) {
+            for (UnionPayFetchCapabilitiesCallback callback : callbacks) {
+                callback.onResult(capabilities, error);
+            }
+        }
+    }
+
+    /**
+     * @return the keys of cached and in-flight lookups
+     */
+    @VisibleForTesting
+    synchronized Set<String> getKeys() {
+        Set<String> keys = new HashSet<>(entries.keySet());
+        keys.addAll(pendingCallbacks.keySet());
+        return keys;
+    }
+
+    @VisibleForTesting
+    synchronized int size() {
+        return entries.size();
+    }
+}
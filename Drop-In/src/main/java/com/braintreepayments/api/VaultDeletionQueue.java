@@ -0,0 +1,191 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deletes vaulted payment methods in the background with at most a fixed number of delete
+ * requests in flight. Deletions that do not fit are started in order as earlier ones finish, and
+ * a payment method that is already being deleted is not deleted again. Must be used on the main
+ * thread.
+ * <p>
+ * Nonce strings change every time the vault is fetched, so pending deletions are also tracked by
+ * {@link #getPaymentMethodKey(PaymentMethodNonce)}, which stays the same for a payment method
+ * across fetches.
+ */
+class VaultDeletionQueue {
+
+    /**
+     * Sends one delete request for {@code paymentMethodNonces}.
+     */
+    interface Deleter {
+        void delete(List<PaymentMethodNonce> paymentMethodNonces, DeletePaymentMethodNoncesCallback callback);
+    }
+
+    interface Listener {
+
+        /**
+         * Called when a delete request finishes, before its callback. Payment methods of the
+         * request that are not in {@code deletedNonces} failed to be deleted.
+         */
+        void onDeletionFinished(List<PaymentMethodNonce> deletedNonces);
+    }
+
+    private final int maxConcurrentDeletions;
+    private final Listener listener;
+
+    // cover deletions that are waiting as well as those in flight
+    private final Set<String> pendingNonces = new HashSet<>();
+    private final Map<String, Integer> pendingKeyCounts = new HashMap<>();
+    private final Deque<Deletion> waitingDeletions = new ArrayDeque<>();
+    private int runningDeletionCount;
+
+    VaultDeletionQueue(int maxConcurrentDeletions, Listener listener) {
+        this.maxConcurrentDeletions = maxConcurrentDeletions;
+        this.listener = listener;
+    }
+
+    /**
+     * @return a key that identifies the payment method {@code paymentMethodNonce} was fetched
+     * for, built from the details Drop-in receives for it. Two payment methods with the same
+     * details, e.g. a card vaulted twice, have the same key.
+     */
+    static String getPaymentMethodKey(PaymentMethodNonce paymentMethodNonce) {
+        if (paymentMethodNonce instanceof CardNonce) {
+            CardNonce cardNonce = (CardNonce) paymentMethodNonce;
+            return String.format("card:%s:%s:%s:%s/%s", cardNonce.getCardType(), cardNonce.getBin(),
+                    cardNonce.getLastFour(), cardNonce.getExpirationMonth(), cardNonce.getExpirationYear());
+        } else if (paymentMethodNonce instanceof PayPalAccountNonce) {
+            return "paypal:" + ((PayPalAccountNonce) paymentMethodNonce).getEmail();
+        } else if (paymentMethodNonce instanceof VenmoAccountNonce) {
+            return "venmo:" + ((VenmoAccountNonce) paymentMethodNonce).getUsername();
+        } else if (paymentMethodNonce instanceof GooglePayCardNonce) {
+            GooglePayCardNonce googlePayCardNonce = (GooglePayCardNonce) paymentMethodNonce;
+            return String.format("google_pay:%s:%s", googlePayCardNonce.getCardType(),
+                    googlePayCardNonce.getLastFour());
+        } else {
+            // nothing else identifies it, so it is only recognized by its nonce
+            return "nonce:" + paymentMethodNonce.getString();
+        }
+    }
+
+    /**
+     * Deletes {@code paymentMethodNonces} with one request, or queues the request until fewer
+     * than the maximum number of requests are in flight. Payment methods that are already being
+     * deleted are left out of the request; if that leaves none, no request is sent and
+     * {@code callback} is not called.
+     *
+     * @return the payment methods included in the request
+     */
+    List<PaymentMethodNonce> enqueue(List<PaymentMethodNonce> paymentMethodNonces, Deleter deleter, DeletePaymentMethodNoncesCallback callback) {
+        List<PaymentMethodNonce> noncesToDelete = new ArrayList<>();
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            if (pendingNonces.add(paymentMethodNonce.getString())) {
+                String key = getPaymentMethodKey(paymentMethodNonce);
+                pendingKeyCounts.put(key, getPendingCount(key) + 1);
+                noncesToDelete.add(paymentMethodNonce);
+            }
+        }
+
+        if (noncesToDelete.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        waitingDeletions.add(new Deletion(noncesToDelete, deleter, callback));
+        startWaitingDeletions(maxConcurrentDeletions);
+        return noncesToDelete;
+    }
+
+    /**
+     * @return true if this exact nonce is being deleted
+     */
+    boolean isPending(PaymentMethodNonce paymentMethodNonce) {
+        return pendingNonces.contains(paymentMethodNonce.getString());
+    }
+
+    /**
+     * @return the number of payment methods with {@code key} that are being deleted, whatever
+     * nonce they were deleted with
+     */
+    int getPendingCount(String key) {
+        Integer count = pendingKeyCounts.get(key);
+        return (count != null) ? count : 0;
+    }
+
+    boolean hasPendingDeletions() {
+        return !pendingNonces.isEmpty();
+    }
+
+    int getRunningDeletionCount() {
+        return runningDeletionCount;
+    }
+
+    /**
+     * Starts every waiting deletion without waiting for requests in flight to finish, e.g.
+     * when the queue is about to be discarded.
+     */
+    void flush() {
+        startWaitingDeletions(Integer.MAX_VALUE);
+    }
+
+    private void startWaitingDeletions(int maxRunningDeletions) {
+        while (runningDeletionCount < maxRunningDeletions && !waitingDeletions.isEmpty()) {
+            Deletion deletion = waitingDeletions.poll();
+            runningDeletionCount++;
+            deletion.start();
+        }
+    }
+
+    private void onDeletionFinished(Deletion deletion, DeletePaymentMethodNoncesResult result, Exception error) {
+        runningDeletionCount--;
+        for (PaymentMethodNonce paymentMethodNonce : deletion.paymentMethodNonces) {
+            pendingNonces.remove(paymentMethodNonce.getString());
+            String key = getPaymentMethodKey(paymentMethodNonce);
+            int count = getPendingCount(key) - 1;
+            if (count > 0) {
+                pendingKeyCounts.put(key, count);
+            } else {
+                pendingKeyCounts.remove(key);
+            }
+        }
+
+        List<PaymentMethodNonce> deletedNonces = (result != null)
+                ? result.getDeletedNonces() : Collections.<PaymentMethodNonce>emptyList();
+        listener.onDeletionFinished(deletedNonces);
+        deletion.callback.onResult(result, error);
+
+        startWaitingDeletions(maxConcurrentDeletions);
+    }
+
+    private class Deletion {
+
+        private final List<PaymentMethodNonce> paymentMethodNonces;
+        private final Deleter deleter;
+        private final DeletePaymentMethodNoncesCallback callback;
+
+        private boolean finished;
+
+        Deletion(List<PaymentMethodNonce> paymentMethodNonces, Deleter deleter, DeletePaymentMethodNoncesCallback callback) {
+            this.paymentMethodNonces = paymentMethodNonces;
+            this.deleter = deleter;
+            this.callback = callback;
+        }
+
+        void start() {
+            deleter.delete(paymentMethodNonces, (result, error) -> {
+                // a request answers once; guard against a deleter that does not
+                if (!finished) {
+                    finished = true;
+                    onDeletionFinished(this, result, error);
+                }
+            });
+        }
+    }
+}
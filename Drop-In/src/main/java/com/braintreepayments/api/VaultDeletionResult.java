@@ -0,0 +1,46 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one request of {@link DropInViewModel#deleteVaultedPaymentMethodNonces}, held by
+ * the view model until the current {@link DropInActivity} handles it.
+ */
+class VaultDeletionResult {
+
+    private final List<PaymentMethodNonce> paymentMethodNonces;
+    private final DeletePaymentMethodNoncesResult result;
+    private final Exception error;
+
+    VaultDeletionResult(List<PaymentMethodNonce> paymentMethodNonces, @Nullable DeletePaymentMethodNoncesResult result, @Nullable Exception error) {
+        this.paymentMethodNonces = Collections.unmodifiableList(paymentMethodNonces);
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * @return the payment methods the request was sent for
+     */
+    List<PaymentMethodNonce> getPaymentMethodNonces() {
+        return paymentMethodNonces;
+    }
+
+    /**
+     * @return the result of the request, or {@code null} if it failed as a whole
+     */
+    @Nullable
+    DeletePaymentMethodNoncesResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return the error the request failed with, or {@code null} if it has a result
+     */
+    @Nullable
+    Exception getError() {
+        return error;
+    }
+}
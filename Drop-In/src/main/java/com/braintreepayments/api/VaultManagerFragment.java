@@ -4,7 +4,9 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -13,15 +15,24 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.braintreepayments.api.dropin.R;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class VaultManagerFragment extends DropInFragment implements View.OnClickListener {
 
+    // start loading the next page while this many rows are still left to scroll through
+    private static final int NEXT_PAGE_PREFETCH_DISTANCE = 5;
+
     private RecyclerView vaultManagerView;
+    private LinearLayoutManager layoutManager;
+    private Button deleteSelectedButton;
+    private boolean isNextPageRequested;
 
     @VisibleForTesting
     VaultManagerPaymentMethodsAdapter adapter;
     @VisibleForTesting
     DropInViewModel dropInViewModel;
+    @VisibleForTesting
+    Executor diffExecutor;
 
     public VaultManagerFragment() {
     }
@@ -31,11 +42,28 @@ public class VaultManagerFragment extends DropInFragment implements View.OnClick
         View view = inflater.inflate(R.layout.bt_fragment_vault_manager, container, false);
 
         vaultManagerView = view.findViewById(R.id.bt_vault_manager_list);
-        vaultManagerView.setLayoutManager(new LinearLayoutManager(
-                requireActivity(), RecyclerView.VERTICAL, false));
+        layoutManager = new LinearLayoutManager(requireActivity(), RecyclerView.VERTICAL, false);
+        // rows go back to the activity's pool when the vault manager is closed, so opening it
+        // again reuses them
+        layoutManager.setRecycleChildrenOnDetach(true);
+        vaultManagerView.setLayoutManager(layoutManager);
+        vaultManagerView.setRecycledViewPool(getPaymentMethodViewPool().getRecycledViewPool());
         dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
 
-        dropInViewModel.getVaultedPaymentMethods().observe(getViewLifecycleOwner(), this::showVaultedPaymentMethods);
+        dropInViewModel.getLoadedVaultedPaymentMethods().observe(getViewLifecycleOwner(), this::showVaultedPaymentMethods);
+
+        // also called with a zero delta after each layout, so a first page that does not fill the
+        // screen still pulls in the next one
+        vaultManagerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                loadNextPageIfNeeded();
+            }
+        });
+
+        deleteSelectedButton = view.findViewById(R.id.bt_vault_manager_delete_selected);
+        deleteSelectedButton.setOnClickListener(v -> sendDropInEvent(
+                DropInEvent.createDeleteVaultedPaymentMethodNoncesEvent(adapter.getSelectedPaymentMethodNonces())));
 
         View closeButton = view.findViewById(R.id.bt_vault_manager_close);
         closeButton.setOnClickListener(v -> sendDropInEvent(new DropInEvent(DropInEventType.DISMISS_VAULT_MANAGER)));
@@ -57,7 +85,43 @@ public class VaultManagerFragment extends DropInFragment implements View.OnClick
     }
 
     private void showVaultedPaymentMethods(List<PaymentMethodNonce> vaultedPaymentMethodNonces) {
-        adapter = new VaultManagerPaymentMethodsAdapter(this, vaultedPaymentMethodNonces);
-        vaultManagerView.setAdapter(adapter);
+        if (vaultedPaymentMethodNonces == null) {
+            isNextPageRequested = false;
+            return;
+        }
+
+        if (adapter == null || vaultManagerView.getAdapter() != adapter) {
+            adapter = new VaultManagerPaymentMethodsAdapter(this, getPaymentMethodViewPool(), diffExecutor);
+            adapter.setOnSelectionChangedListener(this::showSelection);
+            vaultManagerView.setAdapter(adapter);
+            showSelection(adapter.getSelectedPaymentMethodNonces());
+        }
+
+        // new pages and deletions are diffed against the rows already shown and applied in place
+        adapter.submitList(dropInViewModel.getVaultedPaymentMethodDisplays(vaultedPaymentMethodNonces),
+                () -> isNextPageRequested = false);
+    }
+
+    private void showSelection(List<PaymentMethodNonce> selectedPaymentMethodNonces) {
+        int count = selectedPaymentMethodNonces.size();
+        if (count > 0) {
+            deleteSelectedButton.setText(getString(R.string.bt_delete_selected, count));
+            deleteSelectedButton.setVisibility(View.VISIBLE);
+        } else {
+            deleteSelectedButton.setVisibility(View.GONE);
+        }
+    }
+
+    private void loadNextPageIfNeeded() {
+        if (adapter == null || isNextPageRequested || !dropInViewModel.hasMoreVaultedPaymentMethods()) {
+            return;
+        }
+
+        int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+        if (lastVisiblePosition >= adapter.getItemCount() - NEXT_PAGE_PREFETCH_DISTANCE) {
+            // posted because the adapter must not change during a scroll or layout callback
+            isNextPageRequested = true;
+            vaultManagerView.post(dropInViewModel::loadNextVaultedPaymentMethodsPage);
+        }
     }
 }
\ No newline at end of file
@@ -4,47 +4,156 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.braintreepayments.api.dropin.R;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+class VaultManagerPaymentMethodsAdapter extends ListAdapter<VaultedPaymentMethodDisplay, VaultManagerPaymentMethodsAdapter.ViewHolder> {
+
+    interface OnSelectionChangedListener {
+        void onSelectionChanged(List<PaymentMethodNonce> selectedPaymentMethodNonces);
+    }
 
-class VaultManagerPaymentMethodsAdapter extends RecyclerView.Adapter<VaultManagerPaymentMethodsAdapter.ViewHolder> {
-    private final List<PaymentMethodNonce> vaultedPaymentMethodNonces;
     private final View.OnClickListener clickListener;
+    private final PaymentMethodViewPool viewPool;
+    private final StableIds stableIds = new StableIds();
+
+    // long pressing a payment method starts selecting; while anything is selected a tap toggles.
+    // Keyed by nonce string, so the selection survives the vault being refetched
+    private final Map<String, PaymentMethodNonce> selectedPaymentMethodNonces = new LinkedHashMap<>();
+    private OnSelectionChangedListener selectionChangedListener;
+
+    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener, PaymentMethodViewPool viewPool) {
+        this(clickListener, viewPool, null);
+    }
 
-    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener, List<PaymentMethodNonce> vaultedPaymentMethodNonces) {
+    /**
+     * @param diffExecutor computes the difference between submitted lists, or {@code null} to
+     * use {@link AsyncDifferConfig}'s shared background thread
+     */
+    @VisibleForTesting
+    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener, PaymentMethodViewPool viewPool, @Nullable Executor diffExecutor) {
+        super(createDifferConfig(diffExecutor));
         this.clickListener = clickListener;
-        this.vaultedPaymentMethodNonces = vaultedPaymentMethodNonces;
+        this.viewPool = viewPool;
+        setHasStableIds(true);
     }
 
-    @NonNull
-    @Override
-    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return new ViewHolder(new PaymentMethodItemView(parent.getContext()));
+    private static AsyncDifferConfig<VaultedPaymentMethodDisplay> createDifferConfig(@Nullable Executor diffExecutor) {
+        AsyncDifferConfig.Builder<VaultedPaymentMethodDisplay> builder =
+                new AsyncDifferConfig.Builder<>(VaultedPaymentMethodDisplay.DIFF_CALLBACK);
+        if (diffExecutor != null) {
+            builder.setBackgroundThreadExecutor(diffExecutor);
+        }
+        return builder.build();
     }
 
+    @NonNull
     @Override
-    public void onBindViewHolder(ViewHolder holder, int position) {
-        final PaymentMethodNonce paymentMethodNonce = vaultedPaymentMethodNonces.get(position);
-        final PaymentMethodItemView paymentMethodItemView = ((PaymentMethodItemView)holder.itemView);
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        PaymentMethodItemView paymentMethodItemView = viewPool.createVaultManagerRow(parent.getContext());
+        paymentMethodItemView.setBackgroundResource(R.drawable.bt_vault_manager_list_item_bg);
+        ViewHolder holder = new ViewHolder(paymentMethodItemView);
 
-        paymentMethodItemView.setPaymentMethod(paymentMethodNonce, true);
         paymentMethodItemView.setOnDeleteIconClick(v -> {
             if (clickListener != null) {
                 clickListener.onClick(paymentMethodItemView);
             }
         });
+        paymentMethodItemView.setOnLongClickListener(v -> {
+            toggleSelection(paymentMethodItemView.getPaymentMethodNonce(), holder.getAdapterPosition());
+            return true;
+        });
+        paymentMethodItemView.setOnClickListener(v -> {
+            if (!selectedPaymentMethodNonces.isEmpty()) {
+                toggleSelection(paymentMethodItemView.getPaymentMethodNonce(), holder.getAdapterPosition());
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        VaultedPaymentMethodDisplay paymentMethod = getItem(position);
+        PaymentMethodItemView paymentMethodItemView = ((PaymentMethodItemView) holder.itemView);
+
+        paymentMethodItemView.setPaymentMethod(paymentMethod, true);
+        paymentMethodItemView.setActivated(
+                selectedPaymentMethodNonces.containsKey(paymentMethod.getPaymentMethodNonce().getString()));
     }
 
     @Override
-    public int getItemCount() {
-        return vaultedPaymentMethodNonces.size();
+    public int getItemViewType(int position) {
+        return PaymentMethodViewPool.VIEW_TYPE_VAULT_MANAGER_ROW;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position).getPaymentMethodNonce().getString());
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<VaultedPaymentMethodDisplay> previousList,
+                                     @NonNull List<VaultedPaymentMethodDisplay> currentList) {
+        if (selectedPaymentMethodNonces.isEmpty()) {
+            return;
+        }
+
+        // deleted payment methods can no longer be selected
+        Set<String> nonces = new HashSet<>();
+        for (VaultedPaymentMethodDisplay paymentMethod : currentList) {
+            nonces.add(paymentMethod.getPaymentMethodNonce().getString());
+        }
+
+        if (selectedPaymentMethodNonces.keySet().retainAll(nonces)) {
+            notifySelectionChanged();
+        }
+    }
+
+    private void toggleSelection(PaymentMethodNonce paymentMethodNonce, int position) {
+        String nonce = paymentMethodNonce.getString();
+        if (selectedPaymentMethodNonces.remove(nonce) == null) {
+            selectedPaymentMethodNonces.put(nonce, paymentMethodNonce);
+        }
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position);
+        }
+        notifySelectionChanged();
+    }
+
+    private void notifySelectionChanged() {
+        if (selectionChangedListener != null) {
+            selectionChangedListener.onSelectionChanged(getSelectedPaymentMethodNonces());
+        }
+    }
+
+    void setOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        selectionChangedListener = listener;
+    }
+
+    List<PaymentMethodNonce> getSelectedPaymentMethodNonces() {
+        return new ArrayList<>(selectedPaymentMethodNonces.values());
     }
 
     ArrayList<PaymentMethodNonce> getPaymentMethodNonces() {
-        return new ArrayList<>(vaultedPaymentMethodNonces);
+        List<VaultedPaymentMethodDisplay> paymentMethods = getCurrentList();
+        ArrayList<PaymentMethodNonce> paymentMethodNonces = new ArrayList<>(paymentMethods.size());
+        for (VaultedPaymentMethodDisplay paymentMethod : paymentMethods) {
+            paymentMethodNonces.add(paymentMethod.getPaymentMethodNonce());
+        }
+        return paymentMethodNonces;
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -53,4 +162,3 @@ class VaultManagerPaymentMethodsAdapter extends RecyclerView.Adapter<VaultManage
         }
     }
 }
-
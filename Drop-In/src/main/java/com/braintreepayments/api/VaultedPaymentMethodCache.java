@@ -0,0 +1,193 @@
+package com.braintreepayments.api;
+
+import android.net.Uri;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of a customer's vaulted payment methods, keyed by the customer identity in
+ * the client token within the merchant and environment the client token was issued for.
+ * <p>
+ * Entries younger than the time to live are fresh. Older entries are still served for up to
+ * {@link #MAX_STALE_AGE_MS} so Drop-in can render immediately while the vault is revalidated in
+ * the background. Vaulted nonces are single use, so nonces returned in a {@link DropInResult}
+ * are dropped from their entry as soon as they are consumed.
+ */
+class VaultedPaymentMethodCache {
+
+    // well below the three hour lifetime of a vaulted payment method nonce
+    static final long MAX_STALE_AGE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String CUSTOMER_ID_KEY = "customer_id=";
+    private static final String MERCHANTS_PATH_SEGMENT = "merchants";
+
+    private static volatile VaultedPaymentMethodCache INSTANCE;
+
+    static VaultedPaymentMethodCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (VaultedPaymentMethodCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new VaultedPaymentMethodCache();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private static class Entry {
+
+        private final List<PaymentMethodNonce> paymentMethodNonces;
+        private final long fetchedAt;
+        private boolean revalidationRequired;
+
+        Entry(List<PaymentMethodNonce> paymentMethodNonces, long fetchedAt) {
+            this.paymentMethodNonces = paymentMethodNonces;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final DropInClock clock;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private int generation;
+
+    VaultedPaymentMethodCache() {
+        this(new DropInClock());
+    }
+
+    @VisibleForTesting
+    VaultedPaymentMethodCache(DropInClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param authorization the {@link Authorization} used by Drop-in
+     * @return the key for the customer's cache entry, or {@code null} if the authorization cannot
+     * be used to fetch vaulted payment methods.
+     */
+    static String getCustomerKey(Authorization authorization) {
+        if (!(authorization instanceof ClientToken)) {
+            return null;
+        }
+
+        String bearer = authorization.getBearer();
+        if (bearer == null) {
+            return null;
+        }
+
+        // customer ids are only unique within a merchant account and environment
+        return getMerchantKey(authorization.getConfigUrl()) + "|" + getCustomerId(bearer);
+    }
+
+    /**
+     * @return the customer id in the query of an authorization fingerprint, e.g.
+     * {@code <jwt>?customer_id=42}, or the fingerprint itself if it has none
+     */
+    private static String getCustomerId(String authorizationFingerprint) {
+        int queryStart = authorizationFingerprint.indexOf('?');
+        String query = (queryStart >= 0)
+                ? authorizationFingerprint.substring(queryStart + 1) : authorizationFingerprint;
+
+        for (String component : query.split("&")) {
+            // older fingerprints start with the signature, separated from the first parameter by '|'
+            String parameter = component.substring(component.lastIndexOf('|') + 1);
+            if (parameter.startsWith(CUSTOMER_ID_KEY)) {
+                return parameter.substring(CUSTOMER_ID_KEY.length());
+            }
+        }
+        // fingerprints without a readable customer id are scoped to the client token itself
+        return authorizationFingerprint;
+    }
+
+    /**
+     * @return the gateway host and merchant id of a configuration url such as
+     * {@code https://api.sandbox.braintreegateway.com/merchants/<merchant id>/client_api/v1/configuration},
+     * or the whole url if it does not have that form
+     */
+    private static String getMerchantKey(String configUrl) {
+        if (configUrl == null) {
+            return "";
+        }
+
+        Uri uri = Uri.parse(configUrl);
+        List<String> pathSegments = uri.getPathSegments();
+        int merchantsIndex = pathSegments.indexOf(MERCHANTS_PATH_SEGMENT);
+        if (uri.getHost() == null || merchantsIndex < 0 || merchantsIndex + 1 >= pathSegments.size()) {
+            return configUrl;
+        }
+        return uri.getHost() + "/" + pathSegments.get(merchantsIndex + 1);
+    }
+
+    /**
+     * @return the cached payment methods for the customer, excluding consumed nonces, or
+     * {@code null} if there is no entry young enough to be served.
+     */
+    synchronized List<PaymentMethodNonce> get(String customerKey) {
+        Entry entry = entries.get(customerKey);
+        if (entry == null || getAge(entry) > MAX_STALE_AGE_MS) {
+            entries.remove(customerKey);
+            return null;
+        }
+
+        return new ArrayList<>(entry.paymentMethodNonces);
+    }
+
+    /**
+     * @return {@code true} if the customer's entry is missing or older than the time to live.
+     */
+    synchronized boolean isStale(String customerKey, long timeToLiveMillis) {
+        Entry entry = entries.get(customerKey);
+        return entry == null || entry.revalidationRequired || getAge(entry) >= timeToLiveMillis;
+    }
+
+    /**
+     * @return a token to pass to {@link #put(String, List, int)} when a fetch is started, so
+     * results that were in flight during an invalidation are not cached.
+     */
+    synchronized int getGeneration() {
+        return generation;
+    }
+
+    synchronized void put(String customerKey, List<PaymentMethodNonce> paymentMethodNonces, int fetchGeneration) {
+        if (fetchGeneration != generation) {
+            return;
+        }
+        entries.put(customerKey,
+                new Entry(new ArrayList<>(paymentMethodNonces), clock.elapsedRealtime()));
+    }
+
+    synchronized void invalidate(String customerKey) {
+        generation++;
+        entries.remove(customerKey);
+    }
+
+    /**
+     * Drops a nonce that has been handed out in a {@link DropInResult}. Entries that contained
+     * the nonce are marked stale so the next read revalidates the customer's vault and picks up
+     * a fresh nonce for the same payment method.
+     */
+    synchronized void markConsumed(PaymentMethodNonce paymentMethodNonce) {
+        String nonce = paymentMethodNonce.getString();
+        for (Entry entry : entries.values()) {
+            Iterator<PaymentMethodNonce> iterator = entry.paymentMethodNonces.iterator();
+            while (iterator.hasNext()) {
+                if (nonce.equals(iterator.next().getString())) {
+                    iterator.remove();
+                    entry.revalidationRequired = true;
+                }
+            }
+        }
+    }
+
+    private long getAge(Entry entry) {
+        return clock.elapsedRealtime() - entry.fetchedAt;
+    }
+}
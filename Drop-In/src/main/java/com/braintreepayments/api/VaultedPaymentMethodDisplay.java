@@ -0,0 +1,121 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+import androidx.recyclerview.widget.DiffUtil;
+
+/**
+ * Everything Drop-in shows for a vaulted payment method, computed once when the vault arrives
+ * so that rows bind without inspecting the {@link PaymentMethodNonce} again.
+ */
+class VaultedPaymentMethodDisplay {
+
+    /**
+     * Identifies payment methods by nonce string, so a refetched vault only rebinds the rows
+     * whose contents changed.
+     */
+    static final DiffUtil.ItemCallback<VaultedPaymentMethodDisplay> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<VaultedPaymentMethodDisplay>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull VaultedPaymentMethodDisplay oldItem, @NonNull VaultedPaymentMethodDisplay newItem) {
+                    return oldItem.getPaymentMethodNonce().getString()
+                            .equals(newItem.getPaymentMethodNonce().getString());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull VaultedPaymentMethodDisplay oldItem, @NonNull VaultedPaymentMethodDisplay newItem) {
+                    return oldItem.displayedPaymentMethodType == newItem.displayedPaymentMethodType
+                            && oldItem.contentDescription.equals(newItem.contentDescription);
+                }
+            };
+
+    private final PaymentMethodNonce paymentMethodNonce;
+    private final DropInPaymentMethod paymentMethodType;
+    private final DropInPaymentMethod displayedPaymentMethodType;
+    private final String description;
+    private final String contentDescription;
+
+    // formatted the first time a delete icon is bound; rows are only bound on the main thread
+    private String deleteLabel;
+    private String deleteContentDescription;
+
+    VaultedPaymentMethodDisplay(PaymentMethodNonce paymentMethodNonce, DropInPaymentMethod paymentMethodType, String description) {
+        this.paymentMethodNonce = paymentMethodNonce;
+        this.paymentMethodType = paymentMethodType;
+        // card brands Drop-in does not recognize are displayed as an unknown card
+        this.displayedPaymentMethodType =
+                (paymentMethodType != null) ? paymentMethodType : DropInPaymentMethod.UNKNOWN;
+        this.description = description;
+        this.contentDescription = String.format("%s %s", displayedPaymentMethodType.name(), description);
+    }
+
+    static VaultedPaymentMethodDisplay from(PaymentMethodNonce paymentMethodNonce, PaymentMethodInspector nonceInspector) {
+        return new VaultedPaymentMethodDisplay(paymentMethodNonce,
+                nonceInspector.getPaymentMethod(paymentMethodNonce),
+                nonceInspector.getPaymentMethodDescription(paymentMethodNonce));
+    }
+
+    @NonNull
+    PaymentMethodNonce getPaymentMethodNonce() {
+        return paymentMethodNonce;
+    }
+
+    /**
+     * @return the type of the payment method, or {@code null} if it is a card of a brand Drop-in
+     * does not recognize
+     */
+    @Nullable
+    DropInPaymentMethod getPaymentMethodType() {
+        return paymentMethodType;
+    }
+
+    /**
+     * @return the icon shown in the vault manager
+     */
+    @DrawableRes
+    int getDrawable() {
+        return displayedPaymentMethodType.getDrawable();
+    }
+
+    /**
+     * @return the icon shown in the vaulted payment methods carousel and the delete confirmation
+     */
+    @DrawableRes
+    int getVaultedDrawable() {
+        return displayedPaymentMethodType.getVaultedDrawable();
+    }
+
+    @StringRes
+    int getTitle() {
+        return displayedPaymentMethodType.getLocalizedName();
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the payment method type followed by its description, e.g. "VISA 1111"
+     */
+    @NonNull
+    String getContentDescription() {
+        return contentDescription;
+    }
+
+    /**
+     * @param deleteLabel the localized label of the delete action
+     * @return the content description of the delete icon, e.g. "Delete VISA 1111"
+     */
+    @NonNull
+    String getDeleteContentDescription(String deleteLabel) {
+        String cached = deleteContentDescription;
+        if (cached == null || !deleteLabel.equals(this.deleteLabel)) {
+            cached = String.format("%s %s", deleteLabel, contentDescription);
+            this.deleteLabel = deleteLabel;
+            deleteContentDescription = cached;
+        }
+        return cached;
+    }
+}
@@ -14,8 +14,6 @@ class VaultedPaymentMethodViewHolder extends RecyclerView.ViewHolder {
     private final TextView title;
     private final TextView description;
 
-    private final PaymentMethodInspector nonceInspector = new PaymentMethodInspector();
-
     VaultedPaymentMethodViewHolder(View view) {
         super(view);
 
@@ -24,12 +22,10 @@ class VaultedPaymentMethodViewHolder extends RecyclerView.ViewHolder {
         description = view.findViewById(R.id.bt_payment_method_description);
     }
 
-    void bind(PaymentMethodNonce paymentMethodNonce) {
-        DropInPaymentMethod paymentMethodType = nonceInspector.getPaymentMethod(paymentMethodNonce);
-
-        title.setText(paymentMethodType.getLocalizedName());
-        icon.setImageResource(paymentMethodType.getVaultedDrawable());
-        description.setText(nonceInspector.getPaymentMethodDescription(paymentMethodNonce));
+    void bind(VaultedPaymentMethodDisplay display) {
+        title.setText(display.getTitle());
+        icon.setImageResource(display.getVaultedDrawable());
+        description.setText(display.getDescription());
     }
 
     void setOnClickListener(View.OnClickListener listener) {
@@ -5,20 +5,20 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
-
 import com.braintreepayments.api.dropin.R;
 
-class VaultedPaymentMethodsAdapter extends RecyclerView.Adapter<VaultedPaymentMethodViewHolder> {
+class VaultedPaymentMethodsAdapter extends ListAdapter<VaultedPaymentMethodDisplay, VaultedPaymentMethodViewHolder> {
 
-    private final List<PaymentMethodNonce> paymentMethodNonces;
     private final VaultedPaymentMethodSelectedListener listener;
+    private final StableIds stableIds = new StableIds();
 
-    VaultedPaymentMethodsAdapter(List<PaymentMethodNonce> paymentMethodNonces, VaultedPaymentMethodSelectedListener listener) {
+    VaultedPaymentMethodsAdapter(VaultedPaymentMethodSelectedListener listener) {
+        super(VaultedPaymentMethodDisplay.DIFF_CALLBACK);
         this.listener = listener;
-        this.paymentMethodNonces = paymentMethodNonces;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -27,18 +27,23 @@ class VaultedPaymentMethodsAdapter extends RecyclerView.Adapter<VaultedPaymentMe
         LayoutInflater inflater = LayoutInflater.from(parent.getContext());
         View view =
             inflater.inflate(R.layout.bt_vaulted_payment_method_card, parent, false);
-        return new VaultedPaymentMethodViewHolder(view);
+        VaultedPaymentMethodViewHolder holder = new VaultedPaymentMethodViewHolder(view);
+        holder.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onVaultedPaymentMethodSelected(getItem(position).getPaymentMethodNonce());
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull VaultedPaymentMethodViewHolder holder, int position) {
-        final PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(position);
-        holder.bind(paymentMethodNonce);
-        holder.setOnClickListener(v -> listener.onVaultedPaymentMethodSelected(paymentMethodNonce));
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return paymentMethodNonces.size();
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position).getPaymentMethodNonce().getString());
     }
 }
@@ -0,0 +1,30 @@
+package com.braintreepayments.api;
+
+class VenmoPaymentMethodProvider extends DropInPaymentMethodProvider {
+
+    @Override
+    DropInPaymentMethod getPaymentMethod() {
+        return DropInPaymentMethod.VENMO;
+    }
+
+    @Override
+    boolean isEnabled(Configuration configuration, DropInRequest dropInRequest) {
+        return !dropInRequest.isVenmoDisabled() && configuration.isVenmoEnabled();
+    }
+
+    @Override
+    boolean isAvailableOnDevice(DeviceAvailability deviceAvailability) {
+        return deviceAvailability.isVenmoAppSwitchAvailable();
+    }
+
+    @Override
+    boolean isVaultedPaymentMethodAvailableOnDevice(DeviceAvailability deviceAvailability) {
+        // paying with a vaulted Venmo account does not switch to the Venmo app
+        return true;
+    }
+
+    @Override
+    boolean isProviderOf(PaymentMethodNonce paymentMethodNonce) {
+        return paymentMethodNonce instanceof VenmoAccountNonce;
+    }
+}
@@ -0,0 +1,150 @@
+package com.braintreepayments.api;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import org.mockito.stubbing.Answer;
+
+import java.util.Random;
+
+/**
+ * In-process stand-in for the Braintree gateway. Every configuration fetch, GET and GraphQL
+ * POST made through the {@link BraintreeClient} it creates is answered and counted. Responses
+ * are synchronous unless a response delay is set, in which case they are posted to the main
+ * looper. Like {@link BraintreeClient}, the configuration is only fetched over the network until
+ * the first response arrives and is served from cache afterwards. A failure rate and a share of
+ * slow responses can be set to make the gateway flaky; both are drawn from a seeded random so
+ * runs are repeatable.
+ */
+public class FakeGateway {
+
+    private interface FailureCallback {
+        void onFailure(Exception error);
+    }
+
+    private final Configuration configuration;
+    private final String paymentMethodsResponse;
+
+    private long responseDelayMillis;
+    private double failureRate;
+    private double slowResponseRate;
+    private long slowResponseDelayMillis;
+    private Random random = new Random(0);
+    private boolean configurationCached;
+
+    private int configurationRequestCount;
+    private int getRequestCount;
+    private int graphQLRequestCount;
+
+    public FakeGateway(Configuration configuration, String paymentMethodsResponse) {
+        this.configuration = configuration;
+        this.paymentMethodsResponse = paymentMethodsResponse;
+    }
+
+    public FakeGateway responseDelay(long delayMillis) {
+        responseDelayMillis = delayMillis;
+        return this;
+    }
+
+    /**
+     * @param rate share of requests, between 0 and 1, answered with a
+     *             {@link ServiceUnavailableException}
+     */
+    public FakeGateway failureRate(double rate) {
+        failureRate = rate;
+        return this;
+    }
+
+    /**
+     * @param rate share of requests, between 0 and 1, answered after {@code delayMillis} instead
+     *             of the response delay
+     */
+    public FakeGateway slowResponses(double rate, long delayMillis) {
+        slowResponseRate = rate;
+        slowResponseDelayMillis = delayMillis;
+        return this;
+    }
+
+    public FakeGateway seed(long seed) {
+        random = new Random(seed);
+        return this;
+    }
+
+    public BraintreeClient createBraintreeClient(Authorization authorization) {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        when(braintreeClient.getAuthorization()).thenReturn(authorization);
+        when(braintreeClient.getSessionId()).thenReturn("session-id");
+
+        doAnswer((Answer<Void>) invocation -> {
+            ConfigurationCallback callback = (ConfigurationCallback) invocation.getArguments()[0];
+            if (configurationCached) {
+                callback.onResult(configuration, null);
+                return null;
+            }
+
+            configurationRequestCount++;
+            respond(() -> {
+                configurationCached = true;
+                callback.onResult(configuration, null);
+            }, error -> callback.onResult(null, error));
+            return null;
+        }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
+
+        doAnswer((Answer<Void>) invocation -> {
+            getRequestCount++;
+            HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[1];
+            respond(() -> callback.onResult(paymentMethodsResponse, null),
+                    error -> callback.onResult(null, error));
+            return null;
+        }).when(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+
+        doAnswer((Answer<Void>) invocation -> {
+            graphQLRequestCount++;
+            HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[1];
+            respond(() -> callback.onResult("{}", null), error -> callback.onResult(null, error));
+            return null;
+        }).when(braintreeClient).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+
+        return braintreeClient;
+    }
+
+    private void respond(Runnable response, FailureCallback failure) {
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            Exception error = new ServiceUnavailableException("Service unavailable");
+            response = () -> failure.onFailure(error);
+        }
+
+        long delayMillis = responseDelayMillis;
+        if (slowResponseRate > 0 && random.nextDouble() < slowResponseRate) {
+            delayMillis = slowResponseDelayMillis;
+        }
+
+        if (delayMillis > 0) {
+            new Handler(Looper.getMainLooper()).postDelayed(response, delayMillis);
+        } else {
+            response.run();
+        }
+    }
+
+    public int getConfigurationRequestCount() {
+        return configurationRequestCount;
+    }
+
+    public int getGETRequestCount() {
+        return getRequestCount;
+    }
+
+    public int getGraphQLRequestCount() {
+        return graphQLRequestCount;
+    }
+
+    public int getRequestCount() {
+        return configurationRequestCount + getRequestCount + graphQLRequestCount;
+    }
+}
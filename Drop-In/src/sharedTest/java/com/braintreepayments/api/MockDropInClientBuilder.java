@@ -1,5 +1,6 @@
 package com.braintreepayments.api;
 
+import android.content.Context;
 import android.content.Intent;
 
 import androidx.fragment.app.FragmentActivity;
@@ -9,6 +10,7 @@ import org.mockito.stubbing.Answer;
 import java.util.List;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -29,6 +31,8 @@ public class MockDropInClientBuilder {
     private String deviceDataSuccess;
     private PaymentMethodNonce deletedNonce;
     private Exception deletePaymentMethodNonceError;
+    private DeletePaymentMethodNoncesResult deletePaymentMethodsResult;
+    private Exception deletePaymentMethodsError;
     private CardNonce cardTokenizeSuccess;
     private Exception cardTokenizeError;
     private Exception payPalError;
@@ -122,6 +126,16 @@ public class MockDropInClientBuilder {
         return this;
     }
 
+    MockDropInClientBuilder deletePaymentMethodsSuccess(DeletePaymentMethodNoncesResult result) {
+        this.deletePaymentMethodsResult = result;
+        return this;
+    }
+
+    MockDropInClientBuilder deletePaymentMethodsError(Exception error) {
+        this.deletePaymentMethodsError = error;
+        return this;
+    }
+
     MockDropInClientBuilder cardTokenizeSuccess(CardNonce cardNonce) {
         this.cardTokenizeSuccess = cardNonce;
         return this;
@@ -213,6 +227,16 @@ public class MockDropInClientBuilder {
             return null;
         }).when(dropInClient).getVaultedPaymentMethods(any(FragmentActivity.class), any(GetPaymentMethodNoncesCallback.class));
 
+        doAnswer((Answer<Void>) invocation -> {
+            GetPaymentMethodNoncesCallback callback = (GetPaymentMethodNoncesCallback) invocation.getArguments()[2];
+            if (paymentMethodNonceListSuccess != null) {
+                callback.onResult(paymentMethodNonceListSuccess, null);
+            } else if (getVaultedPaymentMethodsError != null) {
+                callback.onResult(null, getVaultedPaymentMethodsError);
+            }
+            return null;
+        }).when(dropInClient).getVaultedPaymentMethods(any(FragmentActivity.class), anyBoolean(), any(GetPaymentMethodNoncesCallback.class));
+
         doAnswer((Answer<Void>) invocation -> {
             ConfigurationCallback callback = (ConfigurationCallback) invocation.getArguments()[0];
             if (configuration != null) {
@@ -260,7 +284,17 @@ public class MockDropInClientBuilder {
                 callback.onResult(null, deletePaymentMethodNonceError);
             }
             return null;
-        }).when(dropInClient).deletePaymentMethod(any(FragmentActivity.class), any(PaymentMethodNonce.class), any(DeletePaymentMethodNonceCallback.class));
+        }).when(dropInClient).deletePaymentMethod(any(Context.class), any(PaymentMethodNonce.class), any(DeletePaymentMethodNonceCallback.class));
+
+        doAnswer((Answer<Void>) invocation -> {
+            DeletePaymentMethodNoncesCallback callback = (DeletePaymentMethodNoncesCallback) invocation.getArguments()[2];
+            if (deletePaymentMethodsResult != null) {
+                callback.onResult(deletePaymentMethodsResult, null);
+            } else if (deletePaymentMethodsError != null) {
+                callback.onResult(null, deletePaymentMethodsError);
+            }
+            return null;
+        }).when(dropInClient).deletePaymentMethods(any(Context.class), any(List.class), any(DeletePaymentMethodNoncesCallback.class));
 
         doAnswer((Answer<Void>) invocation -> {
             CardTokenizeCallback callback = (CardTokenizeCallback) invocation.getArguments()[1];
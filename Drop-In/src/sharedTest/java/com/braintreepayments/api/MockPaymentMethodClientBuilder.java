@@ -4,6 +4,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
+import android.content.Context;
+
 import org.mockito.stubbing.Answer;
 
 import java.util.List;
@@ -12,6 +14,8 @@ public class MockPaymentMethodClientBuilder {
 
     private List<PaymentMethodNonce> paymentMethodNonceList;
     private Exception getPaymentMethodNoncesError;
+    private PaymentMethodNonce deletePaymentMethodSuccess;
+    private Exception deletePaymentMethodError;
 
     public MockPaymentMethodClientBuilder getPaymentMethodNoncesSuccess(List<PaymentMethodNonce> paymentMethodNonceList) {
         this.paymentMethodNonceList = paymentMethodNonceList;
@@ -23,6 +27,16 @@ public class MockPaymentMethodClientBuilder {
         return this;
     }
 
+    public MockPaymentMethodClientBuilder deletePaymentMethodSuccess(PaymentMethodNonce deletedNonce) {
+        deletePaymentMethodSuccess = deletedNonce;
+        return this;
+    }
+
+    public MockPaymentMethodClientBuilder deletePaymentMethodError(Exception error) {
+        deletePaymentMethodError = error;
+        return this;
+    }
+
     public PaymentMethodClient build() {
         PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
 
@@ -36,6 +50,16 @@ public class MockPaymentMethodClientBuilder {
             return null;
         }).when(paymentMethodClient).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
 
+        doAnswer((Answer<Void>) invocation -> {
+            DeletePaymentMethodNonceCallback callback = (DeletePaymentMethodNonceCallback) invocation.getArguments()[2];
+            if (deletePaymentMethodSuccess != null) {
+                callback.onResult(deletePaymentMethodSuccess, null);
+            } else if (deletePaymentMethodError != null) {
+                callback.onResult(null, deletePaymentMethodError);
+            }
+            return null;
+        }).when(paymentMethodClient).deletePaymentMethod(any(Context.class), any(PaymentMethodNonce.class), any(DeletePaymentMethodNonceCallback.class));
+
         return paymentMethodClient;
     }
 }
@@ -0,0 +1,121 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.braintreepayments.cardform.utils.CardType;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the time from the card row being tapped until the card number field of the
+ * {@link AddCardFragment} has focus, with the add card view prepared while the supported payment
+ * methods were shown and with it inflated at tap time. Times are printed, and the test fails if
+ * the prepared view is not used.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AddCardFragmentTapToFocusBenchmarkTest {
+
+    private static final int ITERATIONS = 10;
+
+    private final List<ActivityController<DropInActivity>> activityControllers = new ArrayList<>();
+
+    @After
+    public void afterEach() {
+        for (ActivityController<DropInActivity> activityController : activityControllers) {
+            activityController.pause().stop().destroy();
+        }
+    }
+
+    @Test
+    public void benchmark_tapToFocusedCardField() throws InterruptedException {
+        // warm up class loading and view inflation
+        measureTapToFocusedCardField(true);
+        measureTapToFocusedCardField(false);
+
+        long preloadedNanos = 0;
+        long inflatedNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            preloadedNanos += measureTapToFocusedCardField(true);
+            inflatedNanos += measureTapToFocusedCardField(false);
+        }
+
+        System.out.println(String.format(Locale.US,
+                "Tap to focused card field:%n  preloaded %8.2f ms%n  inflated  %8.2f ms",
+                preloadedNanos / 1e6 / ITERATIONS, inflatedNanos / 1e6 / ITERATIONS));
+    }
+
+    private long measureTapToFocusedCardField(boolean preloaded) throws InterruptedException {
+        DropInActivity activity = launchDropInActivity();
+        AddCardViewPreloader preloader = activity.getAddCardViewPreloader();
+        awaitPreloadedView(preloader);
+        if (!preloaded) {
+            // discarding the prepared view leaves AddCardFragment to inflate its own
+            preloader.takePreloadedView();
+        }
+
+        long startNanos = System.nanoTime();
+        DropInEvent event = DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.UNKNOWN);
+        activity.getSupportFragmentManager().setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle());
+        activity.getSupportFragmentManager().executePendingTransactions();
+        shadowOf(Looper.getMainLooper()).idle();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        AddCardFragment fragment =
+                (AddCardFragment) activity.getSupportFragmentManager().findFragmentByTag("ADD_CARD");
+        assertTrue(fragment.cardForm.getCardEditText().hasFocus());
+        assertFalse(preloader.hasPreloadedView());
+        return elapsedNanos;
+    }
+
+    private DropInActivity launchDropInActivity() {
+        DropInClient dropInClient = new MockDropInClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .getSupportedPaymentMethodsSuccess(Collections.singletonList(DropInPaymentMethod.UNKNOWN))
+                .getSupportedCardTypesSuccess(Collections.singletonList(CardType.VISA))
+                .build();
+
+        Bundle dropInRequestBundle = new Bundle();
+        dropInRequestBundle.putParcelable(DropInClient.EXTRA_CHECKOUT_REQUEST, new DropInRequest());
+        Intent intent = new Intent(ApplicationProvider.getApplicationContext(), DropInActivity.class)
+                .putExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle);
+
+        ActivityController<DropInActivity> activityController =
+                Robolectric.buildActivity(DropInActivity.class, intent);
+        activityControllers.add(activityController);
+        DropInActivity activity = activityController.get();
+        activity.dropInClient = dropInClient;
+        activityController.setup();
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN);
+        shadowOf(Looper.getMainLooper()).idle();
+        return activity;
+    }
+
+    private static void awaitPreloadedView(AddCardViewPreloader preloader) throws InterruptedException {
+        // the view is inflated on a background thread and set up on the main looper
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!preloader.hasPreloadedView() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertTrue(preloader.hasPreloadedView());
+    }
+}
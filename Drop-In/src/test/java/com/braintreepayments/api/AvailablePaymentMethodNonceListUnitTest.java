@@ -128,6 +128,23 @@ public class AvailablePaymentMethodNonceListUnitTest {
         assertEquals(0, sut.size());
     }
 
+    @Test
+    public void onlyPaymentMethodsOfRegisteredProvidersAvailable() {
+        Configuration configuration = getMockConfiguration(true, true, true, true);
+
+        List<PaymentMethodNonce> paymentMethodNonces = Arrays.asList(
+                payPalAccountNonce, venmoAccountNonce, cardNonce, googlePayCardNonce);
+        List<DropInPaymentMethodProvider> providers = Arrays.asList(
+                new CardPaymentMethodProvider(), new GooglePayPaymentMethodProvider());
+
+        AvailablePaymentMethodNonceList sut = new AvailablePaymentMethodNonceList(
+                configuration, paymentMethodNonces, new DropInRequest(), new DeviceAvailability(true, false), providers);
+
+        assertEquals(2, sut.size());
+        assertEquals(cardNonce, sut.get(0));
+        assertEquals(googlePayCardNonce, sut.get(1));
+    }
+
     private Configuration getMockConfiguration(boolean paypalEnabled, boolean venmoEnabled, boolean cardEnabled, boolean googlePayEnabled) {
         Configuration configuration = mock(Configuration.class);
 
@@ -0,0 +1,142 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.ViewModelProvider;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the layout passes of a {@link BottomSheetFragment} while it opens and closes the vault
+ * manager. Each transition may lay out on its first frame, which adds the incoming page, and a
+ * closing transition may lay out once more on the frame it ends, which removes the closed page;
+ * every frame in between only moves pages and must not measure or lay out.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BottomSheetPageTransitionLayoutPassTest {
+
+    private static final Duration FRAME = Duration.ofMillis(16);
+    private static final Duration TRANSITION_TIMEOUT = Duration.ofSeconds(2);
+
+    private BottomSheetFragment fragment;
+
+    private int frameCount;
+    private final List<Integer> layoutFrames = new ArrayList<>();
+    private DropInTransition completedTransition;
+    private int completionFrame;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        FragmentTestActivity activity = Robolectric.buildActivity(FragmentTestActivity.class).setup().get();
+
+        DropInViewModel dropInViewModel = new ViewModelProvider(activity).get(DropInViewModel.class);
+        // transitions report when they end through frame metrics
+        dropInViewModel.setFrameMetricsEnabled(true);
+        dropInViewModel.setVaultedPaymentMethods(DropInViewModelUnitTest.createCardNonces(3));
+
+        FragmentManager fragmentManager = activity.getSupportFragmentManager();
+        fragmentManager.setFragmentResultListener(DropInEvent.REQUEST_KEY, activity,
+                (requestKey, result) -> {
+                    DropInEvent event = DropInEvent.fromBundle(result);
+                    if (event.getType() == DropInEventType.TRANSITION_COMPLETED) {
+                        // transitions end in the animation step of a frame, before it is drawn
+                        completedTransition = event.getTransition(DropInEventProperty.TRANSITION);
+                        completionFrame = frameCount + 1;
+                    }
+                });
+
+        fragment = BottomSheetFragment.from(new DropInRequest());
+        fragmentManager.beginTransaction()
+                .add(1, fragment)
+                .commitNow();
+
+        // let the bottom sheet slide up before counting
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1));
+
+        ViewTreeObserver viewTreeObserver = fragment.requireView().getViewTreeObserver();
+        // a traversal lays out before it dispatches pre-draw, so a layout belongs to the next frame
+        viewTreeObserver.addOnGlobalLayoutListener(() -> layoutFrames.add(frameCount + 1));
+        viewTreeObserver.addOnPreDrawListener(() -> {
+            frameCount++;
+            return true;
+        });
+    }
+
+    @Test
+    public void showVaultManager_laysOutOnlyOnFirstFrame() {
+        int endFrame = runTransition(DropInEventType.SHOW_VAULT_MANAGER, DropInTransition.VAULT_MANAGER_OPEN);
+
+        assertTrue(endFrame > 3);
+        for (int layoutFrame : layoutFrames) {
+            assertEquals(1, layoutFrame);
+        }
+
+        Fragment vaultManager = fragment.getChildFragmentManager().findFragmentByTag(BottomSheetViewType.VAULT_MANAGER.name());
+        assertNotNull(vaultManager);
+        assertEquals(0f, vaultManager.requireView().getTranslationX(), 0f);
+
+        Fragment supportedPaymentMethods = fragment.getChildFragmentManager().findFragmentByTag(BottomSheetViewType.SUPPORTED_PAYMENT_METHODS.name());
+        assertEquals(View.INVISIBLE, supportedPaymentMethods.requireView().getVisibility());
+    }
+
+    @Test
+    public void dismissVaultManager_laysOutOnlyOnFirstFrameAndWhenPageIsRemoved() {
+        runTransition(DropInEventType.SHOW_VAULT_MANAGER, DropInTransition.VAULT_MANAGER_OPEN);
+
+        int endFrame = runTransition(DropInEventType.DISMISS_VAULT_MANAGER, DropInTransition.VAULT_MANAGER_CLOSE);
+
+        assertTrue(endFrame > 3);
+        for (int layoutFrame : layoutFrames) {
+            assertTrue(layoutFrame == 1 || layoutFrame == endFrame);
+        }
+
+        assertNull(fragment.getChildFragmentManager().findFragmentByTag(BottomSheetViewType.VAULT_MANAGER.name()));
+        assertEquals(1, fragment.pageContainer.getChildCount());
+        assertEquals(View.VISIBLE, fragment.pageContainer.getChildAt(0).getVisibility());
+    }
+
+    /**
+     * Sends {@code eventType} to the bottom sheet and advances frames until {@code transition}
+     * is reported.
+     *
+     * @return the frame the transition ended on, counting from its first frame
+     */
+    private int runTransition(DropInEventType eventType, DropInTransition transition) {
+        frameCount = 0;
+        layoutFrames.clear();
+        completedTransition = null;
+
+        fragment.getChildFragmentManager()
+                .setFragmentResult(DropInEvent.REQUEST_KEY, new DropInEvent(eventType).toBundle());
+
+        Duration elapsed = Duration.ZERO;
+        while (completedTransition != transition && elapsed.compareTo(TRANSITION_TIMEOUT) < 0) {
+            shadowOf(Looper.getMainLooper()).idleFor(FRAME);
+            elapsed = elapsed.plus(FRAME);
+        }
+        assertEquals(transition, completedTransition);
+
+        // the frame the transition ended on is drawn with its final layout
+        shadowOf(Looper.getMainLooper()).idleFor(FRAME);
+        return completionFrame;
+    }
+}
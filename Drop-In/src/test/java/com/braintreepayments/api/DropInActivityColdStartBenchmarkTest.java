@@ -0,0 +1,297 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Intent;
+import android.os.Looper;
+import android.view.ViewTreeObserver;
+
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures how long {@link DropInActivity} takes to open, from onCreate to the first frame in which
+ * the {@link SupportedPaymentMethodsFragment} shows the payment methods with the customer's vaulted
+ * payment methods bound. Drop-in is launched through
+ * {@link DropInClient#launchDropInForResult(FragmentActivity, int)} against a {@link FakeGateway}
+ * that answers synchronously, so the times are Drop-in's own work.
+ * <p>
+ * The benchmark takes minutes, so it only runs when the {@code dropIn.benchmarks} system property
+ * is {@code true} or a baseline is given. Wall time and main thread CPU time are written to
+ * {@code build/reports/benchmarks/drop-in-cold-start.json}. When the
+ * {@code dropIn.coldStartBaseline} system property names a results file from an earlier run, the
+ * test fails if a scenario got slower than the baseline by more than
+ * {@code dropIn.coldStartMaxRegression}, a fraction that defaults to 0.25.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DropInActivityColdStartBenchmarkTest {
+
+    private static final String RESULTS_PATH = "build/reports/benchmarks/drop-in-cold-start.json";
+    private static final String BENCHMARKS_PROPERTY = "dropIn.benchmarks";
+    private static final String BASELINE_PROPERTY = "dropIn.coldStartBaseline";
+    private static final String MAX_REGRESSION_PROPERTY = "dropIn.coldStartMaxRegression";
+    private static final double DEFAULT_MAX_REGRESSION = 0.25;
+
+    private static final int WARM_UP_ITERATIONS = 2;
+    private static final int ITERATIONS = 5;
+    private static final long FRAME_TIMEOUT_MILLIS = 10_000;
+
+    private static class Scenario {
+
+        final String name;
+        final boolean clientToken;
+        final int vaultSize;
+        final boolean googlePayEnabled;
+
+        Scenario(boolean clientToken, int vaultSize, boolean googlePayEnabled) {
+            this.clientToken = clientToken;
+            this.vaultSize = vaultSize;
+            this.googlePayEnabled = googlePayEnabled;
+            this.name = String.format(Locale.US, "%s%s, google pay %s",
+                    clientToken ? "client token" : "tokenization key",
+                    clientToken ? String.format(Locale.US, " with %d vaulted", vaultSize) : "",
+                    googlePayEnabled ? "enabled" : "disabled");
+        }
+    }
+
+    private static class Measurement {
+
+        final long wallTimeNanos;
+        final long mainThreadTimeNanos;
+
+        Measurement(long wallTimeNanos, long mainThreadTimeNanos) {
+            this.wallTimeNanos = wallTimeNanos;
+            this.mainThreadTimeNanos = mainThreadTimeNanos;
+        }
+    }
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void benchmark_coldStart() throws JSONException, IOException {
+        String baselinePath = System.getProperty(BASELINE_PROPERTY);
+        assumeTrue(Boolean.getBoolean(BENCHMARKS_PROPERTY) || (baselinePath != null && !baselinePath.isEmpty()));
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (boolean googlePayEnabled : new boolean[]{false, true}) {
+            scenarios.add(new Scenario(false, 0, googlePayEnabled));
+            for (int vaultSize : new int[]{0, 10, 500}) {
+                scenarios.add(new Scenario(true, vaultSize, googlePayEnabled));
+            }
+        }
+
+        JSONArray results = new JSONArray();
+        StringBuilder report = new StringBuilder("Drop-in cold start (median wall / main thread):");
+        for (Scenario scenario : scenarios) {
+            String paymentMethodsResponse = createPaymentMethodsResponse(scenario.vaultSize);
+            for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                measureColdStart(scenario, paymentMethodsResponse);
+            }
+
+            long[] wallTimes = new long[ITERATIONS];
+            long[] mainThreadTimes = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                Measurement measurement = measureColdStart(scenario, paymentMethodsResponse);
+                wallTimes[i] = measurement.wallTimeNanos;
+                mainThreadTimes[i] = measurement.mainThreadTimeNanos;
+            }
+
+            double wallTimeMillis = median(wallTimes) / 1e6;
+            double mainThreadTimeMillis = median(mainThreadTimes) / 1e6;
+            results.put(new JSONObject()
+                    .put("scenario", scenario.name)
+                    .put("iterations", ITERATIONS)
+                    .put("wallTimeMillis", wallTimeMillis)
+                    .put("mainThreadTimeMillis", mainThreadTimeMillis));
+            report.append(String.format(Locale.US, "%n  %-45s %8.2f ms %8.2f ms",
+                    scenario.name, wallTimeMillis, mainThreadTimeMillis));
+        }
+        System.out.println(report);
+
+        writeResults(results);
+        checkForRegressions(results);
+    }
+
+    private Measurement measureColdStart(Scenario scenario, String paymentMethodsResponse) {
+        FakeGateway gateway = new FakeGateway(
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+                paymentMethodsResponse);
+        String authorization = scenario.clientToken ? Fixtures.BASE64_CLIENT_TOKEN : Fixtures.TOKENIZATION_KEY;
+        BraintreeClient braintreeClient = gateway.createBraintreeClient(Authorization.fromString(authorization));
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(!scenario.googlePayEnabled);
+
+        // new caches for every launch, so nothing is carried over from the previous one
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .googlePayClient(new MockGooglePayClientBuilder().isReadyToPaySuccess(true).build())
+                .venmoClient(new MockVenmoClientBuilder().build())
+                .dataCollector(new MockDataCollectorBuilder().collectDeviceDataSuccess("device-data").build())
+                .paymentMethodClient(new PaymentMethodClient(braintreeClient))
+                .dropInSharedPreferences(DropInSharedPreferences.getInstance())
+                .dropInSessionRegistry(DropInSessionRegistry.getInstance());
+        DropInClient dropInClient = new DropInClient(params);
+
+        FragmentActivity hostActivity = Robolectric.buildActivity(FragmentActivity.class).setup().get();
+        dropInClient.launchDropInForResult(hostActivity, 123);
+        Intent launchIntent = shadowOf(hostActivity).getNextStartedActivity();
+
+        ActivityController<DropInActivity> activityController =
+                Robolectric.buildActivity(DropInActivity.class, launchIntent);
+        final DropInActivity activity = activityController.get();
+        final long[] firstFrame = new long[2];
+
+        long startWallTime = System.nanoTime();
+        long startMainThreadTime = threadMXBean.getCurrentThreadCpuTime();
+        activityController.create();
+        activity.getWindow().getDecorView().getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (firstFrame[0] == 0 && isShowingPaymentMethods(activity, scenario)) {
+                    firstFrame[0] = System.nanoTime();
+                    firstFrame[1] = threadMXBean.getCurrentThreadCpuTime();
+                }
+                return true;
+            }
+        });
+        activityController.start().postCreate(null).resume().visible();
+
+        long deadline = System.currentTimeMillis() + FRAME_TIMEOUT_MILLIS;
+        while (firstFrame[0] == 0 && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+        }
+        activityController.pause().stop().destroy();
+
+        assertTrue("payment methods were not shown for " + scenario.name, firstFrame[0] != 0);
+        return new Measurement(firstFrame[0] - startWallTime, firstFrame[1] - startMainThreadTime);
+    }
+
+    private static boolean isShowingPaymentMethods(DropInActivity activity, Scenario scenario) {
+        Fragment bottomSheetFragment = activity.getSupportFragmentManager().findFragmentByTag("BOTTOM_SHEET");
+        if (bottomSheetFragment == null || !bottomSheetFragment.isAdded()) {
+            return false;
+        }
+
+        for (Fragment fragment : bottomSheetFragment.getChildFragmentManager().getFragments()) {
+            if (fragment instanceof SupportedPaymentMethodsFragment) {
+                SupportedPaymentMethodsFragment supportedPaymentMethodsFragment = (SupportedPaymentMethodsFragment) fragment;
+                if (supportedPaymentMethodsFragment.viewState != SupportedPaymentMethodsFragment.ViewState.SHOW_PAYMENT_METHODS
+                        || !hasBoundFirstRow(supportedPaymentMethodsFragment.supportedPaymentMethodsView)) {
+                    return false;
+                }
+
+                if (!scenario.clientToken) {
+                    return true;
+                }
+                if (scenario.vaultSize == 0) {
+                    return activity.dropInViewModel.getVaultedPaymentMethods().getValue() != null;
+                }
+                return hasBoundFirstRow(supportedPaymentMethodsFragment.vaultedPaymentMethodsView);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasBoundFirstRow(RecyclerView recyclerView) {
+        return recyclerView.findViewHolderForAdapterPosition(0) != null;
+    }
+
+    private static String createPaymentMethodsResponse(int vaultSize) throws JSONException {
+        JSONArray paymentMethods = new JSONArray();
+        for (int i = 0; i < vaultSize; i++) {
+            JSONObject paymentMethod = new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD);
+            paymentMethod.put("nonce", "card-nonce-" + i);
+            paymentMethods.put(paymentMethod);
+        }
+        return new JSONObject().put("paymentMethods", paymentMethods).toString();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void writeResults(JSONArray results) throws JSONException, IOException {
+        File resultsFile = new File(RESULTS_PATH);
+        File resultsDirectory = resultsFile.getParentFile();
+        if (resultsDirectory != null && !resultsDirectory.isDirectory() && !resultsDirectory.mkdirs()) {
+            throw new IOException("Unable to create " + resultsDirectory);
+        }
+
+        try (FileWriter writer = new FileWriter(resultsFile)) {
+            writer.write(new JSONObject().put("results", results).toString(2));
+        }
+    }
+
+    private static void checkForRegressions(JSONArray results) throws JSONException, IOException {
+        String baselinePath = System.getProperty(BASELINE_PROPERTY);
+        if (baselinePath == null || baselinePath.isEmpty()) {
+            return;
+        }
+
+        double maxRegression = Double.parseDouble(
+                System.getProperty(MAX_REGRESSION_PROPERTY, String.valueOf(DEFAULT_MAX_REGRESSION)));
+        String baselineJson = new String(Files.readAllBytes(new File(baselinePath).toPath()), StandardCharsets.UTF_8);
+        JSONArray baseline = new JSONObject(baselineJson).getJSONArray("results");
+
+        List<String> regressions = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            JSONObject baselineResult = findScenario(baseline, result.getString("scenario"));
+            if (baselineResult == null) {
+                continue;
+            }
+
+            for (String metric : new String[]{"wallTimeMillis", "mainThreadTimeMillis"}) {
+                double limit = baselineResult.getDouble(metric) * (1 + maxRegression);
+                if (result.getDouble(metric) > limit) {
+                    regressions.add(String.format(Locale.US, "%s %s: %.2f ms, limit %.2f ms",
+                            result.getString("scenario"), metric, result.getDouble(metric), limit));
+                }
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            fail("Drop-in cold start regressed:\n" + String.join("\n", regressions));
+        }
+    }
+
+    private static JSONObject findScenario(JSONArray results, String scenario) throws JSONException {
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            if (scenario.equals(result.getString("scenario"))) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
@@ -6,8 +6,15 @@ import android.content.Context
 import android.content.Intent
 import android.net.Uri
 import android.os.Bundle
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import android.view.View
+import android.view.WindowManager
+import androidx.fragment.app.FragmentActivity
 import androidx.test.platform.app.InstrumentationRegistry
 import com.braintreepayments.api.DropInClient.EXTRA_CHECKOUT_REQUEST
+import com.braintreepayments.api.dropin.R
 import com.braintreepayments.cardform.utils.CardType
 import junit.framework.TestCase.*
 import org.json.JSONObject
@@ -21,6 +28,7 @@ import org.robolectric.Robolectric.buildActivity
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.Shadows.shadowOf
 import org.robolectric.android.controller.ActivityController
+import java.time.Duration
 import java.util.*
 
 @RunWith(RobolectricTestRunner::class)
@@ -65,6 +73,291 @@ class DropInActivityTest {
 
     // endregion
 
+    // region Analytics
+
+    @Test
+    fun onStop_flushesAnalyticsEvents() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+        verify(dropInClient, never()).flushAnalyticsEvents()
+
+        activityController.pause().stop()
+
+        verify(dropInClient).flushAnalyticsEvents()
+    }
+
+    // endregion
+
+    // region Metrics
+
+    @Test
+    fun onCreate_reportsActivityCreateStage() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .build()
+        `when`(dropInClient.startStage()).thenReturn(100L)
+
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        verify(dropInClient).endStage(DropInStage.ACTIVITY_CREATE, 100L, DropInStageOutcome.SUCCESS)
+    }
+
+    @Test
+    fun onDidHideBottomSheet_withoutResult_reportsCanceledActivityFinishStage() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .build()
+        `when`(dropInClient.startStage()).thenReturn(100L)
+
+        setupDropInActivity(dropInClient, dropInRequest)
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.HIDDEN)
+
+        verify(dropInClient).endStage(DropInStage.ACTIVITY_FINISH, 100L, DropInStageOutcome.CANCELED)
+    }
+
+    @Test
+    fun finishDropInWithError_reportsFailedActivityFinishStage() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .build()
+        `when`(dropInClient.startStage()).thenReturn(100L)
+
+        setupDropInActivity(dropInClient, dropInRequest)
+        activity.finishDropInWithError(Exception("error"))
+
+        verify(dropInClient).endStage(DropInStage.ACTIVITY_FINISH, 100L, DropInStageOutcome.FAILURE)
+    }
+
+    // endregion
+
+    // region Prewarm
+
+    @Test
+    fun onCreate_whenPrewarmFinished_rendersPaymentMethodsWithoutNetworkRequests() {
+        val gateway = FakeGateway(
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+            Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE
+        )
+        val braintreeClient =
+            gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+        val params = DropInClientParams()
+            .dropInRequest(dropInRequest)
+            .braintreeClient(braintreeClient)
+            .googlePayClient(MockGooglePayClientBuilder().isReadyToPaySuccess(true).build())
+            .venmoClient(MockVenmoClientBuilder().build())
+            .paymentMethodClient(PaymentMethodClient(braintreeClient))
+        val dropInClient = DropInClient(params)
+
+        val hostActivity = buildActivity(FragmentActivity::class.java).setup().get()
+        dropInClient.prewarm(hostActivity)
+        dropInClient.launchDropInForResult(hostActivity, 123)
+
+        val launchIntent = shadowOf(hostActivity).nextStartedActivity
+        val requestCountAtLaunch = gateway.requestCount
+
+        activityController = buildActivity(DropInActivity::class.java, launchIntent)
+        activity = activityController.get()
+        activity.dropInClient = dropInClient
+        activityController.setup()
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        val bottomSheetFragment =
+            activity.supportFragmentManager.findFragmentByTag("BOTTOM_SHEET")!!
+        val supportedPaymentMethodsFragment = bottomSheetFragment.childFragmentManager.fragments
+            .filterIsInstance<SupportedPaymentMethodsFragment>()
+            .first()
+
+        assertEquals(
+            SupportedPaymentMethodsFragment.ViewState.SHOW_PAYMENT_METHODS,
+            supportedPaymentMethodsFragment.viewState
+        )
+        assertEquals(2, activity.dropInViewModel.vaultedPaymentMethods.value!!.size)
+        assertEquals(requestCountAtLaunch, gateway.requestCount)
+    }
+
+    @Test
+    fun onCreate_whenLaunchingClientIsRegistered_reusesClientWithoutFetchingConfigurationAgain() {
+        val gateway = FakeGateway(
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+            Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE
+        )
+        val braintreeClient =
+            gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+        val params = DropInClientParams()
+            .dropInRequest(dropInRequest)
+            .braintreeClient(braintreeClient)
+            .googlePayClient(MockGooglePayClientBuilder().isReadyToPaySuccess(true).build())
+            .venmoClient(MockVenmoClientBuilder().build())
+            .dataCollector(MockDataCollectorBuilder().build())
+            .paymentMethodClient(PaymentMethodClient(braintreeClient))
+            .dropInSessionRegistry(DropInSessionRegistry.getInstance())
+        val dropInClient = DropInClient(params)
+
+        val hostActivity = buildActivity(FragmentActivity::class.java).setup().get()
+        dropInClient.getConfiguration { _, _ -> }
+        dropInClient.launchDropInForResult(hostActivity, 123)
+        val launchIntent = shadowOf(hostActivity).nextStartedActivity
+
+        activityController = buildActivity(DropInActivity::class.java, launchIntent)
+        activity = activityController.get()
+        activityController.setup()
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        assertSame(dropInClient, activity.dropInClient)
+        assertEquals(1, gateway.configurationRequestCount)
+    }
+
+    @Test
+    fun onDidShowBottomSheet_whenPrewarmedResultsPresent_doesNotFetchPaymentMethods() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+
+        `when`(dropInClient.takePrewarmedVaultedPaymentMethods()).thenReturn(ArrayList())
+
+        val intent = createDropInIntent(dropInRequest)
+        intent.putStringArrayListExtra(
+            DropInClient.EXTRA_SUPPORTED_PAYMENT_METHODS, arrayListOf("PAYPAL"))
+        setupDropInActivity(dropInClient, intent)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        verify(dropInClient, never()).getSupportedPaymentMethods(
+            any(DropInActivity::class.java), any(GetSupportedPaymentMethodsCallback::class.java))
+        verify(dropInClient, never()).getVaultedPaymentMethods(
+            any(DropInActivity::class.java), anyBoolean(), any(GetPaymentMethodNoncesCallback::class.java))
+        assertEquals(listOf(DropInPaymentMethod.PAYPAL),
+            activity.dropInViewModel.supportedPaymentMethods.value)
+    }
+
+    // endregion
+
+    // region Request Coalescing
+
+    @Test
+    fun session_openVaultManagerGoBackAndPickCard_fetchesEachResourceOnce() {
+        val gateway = FakeGateway(
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+            Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE
+        ).responseDelay(100)
+        val braintreeClient =
+            gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+
+        var isReadyToPayCount = 0
+        val googlePayClient = mock(GooglePayClient::class.java)
+        doAnswer { invocation ->
+            isReadyToPayCount++
+            val callback = invocation.arguments[1] as GooglePayIsReadyToPayCallback
+            Handler(Looper.getMainLooper())
+                .postDelayed({ callback.onResult(true, null) }, 100)
+            null
+        }.`when`(googlePayClient).isReadyToPay(
+            any(FragmentActivity::class.java), any(GooglePayIsReadyToPayCallback::class.java))
+
+        dropInRequest.isVaultManagerEnabled = true
+        val params = DropInClientParams()
+            .dropInRequest(dropInRequest)
+            .braintreeClient(braintreeClient)
+            .googlePayClient(googlePayClient)
+            .venmoClient(MockVenmoClientBuilder().build())
+            .dataCollector(MockDataCollectorBuilder().collectDeviceDataSuccess("device-data").build())
+            .paymentMethodClient(PaymentMethodClient(braintreeClient))
+        setupDropInActivity(DropInClient(params), dropInRequest)
+
+        // open Drop-in
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+        assertEquals(1, isReadyToPayCount)
+
+        // open the vault manager and go back
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY,
+            DropInEvent(DropInEventType.SHOW_VAULT_MANAGER).toBundle())
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY,
+            DropInEvent(DropInEventType.DISMISS_VAULT_MANAGER).toBundle())
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        // pick a card
+        val vaultedCard = activity.dropInViewModel.vaultedPaymentMethods.value!![0]
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY,
+            DropInEvent.createVaultedPaymentMethodSelectedEvent(vaultedCard).toBundle())
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        assertEquals(1, gateway.configurationRequestCount)
+        assertEquals(1, gateway.getGETRequestCount())
+        assertEquals(0, gateway.graphQLRequestCount)
+    }
+
+    // endregion
+
+    // region Device Data
+
+    @Test
+    fun onCreate_prefetchesDeviceData() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .build()
+
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        verify(dropInClient).prefetchDeviceData(same(activity))
+    }
+
+    @Test
+    fun onVaultedPaymentMethodSelected_whenDeviceDataWasPrefetched_doesNotWaitForCollection() {
+        val deviceDataCollectionMillis = 500L
+        val gateway = FakeGateway(
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+            Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE
+        )
+        val braintreeClient =
+            gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+
+        var collectionCount = 0
+        val dataCollector = mock(DataCollector::class.java)
+        doAnswer { invocation ->
+            collectionCount++
+            val callback = invocation.arguments[1] as DataCollectorCallback
+            Handler(Looper.getMainLooper())
+                .postDelayed({ callback.onResult("device-data", null) }, deviceDataCollectionMillis)
+            null
+        }.`when`(dataCollector).collectDeviceData(
+            any(Context::class.java), any(DataCollectorCallback::class.java))
+
+        val params = DropInClientParams()
+            .dropInRequest(dropInRequest)
+            .braintreeClient(braintreeClient)
+            .googlePayClient(MockGooglePayClientBuilder().isReadyToPaySuccess(false).build())
+            .venmoClient(MockVenmoClientBuilder().build())
+            .dataCollector(dataCollector)
+            .dropInSharedPreferences(mock(DropInSharedPreferences::class.java))
+            .paymentMethodClient(PaymentMethodClient(braintreeClient))
+        setupDropInActivity(DropInClient(params), dropInRequest)
+        val shadowActivity = shadowOf(activity)
+
+        // the customer takes a moment to pick a card
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        val selectedAt = SystemClock.uptimeMillis()
+        val cardNonce = CardNonce.fromJSON(JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE))
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY,
+            DropInEvent.createVaultedPaymentMethodSelectedEvent(cardNonce).toBundle())
+        shadowOf(Looper.getMainLooper()).idle()
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.HIDDEN)
+
+        // no simulated time passed between the selection and the result
+        assertEquals(0L, SystemClock.uptimeMillis() - selectedAt)
+        assertEquals(RESULT_OK, shadowActivity.resultCode)
+        val result = shadowActivity.resultIntent
+            .getParcelableExtra(DropInResult.EXTRA_DROP_IN_RESULT) as DropInResult?
+        assertEquals("device-data", result!!.deviceData)
+        assertEquals(1, collectionCount)
+    }
+
+    // endregion
+
     // region Browser Switch Results
 
     @Test
@@ -306,7 +599,7 @@ class DropInActivityTest {
         val cardNonce = CardNonce.fromJSON(JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE))
         activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY, DropInEvent.createVaultedPaymentMethodSelectedEvent(cardNonce).toBundle())
 
-        verify(dropInClient).getVaultedPaymentMethods(same(activity), any(GetPaymentMethodNoncesCallback::class.java))
+        verify(dropInClient).getVaultedPaymentMethods(same(activity), eq(true), any(GetPaymentMethodNoncesCallback::class.java))
         assertEquals(RESULT_FIRST_USER, shadowActivity.resultCode)
         assertEquals(error, shadowActivity.resultIntent.getSerializableExtra(DropInResult.EXTRA_ERROR))
         assertTrue(activity.isFinishing)
@@ -407,7 +700,7 @@ class DropInActivityTest {
             callback.onDialogInteraction(DialogInteraction.POSITIVE)
         }.`when`(alertPresenter).showConfirmNonceDeletionDialog(
             any(Context::class.java),
-            any(PaymentMethodNonce::class.java),
+            any(VaultedPaymentMethodDisplay::class.java),
             any(DialogInteractionCallback::class.java)
         )
 
@@ -431,7 +724,7 @@ class DropInActivityTest {
             callback.onDialogInteraction(DialogInteraction.NEGATIVE)
         }.`when`(alertPresenter).showConfirmNonceDeletionDialog(
             any(Context::class.java),
-            any(PaymentMethodNonce::class.java),
+            any(VaultedPaymentMethodDisplay::class.java),
             any(DialogInteractionCallback::class.java)
         )
 
@@ -473,6 +766,28 @@ class DropInActivityTest {
         verify(dropInClient).sendAnalyticsEvent("manager.delete.failed")
     }
 
+    @Test
+    fun removePaymentMethodNonce_whenPaymentMethodDeleteException_restoresPaymentMethodInPlace() {
+        val paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(3)
+        val dropInClient = MockDropInClientBuilder()
+            .deletePaymentMethodError(PaymentMethodDeleteException(paymentMethodNonces[1], Exception("error")))
+            .authorization(authorization)
+            .build()
+
+        setupDropInActivity(dropInClient, dropInRequest)
+        activity.dropInViewModel.setVaultedPaymentMethods(paymentMethodNonces)
+        activity.alertPresenter = mock(AlertPresenter::class.java)
+        activity.removePaymentMethodNonce(paymentMethodNonces[1])
+
+        assertEquals(paymentMethodNonces, activity.dropInViewModel.vaultedPaymentMethods.value)
+        assertFalse(activity.dropInViewModel.hasPendingVaultDeletions())
+        verify(activity.alertPresenter).showSnackbarText(
+            any(View::class.java),
+            eq(R.string.bt_vault_manager_delete_failure),
+            anyInt()
+        )
+    }
+
     @Test
     fun removePaymentMethodNonce_whenUnknownError_sendsAnalyticsEvent() {
         val cardNonce = CardNonce.fromJSON(JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE))
@@ -487,6 +802,80 @@ class DropInActivityTest {
         verify(dropInClient).sendAnalyticsEvent("manager.unknown.failed")
     }
 
+    @Test
+    fun onDeleteVaultedPaymentMethodsEvent_whenConfirmed_deletesPaymentMethodsInOneCall() {
+        val paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(3)
+        val dropInClient = MockDropInClientBuilder()
+            .deletePaymentMethodsSuccess(DeletePaymentMethodNoncesResult(paymentMethodNonces, ArrayList()))
+            .authorization(authorization)
+            .build()
+
+        val alertPresenter = mock(AlertPresenter::class.java)
+        doAnswer { invocation ->
+            val callback = invocation.arguments[2] as DialogInteractionCallback
+            callback.onDialogInteraction(DialogInteraction.POSITIVE)
+        }.`when`(alertPresenter).showConfirmNoncesDeletionDialog(
+            any(Context::class.java),
+            any(List::class.java) as List<PaymentMethodNonce>?,
+            any(DialogInteractionCallback::class.java)
+        )
+
+        setupDropInActivity(dropInClient, dropInRequest)
+        activity.alertPresenter = alertPresenter
+        activity.onDropInEvent(DropInEvent.createDeleteVaultedPaymentMethodNoncesEvent(paymentMethodNonces))
+
+        verify(dropInClient).sendAnalyticsEvent("manager.delete.confirmation.positive")
+        verify(dropInClient).deletePaymentMethods(
+            same(activity.applicationContext),
+            any(List::class.java) as List<PaymentMethodNonce>?,
+            any(DeletePaymentMethodNoncesCallback::class.java)
+        )
+        verify(dropInClient, never()).deletePaymentMethod(
+            any(Context::class.java),
+            any(PaymentMethodNonce::class.java),
+            any(DeletePaymentMethodNonceCallback::class.java)
+        )
+        verify(dropInClient).sendAnalyticsEvent("manager.delete.succeeded")
+    }
+
+    @Test
+    fun removePaymentMethodNonces_whenSomeFail_sendsAnalyticsEventAndShowsSnackbar() {
+        val paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(2)
+        val failure = PaymentMethodDeleteException(paymentMethodNonces[1], Exception("error"))
+        val dropInClient = MockDropInClientBuilder()
+            .deletePaymentMethodsSuccess(
+                DeletePaymentMethodNoncesResult(listOf(paymentMethodNonces[0]), listOf(failure)))
+            .authorization(authorization)
+            .build()
+
+        setupDropInActivity(dropInClient, dropInRequest)
+        val alertPresenter = mock(AlertPresenter::class.java)
+        activity.alertPresenter = alertPresenter
+        activity.removePaymentMethodNonces(paymentMethodNonces)
+
+        verify(dropInClient).sendAnalyticsEvent("manager.delete.failed")
+        verify(alertPresenter).showSnackbarText(
+            any(View::class.java),
+            eq(R.string.bt_vault_manager_delete_multiple_failure),
+            anyInt()
+        )
+    }
+
+    @Test
+    fun removePaymentMethodNonces_onError_finishesWithError() {
+        val error = Exception("error")
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .deletePaymentMethodsError(error)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.removePaymentMethodNonces(DropInViewModelUnitTest.createCardNonces(2))
+
+        verify(dropInClient).sendAnalyticsEvent("manager.unknown.failed")
+        assertTrue(activity.isFinishing)
+    }
+
     @Test
     fun removePaymentMethodNonce_onError_finishesWithError() {
         val error = Exception("error")
@@ -938,6 +1327,111 @@ class DropInActivityTest {
         assertSame(error, actualError)
     }
 
+    @Test
+    fun onShowRequested_whenClientTokenPresentAndVaultManagerEnabled_preinflatesVaultManagerRows() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+        dropInRequest.isVaultManagerEnabled = true
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        // rows are inflated on a background thread and handed over on the main looper
+        val viewPool = activity.paymentMethodViewPool
+        val deadline = System.currentTimeMillis() + 5000
+        while (viewPool.preinflatedVaultManagerRowCount < PaymentMethodViewPool.PREINFLATED_VAULT_MANAGER_ROW_COUNT
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+            shadowOf(Looper.getMainLooper()).idle()
+        }
+
+        assertEquals(PaymentMethodViewPool.PREINFLATED_VAULT_MANAGER_ROW_COUNT,
+            viewPool.backgroundInflationCount)
+    }
+
+    @Test
+    fun onSupportedPaymentMethodsLoaded_whenCardIsSupported_preloadsAddCardView() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .getSupportedPaymentMethodsSuccess(listOf(DropInPaymentMethod.UNKNOWN))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        // the view is inflated on a background thread and handed over on the main looper
+        val preloader = activity.addCardViewPreloader
+        val deadline = System.currentTimeMillis() + 5000
+        while (!preloader.hasPreloadedView() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+            shadowOf(Looper.getMainLooper()).idle()
+        }
+        assertTrue(preloader.hasPreloadedView())
+        // the card form is only set up, which also secures the window, once card is chosen
+        assertEquals(0, activity.window.attributes.flags and WindowManager.LayoutParams.FLAG_SECURE)
+
+        val event =
+            DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.UNKNOWN)
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle())
+        activity.supportFragmentManager.executePendingTransactions()
+
+        assertNotNull(activity.supportFragmentManager.findFragmentByTag("ADD_CARD"))
+        assertFalse(preloader.hasPreloadedView())
+    }
+
+    @Test
+    fun onAddCardViewLeft_preloadsAnotherAddCardView() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .getSupportedPaymentMethodsSuccess(listOf(DropInPaymentMethod.UNKNOWN))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+        val preloader = activity.addCardViewPreloader
+        awaitPreloadedAddCardView(preloader)
+
+        val event =
+            DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.UNKNOWN)
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle())
+        activity.supportFragmentManager.executePendingTransactions()
+        assertFalse(preloader.hasPreloadedView())
+
+        activity.supportFragmentManager.popBackStack()
+        activity.supportFragmentManager.executePendingTransactions()
+        // the card form's view is detached once its exit animation ends
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+
+        assertNull(activity.supportFragmentManager.findFragmentByTag("ADD_CARD"))
+        awaitPreloadedAddCardView(preloader)
+    }
+
+    @Test
+    fun onSupportedPaymentMethodsLoaded_whenCardIsNotSupported_doesNotPreloadAddCardView() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(authorization)
+            .getSupportedPaymentMethodsSuccess(listOf(DropInPaymentMethod.PAYPAL))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+        shadowOf(Looper.getMainLooper()).idle()
+
+        assertNull(activity.addCardViewPreloader.takePreloadedView())
+    }
+
+    @Test
+    fun onShowRequested_whenVaultManagerDisabled_doesNotPreinflateVaultManagerRows() {
+        val dropInClient = MockDropInClientBuilder()
+            .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+        dropInRequest.isVaultManagerEnabled = false
+        setupDropInActivity(dropInClient, dropInRequest)
+        shadowOf(Looper.getMainLooper()).idle()
+
+        assertEquals(0, activity.paymentMethodViewPool.backgroundInflationCount)
+        assertEquals(0, activity.paymentMethodViewPool.preinflatedVaultManagerRowCount)
+    }
+
     // endregion
 
     // region Errors
@@ -1007,19 +1501,36 @@ class DropInActivityTest {
 
     // region Helpers
 
+    private fun awaitPreloadedAddCardView(preloader: AddCardViewPreloader) {
+        // the view is inflated on a background thread and set up on the main looper
+        val deadline = System.currentTimeMillis() + 5000
+        while (!preloader.hasPreloadedView() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+            shadowOf(Looper.getMainLooper()).idle()
+        }
+        assertTrue(preloader.hasPreloadedView())
+    }
+
     private fun setupDropInActivity(dropInClient: DropInClient, dropInRequest:DropInRequest) {
-        val context = InstrumentationRegistry.getInstrumentation().targetContext
-        val dropInRequestBundle = Bundle()
-        dropInRequestBundle.putParcelable(EXTRA_CHECKOUT_REQUEST, dropInRequest)
-        val intent = Intent(context, DropInActivity::class.java)
-        intent.putExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle)
+        setupDropInActivity(dropInClient, createDropInIntent(dropInRequest))
+    }
 
+    private fun setupDropInActivity(dropInClient: DropInClient, intent: Intent) {
         activityController = buildActivity(DropInActivity::class.java, intent)
         activity = activityController.get()
         activity.dropInClient = dropInClient
         activityController.setup()
     }
 
+    private fun createDropInIntent(dropInRequest: DropInRequest): Intent {
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        val dropInRequestBundle = Bundle()
+        dropInRequestBundle.putParcelable(EXTRA_CHECKOUT_REQUEST, dropInRequest)
+        val intent = Intent(context, DropInActivity::class.java)
+        intent.putExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle)
+        return intent
+    }
+
     private fun assertExceptionIsReturned(analyticsEvent: String, exception: java.lang.Exception) {
         val dropInClient = MockDropInClientBuilder()
             .authorization(authorization)
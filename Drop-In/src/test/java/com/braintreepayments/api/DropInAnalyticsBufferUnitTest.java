@@ -0,0 +1,45 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class DropInAnalyticsBufferUnitTest {
+
+    @Test
+    public void drain_returnsEventsInOrderAndEmptiesBuffer() {
+        DropInAnalyticsBuffer sut = new DropInAnalyticsBuffer();
+        sut.add("appeared");
+        sut.add("card.selected");
+
+        assertEquals(Arrays.asList("appeared", "card.selected"), sut.drain());
+        assertEquals(0, sut.size());
+        assertTrue(sut.drain().isEmpty());
+    }
+
+    @Test
+    public void add_whenBufferIsFull_dropsOldestEvent() {
+        DropInAnalyticsBuffer sut = new DropInAnalyticsBuffer(2);
+        sut.add("appeared");
+        sut.add("vaulted-card.appear");
+        sut.add("card.selected");
+
+        assertEquals(Arrays.asList("vaulted-card.appear", "card.selected"), sut.drain());
+        assertEquals(1, sut.takeDroppedEventCount());
+        assertEquals(0, sut.takeDroppedEventCount());
+    }
+
+    @Test
+    public void add_byDefault_holdsMaxBufferedEvents() {
+        DropInAnalyticsBuffer sut = new DropInAnalyticsBuffer();
+        for (int i = 0; i <= DropInAnalyticsBuffer.MAX_BUFFERED_EVENTS; i++) {
+            sut.add("event-" + i);
+        }
+
+        assertEquals(DropInAnalyticsBuffer.MAX_BUFFERED_EVENTS, sut.size());
+        assertEquals("event-1", sut.drain().get(0));
+    }
+}
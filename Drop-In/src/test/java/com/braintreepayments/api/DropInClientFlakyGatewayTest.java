@@ -0,0 +1,160 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.fragment.app.FragmentActivity;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Loads the vaulted payment methods of many sessions against a {@link FakeGateway} that fails
+ * some requests and answers others slowly, once without retries, once with the default
+ * {@link DropInRetryPolicy} and once with hedging enabled. Latencies are measured on the paused
+ * main looper's clock, so the runs are repeatable. Like
+ * {@link DropInActivityColdStartBenchmarkTest}, it only runs when the {@code dropIn.benchmarks}
+ * system property is {@code true}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DropInClientFlakyGatewayTest {
+
+    private static final String BENCHMARKS_PROPERTY = "dropIn.benchmarks";
+    private static final int SESSIONS = 1000;
+    private static final long RESPONSE_DELAY_MS = 100;
+    private static final long SLOW_RESPONSE_DELAY_MS = 3000;
+    private static final double FAILURE_RATE = 0.1;
+    private static final double SLOW_RESPONSE_RATE = 0.01;
+    private static final long SESSION_TIMEOUT_MS = 30000;
+
+    private FragmentActivity activity;
+
+    @Before
+    public void beforeEach() {
+        activity = Robolectric.buildActivity(FragmentActivity.class).get();
+    }
+
+    @Test
+    public void retryPolicy_lowersFailureRateAndHedgingLowersTailLatency() throws JSONException {
+        assumeTrue(Boolean.getBoolean(BENCHMARKS_PROPERTY));
+
+        DropInRetryPolicy retries = new DropInRetryPolicy();
+        retries.setMaxRetries(2);
+
+        DropInRetryPolicy hedged = new DropInRetryPolicy();
+        hedged.setMaxRetries(2);
+        hedged.setHedgingEnabled(true);
+
+        SessionStats withoutRetries = runSessions(new DropInRetryPolicy());
+        SessionStats withRetries = runSessions(retries);
+        SessionStats withHedging = runSessions(hedged);
+
+        System.out.println(String.format(Locale.US,
+                "Vaulted payment methods against a flaky gateway (%d sessions):%n"
+                        + "  no retries  %s%n  retries     %s%n  hedging     %s",
+                SESSIONS, withoutRetries, withRetries, withHedging));
+
+        assertTrue(withRetries.failures * 10 < withoutRetries.failures);
+        assertTrue(withHedging.failures * 10 < withoutRetries.failures);
+
+        // slow responses dominate the tail until a duplicate request is sent in their place
+        assertTrue(withoutRetries.getP99() >= SLOW_RESPONSE_DELAY_MS);
+        assertTrue(withRetries.getP99() >= SLOW_RESPONSE_DELAY_MS);
+        assertTrue(withHedging.getP99() * 2 < withoutRetries.getP99());
+    }
+
+    private SessionStats runSessions(DropInRetryPolicy retryPolicy) throws JSONException {
+        Configuration configuration =
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL);
+        // shared by every session like the process-wide instance, so hedging learns latencies
+        Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+        FetchRetrier fetchRetrier =
+                new FetchRetrier(new DropInClock(), mainThreadHandler::postDelayed, new Random(1));
+        // every policy sees the same gateway behavior
+        Random seeds = new Random(42);
+
+        SessionStats stats = new SessionStats();
+        for (int i = 0; i < SESSIONS; i++) {
+            FakeGateway gateway = new FakeGateway(configuration, Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE)
+                    .responseDelay(RESPONSE_DELAY_MS)
+                    .failureRate(FAILURE_RATE)
+                    .slowResponses(SLOW_RESPONSE_RATE, SLOW_RESPONSE_DELAY_MS)
+                    .seed(seeds.nextLong());
+            BraintreeClient braintreeClient =
+                    gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN));
+
+            DropInRequest dropInRequest = new DropInRequest();
+            dropInRequest.setGooglePayDisabled(true);
+            dropInRequest.setRetryPolicy(retryPolicy);
+
+            DropInClientParams params = new DropInClientParams()
+                    .dropInRequest(dropInRequest)
+                    .braintreeClient(braintreeClient)
+                    .venmoClient(new MockVenmoClientBuilder().build())
+                    .paymentMethodClient(new PaymentMethodClient(braintreeClient))
+                    .fetchRetrier(fetchRetrier);
+            DropInClient sut = new DropInClient(params);
+
+            final long startTime = SystemClock.elapsedRealtime();
+            final long[] endTime = {-1};
+            final Exception[] sessionError = new Exception[1];
+            sut.getVaultedPaymentMethods(activity, (paymentMethodNonces, error) -> {
+                endTime[0] = SystemClock.elapsedRealtime();
+                sessionError[0] = error;
+            });
+
+            while (endTime[0] < 0 && SystemClock.elapsedRealtime() - startTime < SESSION_TIMEOUT_MS) {
+                shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(10));
+            }
+            assertTrue(endTime[0] >= 0);
+
+            stats.latencies.add(endTime[0] - startTime);
+            if (sessionError[0] != null) {
+                stats.failures++;
+            }
+            stats.requests += gateway.getRequestCount();
+        }
+        return stats;
+    }
+
+    private static class SessionStats {
+
+        final List<Long> latencies = new ArrayList<>();
+        int failures;
+        int requests;
+
+        long getP99() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        }
+
+        long getP50() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.5) - 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "failures %5.1f%%  p50 %5d ms  p99 %5d ms  requests %d",
+                    failures * 100.0 / latencies.size(), getP50(), getP99(), requests);
+        }
+    }
+}
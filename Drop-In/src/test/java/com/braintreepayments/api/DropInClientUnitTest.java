@@ -10,14 +10,23 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
+import android.app.Activity;
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.fragment.app.FragmentActivity;
 import androidx.test.core.app.ApplicationProvider;
@@ -30,11 +39,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.android.controller.ActivityController;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -43,6 +55,10 @@ import java.util.List;
 @RunWith(RobolectricTestRunner.class)
 public class DropInClientUnitTest {
 
+    private static final long STAGE_DELAY_MS = 100;
+    // the customer key of Fixtures.BASE64_CLIENT_TOKEN, whose config url has no merchant id
+    private static final String CUSTOMER_KEY = "encoded_capi_configuration_url|encoded_auth_fingerprint";
+
     @Captor
     ArgumentCaptor<List<DropInPaymentMethod>> paymentMethodTypesCaptor;
 
@@ -83,8 +99,11 @@ public class DropInClientUnitTest {
     }
 
     @Test
-    public void getConfiguration_forwardsInvocationToBraintreeClient() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+    public void getConfiguration_forwardsInvocationToBraintreeClient() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
         DropInClientParams params = new DropInClientParams()
                 .braintreeClient(braintreeClient);
 
@@ -93,7 +112,46 @@ public class DropInClientUnitTest {
         DropInClient sut = new DropInClient(params);
         sut.getConfiguration(callback);
 
-        verify(braintreeClient).getConfiguration(callback);
+        verify(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
+        verify(callback).onResult(configuration, null);
+    }
+
+    @Test
+    public void getConfiguration_whenRequestInFlight_attachesToPendingRequest() throws JSONException {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        ConfigurationCallback firstCallback = mock(ConfigurationCallback.class);
+        ConfigurationCallback secondCallback = mock(ConfigurationCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.getConfiguration(firstCallback);
+        sut.getConfiguration(secondCallback);
+
+        ArgumentCaptor<ConfigurationCallback> captor = ArgumentCaptor.forClass(ConfigurationCallback.class);
+        verify(braintreeClient).getConfiguration(captor.capture());
+
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY);
+        captor.getValue().onResult(configuration, null);
+
+        verify(firstCallback).onResult(configuration, null);
+        verify(secondCallback).onResult(configuration, null);
+    }
+
+    @Test
+    public void getConfiguration_whenPreviousRequestCompleted_startsNewRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        sut.getConfiguration(mock(ConfigurationCallback.class));
+        sut.getConfiguration(mock(ConfigurationCallback.class));
+
+        verify(braintreeClient, times(2)).getConfiguration(any(ConfigurationCallback.class));
     }
 
     @Test
@@ -111,7 +169,7 @@ public class DropInClientUnitTest {
     }
 
     @Test
-    public void sendAnalyticsEvent_forwardsInvocationToBraintreeClient() {
+    public void sendAnalyticsEvent_buffersEventUntilFlushed() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
         DropInClientParams params = new DropInClientParams()
                 .braintreeClient(braintreeClient);
@@ -120,13 +178,94 @@ public class DropInClientUnitTest {
 
         DropInClient sut = new DropInClient(params);
         sut.sendAnalyticsEvent(eventFragment);
+        verify(braintreeClient, never()).sendAnalyticsEvent(any(String.class));
 
+        sut.flushAnalyticsEvents();
         verify(braintreeClient).sendAnalyticsEvent(eventFragment);
     }
 
+    @Test
+    public void flushAnalyticsEvents_whenBufferDroppedEvents_reportsDropOnce() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .analyticsBuffer(new DropInAnalyticsBuffer(1));
+
+        DropInClient sut = new DropInClient(params);
+        sut.sendAnalyticsEvent("appeared");
+        sut.sendAnalyticsEvent("card.selected");
+        sut.flushAnalyticsEvents();
+        sut.flushAnalyticsEvents();
+
+        InOrder inOrder = inOrder(braintreeClient);
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("card.selected");
+        inOrder.verify(braintreeClient).sendAnalyticsEvent(DropInClient.ANALYTICS_EVENTS_DROPPED_EVENT);
+        verify(braintreeClient, never()).sendAnalyticsEvent("appeared");
+        verify(braintreeClient, times(1)).sendAnalyticsEvent(DropInClient.ANALYTICS_EVENTS_DROPPED_EVENT);
+    }
+
+    @Test
+    public void flushAnalyticsEvents_sendsEventsInOrderOnce() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        sut.sendAnalyticsEvent("appeared");
+        sut.sendAnalyticsEvent("vaulted-card.appear");
+        sut.flushAnalyticsEvents();
+        sut.flushAnalyticsEvents();
+
+        InOrder inOrder = inOrder(braintreeClient);
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("appeared");
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("vaulted-card.appear");
+        verify(braintreeClient, times(2)).sendAnalyticsEvent(any(String.class));
+    }
+
+    @Test
+    public void sendAnalyticsEvent_whileVaultAndTokenizationRequestsArePending_sendsNoAnalytics() throws JSONException {
+        FakeGateway gateway = new FakeGateway(
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+                Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE)
+                .responseDelay(STAGE_DELAY_MS);
+        BraintreeClient braintreeClient =
+                gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN));
+
+        CardClient cardClient = mock(CardClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .googlePayClient(new MockGooglePayClientBuilder().isReadyToPaySuccess(false).build())
+                .paymentMethodClient(new PaymentMethodClient(braintreeClient))
+                .cardClient(cardClient);
+
+        DropInClient sut = new DropInClient(params);
+
+        GetPaymentMethodNoncesCallback vaultCallback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getVaultedPaymentMethods(activity, vaultCallback);
+        sut.tokenizeCard(new Card(), mock(CardTokenizeCallback.class));
+        sut.sendAnalyticsEvent("appeared");
+        sut.sendAnalyticsEvent("card.selected");
+
+        // vault GET and card tokenization are both in flight
+        verify(vaultCallback, never()).onResult(any(List.class), any(Exception.class));
+        verify(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent(any(String.class));
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(STAGE_DELAY_MS * 2));
+        verify(vaultCallback).onResult(any(List.class), (Exception) isNull());
+        verify(braintreeClient, never()).sendAnalyticsEvent("appeared");
+
+        sut.flushAnalyticsEvents();
+        verify(braintreeClient).sendAnalyticsEvent("appeared");
+        verify(braintreeClient).sendAnalyticsEvent("card.selected");
+    }
+
     @Test
     public void collectDeviceData_forwardsInvocationToDataCollector() {
-        DataCollector dataCollector = mock(DataCollector.class);
+        DataCollector dataCollector = new MockDataCollectorBuilder()
+                .collectDeviceDataSuccess("device data")
+                .build();
         DropInClientParams params = new DropInClientParams()
                 .dataCollector(dataCollector);
 
@@ -135,7 +274,112 @@ public class DropInClientUnitTest {
         DropInClient sut = new DropInClient(params);
         sut.collectDeviceData(activity, callback);
 
-        verify(dataCollector).collectDeviceData(activity, callback);
+        verify(dataCollector).collectDeviceData(same(activity), any(DataCollectorCallback.class));
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenAlreadyCollected_reusesDeviceData() {
+        DataCollector dataCollector = new MockDataCollectorBuilder()
+                .collectDeviceDataSuccess("device data")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().dataCollector(dataCollector));
+
+        sut.prefetchDeviceData(activity);
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(activity, callback);
+
+        verify(dataCollector).collectDeviceData(any(Context.class), any(DataCollectorCallback.class));
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whileCollectionIsInFlight_sharesCollection() {
+        DataCollector dataCollector = mock(DataCollector.class);
+        DropInClient sut = new DropInClient(new DropInClientParams().dataCollector(dataCollector));
+
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.prefetchDeviceData(activity);
+        sut.collectDeviceData(activity, callback);
+
+        ArgumentCaptor<DataCollectorCallback> captor = ArgumentCaptor.forClass(DataCollectorCallback.class);
+        verify(dataCollector).collectDeviceData(any(Context.class), captor.capture());
+
+        captor.getValue().onResult("device data", null);
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenCollectionFails_retriesOnNextCall() {
+        Exception error = new Exception("collection failed");
+        DataCollector dataCollector = mock(DataCollector.class);
+        DropInClient sut = new DropInClient(new DropInClientParams().dataCollector(dataCollector));
+
+        sut.prefetchDeviceData(activity);
+        ArgumentCaptor<DataCollectorCallback> captor = ArgumentCaptor.forClass(DataCollectorCallback.class);
+        verify(dataCollector).collectDeviceData(any(Context.class), captor.capture());
+        captor.getValue().onResult(null, error);
+
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(activity, callback);
+        verify(dataCollector, times(2)).collectDeviceData(any(Context.class), captor.capture());
+        captor.getValue().onResult("device data", null);
+
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_afterLaunchDropInForResult_collectsDeviceDataForTheNewSession() {
+        DataCollector dataCollector = new MockDataCollectorBuilder()
+                .collectDeviceDataSuccess("device data")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest())
+                .dataCollector(dataCollector));
+
+        sut.prefetchDeviceData(activity);
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(activity, callback);
+
+        verify(dataCollector, times(2)).collectDeviceData(any(Context.class), any(DataCollectorCallback.class));
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenCollectionFromAnEarlierSessionFinishesLate_doesNotKeepItsDeviceData() {
+        DataCollector dataCollector = mock(DataCollector.class);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest())
+                .dataCollector(dataCollector));
+
+        sut.prefetchDeviceData(activity);
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(activity, callback);
+
+        ArgumentCaptor<DataCollectorCallback> captor = ArgumentCaptor.forClass(DataCollectorCallback.class);
+        verify(dataCollector, times(2)).collectDeviceData(any(Context.class), captor.capture());
+        captor.getAllValues().get(0).onResult("earlier device data", null);
+        verify(callback, never()).onResult(any(String.class), any(Exception.class));
+
+        captor.getAllValues().get(1).onResult("device data", null);
+        verify(callback).onResult("device data", null);
+
+        DataCollectorCallback nextCallback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(activity, nextCallback);
+        verify(nextCallback).onResult("device data", null);
+        verify(dataCollector, times(2)).collectDeviceData(any(Context.class), any(DataCollectorCallback.class));
     }
 
     @Test
@@ -219,7 +463,13 @@ public class DropInClientUnitTest {
                 .configurationError(configurationError)
                 .build();
 
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
         DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
                 .braintreeClient(braintreeClient);
 
         DropInClient sut = new DropInClient(params);
@@ -229,6 +479,70 @@ public class DropInClientUnitTest {
         verify(callback).onResult(null, configurationError);
     }
 
+    @Test
+    public void getSupportedPaymentMethods_checksVenmoAvailabilityOffTheCallingThread() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(mockConfiguration(false, true, false, false, false))
+                .build();
+
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(true)
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+
+        List<Runnable> backgroundTasks = new ArrayList<>();
+        PaymentMethodCapabilityCache paymentMethodCapabilityCache =
+                new PaymentMethodCapabilityCache(new DropInClock(), backgroundTasks::add, Runnable::run);
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .venmoClient(venmoClient)
+                .paymentMethodCapabilityCache(paymentMethodCapabilityCache);
+
+        DropInClient sut = new DropInClient(params);
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        verify(venmoClient, never()).isVenmoAppSwitchAvailable(any(Context.class));
+        verify(callback, never()).onResult(any(List.class), any(Exception.class));
+
+        backgroundTasks.get(0).run();
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        assertEquals(Collections.singletonList(DropInPaymentMethod.VENMO), paymentMethodTypesCaptor.getValue());
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_whenGooglePayReadinessCachedBySharedCache_doesNotProbeGooglePayAgain() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        PaymentMethodCapabilityCache paymentMethodCapabilityCache = new PaymentMethodCapabilityCache();
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .googlePayClient(googlePayClient)
+                .paymentMethodCapabilityCache(paymentMethodCapabilityCache);
+
+        // e.g. the host application's client followed by the one created by DropInActivity
+        new DropInClient(params).getSupportedPaymentMethods(activity, mock(GetSupportedPaymentMethodsCallback.class));
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        new DropInClient(params).getSupportedPaymentMethods(activity, callback);
+
+        verify(googlePayClient).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        assertTrue(paymentMethodTypesCaptor.getValue().contains(DropInPaymentMethod.GOOGLE_PAY));
+    }
+
     @Test
     public void shouldRequestThreeDSecureVerification_whenNonceIsGooglePayNonNetworkTokenized_returnsTrue() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -677,110 +991,289 @@ public class DropInClientUnitTest {
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenNoPaymentMethodsEnabledInConfiguration_callsBackWithNoPaymentMethods() {
+    public void fetchMostRecentPaymentMethod_withSnapshotCallback_callsBackWithSnapshotBeforeFetchingVault() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-                .configuration(mockConfiguration(false, false, false, false, false))
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+
+        PaymentMethodSnapshot snapshot =
+                new PaymentMethodSnapshot("customer", DropInPaymentMethod.VISA, "4242", 1000L);
+        when(dropInSharedPreferences.getPaymentMethodSnapshot(activity, CUSTOMER_KEY))
+                .thenReturn(snapshot);
 
-        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
-                .isReadyToPaySuccess(false)
-                .build();
         DropInClientParams params = new DropInClientParams()
                 .dropInRequest(new DropInRequest())
-                .googlePayClient(googlePayClient)
-                .braintreeClient(braintreeClient);
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences)
+                .paymentMethodClient(paymentMethodClient);
 
         DropInClient sut = new DropInClient(params);
 
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        FetchMostRecentPaymentMethodSnapshotCallback snapshotCallback =
+                mock(FetchMostRecentPaymentMethodSnapshotCallback.class);
+        FetchMostRecentPaymentMethodCallback callback = mock(FetchMostRecentPaymentMethodCallback.class);
+        sut.fetchMostRecentPaymentMethod(activity, snapshotCallback, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(snapshotCallback).onResult(snapshot);
+        verify(callback, never()).onResult(any(DropInResult.class), any(Exception.class));
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
-        assertEquals(0, paymentMethodTypes.size());
+        ArgumentCaptor<GetPaymentMethodNoncesCallback> captor =
+                ArgumentCaptor.forClass(GetPaymentMethodNoncesCallback.class);
+        verify(paymentMethodClient).getPaymentMethodNonces(captor.capture());
+        captor.getValue().onResult(Collections.singletonList(
+                (PaymentMethodNonce) CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE))), null);
+
+        ArgumentCaptor<DropInResult> resultCaptor = ArgumentCaptor.forClass(DropInResult.class);
+        verify(callback).onResult(resultCaptor.capture(), (Exception) isNull());
+        assertEquals(DropInPaymentMethod.VISA, resultCaptor.getValue().getPaymentMethodType());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenPaymentMethodsEnabledInConfiguration_callsBackWithPaymentMethods() {
+    public void fetchMostRecentPaymentMethod_withSnapshotCallback_revalidatesSnapshotWithVaultedPaymentMethods() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-                .configuration(mockConfiguration(true, true, true, true, false))
-                .build();
-
-        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
-                .isReadyToPaySuccess(true)
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
-        VenmoClient venmoClient = new MockVenmoClientBuilder()
-                .isVenmoAppInstalled(true)
+        List<PaymentMethodNonce> paymentMethodNonces = Collections.singletonList(
+                (PaymentMethodNonce) CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE)));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(paymentMethodNonces)
                 .build();
 
         DropInClientParams params = new DropInClientParams()
                 .dropInRequest(new DropInRequest())
-                .googlePayClient(googlePayClient)
-                .venmoClient(venmoClient)
-                .braintreeClient(braintreeClient);
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences)
+                .paymentMethodClient(paymentMethodClient);
 
         DropInClient sut = new DropInClient(params);
 
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
-
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
-
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        sut.fetchMostRecentPaymentMethod(activity, mock(FetchMostRecentPaymentMethodSnapshotCallback.class),
+                mock(FetchMostRecentPaymentMethodCallback.class));
 
-        assertEquals(4, paymentMethodTypes.size());
-        assertEquals(DropInPaymentMethod.PAYPAL, paymentMethodTypes.get(0));
-        assertEquals(DropInPaymentMethod.VENMO, paymentMethodTypes.get(1));
-        assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(2));
-        assertEquals(DropInPaymentMethod.GOOGLE_PAY, paymentMethodTypes.get(3));
+        verify(dropInSharedPreferences).revalidatePaymentMethodSnapshot(activity, CUSTOMER_KEY, paymentMethodNonces);
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenUnionPayNotSupportedAndOtherCardsPresent_callsBackWithOtherCards() {
-        Configuration configuration = mockConfiguration(false, false, true, false, false);
-        when(configuration.getSupportedCardTypes())
-                .thenReturn(Arrays.asList(DropInPaymentMethod.UNIONPAY.name(), DropInPaymentMethod.VISA.name()));
+    public void fetchMostRecentPaymentMethod_withSnapshotCallback_whenVaultIsEmpty_revalidatesSnapshotWithEmptyVault() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-                .configuration(configuration)
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
-
-        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
-                .isReadyToPaySuccess(false)
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(new ArrayList<>())
                 .build();
+
         DropInClientParams params = new DropInClientParams()
                 .dropInRequest(new DropInRequest())
-                .googlePayClient(googlePayClient)
-                .braintreeClient(braintreeClient);
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences)
+                .paymentMethodClient(paymentMethodClient);
 
         DropInClient sut = new DropInClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
-
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        FetchMostRecentPaymentMethodSnapshotCallback snapshotCallback =
+                mock(FetchMostRecentPaymentMethodSnapshotCallback.class);
+        FetchMostRecentPaymentMethodCallback callback = mock(FetchMostRecentPaymentMethodCallback.class);
+        sut.fetchMostRecentPaymentMethod(activity, snapshotCallback, callback);
 
-        assertEquals(1, paymentMethodTypes.size());
-        assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(0));
+        verify(snapshotCallback).onResult(null);
+        verify(dropInSharedPreferences).revalidatePaymentMethodSnapshot(activity, CUSTOMER_KEY, new ArrayList<>());
+        verify(callback).onResult(any(DropInResult.class), (Exception) isNull());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenOnlyUnionPayPresentAndNotSupported_callsBackWithNoCards() {
-        Configuration configuration = mockConfiguration(false, false, true, false, false);
-        when(configuration.getSupportedCardTypes())
-                .thenReturn(Collections.singletonList("UnionPay"));
-
+    public void fetchMostRecentPaymentMethod_withSnapshotCallback_whenTokenizationKeyIsUsed_onlyCallsBackWithError() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-                .configuration(configuration)
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .build();
 
-        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
-                .isReadyToPaySuccess(false)
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences);
+
+        DropInClient sut = new DropInClient(params);
+
+        FetchMostRecentPaymentMethodSnapshotCallback snapshotCallback =
+                mock(FetchMostRecentPaymentMethodSnapshotCallback.class);
+        FetchMostRecentPaymentMethodCallback callback = mock(FetchMostRecentPaymentMethodCallback.class);
+        sut.fetchMostRecentPaymentMethod(activity, snapshotCallback, callback);
+
+        verify(snapshotCallback, never()).onResult(any(PaymentMethodSnapshot.class));
+        verify(callback).onResult((DropInResult) isNull(), any(InvalidArgumentException.class));
+    }
+
+    @Test
+    public void setLastUsedPaymentMethodType_storesSnapshotForCustomer() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences);
+
+        DropInClient sut = new DropInClient(params);
+
+        CardNonce cardNonce = mock(CardNonce.class);
+        sut.setLastUsedPaymentMethodType(activity, cardNonce);
+
+        Context appContext = activity.getApplicationContext();
+        verify(dropInSharedPreferences).setLastUsedPaymentMethod(appContext, cardNonce);
+        verify(dropInSharedPreferences).setPaymentMethodSnapshot(appContext, CUSTOMER_KEY, cardNonce);
+    }
+
+    @Test
+    public void setLastUsedPaymentMethodType_whenTokenizationKeyIsUsed_doesNotStoreSnapshot() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInSharedPreferences(dropInSharedPreferences);
+
+        DropInClient sut = new DropInClient(params);
+        sut.setLastUsedPaymentMethodType(activity, mock(CardNonce.class));
+
+        verify(dropInSharedPreferences, never()).setPaymentMethodSnapshot(
+                any(Context.class), any(String.class), any(PaymentMethodNonce.class));
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_whenNoPaymentMethodsEnabledInConfiguration_callsBackWithNoPaymentMethods() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(false, false, false, false, false))
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(false)
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+
+        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        assertEquals(0, paymentMethodTypes.size());
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_whenPaymentMethodsEnabledInConfiguration_callsBackWithPaymentMethods() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(true, true, true, true, false))
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(true)
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
+                .venmoClient(venmoClient)
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+
+        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+
+        assertEquals(4, paymentMethodTypes.size());
+        assertEquals(DropInPaymentMethod.PAYPAL, paymentMethodTypes.get(0));
+        assertEquals(DropInPaymentMethod.VENMO, paymentMethodTypes.get(1));
+        assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(2));
+        assertEquals(DropInPaymentMethod.GOOGLE_PAY, paymentMethodTypes.get(3));
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_listsPaymentMethodsOfRegisteredProvidersInOrder() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(true, true, true, false, false))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .paymentMethodProviders(Arrays.asList(
+                        new CardPaymentMethodProvider(), new PayPalPaymentMethodProvider()))
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+
+        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        assertEquals(2, paymentMethodTypes.size());
+        assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(0));
+        assertEquals(DropInPaymentMethod.PAYPAL, paymentMethodTypes.get(1));
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_whenUnionPayNotSupportedAndOtherCardsPresent_callsBackWithOtherCards() {
+        Configuration configuration = mockConfiguration(false, false, true, false, false);
+        when(configuration.getSupportedCardTypes())
+                .thenReturn(Arrays.asList(DropInPaymentMethod.UNIONPAY.name(), DropInPaymentMethod.VISA.name()));
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(configuration)
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(false)
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+
+        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+
+        assertEquals(1, paymentMethodTypes.size());
+        assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(0));
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_whenOnlyUnionPayPresentAndNotSupported_callsBackWithNoCards() {
+        Configuration configuration = mockConfiguration(false, false, true, false, false);
+        when(configuration.getSupportedCardTypes())
+                .thenReturn(Collections.singletonList("UnionPay"));
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(configuration)
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(false)
                 .build();
         DropInClientParams params = new DropInClientParams()
                 .dropInRequest(new DropInRequest())
@@ -1161,82 +1654,389 @@ public class DropInClientUnitTest {
         DeletePaymentMethodNonceCallback callback = mock(DeletePaymentMethodNonceCallback.class);
         sut.deletePaymentMethod(activity, cardNonce, callback);
 
-        verify(paymentMethodClient).deletePaymentMethod(same(activity), same(cardNonce), same(callback));
+        verify(paymentMethodClient).deletePaymentMethod(same(activity), same(cardNonce), any(DeletePaymentMethodNonceCallback.class));
     }
 
     @Test
-    public void tokenizeCard_forwardsInvocationToCardClient() {
-        CardClient cardClient = mock(CardClient.class);
-        DropInClientParams params = new DropInClientParams()
-                .cardClient(cardClient);
+    public void deletePaymentMethod_whenSuccessful_invalidatesVaultedPaymentMethodCacheAndForwardsResult() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
 
-        Card card = new Card();
-        CardTokenizeCallback callback = mock(CardTokenizeCallback.class);
+        CardNonce cardNonce = mock(CardNonce.class);
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .deletePaymentMethodSuccess(cardNonce)
+                .build();
+
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .paymentMethodClient(paymentMethodClient)
+                .dropInSharedPreferences(dropInSharedPreferences)
+                .vaultedPaymentMethodCache(vaultedPaymentMethodCache);
 
         DropInClient sut = new DropInClient(params);
-        sut.tokenizeCard(card, callback);
 
-        verify(cardClient).tokenize(card, callback);
+        DeletePaymentMethodNonceCallback callback = mock(DeletePaymentMethodNonceCallback.class);
+        sut.deletePaymentMethod(activity, cardNonce, callback);
+
+        verify(vaultedPaymentMethodCache).invalidate(CUSTOMER_KEY);
+        verify(dropInSharedPreferences).clearPaymentMethodSnapshot(activity);
+        verify(callback).onResult(cardNonce, null);
     }
 
     @Test
-    public void fetchUnionPayCapabilities_forwardsInvocationToUnionPayClient() {
-        UnionPayClient unionPayClient = mock(UnionPayClient.class);
-        DropInClientParams params = new DropInClientParams()
-                .unionPayClient(unionPayClient);
+    public void deletePaymentMethod_whenFailed_doesNotInvalidateVaultedPaymentMethodCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
 
-        String cardNumber = "4111111111111111";
-        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        Exception error = new Exception("delete error");
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .deletePaymentMethodError(error)
+                .build();
+
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .paymentMethodClient(paymentMethodClient)
+                .vaultedPaymentMethodCache(vaultedPaymentMethodCache);
 
         DropInClient sut = new DropInClient(params);
-        sut.fetchUnionPayCapabilities(cardNumber, callback);
 
-        verify(unionPayClient).fetchCapabilities(cardNumber, callback);
+        DeletePaymentMethodNonceCallback callback = mock(DeletePaymentMethodNonceCallback.class);
+        sut.deletePaymentMethod(activity, mock(CardNonce.class), callback);
+
+        verify(vaultedPaymentMethodCache, never()).invalidate(any(String.class));
+        verify(callback).onResult(null, error);
     }
 
     @Test
-    public void enrollUnionPay_forwardsInvocationToUnionPayClient() {
-        UnionPayClient unionPayClient = mock(UnionPayClient.class);
-        DropInClientParams params = new DropInClientParams()
-                .unionPayClient(unionPayClient);
+    public void setMetricsListener_reportsStagesInOrderWithDurationsFromClock() throws JSONException {
+        final FakeDropInClock clock = new FakeDropInClock();
+        final Configuration configuration =
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL);
 
-        UnionPayCard unionPayCard = new UnionPayCard();
-        UnionPayEnrollCallback callback = mock(UnionPayEnrollCallback.class);
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        when(braintreeClient.getAuthorization()).thenReturn(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN));
+        when(braintreeClient.getSessionId()).thenReturn("session-id");
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(100);
+            ((ConfigurationCallback) invocation.getArguments()[0]).onResult(configuration, null);
+            return null;
+        }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
 
-        DropInClient sut = new DropInClient(params);
-        sut.enrollUnionPay(unionPayCard, callback);
-    }
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(200);
+            ((GetPaymentMethodNoncesCallback) invocation.getArguments()[0])
+                    .onResult(new ArrayList<>(), null);
+            return null;
+        }).when(paymentMethodClient).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
 
-    @Test
-    public void tokenizeUnionPay_forwardsInvocationToUnionPayClient() {
-        UnionPayClient unionPayClient = mock(UnionPayClient.class);
-        DropInClientParams params = new DropInClientParams()
-                .unionPayClient(unionPayClient);
+        GooglePayClient googlePayClient = mock(GooglePayClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(50);
+            ((GooglePayIsReadyToPayCallback) invocation.getArguments()[1]).onResult(true, null);
+            return null;
+        }).when(googlePayClient).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
 
-        UnionPayCard unionPayCard = new UnionPayCard();
-        UnionPayTokenizeCallback callback = mock(UnionPayTokenizeCallback.class);
+        CardClient cardClient = mock(CardClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(80);
+            ((CardTokenizeCallback) invocation.getArguments()[1])
+                    .onResult(null, new Exception("tokenization error"));
+            return null;
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+
+        DataCollector dataCollector = mock(DataCollector.class);
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(30);
+            ((DataCollectorCallback) invocation.getArguments()[1]).onResult("device-data", null);
+            return null;
+        }).when(dataCollector).collectDeviceData(any(Context.class), any(DataCollectorCallback.class));
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
+                .cardClient(cardClient)
+                .dataCollector(dataCollector)
+                .dropInClock(clock);
 
         DropInClient sut = new DropInClient(params);
-        sut.tokenizeUnionPay(unionPayCard, callback);
+
+        List<DropInStageMetric> metrics = new ArrayList<>();
+        sut.setMetricsListener(metrics::add);
+
+        sut.getVaultedPaymentMethods(activity, mock(GetPaymentMethodNoncesCallback.class));
+        sut.tokenizeCard(new Card(), mock(CardTokenizeCallback.class));
+        sut.collectDeviceData(activity, mock(DataCollectorCallback.class));
+
+        assertEquals(5, metrics.size());
+        assertStageMetric(metrics.get(0), DropInStage.CONFIGURATION_FETCH, DropInStageOutcome.SUCCESS, 0, 100);
+        assertStageMetric(metrics.get(1), DropInStage.VAULTED_PAYMENT_METHODS_FETCH, DropInStageOutcome.SUCCESS, 100, 200);
+        assertStageMetric(metrics.get(2), DropInStage.IS_READY_TO_PAY, DropInStageOutcome.SUCCESS, 300, 50);
+        assertStageMetric(metrics.get(3), DropInStage.CARD_TOKENIZATION, DropInStageOutcome.FAILURE, 350, 80);
+        assertStageMetric(metrics.get(4), DropInStage.DEVICE_DATA_COLLECTION, DropInStageOutcome.SUCCESS, 430, 30);
     }
 
     @Test
-    public void getBrowserSwitchResult_forwardsInvocationToBraintreeClient() {
-        BrowserSwitchResult browserSwitchResult = createSuccessfulBrowserSwitchResult();
+    public void setMetricsListener_reportsThreeDSecureLookupAndChallenge() {
+        final FakeDropInClock clock = new FakeDropInClock();
 
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
-        when(braintreeClient.getBrowserSwitchResult(activity)).thenReturn(browserSwitchResult);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+
+        ThreeDSecureResult lookupResult = mock(ThreeDSecureResult.class);
+        ThreeDSecureClient threeDSecureClient = mock(ThreeDSecureClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            clock.advance(120);
+            ((ThreeDSecureResultCallback) invocation.getArguments()[2]).onResult(lookupResult, null);
+            return null;
+        }).when(threeDSecureClient).performVerification(any(FragmentActivity.class), any(ThreeDSecureRequest.class), any(ThreeDSecureResultCallback.class));
 
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setThreeDSecureRequest(new ThreeDSecureRequest());
         DropInClientParams params = new DropInClientParams()
-                .braintreeClient(braintreeClient);
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .threeDSecureClient(threeDSecureClient)
+                .dropInClock(clock);
 
         DropInClient sut = new DropInClient(params);
-        assertSame(browserSwitchResult, sut.getBrowserSwitchResult(activity));
+
+        List<DropInStageMetric> metrics = new ArrayList<>();
+        sut.setMetricsListener(metrics::add);
+
+        CardNonce cardNonce = mock(CardNonce.class);
+        when(cardNonce.getString()).thenReturn("nonce");
+        sut.performThreeDSecureVerification(activity, cardNonce, mock(DropInResultCallback.class));
+
+        // the customer completes a challenge in ThreeDSecureActivity
+        clock.advance(5000);
+        ArgumentCaptor<ThreeDSecureResultCallback> captor = ArgumentCaptor.forClass(ThreeDSecureResultCallback.class);
+        sut.handleThreeDSecureActivityResult(activity, Activity.RESULT_CANCELED, new Intent(), mock(DropInResultCallback.class));
+        verify(threeDSecureClient).onActivityResult(eq(Activity.RESULT_CANCELED), any(Intent.class), captor.capture());
+        captor.getValue().onResult(null, new UserCanceledException("User canceled 3DS."));
+
+        assertEquals(2, metrics.size());
+        assertStageMetric(metrics.get(0), DropInStage.THREE_D_SECURE_LOOKUP, DropInStageOutcome.SUCCESS, 0, 120);
+        assertStageMetric(metrics.get(1), DropInStage.THREE_D_SECURE_CHALLENGE, DropInStageOutcome.CANCELED, 120, 5000);
     }
 
     @Test
-    public void deliverBrowserSwitchResult_whenPayPal_tokenizesResultAndCollectsData() {
-        PayPalAccountNonce payPalAccountNonce = mock(PayPalAccountNonce.class);
+    public void setMetricsListener_withNull_stopsReportingStages() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .cardClient(cardClient);
+
+        DropInClient sut = new DropInClient(params);
+        DropInMetricsListener listener = mock(DropInMetricsListener.class);
+        sut.setMetricsListener(listener);
+        sut.setMetricsListener(null);
+        sut.tokenizeCard(new Card(), mock(CardTokenizeCallback.class));
+
+        ArgumentCaptor<CardTokenizeCallback> captor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), captor.capture());
+        captor.getValue().onResult(mock(CardNonce.class), null);
+
+        assertFalse(sut.isMetricsEnabled());
+        verify(listener, never()).onStageCompleted(any(DropInStageMetric.class));
+    }
+
+    @Test
+    public void reportTransitionFrames_notifiesFrameMetricsListenerAndRecordsAnalyticsEvent() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        List<DropInFrameMetric> metrics = new ArrayList<>();
+        sut.setFrameMetricsListener(metrics::add);
+        assertTrue(sut.isFrameMetricsEnabled());
+
+        sut.reportTransitionFrames(DropInTransition.BOTTOM_SHEET_SLIDE_UP, 18, 2, 50_000_000L, 320_000_000L);
+        sut.reportTransitionFrames(DropInTransition.VAULT_MANAGER_OPEN, 19, 0, 16_700_000L, 310_000_000L);
+        sut.reportTransitionFrames(DropInTransition.VAULT_MANAGER_CLOSE, 3, 50, 800_000_000L, 900_000_000L);
+
+        assertEquals(3, metrics.size());
+        DropInFrameMetric metric = metrics.get(0);
+        assertEquals(DropInTransition.BOTTOM_SHEET_SLIDE_UP, metric.getTransition());
+        assertEquals("session-id", metric.getSessionId());
+        assertEquals(18, metric.getFrameCount());
+        assertEquals(2, metric.getDroppedFrameCount());
+        assertEquals(50_000_000L, metric.getWorstFrameDurationNanos());
+        assertEquals(320, metric.getDurationMillis());
+
+        sut.flushAnalyticsEvents();
+        InOrder inOrder = inOrder(braintreeClient);
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("frames.bottom-sheet.slide-up.janky");
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("frames.manager.open.smooth");
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("frames.manager.close.frozen");
+    }
+
+    @Test
+    public void reportTransitionFrames_withoutFrameMetricsListener_recordsNothing() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        DropInFrameMetricsListener listener = mock(DropInFrameMetricsListener.class);
+        sut.setFrameMetricsListener(listener);
+        sut.setFrameMetricsListener(null);
+        sut.reportTransitionFrames(DropInTransition.BOTTOM_SHEET_SLIDE_DOWN, 10, 0, 16_700_000L, 160_000_000L);
+        sut.flushAnalyticsEvents();
+
+        assertFalse(sut.isFrameMetricsEnabled());
+        verify(listener, never()).onTransitionCompleted(any(DropInFrameMetric.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent(any(String.class));
+    }
+
+    @Test
+    public void tokenizeCard_forwardsInvocationToCardClient() {
+        CardClient cardClient = mock(CardClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .cardClient(cardClient);
+
+        Card card = new Card();
+        CardTokenizeCallback callback = mock(CardTokenizeCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.tokenizeCard(card, callback);
+
+        verify(cardClient).tokenize(same(card), any(CardTokenizeCallback.class));
+    }
+
+    @Test
+    public void tokenizeCard_whenSuccessful_invalidatesVaultedPaymentMethodCacheAndForwardsResult() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        final CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE));
+        CardClient cardClient = mock(CardClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            CardTokenizeCallback callback = (CardTokenizeCallback) invocation.getArguments()[1];
+            callback.onResult(cardNonce, null);
+            return null;
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .cardClient(cardClient)
+                .vaultedPaymentMethodCache(vaultedPaymentMethodCache);
+
+        CardTokenizeCallback callback = mock(CardTokenizeCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.tokenizeCard(new Card(), callback);
+
+        verify(vaultedPaymentMethodCache).invalidate(CUSTOMER_KEY);
+        verify(callback).onResult(cardNonce, null);
+    }
+
+    @Test
+    public void fetchUnionPayCapabilities_forwardsInvocationToUnionPayClient() {
+        UnionPayClient unionPayClient = mock(UnionPayClient.class);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .unionPayClient(unionPayClient);
+
+        String cardNumber = "4111111111111111";
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.fetchUnionPayCapabilities(cardNumber, callback);
+
+        verify(unionPayClient).fetchCapabilities(eq(cardNumber), any(UnionPayFetchCapabilitiesCallback.class));
+    }
+
+    @Test
+    public void fetchUnionPayCapabilities_whenBinWasFetched_answersFromCache() {
+        UnionPayCapabilities capabilities = mock(UnionPayCapabilities.class);
+        UnionPayClient unionPayClient = mock(UnionPayClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            ((UnionPayFetchCapabilitiesCallback) invocation.getArguments()[1]).onResult(capabilities, null);
+            return null;
+        }).when(unionPayClient).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .unionPayClient(unionPayClient)
+                .unionPayCapabilitiesCache(new UnionPayCapabilitiesCache());
+
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.fetchUnionPayCapabilities("6212345678901232", mock(UnionPayFetchCapabilitiesCallback.class));
+        sut.fetchUnionPayCapabilities("6212345678901265", callback);
+
+        verify(unionPayClient, times(1)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+        verify(callback).onResult(capabilities, null);
+    }
+
+    @Test
+    public void enrollUnionPay_forwardsInvocationToUnionPayClient() {
+        UnionPayClient unionPayClient = mock(UnionPayClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .unionPayClient(unionPayClient);
+
+        UnionPayCard unionPayCard = new UnionPayCard();
+        UnionPayEnrollCallback callback = mock(UnionPayEnrollCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.enrollUnionPay(unionPayCard, callback);
+    }
+
+    @Test
+    public void tokenizeUnionPay_forwardsInvocationToUnionPayClient() {
+        UnionPayClient unionPayClient = mock(UnionPayClient.class);
+        DropInClientParams params = new DropInClientParams()
+                .unionPayClient(unionPayClient);
+
+        UnionPayCard unionPayCard = new UnionPayCard();
+        UnionPayTokenizeCallback callback = mock(UnionPayTokenizeCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.tokenizeUnionPay(unionPayCard, callback);
+    }
+
+    @Test
+    public void getBrowserSwitchResult_forwardsInvocationToBraintreeClient() {
+        BrowserSwitchResult browserSwitchResult = createSuccessfulBrowserSwitchResult();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        when(braintreeClient.getBrowserSwitchResult(activity)).thenReturn(browserSwitchResult);
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        assertSame(browserSwitchResult, sut.getBrowserSwitchResult(activity));
+    }
+
+    @Test
+    public void deliverBrowserSwitchResult_whenPayPal_tokenizesResultAndCollectsData() {
+        PayPalAccountNonce payPalAccountNonce = mock(PayPalAccountNonce.class);
         PayPalClient payPalClient = new MockPayPalClientBuilder()
                 .browserSwitchResult(payPalAccountNonce)
                 .build();
@@ -1475,6 +2275,199 @@ public class DropInClientUnitTest {
         assertTrue(dropInRequestExtra.isVaultManagerEnabled());
     }
 
+    @Test
+    public void launchDropInForResult_registersClientForSession() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+
+        DropInSessionRegistry dropInSessionRegistry = new DropInSessionRegistry();
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest())
+                .dropInSessionRegistry(dropInSessionRegistry);
+
+        DropInClient sut = new DropInClient(params);
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+
+        assertSame(sut, dropInSessionRegistry.get("session-id", Fixtures.TOKENIZATION_KEY));
+    }
+
+    @Test
+    public void prewarm_fetchesConfigurationWalletReadinessAndVaultedPaymentMethods() throws JSONException {
+        FakeGateway gateway = new FakeGateway(
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+                Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE);
+        BraintreeClient braintreeClient =
+                gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN));
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .googlePayClient(googlePayClient)
+                .venmoClient(new MockVenmoClientBuilder().build())
+                .paymentMethodClient(new PaymentMethodClient(braintreeClient));
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarm(activity);
+
+        verify(googlePayClient, atLeastOnce()).isReadyToPay(same(activity), any(GooglePayIsReadyToPayCallback.class));
+        assertEquals(1, gateway.getGETRequestCount());
+        assertEquals(Arrays.asList(DropInPaymentMethod.PAYPAL, DropInPaymentMethod.UNKNOWN, DropInPaymentMethod.GOOGLE_PAY),
+                sut.prewarmedSupportedPaymentMethods);
+        assertEquals(2, sut.prewarmedVaultedPaymentMethods.size());
+    }
+
+    @Test
+    public void prewarm_whenTokenizationKey_doesNotFetchVaultedPaymentMethods() throws JSONException {
+        FakeGateway gateway = new FakeGateway(
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL),
+                Fixtures.GET_PAYMENT_METHODS_TWO_CARDS_RESPONSE);
+        BraintreeClient braintreeClient =
+                gateway.createBraintreeClient(Authorization.fromString(Fixtures.TOKENIZATION_KEY));
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .venmoClient(new MockVenmoClientBuilder().build())
+                .paymentMethodClient(new PaymentMethodClient(braintreeClient));
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarm(activity);
+
+        assertEquals(0, gateway.getGETRequestCount());
+        assertNotNull(sut.prewarmedSupportedPaymentMethods);
+        assertNull(sut.prewarmedVaultedPaymentMethods);
+    }
+
+    @Test
+    public void launchDropInForResult_whenPrewarmed_addsSupportedPaymentMethodsToIntentAndHandsOverVaultedPaymentMethods() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest());
+
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarmedSupportedPaymentMethods = Arrays.asList(DropInPaymentMethod.PAYPAL, DropInPaymentMethod.UNKNOWN);
+        sut.prewarmedVaultedPaymentMethods = Collections.singletonList(cardNonce);
+
+        FragmentActivity activity = mock(FragmentActivity.class);
+        sut.launchDropInForResult(activity, 123);
+
+        ArgumentCaptor<Intent> captor = ArgumentCaptor.forClass(Intent.class);
+        verify(activity).startActivityForResult(captor.capture(), eq(123));
+
+        Intent intent = captor.getValue();
+        assertEquals(Arrays.asList("PAYPAL", "UNKNOWN"),
+                intent.getStringArrayListExtra(DropInClient.EXTRA_SUPPORTED_PAYMENT_METHODS));
+        assertFalse(intent.hasExtra("com.braintreepayments.api.EXTRA_VAULTED_PAYMENT_METHODS"));
+
+        assertEquals(Collections.singletonList(cardNonce), sut.takePrewarmedVaultedPaymentMethods());
+        assertNull(sut.takePrewarmedVaultedPaymentMethods());
+    }
+
+    @Test
+    public void launchDropInForResult_whenVaultedPaymentMethodsWerePrewarmedForAnEarlierLaunch_doesNotHandThemOver() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest());
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarmedSupportedPaymentMethods = Collections.singletonList(DropInPaymentMethod.PAYPAL);
+        sut.prewarmedVaultedPaymentMethods = new ArrayList<>();
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+
+        assertNull(sut.takePrewarmedVaultedPaymentMethods());
+    }
+
+    @Test
+    public void launchDropInForResult_whenPrewarmed_clearsPrewarmedResults() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest());
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarmedSupportedPaymentMethods = Collections.singletonList(DropInPaymentMethod.PAYPAL);
+        sut.prewarmedVaultedPaymentMethods = new ArrayList<>();
+
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+
+        assertNull(sut.prewarmedSupportedPaymentMethods);
+        assertNull(sut.prewarmedVaultedPaymentMethods);
+    }
+
+    @Test
+    public void prewarm_whenResultsArriveAfterLaunchDropInForResult_doesNotKeepThem() throws JSONException {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        when(braintreeClient.getSessionId()).thenReturn("session-id");
+        when(braintreeClient.getAuthorization()).thenReturn(Authorization.fromString(Fixtures.TOKENIZATION_KEY));
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(dropInRequest);
+
+        DropInClient sut = new DropInClient(params);
+        sut.prewarm(activity);
+        sut.launchDropInForResult(mock(FragmentActivity.class), 123);
+
+        ArgumentCaptor<ConfigurationCallback> captor = ArgumentCaptor.forClass(ConfigurationCallback.class);
+        verify(braintreeClient).getConfiguration(captor.capture());
+        captor.getValue().onResult(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY), null);
+
+        assertNull(sut.prewarmedSupportedPaymentMethods);
+    }
+
+    @Test
+    public void launchDropInForResult_whenNotPrewarmed_doesNotAddPrewarmedResultsToIntentExtras() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient)
+                .dropInRequest(new DropInRequest());
+
+        DropInClient sut = new DropInClient(params);
+
+        FragmentActivity activity = mock(FragmentActivity.class);
+        sut.launchDropInForResult(activity, 123);
+
+        ArgumentCaptor<Intent> captor = ArgumentCaptor.forClass(Intent.class);
+        verify(activity).startActivityForResult(captor.capture(), eq(123));
+
+        Intent intent = captor.getValue();
+        assertFalse(intent.hasExtra(DropInClient.EXTRA_SUPPORTED_PAYMENT_METHODS));
+        assertNull(sut.takePrewarmedVaultedPaymentMethods());
+    }
+
     @Test
     public void getVaultedPaymentMethods_forwardsConfigurationFetchError() {
         Exception configurationError = new Exception("configuration error");
@@ -1482,7 +2475,18 @@ public class DropInClientUnitTest {
                 .configurationError(configurationError)
                 .build();
 
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(new ArrayList<>())
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
         DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
                 .braintreeClient(braintreeClient);
 
         GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
@@ -1504,8 +2508,14 @@ public class DropInClientUnitTest {
                 .getPaymentMethodNoncesError(paymentMethodClientError)
                 .build();
 
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
         DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
                 .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
                 .braintreeClient(braintreeClient);
 
         GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
@@ -1620,6 +2630,228 @@ public class DropInClientUnitTest {
         assertEquals(0, paymentMethodNonces.size());
     }
 
+    @Test
+    public void getVaultedPaymentMethods_runsStagesConcurrently() throws JSONException {
+        Configuration configuration = mockConfiguration(true, true, true, true, true);
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            ConfigurationCallback callback = (ConfigurationCallback) invocation.getArguments()[0];
+            postDelayed(() -> callback.onResult(configuration, null));
+            return null;
+        }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
+
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            GetPaymentMethodNoncesCallback callback = (GetPaymentMethodNoncesCallback) invocation.getArguments()[0];
+            postDelayed(() -> callback.onResult(Collections.singletonList(cardNonce), null));
+            return null;
+        }).when(paymentMethodClient).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+
+        GooglePayClient googlePayClient = createDelayedGooglePayClient();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
+                .paymentMethodClient(paymentMethodClient)
+                .braintreeClient(braintreeClient);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.getVaultedPaymentMethods(activity, callback);
+
+        // sequential stages would need three delays before the callback fires
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(STAGE_DELAY_MS));
+
+        verify(callback).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals(1, paymentMethodNoncesCaptor.getValue().size());
+    }
+
+    @Test
+    public void getSupportedPaymentMethods_runsStagesConcurrently() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL);
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            ConfigurationCallback callback = (ConfigurationCallback) invocation.getArguments()[0];
+            postDelayed(() -> callback.onResult(configuration, null));
+            return null;
+        }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
+
+        GooglePayClient googlePayClient = createDelayedGooglePayClient();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.getSupportedPaymentMethods(activity, callback);
+
+        // sequential stages would need two delays before the callback fires
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(STAGE_DELAY_MS));
+
+        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        assertTrue(paymentMethodTypesCaptor.getValue().contains(DropInPaymentMethod.GOOGLE_PAY));
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whenCalledWhileRequestsInFlight_sharesConfigurationVaultAndGooglePayRequests() throws JSONException {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+        GooglePayClient googlePayClient = mock(GooglePayClient.class);
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient)
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient);
+
+        GetPaymentMethodNoncesCallback firstCallback = mock(GetPaymentMethodNoncesCallback.class);
+        GetPaymentMethodNoncesCallback secondCallback = mock(GetPaymentMethodNoncesCallback.class);
+
+        DropInClient sut = new DropInClient(params);
+        sut.getVaultedPaymentMethods(activity, firstCallback);
+        sut.getVaultedPaymentMethods(activity, secondCallback);
+
+        ArgumentCaptor<ConfigurationCallback> configurationCaptor =
+                ArgumentCaptor.forClass(ConfigurationCallback.class);
+        verify(braintreeClient).getConfiguration(configurationCaptor.capture());
+        ArgumentCaptor<GetPaymentMethodNoncesCallback> nonceRequestCaptor =
+                ArgumentCaptor.forClass(GetPaymentMethodNoncesCallback.class);
+        verify(paymentMethodClient).getPaymentMethodNonces(nonceRequestCaptor.capture());
+        ArgumentCaptor<GooglePayIsReadyToPayCallback> isReadyToPayCaptor =
+                ArgumentCaptor.forClass(GooglePayIsReadyToPayCallback.class);
+        verify(googlePayClient).isReadyToPay(same(activity), isReadyToPayCaptor.capture());
+
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        configurationCaptor.getValue().onResult(mockConfiguration(true, true, true, true, true), null);
+        nonceRequestCaptor.getValue().onResult(Collections.singletonList(cardNonce), null);
+        isReadyToPayCaptor.getValue().onResult(false, null);
+
+        verify(firstCallback).onResult(any(List.class), (Exception) isNull());
+        verify(secondCallback).onResult(any(List.class), (Exception) isNull());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whenCachedAndFresh_doesNotFetchVaultedPaymentMethods() throws JSONException {
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(cardNonce))
+                .build();
+
+        DropInClient sut = createDropInClientWithVaultedPaymentMethodCache(
+                paymentMethodClient, new VaultedPaymentMethodCache(), new DropInRequest());
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getVaultedPaymentMethods(activity, callback);
+        sut.getVaultedPaymentMethods(activity, callback);
+
+        verify(paymentMethodClient).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+        verify(callback, times(2)).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals(1, paymentMethodNoncesCaptor.getValue().size());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whenCachedAndStale_returnsCachedPaymentMethodsAndRevalidates() throws JSONException {
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(cardNonce))
+                .build();
+
+        DropInClock clock = mock(DropInClock.class);
+        when(clock.elapsedRealtime()).thenReturn(0L);
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = new VaultedPaymentMethodCache(clock);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+        dropInRequest.setVaultedPaymentMethodCacheTtl(1000);
+        DropInClient sut = createDropInClientWithVaultedPaymentMethodCache(
+                paymentMethodClient, vaultedPaymentMethodCache, dropInRequest);
+
+        List<DropInStageMetric> metrics = new ArrayList<>();
+        sut.setMetricsListener(metric -> {
+            if (metric.getStage() == DropInStage.VAULTED_PAYMENT_METHODS_FETCH) {
+                metrics.add(metric);
+            }
+        });
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getVaultedPaymentMethods(activity, callback);
+
+        when(clock.elapsedRealtime()).thenReturn(1000L);
+        sut.getVaultedPaymentMethods(activity, callback);
+
+        verify(callback, times(2)).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals(1, paymentMethodNoncesCaptor.getValue().size());
+        verify(paymentMethodClient, times(2)).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+        assertFalse(vaultedPaymentMethodCache.isStale(CUSTOMER_KEY, 1000));
+
+        // a network fetch, the cached read and its revalidation
+        assertEquals(3, metrics.size());
+        assertFalse(metrics.get(0).isServedFromCache());
+        assertTrue(metrics.get(1).isServedFromCache());
+        assertEquals(DropInStageOutcome.SUCCESS, metrics.get(1).getOutcome());
+        assertFalse(metrics.get(2).isServedFromCache());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whenRefetch_bypassesVaultedPaymentMethodCache() throws JSONException {
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(cardNonce))
+                .build();
+
+        DropInClient sut = createDropInClientWithVaultedPaymentMethodCache(
+                paymentMethodClient, new VaultedPaymentMethodCache(), new DropInRequest());
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getVaultedPaymentMethods(activity, callback);
+        sut.getVaultedPaymentMethods(activity, true, callback);
+
+        verify(paymentMethodClient, times(2)).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whenCacheTtlIsZero_fetchesEveryTime() throws JSONException {
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(cardNonce))
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setVaultedPaymentMethodCacheTtl(0);
+        DropInClient sut = createDropInClientWithVaultedPaymentMethodCache(
+                paymentMethodClient, new VaultedPaymentMethodCache(), dropInRequest);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getVaultedPaymentMethods(activity, callback);
+        sut.getVaultedPaymentMethods(activity, callback);
+
+        verify(paymentMethodClient, times(2)).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+    }
+
+    @Test
+    public void onVaultedPaymentMethodConsumed_dropsNonceFromVaultedPaymentMethodCache() {
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .vaultedPaymentMethodCache(vaultedPaymentMethodCache);
+
+        CardNonce cardNonce = mock(CardNonce.class);
+        DropInClient sut = new DropInClient(params);
+        sut.onVaultedPaymentMethodConsumed(cardNonce);
+
+        verify(vaultedPaymentMethodCache).markConsumed(cardNonce);
+    }
+
     @Test
     public void onActivityResult_whenResultCodeVenmo_handlesVenmoResult() {
         VenmoClient venmoClient = mock(VenmoClient.class);
@@ -1777,6 +3009,66 @@ public class DropInClientUnitTest {
         verify(callback).onResult((DropInResult) isNull(), same(error));
     }
 
+    private static DropInClient createDropInClientWithVaultedPaymentMethodCache(
+            PaymentMethodClient paymentMethodClient,
+            VaultedPaymentMethodCache vaultedPaymentMethodCache,
+            DropInRequest dropInRequest
+    ) throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
+                .build();
+
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(false)
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .googlePayClient(googlePayClient)
+                .paymentMethodClient(paymentMethodClient)
+                .vaultedPaymentMethodCache(vaultedPaymentMethodCache);
+        return new DropInClient(params);
+    }
+
+    private static void assertStageMetric(DropInStageMetric metric, DropInStage stage,
+            DropInStageOutcome outcome, long startTime, long durationMillis) {
+        assertEquals(stage, metric.getStage());
+        assertEquals(outcome, metric.getOutcome());
+        assertEquals("session-id", metric.getSessionId());
+        assertEquals(startTime, metric.getStartTime());
+        assertEquals(durationMillis, metric.getDurationMillis());
+    }
+
+    private static class FakeDropInClock extends DropInClock {
+
+        private long now;
+
+        void advance(long millis) {
+            now += millis;
+        }
+
+        @Override
+        long elapsedRealtime() {
+            return now;
+        }
+    }
+
+    private static void postDelayed(Runnable runnable) {
+        new Handler(Looper.getMainLooper()).postDelayed(runnable, STAGE_DELAY_MS);
+    }
+
+    private static GooglePayClient createDelayedGooglePayClient() {
+        GooglePayClient googlePayClient = mock(GooglePayClient.class);
+        doAnswer((Answer<Void>) invocation -> {
+            GooglePayIsReadyToPayCallback callback = (GooglePayIsReadyToPayCallback) invocation.getArguments()[1];
+            postDelayed(() -> callback.onResult(true, null));
+            return null;
+        }).when(googlePayClient).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+        return googlePayClient;
+    }
+
     private Configuration mockConfiguration(boolean paypalEnabled, boolean venmoEnabled,
                                             boolean cardEnabled, boolean googlePayEnabled, boolean unionPayEnabled) {
         Configuration configuration = mock(Configuration.class);
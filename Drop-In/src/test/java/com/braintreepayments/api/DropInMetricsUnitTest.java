@@ -0,0 +1,116 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.management.ManagementFactory;
+
+public class DropInMetricsUnitTest {
+
+    private DropInClock clock;
+    private DropInMetrics sut;
+
+    @Before
+    public void beforeEach() {
+        clock = mock(DropInClock.class);
+        sut = new DropInMetrics(clock);
+    }
+
+    @Test
+    public void end_reportsStageWithSessionIdOutcomeAndDuration() {
+        DropInMetricsListener listener = mock(DropInMetricsListener.class);
+        sut.setListener(listener, "session-id");
+
+        when(clock.elapsedRealtime()).thenReturn(100L);
+        long startTime = sut.start();
+        when(clock.elapsedRealtime()).thenReturn(350L);
+        sut.end(DropInStage.CARD_TOKENIZATION, startTime, (Exception) null);
+
+        ArgumentCaptor<DropInStageMetric> captor = ArgumentCaptor.forClass(DropInStageMetric.class);
+        verify(listener).onStageCompleted(captor.capture());
+
+        DropInStageMetric metric = captor.getValue();
+        assertEquals(DropInStage.CARD_TOKENIZATION, metric.getStage());
+        assertEquals("session-id", metric.getSessionId());
+        assertEquals(DropInStageOutcome.SUCCESS, metric.getOutcome());
+        assertEquals(100L, metric.getStartTime());
+        assertEquals(350L, metric.getEndTime());
+        assertEquals(250L, metric.getDurationMillis());
+    }
+
+    @Test
+    public void end_whenStageWasStartedWithoutListener_doesNotReportStage() {
+        long startTime = sut.start();
+
+        DropInMetricsListener listener = mock(DropInMetricsListener.class);
+        sut.setListener(listener, "session-id");
+        sut.end(DropInStage.CARD_TOKENIZATION, startTime, (Exception) null);
+
+        verify(listener, never()).onStageCompleted(any(DropInStageMetric.class));
+    }
+
+    @Test
+    public void startAndEnd_whenNoListenerIsSet_doNotReadClock() {
+        assertFalse(sut.isEnabled());
+
+        long startTime = sut.start();
+        sut.end(DropInStage.CONFIGURATION_FETCH, startTime, new Exception("error"));
+
+        assertEquals(DropInMetrics.NOT_STARTED, startTime);
+        verifyZeroInteractions(clock);
+    }
+
+    @Test
+    public void startAndEnd_whenNoListenerIsSet_doNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        DropInMetrics metrics = new DropInMetrics(new DropInClock());
+
+        // warm up so class loading is not counted
+        for (int i = 0; i < 10_000; i++) {
+            metrics.end(DropInStage.CONFIGURATION_FETCH, metrics.start(), DropInStageOutcome.SUCCESS);
+        }
+
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            metrics.end(DropInStage.CONFIGURATION_FETCH, metrics.start(), DropInStageOutcome.SUCCESS);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void setListener_withNull_stopsReporting() {
+        DropInMetricsListener listener = mock(DropInMetricsListener.class);
+        sut.setListener(listener, "session-id");
+        assertTrue(sut.isEnabled());
+
+        long startTime = sut.start();
+        sut.setListener(null, null);
+        sut.end(DropInStage.CARD_TOKENIZATION, startTime, (Exception) null);
+
+        assertFalse(sut.isEnabled());
+        verify(listener, never()).onStageCompleted(any(DropInStageMetric.class));
+    }
+
+    @Test
+    public void getOutcome_mapsErrorsToOutcomes() {
+        assertEquals(DropInStageOutcome.SUCCESS, DropInMetrics.getOutcome(null));
+        assertEquals(DropInStageOutcome.FAILURE, DropInMetrics.getOutcome(new Exception("error")));
+        assertEquals(DropInStageOutcome.CANCELED,
+                DropInMetrics.getOutcome(new UserCanceledException("canceled")));
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.TestCase.assertNotNull;
 
@@ -177,6 +178,14 @@ public class DropInRequestUnitTest {
         dropInRequest.setAllowVaultCardOverride(true);
         dropInRequest.setVaultCardDefaultValue(true);
         dropInRequest.setCardholderNameStatus(CardForm.FIELD_OPTIONAL);
+        dropInRequest.setVaultedPaymentMethodCacheTtl(5000);
+
+        DropInRetryPolicy retryPolicy = new DropInRetryPolicy();
+        retryPolicy.setMaxRetries(4);
+        retryPolicy.setInitialBackoff(100);
+        retryPolicy.setMaxBackoff(800);
+        retryPolicy.setHedgingEnabled(true);
+        dropInRequest.setRetryPolicy(retryPolicy);
 
         Parcel parcel = Parcel.obtain();
         dropInRequest.writeToParcel(parcel, 0);
@@ -227,6 +236,21 @@ public class DropInRequestUnitTest {
         assertTrue(parceledDropInRequest.getVaultCardDefaultValue());
         assertTrue(parceledDropInRequest.getAllowVaultCardOverride());
         assertEquals(CardForm.FIELD_OPTIONAL, parceledDropInRequest.getCardholderNameStatus());
+        assertEquals(5000, parceledDropInRequest.getVaultedPaymentMethodCacheTtl());
+        assertEquals(4, parceledDropInRequest.getRetryPolicy().getMaxRetries());
+        assertEquals(100, parceledDropInRequest.getRetryPolicy().getInitialBackoff());
+        assertEquals(800, parceledDropInRequest.getRetryPolicy().getMaxBackoff());
+        assertTrue(parceledDropInRequest.getRetryPolicy().isHedgingEnabled());
+    }
+
+    @Test
+    public void getRetryPolicy_byDefault_neitherRetriesNorHedges() {
+        DropInRetryPolicy retryPolicy = new DropInRequest().getRetryPolicy();
+
+        assertEquals(0, retryPolicy.getMaxRetries());
+        assertEquals(DropInRetryPolicy.DEFAULT_INITIAL_BACKOFF, retryPolicy.getInitialBackoff());
+        assertEquals(DropInRetryPolicy.DEFAULT_MAX_BACKOFF, retryPolicy.getMaxBackoff());
+        assertFalse(retryPolicy.isHedgingEnabled());
     }
 
     @Test
@@ -43,6 +43,17 @@ public class DropInResultUnitTest {
         assertNull(result.getPaymentMethodNonce());
     }
 
+    @Test
+    public void paymentMethod_setsPaymentMethodTypeDescriptionAndNonce() throws JSONException {
+        CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE));
+        DropInResult result = new DropInResult();
+        result.setPaymentMethod(VaultedPaymentMethodDisplay.from(cardNonce, new PaymentMethodInspector()));
+
+        assertEquals(DropInPaymentMethod.VISA, result.getPaymentMethodType());
+        assertEquals("1111", result.getPaymentDescription());
+        assertEquals(cardNonce, result.getPaymentMethodNonce());
+    }
+
     @Test
     public void deviceData_setsDeviceData() {
         DropInResult result = new DropInResult();
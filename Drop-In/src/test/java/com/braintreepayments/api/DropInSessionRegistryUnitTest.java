@@ -0,0 +1,61 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInSessionRegistryUnitTest {
+
+    private DropInClient dropInClient;
+    private DropInSessionRegistry sut;
+
+    @Before
+    public void beforeEach() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        dropInClient = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+        sut = new DropInSessionRegistry();
+    }
+
+    @Test
+    public void get_whenSessionIsRegistered_returnsClient() {
+        sut.register("session-id", dropInClient);
+        assertSame(dropInClient, sut.get("session-id", Fixtures.TOKENIZATION_KEY));
+    }
+
+    @Test
+    public void get_whenSessionIsNotRegistered_returnsNull() {
+        sut.register("session-id", dropInClient);
+        assertNull(sut.get("other-session-id", Fixtures.TOKENIZATION_KEY));
+    }
+
+    @Test
+    public void get_whenAuthorizationDiffers_returnsNull() {
+        sut.register("session-id", dropInClient);
+        assertNull(sut.get("session-id", Fixtures.BASE64_CLIENT_TOKEN));
+    }
+
+    @Test
+    public void get_whenSessionIdIsNull_returnsNull() {
+        sut.register(null, dropInClient);
+        assertNull(sut.get(null, Fixtures.TOKENIZATION_KEY));
+    }
+
+    @Test
+    public void register_whenSessionIsAlreadyRegistered_replacesClient() {
+        DropInClient otherDropInClient = new DropInClient(new DropInClientParams()
+                .braintreeClient(new MockBraintreeClientBuilder()
+                        .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                        .build()));
+
+        sut.register("session-id", dropInClient);
+        sut.register("session-id", otherDropInClient);
+        assertSame(otherDropInClient, sut.get("session-id", Fixtures.TOKENIZATION_KEY));
+    }
+}
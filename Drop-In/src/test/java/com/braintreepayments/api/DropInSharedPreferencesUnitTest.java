@@ -1,20 +1,39 @@
 package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.util.Base64;
 
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
 public class DropInSharedPreferencesUnitTest {
 
+    private static final String SNAPSHOT_KEY = "com.braintreepayments.api.dropin.PAYMENT_METHOD_SNAPSHOT";
+
     private Context context;
+    private DropInClock clock;
 
     private PaymentMethodInspector paymentMethodInspector;
     private BraintreeSharedPreferences braintreeSharedPreferences;
@@ -26,8 +45,10 @@ public class DropInSharedPreferencesUnitTest {
         context = mock(Context.class);
         paymentMethodInspector = mock(PaymentMethodInspector.class);
         braintreeSharedPreferences = mock(BraintreeSharedPreferences.class);
+        clock = mock(DropInClock.class);
+        when(clock.currentTimeMillis()).thenReturn(1000L);
 
-        sut = new DropInSharedPreferences(braintreeSharedPreferences, paymentMethodInspector);
+        sut = new DropInSharedPreferences(braintreeSharedPreferences, paymentMethodInspector, clock);
     }
 
     @Test
@@ -69,4 +90,153 @@ public class DropInSharedPreferencesUnitTest {
         sut.setLastUsedPaymentMethod(context, nonce);
         verifyZeroInteractions(braintreeSharedPreferences);
     }
+
+    @Test
+    public void setPaymentMethodSnapshot_storesDisplayDetailsWithoutCustomerKey() {
+        PaymentMethodNonce nonce = mock(PaymentMethodNonce.class);
+        when(paymentMethodInspector.getPaymentMethod(nonce)).thenReturn(DropInPaymentMethod.VISA);
+        when(paymentMethodInspector.getPaymentMethodDescription(nonce)).thenReturn("4242");
+
+        sut.setPaymentMethodSnapshot(context, "customer-id", nonce);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), captor.capture());
+        String json = captor.getValue();
+        assertEquals(-1, json.indexOf("customer-id"));
+
+        when(braintreeSharedPreferences.getString(context, SNAPSHOT_KEY, null)).thenReturn(json);
+        PaymentMethodSnapshot snapshot = sut.getPaymentMethodSnapshot(context, "customer-id");
+        assertEquals(DropInPaymentMethod.VISA, snapshot.getPaymentMethodType());
+        assertEquals("4242", snapshot.getPaymentDescription());
+        assertEquals(1000L, snapshot.getTimestamp());
+    }
+
+    @Test
+    public void getPaymentMethodSnapshot_whenClientTokenForSameCustomerHasNewFingerprint_returnsSnapshot() throws JSONException {
+        PaymentMethodNonce nonce = mock(PaymentMethodNonce.class);
+        when(paymentMethodInspector.getPaymentMethod(nonce)).thenReturn(DropInPaymentMethod.VISA);
+        when(paymentMethodInspector.getPaymentMethodDescription(nonce)).thenReturn("4242");
+
+        String customerKey = getCustomerKey("eyJhbGciOiJFUzI1NiJ9.first.signature?customer_id=customer-42");
+        sut.setPaymentMethodSnapshot(context, customerKey, nonce);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), captor.capture());
+        when(braintreeSharedPreferences.getString(context, SNAPSHOT_KEY, null)).thenReturn(captor.getValue());
+
+        String nextCustomerKey = getCustomerKey("eyJhbGciOiJFUzI1NiJ9.second.signature?customer_id=customer-42");
+        PaymentMethodSnapshot snapshot = sut.getPaymentMethodSnapshot(context, nextCustomerKey);
+        assertEquals(DropInPaymentMethod.VISA, snapshot.getPaymentMethodType());
+        assertEquals("4242", snapshot.getPaymentDescription());
+
+        String otherCustomerKey = getCustomerKey("eyJhbGciOiJFUzI1NiJ9.third.signature?customer_id=customer-43");
+        assertNull(sut.getPaymentMethodSnapshot(context, otherCustomerKey));
+    }
+
+    @Test
+    public void setPaymentMethodSnapshot_whenPaymentMethodDoesNotExist_doesNotStoreSnapshot() {
+        PaymentMethodNonce nonce = mock(PaymentMethodNonce.class);
+        when(paymentMethodInspector.getPaymentMethod(nonce)).thenReturn(null);
+
+        sut.setPaymentMethodSnapshot(context, "customer-id", nonce);
+        verifyZeroInteractions(braintreeSharedPreferences);
+    }
+
+    @Test
+    public void getPaymentMethodSnapshot_whenSnapshotBelongsToAnotherCustomer_removesSnapshotAndReturnsNull() throws Exception {
+        String json = new PaymentMethodSnapshot(DropInSharedPreferences.hashCustomerKey("customer-a"),
+                DropInPaymentMethod.VISA, "4242", 1000L).toJson();
+        when(braintreeSharedPreferences.getString(context, SNAPSHOT_KEY, null)).thenReturn(json);
+
+        assertNull(sut.getPaymentMethodSnapshot(context, "customer-b"));
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), (String) isNull());
+    }
+
+    @Test
+    public void getPaymentMethodSnapshot_whenSnapshotIsUnreadable_removesSnapshotAndReturnsNull() {
+        when(braintreeSharedPreferences.getString(context, SNAPSHOT_KEY, null)).thenReturn("not json");
+
+        assertNull(sut.getPaymentMethodSnapshot(context, "customer-id"));
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), (String) isNull());
+    }
+
+    @Test
+    public void getPaymentMethodSnapshot_whenNoSnapshotIsStored_returnsNull() {
+        assertNull(sut.getPaymentMethodSnapshot(context, "customer-id"));
+        verify(braintreeSharedPreferences, never()).putString(eq(context), anyString(), anyString());
+    }
+
+    @Test
+    public void revalidatePaymentMethodSnapshot_whenPaymentMethodIsStillVaulted_keepsSnapshot() throws Exception {
+        storeSnapshot("customer-id", DropInPaymentMethod.VISA, "4242");
+        PaymentMethodNonce otherNonce = mockNonce(DropInPaymentMethod.MASTERCARD, "5555");
+        PaymentMethodNonce snapshotNonce = mockNonce(DropInPaymentMethod.VISA, "4242");
+
+        sut.revalidatePaymentMethodSnapshot(context, "customer-id", Arrays.asList(otherNonce, snapshotNonce));
+
+        verify(braintreeSharedPreferences, never()).putString(eq(context), eq(SNAPSHOT_KEY), any(String.class));
+    }
+
+    @Test
+    public void revalidatePaymentMethodSnapshot_whenPaymentMethodWasDeleted_replacesSnapshotWithFirstVaultedPaymentMethod() throws Exception {
+        storeSnapshot("customer-id", DropInPaymentMethod.VISA, "4242");
+        PaymentMethodNonce firstNonce = mockNonce(DropInPaymentMethod.MASTERCARD, "5555");
+        PaymentMethodNonce secondNonce = mockNonce(DropInPaymentMethod.VISA, "1111");
+
+        sut.revalidatePaymentMethodSnapshot(context, "customer-id", Arrays.asList(firstNonce, secondNonce));
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), captor.capture());
+        PaymentMethodSnapshot snapshot = PaymentMethodSnapshot.fromJson(captor.getValue());
+        assertEquals(DropInPaymentMethod.MASTERCARD, snapshot.getPaymentMethodType());
+        assertEquals("5555", snapshot.getPaymentDescription());
+    }
+
+    @Test
+    public void revalidatePaymentMethodSnapshot_whenVaultIsEmpty_removesSnapshot() throws Exception {
+        storeSnapshot("customer-id", DropInPaymentMethod.VISA, "4242");
+
+        sut.revalidatePaymentMethodSnapshot(context, "customer-id", Collections.<PaymentMethodNonce>emptyList());
+
+        verify(braintreeSharedPreferences).putString(eq(context), eq(SNAPSHOT_KEY), (String) isNull());
+    }
+
+    @Test
+    public void revalidatePaymentMethodSnapshot_whenNoSnapshotIsStored_doesNotStoreSnapshot() {
+        PaymentMethodNonce nonce = mockNonce(DropInPaymentMethod.VISA, "4242");
+
+        sut.revalidatePaymentMethodSnapshot(context, "customer-id", Collections.singletonList(nonce));
+
+        verify(braintreeSharedPreferences, never()).putString(eq(context), eq(SNAPSHOT_KEY), any(String.class));
+    }
+
+    @Test
+    public void hashCustomerKey_isStableAndDiffersPerCustomer() {
+        assertEquals(DropInSharedPreferences.hashCustomerKey("customer-a"),
+                DropInSharedPreferences.hashCustomerKey("customer-a"));
+        assertNotEquals(DropInSharedPreferences.hashCustomerKey("customer-a"),
+                DropInSharedPreferences.hashCustomerKey("customer-b"));
+    }
+
+    private static String getCustomerKey(String authorizationFingerprint) throws JSONException {
+        JSONObject clientToken = new JSONObject()
+                .put("configUrl", "https://api.braintreegateway.com:443/merchants/merchant-id/client_api/v1/configuration")
+                .put("authorizationFingerprint", authorizationFingerprint);
+        String encodedClientToken =
+                Base64.encodeToString(clientToken.toString().getBytes(), Base64.NO_WRAP);
+        return VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(encodedClientToken));
+    }
+
+    private void storeSnapshot(String customerKey, DropInPaymentMethod paymentMethod, String description) throws JSONException {
+        String json = new PaymentMethodSnapshot(DropInSharedPreferences.hashCustomerKey(customerKey),
+                paymentMethod, description, 1000L).toJson();
+        when(braintreeSharedPreferences.getString(context, SNAPSHOT_KEY, null)).thenReturn(json);
+    }
+
+    private PaymentMethodNonce mockNonce(DropInPaymentMethod paymentMethod, String description) {
+        PaymentMethodNonce nonce = mock(PaymentMethodNonce.class);
+        when(paymentMethodInspector.getPaymentMethod(nonce)).thenReturn(paymentMethod);
+        when(paymentMethodInspector.getPaymentMethodDescription(nonce)).thenReturn(description);
+        return nonce;
+    }
 }
@@ -0,0 +1,329 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInViewModelUnitTest {
+
+    private static final int PAGE_SIZE = DropInViewModel.VAULTED_PAYMENT_METHODS_PAGE_SIZE;
+
+    private DropInViewModel sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new DropInViewModel();
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_loadsFirstPage() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(PAGE_SIZE * 2 + 5);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+
+        List<PaymentMethodNonce> loaded = sut.getLoadedVaultedPaymentMethods().getValue();
+        assertEquals(PAGE_SIZE, loaded.size());
+        assertSame(paymentMethodNonces.get(0), loaded.get(0));
+        assertSame(paymentMethodNonces, sut.getVaultedPaymentMethods().getValue());
+        assertTrue(sut.hasMoreVaultedPaymentMethods());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_whenFewerThanOnePage_loadsEverything() throws JSONException {
+        sut.setVaultedPaymentMethods(createCardNonces(3));
+
+        assertEquals(3, sut.getLoadedVaultedPaymentMethods().getValue().size());
+        assertFalse(sut.hasMoreVaultedPaymentMethods());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_whenNull_clearsLoadedPaymentMethods() throws JSONException {
+        sut.setVaultedPaymentMethods(createCardNonces(3));
+        sut.setVaultedPaymentMethods(null);
+
+        assertNull(sut.getLoadedVaultedPaymentMethods().getValue());
+        assertFalse(sut.hasMoreVaultedPaymentMethods());
+    }
+
+    @Test
+    public void loadNextVaultedPaymentMethodsPage_appendsPagesUntilExhausted() throws JSONException {
+        sut.setVaultedPaymentMethods(createCardNonces(PAGE_SIZE * 2 + 5));
+
+        sut.loadNextVaultedPaymentMethodsPage();
+        assertEquals(PAGE_SIZE * 2, sut.getLoadedVaultedPaymentMethods().getValue().size());
+
+        sut.loadNextVaultedPaymentMethodsPage();
+        assertEquals(PAGE_SIZE * 2 + 5, sut.getLoadedVaultedPaymentMethods().getValue().size());
+        assertFalse(sut.hasMoreVaultedPaymentMethods());
+
+        sut.loadNextVaultedPaymentMethodsPage();
+        assertEquals(PAGE_SIZE * 2 + 5, sut.getLoadedVaultedPaymentMethods().getValue().size());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_resetsToFirstPage() throws JSONException {
+        sut.setVaultedPaymentMethods(createCardNonces(PAGE_SIZE * 3));
+        sut.loadNextVaultedPaymentMethodsPage();
+
+        sut.setVaultedPaymentMethods(createCardNonces(PAGE_SIZE * 3));
+
+        assertEquals(PAGE_SIZE, sut.getLoadedVaultedPaymentMethods().getValue().size());
+    }
+
+    @Test
+    public void removeVaultedPaymentMethodNonce_keepsLoadedPages() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(PAGE_SIZE * 3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        sut.loadNextVaultedPaymentMethodsPage();
+
+        sut.removeVaultedPaymentMethodNonce(paymentMethodNonces.get(0));
+
+        List<PaymentMethodNonce> loaded = sut.getLoadedVaultedPaymentMethods().getValue();
+        assertEquals(PAGE_SIZE * 2, loaded.size());
+        assertSame(paymentMethodNonces.get(1), loaded.get(0));
+        assertEquals(PAGE_SIZE * 3 - 1, sut.getVaultedPaymentMethods().getValue().size());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_computesDisplaysOnce() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+
+        VaultedPaymentMethodDisplay display = sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(1));
+        assertSame(paymentMethodNonces.get(1), display.getPaymentMethodNonce());
+        assertEquals(DropInPaymentMethod.VISA, display.getPaymentMethodType());
+        assertEquals("1111", display.getDescription());
+
+        assertSame(display, sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(1)));
+        assertSame(display, sut.getVaultedPaymentMethodDisplays(paymentMethodNonces).get(1));
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_replacesDisplaysOfPreviousVault() throws JSONException {
+        List<PaymentMethodNonce> previousVault = createCardNonces(1);
+        sut.setVaultedPaymentMethods(previousVault);
+        VaultedPaymentMethodDisplay previousDisplay = sut.getVaultedPaymentMethodDisplay(previousVault.get(0));
+
+        // a refetched vault has new nonce objects with the same nonce strings
+        List<PaymentMethodNonce> vault = createCardNonces(1);
+        sut.setVaultedPaymentMethods(vault);
+
+        VaultedPaymentMethodDisplay display = sut.getVaultedPaymentMethodDisplay(vault.get(0));
+        assertNotSame(previousDisplay, display);
+        assertSame(vault.get(0), display.getPaymentMethodNonce());
+    }
+
+    @Test
+    public void removeVaultedPaymentMethodNonce_removesDisplay() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(2);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultedPaymentMethodDisplay display = sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(0));
+
+        sut.removeVaultedPaymentMethodNonce(paymentMethodNonces.get(0));
+
+        VaultedPaymentMethodDisplay deletedDisplay = sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(0));
+        assertNotSame(display, deletedDisplay);
+        assertSame(paymentMethodNonces.get(0), deletedDisplay.getPaymentMethodNonce());
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_hidesPaymentMethodsWhileTheyAreDeleted() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(1, 2), deleter);
+
+        assertTrue(sut.hasPendingVaultDeletions());
+        List<PaymentMethodNonce> vaultedPaymentMethods = sut.getVaultedPaymentMethods().getValue();
+        assertEquals(2, vaultedPaymentMethods.size());
+        assertSame(paymentMethodNonces.get(0), vaultedPaymentMethods.get(0));
+        assertSame(paymentMethodNonces.get(2), vaultedPaymentMethods.get(1));
+        assertEquals(vaultedPaymentMethods, sut.getLoadedVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_whenDeletesCompleteOutOfOrder_removesEachDeletedPaymentMethod() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(4);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 1), deleter);
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(2, 3), deleter);
+
+        deleter.succeed(1);
+        assertEquals(Arrays.asList(paymentMethodNonces.get(1), paymentMethodNonces.get(3)),
+                sut.getVaultedPaymentMethods().getValue());
+
+        deleter.succeed(0);
+        assertFalse(sut.hasPendingVaultDeletions());
+        assertEquals(Arrays.asList(paymentMethodNonces.get(1), paymentMethodNonces.get(3)),
+                sut.getVaultedPaymentMethods().getValue());
+
+        // a refetched vault no longer contains them, so nothing is left hidden
+        sut.setVaultedPaymentMethods(Arrays.asList(paymentMethodNonces.get(1), paymentMethodNonces.get(3)));
+        assertEquals(2, sut.getVaultedPaymentMethods().getValue().size());
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_whenDeleteFailsAfterALaterOneSucceeds_restoresPaymentMethodInOriginalPosition() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(4);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultedPaymentMethodDisplay display = sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(2));
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(2, 3), deleter);
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 1), deleter);
+
+        deleter.succeed(1);
+        deleter.failToDelete(0);
+
+        assertEquals(Arrays.asList(paymentMethodNonces.get(1), paymentMethodNonces.get(2), paymentMethodNonces.get(3)),
+                sut.getVaultedPaymentMethods().getValue());
+        assertSame(display, sut.getVaultedPaymentMethodDisplay(paymentMethodNonces.get(2)));
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_whenRequestFails_restoresEveryPaymentMethodOfTheRequest() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 2), deleter);
+        deleter.fail(0, new Exception("error"));
+
+        assertEquals(paymentMethodNonces, sut.getVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_whileDeleteIsPending_keepsPaymentMethodHiddenUntilDeleteFails() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(1, 2), deleter);
+
+        // a refetched vault has new nonce objects with the same nonce strings
+        List<PaymentMethodNonce> refetchedVault = createCardNonces(3);
+        sut.setVaultedPaymentMethods(refetchedVault);
+        assertEquals(Arrays.asList(refetchedVault.get(0), refetchedVault.get(2)),
+                sut.getVaultedPaymentMethods().getValue());
+
+        deleter.failToDelete(0);
+        assertEquals(refetchedVault, sut.getVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_whenRefetchedVaultHasNewNonces_keepsPaymentMethodHiddenUntilItIsDeleted() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = Arrays.asList(createCardNonce("card-nonce-0", "1111"),
+                createCardNonce("card-nonce-1", "2222"), createCardNonce("card-nonce-2", "3333"));
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(1, 2), deleter);
+
+        // nonces change every time the vault is fetched
+        List<PaymentMethodNonce> refetchedVault = Arrays.asList(createCardNonce("refetched-nonce-0", "1111"),
+                createCardNonce("refetched-nonce-1", "2222"), createCardNonce("refetched-nonce-2", "3333"));
+        sut.setVaultedPaymentMethods(refetchedVault);
+        assertEquals(Arrays.asList(refetchedVault.get(0), refetchedVault.get(2)),
+                sut.getVaultedPaymentMethods().getValue());
+
+        sut.deleteVaultedPaymentMethodNonces(refetchedVault.subList(1, 2), deleter);
+        assertEquals(1, deleter.requests.size());
+
+        deleter.succeed(0);
+        assertFalse(sut.hasPendingVaultDeletions());
+        assertEquals(Arrays.asList(refetchedVault.get(0), refetchedVault.get(2)),
+                sut.getVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void setVaultedPaymentMethods_whenRefetchedVaultHasLookAlikePaymentMethods_hidesAsManyAsAreBeingDeleted() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = Arrays.asList(createCardNonce("card-nonce-0", "1111"),
+                createCardNonce("card-nonce-1", "1111"), createCardNonce("card-nonce-2", "1111"));
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(1, 3), deleter);
+
+        List<PaymentMethodNonce> refetchedVault = Arrays.asList(createCardNonce("refetched-nonce-0", "1111"),
+                createCardNonce("refetched-nonce-1", "1111"), createCardNonce("refetched-nonce-2", "1111"));
+        sut.setVaultedPaymentMethods(refetchedVault);
+        assertEquals(1, sut.getVaultedPaymentMethods().getValue().size());
+
+        deleter.failToDelete(0);
+        assertEquals(refetchedVault, sut.getVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_keepsResultsUntilTheyAreTaken() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(3);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 1), deleter);
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(1, 3), deleter);
+
+        DeletePaymentMethodNoncesResult secondResult = deleter.succeed(1);
+        Exception error = new Exception("error");
+        deleter.fail(0, error);
+
+        List<VaultDeletionResult> results = sut.getVaultDeletionResults().getValue();
+        assertEquals(2, results.size());
+        assertSame(secondResult, results.get(0).getResult());
+        assertEquals(paymentMethodNonces.subList(1, 3), results.get(0).getPaymentMethodNonces());
+        assertNull(results.get(1).getResult());
+        assertSame(error, results.get(1).getError());
+
+        assertEquals(results, sut.takeVaultDeletionResults());
+        assertTrue(sut.getVaultDeletionResults().getValue().isEmpty());
+        assertTrue(sut.takeVaultDeletionResults().isEmpty());
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethodNonces_whenPaymentMethodIsAlreadyBeingDeleted_sendsOneRequest() throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = createCardNonces(2);
+        sut.setVaultedPaymentMethods(paymentMethodNonces);
+        VaultDeletionQueueUnitTest.RecordingDeleter deleter = new VaultDeletionQueueUnitTest.RecordingDeleter();
+
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 1), deleter);
+        sut.deleteVaultedPaymentMethodNonces(paymentMethodNonces.subList(0, 1), deleter);
+
+        assertEquals(1, deleter.requests.size());
+        assertEquals(paymentMethodNonces.subList(1, 2), sut.getVaultedPaymentMethods().getValue());
+    }
+
+    @Test
+    public void getFirstPage_returnsAtMostOnePage() throws JSONException {
+        assertEquals(PAGE_SIZE, DropInViewModel.getFirstPage(createCardNonces(PAGE_SIZE * 2)).size());
+        assertEquals(2, DropInViewModel.getFirstPage(createCardNonces(2)).size());
+    }
+
+    private static PaymentMethodNonce createCardNonce(String nonce, String lastFour) throws JSONException {
+        JSONObject json = new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD);
+        json.put("nonce", nonce);
+        json.getJSONObject("details").put("lastFour", lastFour);
+        return CardNonce.fromJSON(json);
+    }
+
+    static List<PaymentMethodNonce> createCardNonces(int count) throws JSONException {
+        List<PaymentMethodNonce> paymentMethodNonces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JSONObject json = new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD);
+            json.put("nonce", "card-nonce-" + i);
+            paymentMethodNonces.add(CardNonce.fromJSON(json));
+        }
+        return paymentMethodNonces;
+    }
+}
@@ -0,0 +1,295 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(RobolectricTestRunner.class)
+public class FetchRetrierUnitTest {
+
+    private static final int MAX_RETRIES = 2;
+
+    private FakeClock clock;
+    private FakeScheduler scheduler;
+    private FetchRetrier sut;
+
+    private List<SingleFlight.Callback<String>> startedRequests;
+
+    @Before
+    public void beforeEach() {
+        clock = new FakeClock();
+        scheduler = new FakeScheduler();
+        sut = new FetchRetrier(clock, scheduler, new Random(1));
+        startedRequests = new ArrayList<>();
+    }
+
+    @Test
+    public void fetch_whenTransientErrorIsFollowedBySuccess_retriesAfterBackoffAndDeliversResult() {
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(createRetryPolicy(), "key", startedRequests::add, callback);
+
+        startedRequests.get(0).onResult(null, new ServiceUnavailableException("unavailable"));
+        verify(callback, never()).onResult(anyString(), any(Exception.class));
+        assertEquals(1, scheduler.tasks.size());
+        long backoff = scheduler.delays.get(0);
+        assertTrue(backoff >= DropInRetryPolicy.DEFAULT_INITIAL_BACKOFF / 2);
+        assertTrue(backoff <= DropInRetryPolicy.DEFAULT_INITIAL_BACKOFF);
+
+        scheduler.runNext();
+        assertEquals(2, startedRequests.size());
+
+        startedRequests.get(1).onResult("result", null);
+        verify(callback).onResult("result", null);
+    }
+
+    @Test
+    public void fetch_whenErrorIsNotTransient_deliversErrorWithoutRetrying() {
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(createRetryPolicy(), "key", startedRequests::add, callback);
+
+        Exception error = new BraintreeException("unauthorized");
+        startedRequests.get(0).onResult(null, error);
+
+        verify(callback).onResult(null, error);
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void fetch_whenRetriesAreExhausted_deliversLastError() {
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(createRetryPolicy(), "key", startedRequests::add, callback);
+
+        for (int i = 0; i < MAX_RETRIES; i++) {
+            startedRequests.get(i).onResult(null, new ServerException("server error"));
+            scheduler.runNext();
+        }
+        Exception lastError = new ServerException("server error");
+        startedRequests.get(MAX_RETRIES).onResult(null, lastError);
+
+        assertEquals(MAX_RETRIES + 1, startedRequests.size());
+        verify(callback).onResult(null, lastError);
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void fetch_byDefault_deliversTransientErrorWithoutRetrying() {
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(new DropInRetryPolicy(), "key", startedRequests::add, callback);
+
+        Exception error = new ServiceUnavailableException("unavailable");
+        startedRequests.get(0).onResult(null, error);
+
+        verify(callback).onResult(null, error);
+        assertEquals(1, startedRequests.size());
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void getBackoff_doublesWithEveryRetryWithJitterAndIsCapped() {
+        DropInRetryPolicy policy = new DropInRetryPolicy();
+        policy.setInitialBackoff(100);
+        policy.setMaxBackoff(1000);
+
+        long[] expectedCaps = {100, 200, 400, 800, 1000, 1000};
+        for (int retry = 1; retry <= expectedCaps.length; retry++) {
+            long cap = expectedCaps[retry - 1];
+            for (int i = 0; i < 20; i++) {
+                long backoff = sut.getBackoff(policy, retry);
+                assertTrue(backoff >= cap / 2);
+                assertTrue(backoff <= cap);
+            }
+        }
+    }
+
+    @Test
+    public void getHedgeDelay_returnsP95OfRecentSuccessfulFetches() {
+        assertEquals(-1, sut.getHedgeDelay("key"));
+
+        for (int i = 1; i <= 20; i++) {
+            completeFetch("key", 100 + i * 10);
+        }
+
+        assertEquals(290, sut.getHedgeDelay("key"));
+        assertEquals(-1, sut.getHedgeDelay("other-key"));
+    }
+
+    @Test
+    public void getHedgeDelay_whenTooFewFetchesHaveCompleted_returnsNegativeOne() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES - 1; i++) {
+            completeFetch("key", 100);
+        }
+        assertEquals(-1, sut.getHedgeDelay("key"));
+
+        completeFetch("key", 100);
+        assertEquals(100, sut.getHedgeDelay("key"));
+    }
+
+    @Test
+    public void getHedgeDelay_ignoresFetchesAnsweredFromCache() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 0);
+            completeFetch("key", FetchRetrier.MIN_NETWORK_LATENCY_MS - 1);
+        }
+        assertEquals(-1, sut.getHedgeDelay("key"));
+
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 300);
+        }
+        assertEquals(300, sut.getHedgeDelay("key"));
+    }
+
+    @Test
+    public void getHedgeDelay_whenRecentFetchesWereFast_returnsMinHedgeDelay() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", FetchRetrier.MIN_NETWORK_LATENCY_MS);
+        }
+        assertEquals(FetchRetrier.MIN_HEDGE_DELAY_MS, sut.getHedgeDelay("key"));
+    }
+
+    @Test
+    public void fetch_whenHedgingEnabledAndRequestIsSlow_startsDuplicateAtP95AndDeliversFirstResultOnce() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 100);
+        }
+        startedRequests.clear();
+
+        DropInRetryPolicy policy = new DropInRetryPolicy();
+        policy.setHedgingEnabled(true);
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(policy, "key", startedRequests::add, callback);
+
+        assertEquals(1, startedRequests.size());
+        assertEquals(Long.valueOf(100), scheduler.delays.get(0));
+
+        scheduler.runNext();
+        assertEquals(2, startedRequests.size());
+
+        startedRequests.get(1).onResult("hedged", null);
+        startedRequests.get(0).onResult("original", null);
+
+        verify(callback).onResult("hedged", null);
+        verify(callback, times(1)).onResult(anyString(), (Exception) isNull());
+    }
+
+    @Test
+    public void fetch_whenHedgingEnabledAndRequestAnswersBeforeP95_doesNotStartDuplicate() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 100);
+        }
+        startedRequests.clear();
+
+        DropInRetryPolicy policy = new DropInRetryPolicy();
+        policy.setHedgingEnabled(true);
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(policy, "key", startedRequests::add, callback);
+
+        startedRequests.get(0).onResult("result", null);
+        scheduler.runNext();
+
+        assertEquals(1, startedRequests.size());
+        verify(callback).onResult("result", null);
+    }
+
+    @Test
+    public void fetch_whenOneHedgedCopyFails_waitsForTheOther() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 100);
+        }
+        startedRequests.clear();
+
+        DropInRetryPolicy policy = new DropInRetryPolicy();
+        policy.setHedgingEnabled(true);
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(policy, "key", startedRequests::add, callback);
+        scheduler.runNext();
+
+        startedRequests.get(0).onResult(null, new ServiceUnavailableException("unavailable"));
+        verify(callback, never()).onResult(anyString(), any(Exception.class));
+        assertTrue(scheduler.tasks.isEmpty());
+
+        startedRequests.get(1).onResult("result", null);
+        verify(callback).onResult("result", null);
+    }
+
+    @Test
+    public void fetch_whenHedgingDisabled_neverStartsDuplicate() {
+        for (int i = 0; i < FetchRetrier.MIN_HEDGE_SAMPLES; i++) {
+            completeFetch("key", 100);
+        }
+        startedRequests.clear();
+
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(new DropInRetryPolicy(), "key", startedRequests::add, callback);
+
+        assertTrue(scheduler.tasks.isEmpty());
+        assertEquals(1, startedRequests.size());
+    }
+
+    @Test
+    public void isTransient_onlyIncludesUnavailableServerAndNetworkErrors() {
+        assertTrue(FetchRetrier.isTransient(new ServiceUnavailableException("unavailable")));
+        assertTrue(FetchRetrier.isTransient(new ServerException("server error")));
+        assertTrue(FetchRetrier.isTransient(new SocketTimeoutException()));
+        assertFalse(FetchRetrier.isTransient(new BraintreeException("unauthorized")));
+        assertFalse(FetchRetrier.isTransient(new Exception("error")));
+    }
+
+    private static DropInRetryPolicy createRetryPolicy() {
+        DropInRetryPolicy policy = new DropInRetryPolicy();
+        policy.setMaxRetries(MAX_RETRIES);
+        return policy;
+    }
+
+    private void completeFetch(String key, long latency) {
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.fetch(new DropInRetryPolicy(), key, startedRequests::add, callback);
+        clock.now += latency;
+        startedRequests.get(startedRequests.size() - 1).onResult("result", null);
+        verify(callback).onResult(same("result"), (Exception) isNull());
+    }
+
+    private static class FakeClock extends DropInClock {
+
+        long now = 1000;
+
+        @Override
+        long elapsedRealtime() {
+            return now;
+        }
+    }
+
+    private static class FakeScheduler implements FetchRetrier.Scheduler {
+
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            tasks.add(task);
+            delays.add(delayMillis);
+        }
+
+        void runNext() {
+            delays.remove(0);
+            tasks.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+
+@RunWith(RobolectricTestRunner.class)
+public class FrameTrackerUnitTest {
+
+    private static final long FRAME_INTERVAL_NANOS = 16_666_667L;
+
+    private FakeClock clock;
+    private FrameTracker sut;
+
+    @Before
+    public void beforeEach() {
+        clock = new FakeClock();
+        sut = new FrameTracker(Choreographer.getInstance(), clock, FRAME_INTERVAL_NANOS);
+    }
+
+    @Test
+    public void doFrame_whenFramesArriveEveryInterval_dropsNoFrames() {
+        sut.start();
+        for (int i = 1; i <= 10; i++) {
+            sut.doFrame(i * FRAME_INTERVAL_NANOS);
+        }
+        clock.now += 180_000_000L;
+        sut.stop();
+
+        assertEquals(10, sut.getFrameCount());
+        assertEquals(0, sut.getDroppedFrameCount());
+        assertEquals(FRAME_INTERVAL_NANOS, sut.getWorstFrameDurationNanos());
+        assertEquals(180_000_000L, sut.getDurationNanos());
+    }
+
+    @Test
+    public void doFrame_whenAFrameTakesThreeIntervals_countsTwoDroppedFrames() {
+        sut.start();
+        sut.doFrame(FRAME_INTERVAL_NANOS);
+        sut.doFrame(2 * FRAME_INTERVAL_NANOS);
+        sut.doFrame(5 * FRAME_INTERVAL_NANOS);
+        sut.doFrame(6 * FRAME_INTERVAL_NANOS);
+        sut.stop();
+
+        assertEquals(4, sut.getFrameCount());
+        assertEquals(2, sut.getDroppedFrameCount());
+        assertEquals(3 * FRAME_INTERVAL_NANOS, sut.getWorstFrameDurationNanos());
+    }
+
+    @Test
+    public void doFrame_afterStop_isIgnored() {
+        sut.start();
+        sut.doFrame(FRAME_INTERVAL_NANOS);
+        sut.stop();
+        sut.doFrame(10 * FRAME_INTERVAL_NANOS);
+
+        assertFalse(sut.isTracking());
+        assertEquals(1, sut.getFrameCount());
+        assertEquals(0, sut.getDroppedFrameCount());
+    }
+
+    @Test
+    public void start_resetsPreviousMeasurement() {
+        sut.start();
+        sut.doFrame(FRAME_INTERVAL_NANOS);
+        sut.doFrame(4 * FRAME_INTERVAL_NANOS);
+        sut.stop();
+
+        sut.start();
+        sut.doFrame(10 * FRAME_INTERVAL_NANOS);
+        sut.stop();
+
+        assertEquals(1, sut.getFrameCount());
+        assertEquals(0, sut.getDroppedFrameCount());
+        assertEquals(0, sut.getWorstFrameDurationNanos());
+    }
+
+    @Test
+    public void start_receivesChoreographerFramesUntilStopped() {
+        FrameTracker tracker = new FrameTracker(Choreographer.getInstance(), new DropInClock(), FRAME_INTERVAL_NANOS);
+        tracker.start();
+        assertTrue(tracker.isTracking());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(200));
+        tracker.stop();
+        int frameCount = tracker.getFrameCount();
+        assertTrue(frameCount > 0);
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(200));
+        assertEquals(frameCount, tracker.getFrameCount());
+    }
+
+    @Test
+    public void getFrameIntervalNanos_whenViewIsNotAttached_assumesSixtyHertz() {
+        View view = new View(ApplicationProvider.getApplicationContext());
+        assertEquals(16_666_666L, FrameTracker.getFrameIntervalNanos(view));
+    }
+
+    private static class FakeClock extends DropInClock {
+
+        long now;
+
+        @Override
+        long nanoTime() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyClientUnitTest {
+
+    @Test
+    public void constructor_doesNotCreateClient() {
+        AtomicInteger createCount = new AtomicInteger();
+        LazyClient<Object> sut = new LazyClient<>(null, () -> {
+            createCount.incrementAndGet();
+            return new Object();
+        });
+
+        assertFalse(sut.isCreated());
+        assertEquals(0, createCount.get());
+    }
+
+    @Test
+    public void get_createsClientOnce() {
+        AtomicInteger createCount = new AtomicInteger();
+        LazyClient<Object> sut = new LazyClient<>(null, () -> {
+            createCount.incrementAndGet();
+            return new Object();
+        });
+
+        Object client = sut.get();
+
+        assertSame(client, sut.get());
+        assertTrue(sut.isCreated());
+        assertEquals(1, createCount.get());
+    }
+
+    @Test
+    public void get_whenClientProvided_returnsItWithoutCreatingOne() {
+        Object providedClient = new Object();
+        LazyClient<Object> sut = new LazyClient<>(providedClient, () -> {
+            throw new AssertionError("client should not be created");
+        });
+
+        assertSame(providedClient, sut.get());
+    }
+}
@@ -0,0 +1,190 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Looper;
+
+import androidx.fragment.app.FragmentActivity;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodCapabilityCacheUnitTest {
+
+    private Context context;
+    private FragmentActivity activity;
+    private DropInClock clock;
+    private List<Runnable> backgroundTasks;
+
+    private PaymentMethodCapabilityCache sut;
+
+    @Before
+    public void beforeEach() {
+        context = ApplicationProvider.getApplicationContext();
+        activity = Robolectric.buildActivity(FragmentActivity.class).get();
+        clock = mock(DropInClock.class);
+        when(clock.elapsedRealtime()).thenReturn(0L);
+        backgroundTasks = new ArrayList<>();
+
+        sut = new PaymentMethodCapabilityCache(clock, backgroundTasks::add, Runnable::run);
+    }
+
+    @Test
+    public void isReadyToPay_whenCached_doesNotProbeGooglePayAgain() {
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        GooglePayIsReadyToPayCallback callback = mock(GooglePayIsReadyToPayCallback.class);
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), callback);
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), callback);
+
+        verify(googlePayClient).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+        verify(callback, times(2)).onResult(true, null);
+    }
+
+    @Test
+    public void isReadyToPay_whenCached_doesNotCreateGooglePayClient() {
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), mock(GooglePayIsReadyToPayCallback.class));
+
+        LazyClient<GooglePayClient> uncreatedGooglePayClient = new LazyClient<>(null, () -> googlePayClient);
+        GooglePayIsReadyToPayCallback callback = mock(GooglePayIsReadyToPayCallback.class);
+        sut.isReadyToPay(activity, "merchant", uncreatedGooglePayClient, callback);
+
+        assertFalse(uncreatedGooglePayClient.isCreated());
+        verify(callback).onResult(true, null);
+    }
+
+    @Test
+    public void isReadyToPay_whenTimeToLiveExpires_probesGooglePayAgain() {
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), mock(GooglePayIsReadyToPayCallback.class));
+        when(clock.elapsedRealtime()).thenReturn(PaymentMethodCapabilityCache.GOOGLE_PAY_READINESS_TTL_MS);
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), mock(GooglePayIsReadyToPayCallback.class));
+
+        verify(googlePayClient, times(2)).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+    }
+
+    @Test
+    public void isReadyToPay_isScopedToMerchant() {
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), mock(GooglePayIsReadyToPayCallback.class));
+        sut.isReadyToPay(activity, "other-merchant", lazy(googlePayClient), mock(GooglePayIsReadyToPayCallback.class));
+
+        verify(googlePayClient, times(2)).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+    }
+
+    @Test
+    public void isReadyToPay_whenProbeFails_doesNotCacheResult() {
+        Exception error = new Exception("error");
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPayError(error)
+                .build();
+
+        GooglePayIsReadyToPayCallback callback = mock(GooglePayIsReadyToPayCallback.class);
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), callback);
+        sut.isReadyToPay(activity, "merchant", lazy(googlePayClient), callback);
+
+        verify(googlePayClient, times(2)).isReadyToPay(any(FragmentActivity.class), any(GooglePayIsReadyToPayCallback.class));
+        verify(callback, times(2)).onResult(false, error);
+    }
+
+    @Test
+    public void isVenmoAppSwitchAvailable_queriesPackageManagerOnBackgroundExecutor() {
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(true)
+                .build();
+
+        PaymentMethodCapabilityCache.VenmoAvailabilityCallback callback =
+                mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class);
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), callback);
+
+        verify(venmoClient, never()).isVenmoAppSwitchAvailable(any(Context.class));
+        assertEquals(1, backgroundTasks.size());
+
+        backgroundTasks.get(0).run();
+        verify(venmoClient).isVenmoAppSwitchAvailable(any(Context.class));
+        verify(callback).onResult(true);
+    }
+
+    @Test
+    public void isVenmoAppSwitchAvailable_whenCached_answersImmediately() {
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(true)
+                .build();
+
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class));
+        backgroundTasks.get(0).run();
+
+        PaymentMethodCapabilityCache.VenmoAvailabilityCallback callback =
+                mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class);
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), callback);
+
+        assertEquals(1, backgroundTasks.size());
+        verify(callback).onResult(true);
+    }
+
+    @Test
+    public void isVenmoAppSwitchAvailable_whenPackageAdded_queriesPackageManagerAgain() {
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(false)
+                .build();
+
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class));
+        backgroundTasks.get(0).run();
+
+        Intent packageAdded = new Intent(Intent.ACTION_PACKAGE_ADDED, Uri.parse("package:com.venmo"));
+        context.sendBroadcast(packageAdded);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class));
+        assertEquals(2, backgroundTasks.size());
+    }
+
+    @Test
+    public void isVenmoAppSwitchAvailable_whenInvalidatedDuringQuery_doesNotCacheResult() {
+        VenmoClient venmoClient = new MockVenmoClientBuilder()
+                .isVenmoAppInstalled(false)
+                .build();
+
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class));
+        sut.invalidateVenmoAvailability();
+        backgroundTasks.get(0).run();
+
+        sut.isVenmoAppSwitchAvailable(context, lazy(venmoClient), mock(PaymentMethodCapabilityCache.VenmoAvailabilityCallback.class));
+        assertTrue(backgroundTasks.size() > 1);
+    }
+
+    private static <T> LazyClient<T> lazy(T client) {
+        return new LazyClient<>(client, () -> client);
+    }
+}
@@ -5,6 +5,7 @@ import android.content.Context;
 
 import androidx.test.core.app.ApplicationProvider;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,10 +15,12 @@ import org.mockito.Captor;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -395,4 +398,141 @@ public class PaymentMethodClientUnitTest {
         assertEquals("test-session-id", metadata.getString("sessionId"));
         assertEquals("client", metadata.getString("source"));
     }
+
+    @Test
+    public void deletePaymentMethods_withTwentyPaymentMethods_sendsOneGraphQLRequest() throws JSONException {
+        FakeGateway gateway = new FakeGateway(null, null);
+        BraintreeClient braintreeClient =
+                gateway.createBraintreeClient(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN));
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        List<PaymentMethodNonce> paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(20);
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(context, paymentMethodNonces, callback);
+
+        assertEquals(1, gateway.getGraphQLRequestCount());
+        assertEquals(1, gateway.getRequestCount());
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals(paymentMethodNonces, captor.getValue().getDeletedNonces());
+        assertTrue(captor.getValue().getFailures().isEmpty());
+    }
+
+    @Test
+    public void deletePaymentMethods_sendsAliasedMutationPerPaymentMethod() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("test-session-id")
+                .integration("test-integration")
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        List<PaymentMethodNonce> paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(2);
+        sut.deletePaymentMethods(context, paymentMethodNonces, mock(DeletePaymentMethodNoncesCallback.class));
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+
+        JSONObject graphQlRequest = new JSONObject(captor.getValue());
+        String query = graphQlRequest.getString(GraphQLConstants.Keys.QUERY);
+        assertTrue(query.startsWith("mutation DeletePaymentMethodsFromSingleUseTokens("
+                + "$input0: DeletePaymentMethodFromSingleUseTokenInput!, "
+                + "$input1: DeletePaymentMethodFromSingleUseTokenInput!)"));
+        assertTrue(query.contains("delete0: deletePaymentMethodFromSingleUseToken(input: $input0)"));
+        assertTrue(query.contains("delete1: deletePaymentMethodFromSingleUseToken(input: $input1)"));
+        assertEquals("DeletePaymentMethodsFromSingleUseTokens",
+                graphQlRequest.getString(GraphQLConstants.Keys.OPERATION_NAME));
+
+        JSONObject variables = graphQlRequest.getJSONObject("variables");
+        assertEquals("card-nonce-0", variables.getJSONObject("input0").getString("singleUseTokenId"));
+        assertEquals("card-nonce-1", variables.getJSONObject("input1").getString("singleUseTokenId"));
+
+        JSONObject metadata = graphQlRequest.getJSONObject("clientSdkMetadata");
+        assertEquals("test-integration", metadata.getString("integration"));
+        assertEquals("test-session-id", metadata.getString("sessionId"));
+    }
+
+    @Test
+    public void deletePaymentMethods_whenSomeMutationsFail_reportsResultPerPaymentMethod() throws JSONException {
+        String response = "{" +
+                "\"data\": {\"delete0\": {\"clientMutationId\": null}, \"delete1\": null}," +
+                "\"errors\": [{\"message\": \"Cannot delete payment method\", \"path\": [\"delete1\"]}]" +
+                "}";
+        ErrorWithResponse error = ErrorWithResponse.fromGraphQLJson(response);
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTErrorResponse(error)
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        List<PaymentMethodNonce> paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(2);
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(context, paymentMethodNonces, callback);
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DeletePaymentMethodNoncesResult result = captor.getValue();
+        assertEquals(1, result.getDeletedNonces().size());
+        assertSame(paymentMethodNonces.get(0), result.getDeletedNonces().get(0));
+        assertEquals(1, result.getFailures().size());
+        assertSame(paymentMethodNonces.get(1), result.getFailures().get(0).getPaymentMethodNonce());
+        verify(braintreeClient).sendAnalyticsEvent("delete-payment-methods.failed");
+    }
+
+    @Test
+    public void deletePaymentMethods_whenRequestFails_reportsEveryPaymentMethodAsFailed() throws JSONException {
+        Exception error = new UnexpectedException("Error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTErrorResponse(error)
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(context, DropInViewModelUnitTest.createCardNonces(3), callback);
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DeletePaymentMethodNoncesResult result = captor.getValue();
+        assertTrue(result.getDeletedNonces().isEmpty());
+        assertEquals(3, result.getFailures().size());
+        assertSame(error, result.getFailures().get(0).getCause());
+    }
+
+    @Test
+    public void deletePaymentMethods_withTokenizationKey_returnsErrorWithoutSendingRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(context, DropInViewModelUnitTest.createCardNonces(2), callback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).onResult((DeletePaymentMethodNoncesResult) isNull(), captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+        verify(braintreeClient, never()).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void deletePaymentMethods_withNoPaymentMethods_doesNotSendRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorization(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(context, new ArrayList<>(), callback);
+
+        verify(callback).onResult(any(DeletePaymentMethodNoncesResult.class), (Exception) isNull());
+        verify(braintreeClient, never()).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+    }
 }
@@ -0,0 +1,135 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import android.os.Parcel;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares {@link PaymentMethodNonceStreamParser} with the {@link JSONObject} tree parser it
+ * replaced on a customer with 1,000 vaulted payment methods. Timings and allocated bytes are
+ * printed for each parser; the test only fails if the two parsers disagree.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodNonceStreamParserBenchmarkTest {
+
+    private static final int PAYMENT_METHOD_COUNT = 1000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    private interface Parser {
+        List<PaymentMethodNonce> parse(String jsonBody) throws JSONException;
+    }
+
+    private String response;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        // cycles through a card, a PayPal account, an unsupported Google Pay card and a Venmo account
+        JSONArray fixture = new JSONObject(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE)
+                .getJSONArray("paymentMethods");
+
+        JSONArray paymentMethods = new JSONArray();
+        for (int i = 0; i < PAYMENT_METHOD_COUNT; i++) {
+            JSONObject paymentMethod = new JSONObject(fixture.getJSONObject(i % fixture.length()).toString());
+            paymentMethod.put("nonce", "nonce-" + i);
+            paymentMethods.put(paymentMethod);
+        }
+        response = new JSONObject().put("paymentMethods", paymentMethods).toString();
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_producesSameNoncesAsTreeParser() throws JSONException {
+        List<PaymentMethodNonce> expected = parseTree(response);
+        List<PaymentMethodNonce> actual = PaymentMethodNonceStreamParser.parsePaymentMethodNonces(response);
+
+        assertEquals(PAYMENT_METHOD_COUNT * 3 / 4, actual.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            assertArrayEquals(marshall(expected.get(i)), marshall(actual.get(i)));
+        }
+    }
+
+    @Test
+    public void benchmark_streamParserVersusTreeParser() throws JSONException {
+        String tree = measure("tree", PaymentMethodNonceStreamParserBenchmarkTest::parseTree);
+        String stream = measure("stream", PaymentMethodNonceStreamParser::parsePaymentMethodNonces);
+
+        System.out.println(String.format(Locale.US,
+                "Parsing %d vaulted payment methods:%n%s%n%s", PAYMENT_METHOD_COUNT, tree, stream));
+    }
+
+    private String measure(String name, Parser parser) throws JSONException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parser.parse(response);
+        }
+
+        long allocatedBytesBefore = getCurrentThreadAllocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            parser.parse(response);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocatedBytes = getCurrentThreadAllocatedBytes() - allocatedBytesBefore;
+
+        return String.format(Locale.US, "  %-6s %8.2f ms/op %12d bytes/op",
+                name, elapsedNanos / 1e6 / MEASURED_ITERATIONS, allocatedBytes / MEASURED_ITERATIONS);
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static byte[] marshall(PaymentMethodNonce paymentMethodNonce) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(paymentMethodNonce, 0);
+            return parcel.marshall();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    // The parser PaymentMethodClient used before PaymentMethodNonceStreamParser.
+    private static List<PaymentMethodNonce> parseTree(String jsonBody) throws JSONException {
+        JSONArray paymentMethods = new JSONObject(jsonBody).getJSONArray("paymentMethods");
+
+        List<PaymentMethodNonce> result = new ArrayList<>();
+        for (int i = 0; i < paymentMethods.length(); i++) {
+            JSONObject json = paymentMethods.getJSONObject(i);
+            switch (json.getString("type")) {
+                case "CreditCard":
+                    result.add(CardNonce.fromJSON(json));
+                    break;
+                case "PayPalAccount":
+                    result.add(PayPalAccountNonce.fromJSON(json));
+                    break;
+                case "VenmoAccount":
+                    result.add(VenmoAccountNonce.fromJSON(json));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodNonceStreamParserUnitTest {
+
+    @Test
+    public void parsePaymentMethodNonces_parsesVaultSupportedPaymentMethodsInOrder() throws JSONException {
+        List<PaymentMethodNonce> result = PaymentMethodNonceStreamParser
+                .parsePaymentMethodNonces(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE);
+
+        assertEquals(3, result.size());
+
+        CardNonce cardNonce = (CardNonce) result.get(0);
+        assertEquals("123456-12345-12345-a-adfa", cardNonce.getString());
+        assertEquals("Visa", cardNonce.getCardType());
+        assertEquals("1111", cardNonce.getLastFour());
+        assertTrue(cardNonce.isDefault());
+
+        PayPalAccountNonce payPalAccountNonce = (PayPalAccountNonce) result.get(1);
+        assertEquals("aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee", payPalAccountNonce.getString());
+        assertEquals("paypalaccount@example.com", payPalAccountNonce.getEmail());
+
+        VenmoAccountNonce venmoAccountNonce = (VenmoAccountNonce) result.get(2);
+        assertEquals("fake-venmo-nonce", venmoAccountNonce.getString());
+        assertEquals("happy-venmo-joe", venmoAccountNonce.getUsername());
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_whenTypeIsNotFirst_parsesPaymentMethod() throws JSONException {
+        String json = "{\"paymentMethods\": [{" +
+                "\"nonce\": \"card-nonce\"," +
+                "\"details\": {\"cardType\": \"Visa\", \"lastTwo\": \"11\", \"lastFour\": \"1111\"}," +
+                "\"type\": \"CreditCard\"" +
+                "}]}";
+
+        List<PaymentMethodNonce> result = PaymentMethodNonceStreamParser.parsePaymentMethodNonces(json);
+
+        assertEquals(1, result.size());
+        assertEquals("card-nonce", result.get(0).getString());
+        assertEquals("1111", ((CardNonce) result.get(0)).getLastFour());
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_skipsUnsupportedPaymentMethods() throws JSONException {
+        // the nested values of the unsupported entry are skipped rather than read
+        String json = "{\"paymentMethods\": [" +
+                "{\"type\": \"AndroidPayCard\", \"nonce\": \"google-pay-nonce\", \"details\": {\"binData\": [1, 2.5, null, {\"a\": true}]}}," +
+                "{\"type\": \"VenmoAccount\", \"nonce\": \"venmo-nonce\", \"details\": {\"username\": \"venmo-user\"}}" +
+                "]}";
+
+        List<PaymentMethodNonce> result = PaymentMethodNonceStreamParser.parsePaymentMethodNonces(json);
+
+        assertEquals(1, result.size());
+        assertEquals("venmo-nonce", result.get(0).getString());
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_whenTypesAreLast_skipsUnsupportedPaymentMethodsAndKeepsOrder() throws JSONException {
+        String json = "{\"paymentMethods\": [" +
+                "{\"nonce\": \"venmo-nonce\", \"details\": {\"username\": \"venmo-user\"}, \"type\": \"VenmoAccount\"}," +
+                "{\"nonce\": \"google-pay-nonce\", \"details\": {\"binData\": [1, {\"type\": \"CreditCard\"}]}, \"type\": \"AndroidPayCard\"}," +
+                "{\"nonce\": \"card-nonce\", \"details\": {\"cardType\": \"Visa\", \"lastTwo\": \"11\", \"lastFour\": \"1111\"}, \"type\": \"CreditCard\"}" +
+                "]}";
+
+        List<PaymentMethodNonce> result = PaymentMethodNonceStreamParser.parsePaymentMethodNonces(json);
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0) instanceof VenmoAccountNonce);
+        assertEquals("venmo-nonce", result.get(0).getString());
+        assertTrue(result.get(1) instanceof CardNonce);
+        assertEquals("card-nonce", result.get(1).getString());
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_whenPaymentMethodsKeyIsRepeated_parsesLastPaymentMethods() throws JSONException {
+        String json = "{\"paymentMethods\": [{\"type\": \"VenmoAccount\", \"nonce\": \"first-nonce\", \"details\": {\"username\": \"first-user\"}}]," +
+                "\"paymentMethods\": [{\"nonce\": \"last-nonce\", \"details\": {\"username\": \"last-user\"}, \"type\": \"VenmoAccount\"}]}";
+
+        List<PaymentMethodNonce> result = PaymentMethodNonceStreamParser.parsePaymentMethodNonces(json);
+
+        assertEquals(1, result.size());
+        assertEquals("last-nonce", result.get(0).getString());
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_ignoresOtherTopLevelKeys() throws JSONException {
+        String json = "{\"meta\": {\"count\": 0}, \"paymentMethods\": [], \"more\": [1, 2]}";
+
+        assertEquals(0, PaymentMethodNonceStreamParser.parsePaymentMethodNonces(json).size());
+    }
+
+    @Test(expected = JSONException.class)
+    public void parsePaymentMethodNonces_whenPaymentMethodsAreMissing_throwsJSONException() throws JSONException {
+        PaymentMethodNonceStreamParser.parsePaymentMethodNonces("{}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void parsePaymentMethodNonces_whenTypeIsMissing_throwsJSONException() throws JSONException {
+        PaymentMethodNonceStreamParser.parsePaymentMethodNonces("{\"paymentMethods\": [{\"nonce\": \"nonce\"}]}");
+    }
+
+    @Test
+    public void parsePaymentMethodNonces_whenJSONIsMalformed_throwsJSONException() {
+        try {
+            PaymentMethodNonceStreamParser.parsePaymentMethodNonces("{\"paymentMethods\": [{\"type\": ");
+            fail("Expected a JSONException");
+        } catch (JSONException e) {
+            assertTrue(e.getCause() != null);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.AppCompatImageButton;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodViewPoolUnitTest {
+
+    private static final int ROW_COUNT = PaymentMethodViewPool.PREINFLATED_VAULT_MANAGER_ROW_COUNT;
+
+    private AppCompatActivity activity;
+    private PaymentMethodViewPool sut;
+
+    @Before
+    public void beforeEach() {
+        activity = Robolectric.buildActivity(FragmentTestActivity.class).setup().get();
+        sut = new PaymentMethodViewPool();
+    }
+
+    @Test
+    public void createVaultManagerRow_withoutPreinflatedRows_inflatesOnMainThread() {
+        PaymentMethodItemView row = sut.createVaultManagerRow(activity);
+
+        assertNotNull(row.findViewById(R.id.bt_payment_method_delete_icon));
+        assertEquals(1, sut.getMainThreadInflationCount());
+    }
+
+    @Test
+    public void createVaultManagerRow_usesPreinflatedRowsFirst() throws InterruptedException {
+        sut.preinflateVaultManagerRows(activity);
+        awaitPreinflatedRows();
+        assertEquals(ROW_COUNT, sut.getBackgroundInflationCount());
+
+        for (int i = 0; i < ROW_COUNT; i++) {
+            PaymentMethodItemView row = sut.createVaultManagerRow(activity);
+            assertNotNull(row.findViewById(R.id.bt_payment_method_delete_icon));
+        }
+        assertEquals(0, sut.getMainThreadInflationCount());
+
+        sut.createVaultManagerRow(activity);
+        assertEquals(1, sut.getMainThreadInflationCount());
+    }
+
+    @Test
+    public void preinflateVaultManagerRows_inflatesRowsWithTheActivitysViewFactory() {
+        sut = new PaymentMethodViewPool(new BackgroundViewInflater(Runnable::run, Runnable::run));
+        sut.preinflateVaultManagerRows(activity);
+
+        PaymentMethodItemView preinflatedRow = sut.createVaultManagerRow(activity);
+        PaymentMethodItemView mainThreadRow = sut.createVaultManagerRow(activity);
+
+        // AppCompat's factory replaces the row's ImageButton
+        assertTrue(preinflatedRow.findViewById(R.id.bt_payment_method_delete_icon) instanceof AppCompatImageButton);
+        // the row's layout is its only child, as it is for rows inflated on the main thread
+        assertEquals(1, preinflatedRow.getChildCount());
+        assertSame(mainThreadRow.getChildAt(0).getClass(), preinflatedRow.getChildAt(0).getClass());
+        assertEquals(1, sut.getMainThreadInflationCount());
+    }
+
+    @Test
+    public void preinflateVaultManagerRows_whenCalledAgain_onlyTopsUpRows() throws InterruptedException {
+        sut.preinflateVaultManagerRows(activity);
+        sut.preinflateVaultManagerRows(activity);
+        awaitPreinflatedRows();
+
+        sut.createVaultManagerRow(activity);
+        sut.preinflateVaultManagerRows(activity);
+        awaitPreinflatedRows();
+
+        assertEquals(ROW_COUNT + 1, sut.getBackgroundInflationCount());
+    }
+
+    @Test
+    public void vaultManager_afterPreinflation_inflatesNothingOnMainThread() throws InterruptedException, JSONException {
+        sut.preinflateVaultManagerRows(activity);
+        awaitPreinflatedRows();
+
+        RecyclerView recyclerView = new RecyclerView(activity);
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setRecycledViewPool(sut.getRecycledViewPool());
+        VaultManagerPaymentMethodsAdapter adapter =
+                new VaultManagerPaymentMethodsAdapter(null, sut, Runnable::run);
+        recyclerView.setAdapter(adapter);
+        activity.setContentView(recyclerView, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        List<VaultedPaymentMethodDisplay> vault = new ArrayList<>();
+        for (PaymentMethodNonce paymentMethodNonce : DropInViewModelUnitTest.createCardNonces(ROW_COUNT)) {
+            vault.add(VaultedPaymentMethodDisplay.from(paymentMethodNonce, new PaymentMethodInspector()));
+        }
+        adapter.submitList(vault);
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(100_000, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1000, 100_000);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertNotNull(recyclerView.findViewHolderForAdapterPosition(ROW_COUNT - 1));
+        assertEquals(0, sut.getMainThreadInflationCount());
+    }
+
+    private void awaitPreinflatedRows() throws InterruptedException {
+        // rows are inflated on a background thread and handed over on the main looper
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sut.getPreinflatedVaultManagerRowCount() < ROW_COUNT && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertEquals(ROW_COUNT, sut.getPreinflatedVaultManagerRowCount());
+    }
+}
@@ -0,0 +1,72 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SingleFlightUnitTest {
+
+    @Test
+    public void execute_whenRequestInFlight_attachesCallerToPendingRequest() {
+        List<SingleFlight.Callback<String>> startedRequests = new ArrayList<>();
+        SingleFlight<String> sut = new SingleFlight<>();
+
+        SingleFlight.Callback<String> firstCallback = mock(SingleFlight.Callback.class);
+        SingleFlight.Callback<String> secondCallback = mock(SingleFlight.Callback.class);
+        sut.execute(startedRequests::add, firstCallback);
+        sut.execute(startedRequests::add, secondCallback);
+
+        assertEquals(1, startedRequests.size());
+
+        startedRequests.get(0).onResult("result", null);
+        verify(firstCallback).onResult("result", null);
+        verify(secondCallback).onResult("result", null);
+    }
+
+    @Test
+    public void execute_whenRequestFails_forwardsErrorToEveryCaller() {
+        List<SingleFlight.Callback<String>> startedRequests = new ArrayList<>();
+        SingleFlight<String> sut = new SingleFlight<>();
+
+        SingleFlight.Callback<String> firstCallback = mock(SingleFlight.Callback.class);
+        SingleFlight.Callback<String> secondCallback = mock(SingleFlight.Callback.class);
+        sut.execute(startedRequests::add, firstCallback);
+        sut.execute(startedRequests::add, secondCallback);
+
+        Exception error = new Exception("error");
+        startedRequests.get(0).onResult(null, error);
+        verify(firstCallback).onResult(null, error);
+        verify(secondCallback).onResult(null, error);
+    }
+
+    @Test
+    public void execute_afterRequestCompletes_startsNewRequest() {
+        List<SingleFlight.Callback<String>> startedRequests = new ArrayList<>();
+        SingleFlight<String> sut = new SingleFlight<>();
+
+        sut.execute(startedRequests::add, mock(SingleFlight.Callback.class));
+        startedRequests.get(0).onResult("first", null);
+
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+        sut.execute(startedRequests::add, callback);
+        assertEquals(2, startedRequests.size());
+
+        startedRequests.get(1).onResult("second", null);
+        verify(callback).onResult("second", null);
+    }
+
+    @Test
+    public void execute_whenRequestCompletesSynchronously_notifiesCaller() {
+        SingleFlight<String> sut = new SingleFlight<>();
+        SingleFlight.Callback<String> callback = mock(SingleFlight.Callback.class);
+
+        sut.execute(request -> request.onResult("result", null), callback);
+
+        verify(callback).onResult("result", null);
+    }
+}
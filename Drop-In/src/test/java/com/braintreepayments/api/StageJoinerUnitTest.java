@@ -0,0 +1,51 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+
+public class StageJoinerUnitTest {
+
+    @Test
+    public void complete_whenStagesOutstanding_doesNotRunOnComplete() {
+        Runnable onComplete = mock(Runnable.class);
+        StageJoiner sut = new StageJoiner(2, onComplete);
+
+        sut.complete(new StageJoiner.Result<String>(), "value", null);
+
+        verify(onComplete, never()).run();
+    }
+
+    @Test
+    public void complete_whenLastStageCompletes_runsOnCompleteOnce() {
+        Runnable onComplete = mock(Runnable.class);
+        StageJoiner sut = new StageJoiner(2, onComplete);
+
+        sut.complete(new StageJoiner.Result<String>(), "first", null);
+        sut.complete(new StageJoiner.Result<Boolean>(), true, null);
+
+        verify(onComplete, times(1)).run();
+    }
+
+    @Test
+    public void complete_storesValueAndErrorOnResult() {
+        StageJoiner sut = new StageJoiner(2, mock(Runnable.class));
+        StageJoiner.Result<String> valueResult = new StageJoiner.Result<>();
+        StageJoiner.Result<String> errorResult = new StageJoiner.Result<>();
+        Exception error = new Exception("error");
+
+        sut.complete(valueResult, "value", null);
+        sut.complete(errorResult, null, error);
+
+        assertEquals("value", valueResult.getValue());
+        assertNull(valueResult.getError());
+        assertNull(errorResult.getValue());
+        assertSame(error, errorResult.getError());
+    }
+}
@@ -0,0 +1,221 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class UnionPayCapabilitiesCacheUnitTest {
+
+    private static final String MERCHANT_KEY = "https://api.braintreegateway.com/merchants/merchant-id/client_api/v1/configuration";
+    private static final String CARD_NUMBER = "6212345678901232";
+
+    private UnionPayClient unionPayClient;
+    private LazyClient<UnionPayClient> lazyUnionPayClient;
+    private UnionPayCapabilities capabilities;
+    private FakeClock clock;
+    private UnionPayCapabilitiesCache sut;
+
+    @Before
+    public void beforeEach() {
+        unionPayClient = mock(UnionPayClient.class);
+        lazyUnionPayClient = new LazyClient<>(unionPayClient, () -> unionPayClient);
+        capabilities = mock(UnionPayCapabilities.class);
+        clock = new FakeClock();
+        sut = new UnionPayCapabilitiesCache(clock);
+    }
+
+    @Test
+    public void getBin_returnsFirstSixDigitsIgnoringSeparators() {
+        assertEquals("621234", UnionPayCapabilitiesCache.getBin("6212 3456 7890 1232"));
+        assertEquals("621234", UnionPayCapabilitiesCache.getBin("6212-34"));
+        assertNull(UnionPayCapabilitiesCache.getBin("62123"));
+        assertNull(UnionPayCapabilitiesCache.getBin(null));
+    }
+
+    @Test
+    public void fetchCapabilities_forwardsFullCardNumberToUnionPayClient() {
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+
+        verify(unionPayClient).fetchCapabilities(eq(CARD_NUMBER), any(UnionPayFetchCapabilitiesCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_whenBinWasFetched_answersFromCacheWithoutCreatingClient() {
+        LazyClient<UnionPayClient> unusedClient = new LazyClient<>(null, () -> unionPayClient);
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        answerFetch(0, capabilities, null);
+
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, "6212345678901265", unusedClient, callback);
+
+        verify(callback).onResult(capabilities, null);
+        verify(unionPayClient, times(1)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+        assertFalse(unusedClient.isCreated());
+    }
+
+    @Test
+    public void fetchCapabilities_whenEntryHasExpired_fetchesAgain() {
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        answerFetch(0, capabilities, null);
+
+        clock.now += UnionPayCapabilitiesCache.CAPABILITIES_TTL_MS - 1;
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        verify(unionPayClient, times(1)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+
+        clock.now += 1;
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, callback);
+
+        verify(unionPayClient, times(2)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+        verify(callback, never()).onResult(any(UnionPayCapabilities.class), any(Exception.class));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void fetchCapabilities_whenFull_evictsLeastRecentlyUsedBin() {
+        for (int i = 0; i < UnionPayCapabilitiesCache.MAX_ENTRIES; i++) {
+            sut.fetchCapabilities(MERCHANT_KEY, cardNumberWithBin(i), lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+            answerFetch(i, capabilities, null);
+        }
+        // a hit makes the first BIN the most recently used one
+        sut.fetchCapabilities(MERCHANT_KEY, cardNumberWithBin(0), lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+
+        int bin = UnionPayCapabilitiesCache.MAX_ENTRIES;
+        sut.fetchCapabilities(MERCHANT_KEY, cardNumberWithBin(bin), lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        answerFetch(bin, capabilities, null);
+
+        assertEquals(UnionPayCapabilitiesCache.MAX_ENTRIES, sut.size());
+        assertTrue(sut.getKeys().contains(getKey(cardNumberWithBin(0))));
+        assertFalse(sut.getKeys().contains(getKey(cardNumberWithBin(1))));
+        assertTrue(sut.getKeys().contains(getKey(cardNumberWithBin(bin))));
+    }
+
+    @Test
+    public void fetchCapabilities_whenBinIsBeingFetched_waitsForThatFetch() {
+        UnionPayFetchCapabilitiesCallback firstCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        UnionPayFetchCapabilitiesCallback secondCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, firstCallback);
+        sut.fetchCapabilities(MERCHANT_KEY, "6212345678901265", lazyUnionPayClient, secondCallback);
+
+        verify(unionPayClient, times(1)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+
+        answerFetch(0, capabilities, null);
+
+        verify(firstCallback).onResult(capabilities, null);
+        verify(secondCallback).onResult(capabilities, null);
+    }
+
+    @Test
+    public void fetchCapabilities_whenBinWasFetchedForAnotherMerchant_fetchesAgain() {
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        answerFetch(0, capabilities, null);
+
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities("other-merchant", CARD_NUMBER, lazyUnionPayClient, callback);
+
+        verify(unionPayClient, times(2)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+        verify(callback, never()).onResult(any(UnionPayCapabilities.class), any(Exception.class));
+    }
+
+    @Test
+    public void fetchCapabilities_whenBinIsBeingFetchedForAnotherMerchant_doesNotWaitForThatFetch() {
+        UnionPayFetchCapabilitiesCallback firstCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        UnionPayFetchCapabilitiesCallback secondCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, firstCallback);
+        sut.fetchCapabilities("other-merchant", CARD_NUMBER, lazyUnionPayClient, secondCallback);
+
+        ArgumentCaptor<UnionPayFetchCapabilitiesCallback> captor =
+                ArgumentCaptor.forClass(UnionPayFetchCapabilitiesCallback.class);
+        verify(unionPayClient, times(2)).fetchCapabilities(any(String.class), captor.capture());
+
+        captor.getAllValues().get(0).onResult(capabilities, null);
+
+        verify(firstCallback).onResult(capabilities, null);
+        verify(secondCallback, never()).onResult(any(UnionPayCapabilities.class), any(Exception.class));
+    }
+
+    @Test
+    public void fetchCapabilities_whenFetchFails_doesNotCacheError() {
+        Exception error = new Exception("error");
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, callback);
+        answerFetch(0, null, error);
+
+        verify(callback).onResult(null, error);
+        assertEquals(0, sut.size());
+        assertTrue(sut.getKeys().isEmpty());
+
+        sut.fetchCapabilities(MERCHANT_KEY, CARD_NUMBER, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        verify(unionPayClient, times(2)).fetchCapabilities(any(String.class), any(UnionPayFetchCapabilitiesCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_whenCardNumberIsShorterThanBin_bypassesCache() {
+        UnionPayFetchCapabilitiesCallback callback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(MERCHANT_KEY, "62123", lazyUnionPayClient, callback);
+
+        verify(unionPayClient).fetchCapabilities("62123", callback);
+        assertTrue(sut.getKeys().isEmpty());
+    }
+
+    @Test
+    public void fetchCapabilities_neverStoresFullCardNumber() {
+        String formattedCardNumber = "6212 3456 7890 1232";
+        sut.fetchCapabilities(MERCHANT_KEY, formattedCardNumber, lazyUnionPayClient, mock(UnionPayFetchCapabilitiesCallback.class));
+        assertKeysAreBins();
+
+        answerFetch(0, capabilities, null);
+        assertKeysAreBins();
+    }
+
+    private void assertKeysAreBins() {
+        assertEquals(Collections.singleton(MERCHANT_KEY + "|621234"), sut.getKeys());
+    }
+
+    private static String getKey(String cardNumber) {
+        return MERCHANT_KEY + "|" + UnionPayCapabilitiesCache.getBin(cardNumber);
+    }
+
+    /**
+     * Answers the {@code fetch}-th call to {@link UnionPayClient#fetchCapabilities}.
+     */
+    private void answerFetch(int fetch, UnionPayCapabilities result, Exception error) {
+        ArgumentCaptor<UnionPayFetchCapabilitiesCallback> captor =
+                ArgumentCaptor.forClass(UnionPayFetchCapabilitiesCallback.class);
+        verify(unionPayClient, times(fetch + 1)).fetchCapabilities(any(String.class), captor.capture());
+
+        List<UnionPayFetchCapabilitiesCallback> callbacks = captor.getAllValues();
+        callbacks.get(fetch).onResult(result, error);
+    }
+
+    private static String cardNumberWithBin(int bin) {
+        return String.format("%06d", 620000 + bin) + "7890123";
+    }
+
+    private static class FakeClock extends DropInClock {
+
+        long now = 1000;
+
+        @Override
+        long elapsedRealtime() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultDeletionQueueUnitTest {
+
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private RecordingDeleter deleter;
+    private VaultDeletionQueue.Listener listener;
+    private VaultDeletionQueue sut;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(4);
+        deleter = new RecordingDeleter();
+        listener = mock(VaultDeletionQueue.Listener.class);
+        sut = new VaultDeletionQueue(2, listener);
+    }
+
+    @Test
+    public void enqueue_startsAtMostMaxConcurrentDeletions() {
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            sut.enqueue(Collections.singletonList(paymentMethodNonce), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+        }
+
+        assertEquals(2, deleter.requests.size());
+        assertEquals(2, sut.getRunningDeletionCount());
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            assertTrue(sut.isPending(paymentMethodNonce));
+        }
+    }
+
+    @Test
+    public void enqueue_whenPaymentMethodIsAlreadyBeingDeleted_mergesIntoPendingDeletion() {
+        DeletePaymentMethodNoncesCallback repeatCallback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.enqueue(paymentMethodNonces.subList(0, 1), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+
+        List<PaymentMethodNonce> merged = sut.enqueue(paymentMethodNonces.subList(0, 1), deleter, repeatCallback);
+        List<PaymentMethodNonce> partlyMerged = sut.enqueue(paymentMethodNonces.subList(0, 2), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+
+        assertTrue(merged.isEmpty());
+        assertEquals(Collections.singletonList(paymentMethodNonces.get(1)), partlyMerged);
+        assertEquals(2, deleter.requests.size());
+        assertEquals(Collections.singletonList(paymentMethodNonces.get(1)), deleter.requests.get(1).paymentMethodNonces);
+
+        deleter.succeed(0);
+        verifyZeroInteractions(repeatCallback);
+    }
+
+    @Test
+    public void getPaymentMethodKey_isTheSameForARefetchedNonceOfTheSamePaymentMethod() throws JSONException {
+        JSONObject json = new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD);
+        PaymentMethodNonce paymentMethodNonce = CardNonce.fromJSON(json.put("nonce", "card-nonce"));
+        PaymentMethodNonce refetchedNonce = CardNonce.fromJSON(json.put("nonce", "refetched-nonce"));
+        json.getJSONObject("details").put("lastFour", "2222");
+        PaymentMethodNonce otherCardNonce = CardNonce.fromJSON(json);
+
+        assertEquals(VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonce),
+                VaultDeletionQueue.getPaymentMethodKey(refetchedNonce));
+        assertNotEquals(VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonce),
+                VaultDeletionQueue.getPaymentMethodKey(otherCardNonce));
+    }
+
+    @Test
+    public void getPendingCount_countsPendingPaymentMethodsByKeyUntilTheirDeleteFinishes() {
+        String key = VaultDeletionQueue.getPaymentMethodKey(paymentMethodNonces.get(0));
+        sut.enqueue(paymentMethodNonces.subList(0, 2), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+        sut.enqueue(paymentMethodNonces.subList(2, 3), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+
+        // every card nonce of the fixture is the same card
+        assertEquals(3, sut.getPendingCount(key));
+
+        deleter.succeed(0);
+        assertEquals(1, sut.getPendingCount(key));
+
+        deleter.fail(1, new Exception("error"));
+        assertEquals(0, sut.getPendingCount(key));
+    }
+
+    @Test
+    public void deletionsCompletingOutOfOrder_eachReportTheirOwnResultAndStartWaitingDeletionsInOrder() {
+        DeletePaymentMethodNoncesCallback firstCallback = mock(DeletePaymentMethodNoncesCallback.class);
+        DeletePaymentMethodNoncesCallback secondCallback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.enqueue(paymentMethodNonces.subList(0, 1), deleter, firstCallback);
+        sut.enqueue(paymentMethodNonces.subList(1, 2), deleter, secondCallback);
+        sut.enqueue(paymentMethodNonces.subList(2, 3), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+        sut.enqueue(paymentMethodNonces.subList(3, 4), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+
+        DeletePaymentMethodNoncesResult secondResult = deleter.succeed(1);
+
+        verify(secondCallback).onResult(secondResult, null);
+        verify(firstCallback, never()).onResult(secondResult, null);
+        verify(listener).onDeletionFinished(Collections.singletonList(paymentMethodNonces.get(1)));
+        assertFalse(sut.isPending(paymentMethodNonces.get(1)));
+        assertTrue(sut.isPending(paymentMethodNonces.get(0)));
+        assertEquals(3, deleter.requests.size());
+        assertEquals(paymentMethodNonces.subList(2, 3), deleter.requests.get(2).paymentMethodNonces);
+
+        Exception error = new Exception("error");
+        deleter.fail(0, error);
+
+        verify(firstCallback).onResult(null, error);
+        assertEquals(4, deleter.requests.size());
+        assertEquals(paymentMethodNonces.subList(3, 4), deleter.requests.get(3).paymentMethodNonces);
+        assertEquals(2, sut.getRunningDeletionCount());
+    }
+
+    @Test
+    public void onDeletionFinished_notifiesListenerBeforeCallback() {
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.enqueue(paymentMethodNonces.subList(0, 2), deleter, callback);
+
+        PaymentMethodDeleteException failure = new PaymentMethodDeleteException(paymentMethodNonces.get(1), new Exception("error"));
+        DeletePaymentMethodNoncesResult result = new DeletePaymentMethodNoncesResult(
+                Collections.singletonList(paymentMethodNonces.get(0)), Collections.singletonList(failure));
+        deleter.requests.get(0).callback.onResult(result, null);
+
+        InOrder inOrder = inOrder(listener, callback);
+        inOrder.verify(listener).onDeletionFinished(Collections.singletonList(paymentMethodNonces.get(0)));
+        inOrder.verify(callback).onResult(result, null);
+        assertFalse(sut.hasPendingDeletions());
+    }
+
+    @Test
+    public void onDeletionFinished_whenRequestAnswersTwice_reportsOnce() {
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.enqueue(paymentMethodNonces.subList(0, 1), deleter, callback);
+
+        DeletePaymentMethodNoncesResult result = deleter.succeed(0);
+        deleter.requests.get(0).callback.onResult(result, null);
+
+        verify(callback).onResult(result, null);
+        assertEquals(0, sut.getRunningDeletionCount());
+    }
+
+    @Test
+    public void flush_startsEveryWaitingDeletion() {
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            sut.enqueue(Collections.singletonList(paymentMethodNonce), deleter, mock(DeletePaymentMethodNoncesCallback.class));
+        }
+
+        sut.flush();
+
+        assertEquals(4, deleter.requests.size());
+        assertEquals(4, sut.getRunningDeletionCount());
+        assertSame(paymentMethodNonces.get(3), deleter.requests.get(3).paymentMethodNonces.get(0));
+    }
+
+    /**
+     * Records delete requests so tests can answer them in any order.
+     */
+    static class RecordingDeleter implements VaultDeletionQueue.Deleter {
+
+        final List<Request> requests = new ArrayList<>();
+
+        @Override
+        public void delete(List<PaymentMethodNonce> paymentMethodNonces, DeletePaymentMethodNoncesCallback callback) {
+            requests.add(new Request(paymentMethodNonces, callback));
+        }
+
+        DeletePaymentMethodNoncesResult succeed(int request) {
+            Request deleteRequest = requests.get(request);
+            DeletePaymentMethodNoncesResult result = new DeletePaymentMethodNoncesResult(
+                    new ArrayList<>(deleteRequest.paymentMethodNonces), new ArrayList<>());
+            deleteRequest.callback.onResult(result, null);
+            return result;
+        }
+
+        DeletePaymentMethodNoncesResult failToDelete(int request) {
+            Request deleteRequest = requests.get(request);
+            List<PaymentMethodDeleteException> failures = new ArrayList<>();
+            for (PaymentMethodNonce paymentMethodNonce : deleteRequest.paymentMethodNonces) {
+                failures.add(new PaymentMethodDeleteException(paymentMethodNonce, new Exception("error")));
+            }
+            DeletePaymentMethodNoncesResult result =
+                    new DeletePaymentMethodNoncesResult(new ArrayList<>(), failures);
+            deleteRequest.callback.onResult(result, null);
+            return result;
+        }
+
+        void fail(int request, Exception error) {
+            requests.get(request).callback.onResult(null, error);
+        }
+
+        static class Request {
+
+            final List<PaymentMethodNonce> paymentMethodNonces;
+            final DeletePaymentMethodNoncesCallback callback;
+
+            Request(List<PaymentMethodNonce> paymentMethodNonces, DeletePaymentMethodNoncesCallback callback) {
+                this.paymentMethodNonces = paymentMethodNonces;
+                this.callback = callback;
+            }
+        }
+    }
+}
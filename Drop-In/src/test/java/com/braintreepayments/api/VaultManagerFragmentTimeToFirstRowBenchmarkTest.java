@@ -0,0 +1,93 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the time from vaulted payment methods being set on the {@link DropInViewModel} until
+ * the first row of the vault manager is laid out, for vaults of increasing size. Paging keeps the
+ * work done before the first row independent of vault size; times are printed, and the test
+ * fails if more than one page is handed to the list up front.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class VaultManagerFragmentTimeToFirstRowBenchmarkTest {
+
+    private static final int[] VAULT_SIZES = {10, 100, 1000, 5000};
+    private static final int PAGE_SIZE = DropInViewModel.VAULTED_PAYMENT_METHODS_PAGE_SIZE;
+
+    @Test
+    public void benchmark_timeToFirstRow() throws JSONException {
+        // warm up class loading and view inflation
+        measureTimeToFirstRow(DropInViewModelUnitTest.createCardNonces(PAGE_SIZE));
+
+        StringBuilder report = new StringBuilder("Vault manager time to first row:");
+        for (int vaultSize : VAULT_SIZES) {
+            List<PaymentMethodNonce> paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(vaultSize);
+            long elapsedNanos = measureTimeToFirstRow(paymentMethodNonces);
+            report.append(String.format(Locale.US, "%n  %5d payment methods %8.2f ms",
+                    vaultSize, elapsedNanos / 1e6));
+        }
+        System.out.println(report);
+    }
+
+    @Test
+    public void scrollingNearTheEnd_loadsNextPage() throws JSONException {
+        VaultManagerFragment fragment = launchVaultManagerFragment();
+        RecyclerView recyclerView = fragment.requireView().findViewById(R.id.bt_vault_manager_list);
+
+        fragment.dropInViewModel.setVaultedPaymentMethods(DropInViewModelUnitTest.createCardNonces(PAGE_SIZE * 3));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(PAGE_SIZE, recyclerView.getAdapter().getItemCount());
+
+        recyclerView.scrollToPosition(PAGE_SIZE - 1);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(PAGE_SIZE * 2, recyclerView.getAdapter().getItemCount());
+        assertTrue(fragment.dropInViewModel.hasMoreVaultedPaymentMethods());
+    }
+
+    private long measureTimeToFirstRow(List<PaymentMethodNonce> paymentMethodNonces) {
+        VaultManagerFragment fragment = launchVaultManagerFragment();
+        RecyclerView recyclerView = fragment.requireView().findViewById(R.id.bt_vault_manager_list);
+
+        long startNanos = System.nanoTime();
+        fragment.dropInViewModel.setVaultedPaymentMethods(paymentMethodNonces);
+        shadowOf(Looper.getMainLooper()).idle();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertNotNull(recyclerView.findViewHolderForAdapterPosition(0));
+        assertTrue(recyclerView.getAdapter().getItemCount() <= PAGE_SIZE);
+        return elapsedNanos;
+    }
+
+    private static VaultManagerFragment launchVaultManagerFragment() {
+        FragmentTestActivity activity = Robolectric.buildActivity(FragmentTestActivity.class).setup().get();
+        // a new activity per launch, so every measurement starts from an empty view model
+        VaultManagerFragment fragment = new VaultManagerFragment();
+        // pages are diffed on the test thread so idling the main looper applies them
+        fragment.diffExecutor = Runnable::run;
+        activity.getSupportFragmentManager()
+                .beginTransaction()
+                .add(1, fragment)
+                .commitNow();
+        shadowOf(Looper.getMainLooper()).idle();
+        return fragment;
+    }
+}
@@ -0,0 +1,200 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultManagerPaymentMethodsAdapterUnitTest {
+
+    private AppCompatActivity activity;
+    private FrameLayout parent;
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private VaultManagerPaymentMethodsAdapter.OnSelectionChangedListener selectionChangedListener;
+
+    private VaultManagerPaymentMethodsAdapter sut;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        activity = Robolectric.buildActivity(FragmentTestActivity.class).setup().get();
+        parent = new FrameLayout(activity);
+        paymentMethodNonces = DropInViewModelUnitTest.createCardNonces(3);
+        selectionChangedListener = mock(VaultManagerPaymentMethodsAdapter.OnSelectionChangedListener.class);
+
+        // diffs on the test thread, so idling the main looper applies submitted lists
+        sut = new VaultManagerPaymentMethodsAdapter(null, new PaymentMethodViewPool(), Runnable::run);
+        sut.setOnSelectionChangedListener(selectionChangedListener);
+        submitList(paymentMethodNonces);
+    }
+
+    @Test
+    public void longClick_selectsPaymentMethod() {
+        VaultManagerPaymentMethodsAdapter.ViewHolder holder = bind(1);
+
+        holder.itemView.performLongClick();
+
+        verify(selectionChangedListener).onSelectionChanged(Collections.singletonList(paymentMethodNonces.get(1)));
+        assertTrue(bind(1).itemView.isActivated());
+    }
+
+    @Test
+    public void click_whenNothingIsSelected_doesNotSelect() {
+        bind(0).itemView.performClick();
+
+        verify(selectionChangedListener, never()).onSelectionChanged(Collections.singletonList(paymentMethodNonces.get(0)));
+        assertTrue(sut.getSelectedPaymentMethodNonces().isEmpty());
+    }
+
+    @Test
+    public void click_whileSelecting_togglesSelection() {
+        bind(0).itemView.performLongClick();
+        bind(2).itemView.performClick();
+        assertEquals(Arrays.asList(paymentMethodNonces.get(0), paymentMethodNonces.get(2)),
+                sut.getSelectedPaymentMethodNonces());
+
+        bind(0).itemView.performClick();
+        assertEquals(Collections.singletonList(paymentMethodNonces.get(2)), sut.getSelectedPaymentMethodNonces());
+        assertFalse(bind(0).itemView.isActivated());
+    }
+
+    @Test
+    public void submitList_withNextPage_keepsSelection() throws JSONException {
+        bind(0).itemView.performLongClick();
+
+        List<PaymentMethodNonce> loaded = new ArrayList<>(paymentMethodNonces);
+        loaded.addAll(DropInViewModelUnitTest.createCardNonces(5).subList(3, 5));
+        submitList(loaded);
+
+        assertEquals(5, sut.getItemCount());
+        assertEquals(Collections.singletonList(paymentMethodNonces.get(0)), sut.getSelectedPaymentMethodNonces());
+    }
+
+    @Test
+    public void submitList_withoutSelectedPaymentMethod_deselectsIt() {
+        bind(0).itemView.performLongClick();
+        bind(1).itemView.performClick();
+
+        submitList(paymentMethodNonces.subList(1, 3));
+
+        assertEquals(Collections.singletonList(paymentMethodNonces.get(1)), sut.getSelectedPaymentMethodNonces());
+        verify(selectionChangedListener).onSelectionChanged(Collections.singletonList(paymentMethodNonces.get(1)));
+    }
+
+    @Test
+    public void getItemId_isStableAcrossDeletions() {
+        long itemId = sut.getItemId(2);
+
+        submitList(paymentMethodNonces.subList(1, 3));
+
+        assertEquals(itemId, sut.getItemId(1));
+    }
+
+    @Test
+    public void onBindViewHolder_setsDeleteIconContentDescription() {
+        View deleteIcon = bind(0).itemView.findViewById(R.id.bt_payment_method_delete_icon);
+
+        assertEquals("Delete VISA 1111", deleteIcon.getContentDescription());
+    }
+
+    @Test
+    public void submitList_whenOneOf200PaymentMethodsIsDeleted_onlyRemovesItsRow() throws JSONException {
+        final int[] createdViewHolderCount = {0};
+        final Set<String> boundNonces = new HashSet<>();
+        VaultManagerPaymentMethodsAdapter adapter = new VaultManagerPaymentMethodsAdapter(null, new PaymentMethodViewPool(), Runnable::run) {
+            @NonNull
+            @Override
+            public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+                createdViewHolderCount[0]++;
+                return super.onCreateViewHolder(parent, viewType);
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+                boundNonces.add(getItem(position).getPaymentMethodNonce().getString());
+                super.onBindViewHolder(holder, position);
+            }
+        };
+
+        RecyclerView recyclerView = new RecyclerView(activity);
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setAdapter(adapter);
+        // tall enough to lay out all 200 rows, so no row scrolls into view after the deletion
+        activity.setContentView(recyclerView, new ViewGroup.LayoutParams(1000, 200_000));
+
+        List<PaymentMethodNonce> vault = DropInViewModelUnitTest.createCardNonces(200);
+        adapter.submitList(createDisplays(vault));
+        layout(recyclerView);
+        assertNotNull(recyclerView.findViewHolderForAdapterPosition(199));
+
+        createdViewHolderCount[0] = 0;
+        boundNonces.clear();
+
+        List<PaymentMethodNonce> vaultAfterDeletion = new ArrayList<>(vault);
+        vaultAfterDeletion.remove(100);
+        adapter.submitList(createDisplays(vaultAfterDeletion));
+        layout(recyclerView);
+
+        assertEquals(199, adapter.getItemCount());
+        assertEquals(0, createdViewHolderCount[0]);
+        assertTrue(boundNonces.isEmpty());
+    }
+
+    private void layout(RecyclerView recyclerView) {
+        shadowOf(Looper.getMainLooper()).idle();
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(200_000, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1000, 200_000);
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private void submitList(List<PaymentMethodNonce> paymentMethodNonces) {
+        sut.submitList(createDisplays(paymentMethodNonces));
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static List<VaultedPaymentMethodDisplay> createDisplays(List<PaymentMethodNonce> paymentMethodNonces) {
+        List<VaultedPaymentMethodDisplay> displays = new ArrayList<>();
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            displays.add(VaultedPaymentMethodDisplay.from(paymentMethodNonce, new PaymentMethodInspector()));
+        }
+        return displays;
+    }
+
+    private VaultManagerPaymentMethodsAdapter.ViewHolder bind(int position) {
+        VaultManagerPaymentMethodsAdapter.ViewHolder holder = sut.onCreateViewHolder(parent, 0);
+        sut.onBindViewHolder(holder, position);
+        return holder;
+    }
+}
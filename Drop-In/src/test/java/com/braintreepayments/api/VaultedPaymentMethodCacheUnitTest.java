@@ -0,0 +1,183 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.util.Base64;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultedPaymentMethodCacheUnitTest {
+
+    private static final String CUSTOMER_KEY = "customer-id";
+    private static final long TIME_TO_LIVE = 1000;
+    private static final String PRODUCTION_CONFIG_URL =
+            "https://api.braintreegateway.com:443/merchants/merchant-id/client_api/v1/configuration";
+
+    private DropInClock clock;
+    private VaultedPaymentMethodCache sut;
+
+    @Before
+    public void beforeEach() {
+        clock = mock(DropInClock.class);
+        when(clock.elapsedRealtime()).thenReturn(0L);
+        sut = new VaultedPaymentMethodCache(clock);
+    }
+
+    @Test
+    public void get_whenEmpty_returnsNull() {
+        assertNull(sut.get(CUSTOMER_KEY));
+    }
+
+    @Test
+    public void get_whenEntryExists_returnsPaymentMethods() throws JSONException {
+        CardNonce cardNonce = createCardNonce("nonce-1");
+        sut.put(CUSTOMER_KEY, Collections.singletonList(cardNonce), sut.getGeneration());
+
+        List<PaymentMethodNonce> result = sut.get(CUSTOMER_KEY);
+
+        assertEquals(1, result.size());
+        assertEquals("nonce-1", result.get(0).getString());
+    }
+
+    @Test
+    public void get_isScopedToCustomer() throws JSONException {
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), sut.getGeneration());
+
+        assertNull(sut.get("other-customer-id"));
+    }
+
+    @Test
+    public void isStale_whenYoungerThanTimeToLive_returnsFalse() throws JSONException {
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), sut.getGeneration());
+        when(clock.elapsedRealtime()).thenReturn(TIME_TO_LIVE - 1);
+
+        assertFalse(sut.isStale(CUSTOMER_KEY, TIME_TO_LIVE));
+    }
+
+    @Test
+    public void isStale_whenOlderThanTimeToLive_returnsTrueAndEntryIsStillServed() throws JSONException {
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), sut.getGeneration());
+        when(clock.elapsedRealtime()).thenReturn(TIME_TO_LIVE);
+
+        assertTrue(sut.isStale(CUSTOMER_KEY, TIME_TO_LIVE));
+        assertEquals(1, sut.get(CUSTOMER_KEY).size());
+    }
+
+    @Test
+    public void get_whenOlderThanMaxStaleAge_returnsNull() throws JSONException {
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), sut.getGeneration());
+        when(clock.elapsedRealtime()).thenReturn(VaultedPaymentMethodCache.MAX_STALE_AGE_MS + 1);
+
+        assertNull(sut.get(CUSTOMER_KEY));
+    }
+
+    @Test
+    public void invalidate_removesEntry() throws JSONException {
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), sut.getGeneration());
+
+        sut.invalidate(CUSTOMER_KEY);
+
+        assertNull(sut.get(CUSTOMER_KEY));
+    }
+
+    @Test
+    public void put_whenInvalidatedDuringFetch_doesNotCacheResult() throws JSONException {
+        int generation = sut.getGeneration();
+        sut.invalidate(CUSTOMER_KEY);
+
+        sut.put(CUSTOMER_KEY, Collections.singletonList(createCardNonce("nonce-1")), generation);
+
+        assertNull(sut.get(CUSTOMER_KEY));
+    }
+
+    @Test
+    public void markConsumed_dropsNonceAndRequiresRevalidation() throws JSONException {
+        CardNonce consumedNonce = createCardNonce("nonce-1");
+        CardNonce otherNonce = createCardNonce("nonce-2");
+        sut.put(CUSTOMER_KEY, Arrays.<PaymentMethodNonce>asList(consumedNonce, otherNonce), sut.getGeneration());
+
+        sut.markConsumed(consumedNonce);
+
+        List<PaymentMethodNonce> result = sut.get(CUSTOMER_KEY);
+        assertEquals(1, result.size());
+        assertEquals("nonce-2", result.get(0).getString());
+        assertTrue(sut.isStale(CUSTOMER_KEY, TIME_TO_LIVE));
+    }
+
+    @Test
+    public void getCustomerKey_whenTokenizationKey_returnsNull() {
+        assertNull(VaultedPaymentMethodCache.getCustomerKey(
+                Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+    }
+
+    @Test
+    public void getCustomerKey_whenClientToken_returnsFingerprintScopedToConfigUrl() {
+        assertEquals("encoded_capi_configuration_url|encoded_auth_fingerprint", VaultedPaymentMethodCache.getCustomerKey(
+                Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN)));
+    }
+
+    @Test
+    public void getCustomerKey_whenFingerprintContainsCustomerId_returnsCustomerIdScopedToMerchant() throws JSONException {
+        String clientToken = createClientToken(PRODUCTION_CONFIG_URL,
+                "fingerprint|created_at=2021-01-01&customer_id=customer-42&public_key=key");
+
+        assertEquals("api.braintreegateway.com/merchant-id|customer-42",
+                VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(clientToken)));
+    }
+
+    @Test
+    public void getCustomerKey_whenFingerprintHasCustomerIdInQuery_returnsSameKeyForEveryClientToken() throws JSONException {
+        String clientToken = createClientToken(PRODUCTION_CONFIG_URL,
+                "eyJhbGciOiJFUzI1NiJ9.first.signature?customer_id=customer-42&merchant_account_id=account");
+        String nextClientToken = createClientToken(PRODUCTION_CONFIG_URL,
+                "eyJhbGciOiJFUzI1NiJ9.second.signature?customer_id=customer-42");
+
+        String customerKey = VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(clientToken));
+        assertEquals("api.braintreegateway.com/merchant-id|customer-42", customerKey);
+        assertEquals(customerKey,
+                VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(nextClientToken)));
+    }
+
+    @Test
+    public void getCustomerKey_whenSameCustomerIdBelongsToAnotherMerchantOrEnvironment_returnsDifferentKeys() throws JSONException {
+        String fingerprint = "jwt?customer_id=customer-42";
+        String production = VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(
+                createClientToken(PRODUCTION_CONFIG_URL, fingerprint)));
+        String sandbox = VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(
+                createClientToken("https://api.sandbox.braintreegateway.com:443/merchants/merchant-id/client_api/v1/configuration", fingerprint)));
+        String otherMerchant = VaultedPaymentMethodCache.getCustomerKey(Authorization.fromString(
+                createClientToken("https://api.braintreegateway.com:443/merchants/other-merchant-id/client_api/v1/configuration", fingerprint)));
+
+        assertNotEquals(production, sandbox);
+        assertNotEquals(production, otherMerchant);
+    }
+
+    private static String createClientToken(String configUrl, String authorizationFingerprint) throws JSONException {
+        JSONObject clientToken = new JSONObject()
+                .put("configUrl", configUrl)
+                .put("authorizationFingerprint", authorizationFingerprint);
+        return Base64.encodeToString(clientToken.toString().getBytes(), Base64.NO_WRAP);
+    }
+
+    private static CardNonce createCardNonce(String nonce) throws JSONException {
+        JSONObject json = new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD);
+        json.put("nonce", nonce);
+        return CardNonce.fromJSON(json);
+    }
+}
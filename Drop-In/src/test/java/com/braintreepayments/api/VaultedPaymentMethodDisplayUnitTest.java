@@ -0,0 +1,64 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VaultedPaymentMethodDisplayUnitTest {
+
+    private PaymentMethodInspector nonceInspector;
+
+    @Before
+    public void beforeEach() {
+        nonceInspector = mock(PaymentMethodInspector.class);
+    }
+
+    @Test
+    public void from_inspectsPaymentMethodNonce() {
+        PayPalAccountNonce payPalNonce = mock(PayPalAccountNonce.class);
+        when(nonceInspector.getPaymentMethod(payPalNonce)).thenReturn(DropInPaymentMethod.PAYPAL);
+        when(nonceInspector.getPaymentMethodDescription(payPalNonce)).thenReturn("sample@user.com");
+
+        VaultedPaymentMethodDisplay sut = VaultedPaymentMethodDisplay.from(payPalNonce, nonceInspector);
+
+        assertSame(payPalNonce, sut.getPaymentMethodNonce());
+        assertEquals(DropInPaymentMethod.PAYPAL, sut.getPaymentMethodType());
+        assertEquals(R.drawable.bt_ic_paypal, sut.getDrawable());
+        assertEquals(R.drawable.bt_ic_vaulted_paypal, sut.getVaultedDrawable());
+        assertEquals(R.string.bt_descriptor_paypal, sut.getTitle());
+        assertEquals("sample@user.com", sut.getDescription());
+        assertEquals("PAYPAL sample@user.com", sut.getContentDescription());
+    }
+
+    @Test
+    public void from_whenCardBrandIsNotRecognized_displaysUnknownCard() {
+        CardNonce cardNonce = mock(CardNonce.class);
+        when(nonceInspector.getPaymentMethodDescription(cardNonce)).thenReturn("1234");
+
+        VaultedPaymentMethodDisplay sut = VaultedPaymentMethodDisplay.from(cardNonce, nonceInspector);
+
+        assertNull(sut.getPaymentMethodType());
+        assertEquals(R.drawable.bt_ic_vaulted_unknown, sut.getVaultedDrawable());
+        assertEquals(R.string.bt_descriptor_unknown, sut.getTitle());
+        assertEquals("UNKNOWN 1234", sut.getContentDescription());
+    }
+
+    @Test
+    public void getDeleteContentDescription_isFormattedOncePerLabel() {
+        VaultedPaymentMethodDisplay sut =
+                new VaultedPaymentMethodDisplay(mock(CardNonce.class), DropInPaymentMethod.VISA, "1111");
+
+        String deleteContentDescription = sut.getDeleteContentDescription("Delete");
+        assertEquals("Delete VISA 1111", deleteContentDescription);
+        assertSame(deleteContentDescription, sut.getDeleteContentDescription("Delete"));
+
+        assertEquals("Eliminar VISA 1111", sut.getDeleteContentDescription("Eliminar"));
+    }
+}